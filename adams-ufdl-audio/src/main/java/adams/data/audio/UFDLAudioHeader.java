@@ -0,0 +1,260 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLAudioHeader.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.data.audio;
+
+import net.minidev.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+
+/**
+ * Obtains basic information (duration, sample rate, channels) from the
+ * headers of WAV and FLAC files, without decoding the audio data.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class UFDLAudioHeader
+  implements Serializable {
+
+  private static final long serialVersionUID = -2637530197413005370L;
+
+  /** the key for the duration in seconds. */
+  public static final String KEY_DURATION = "duration";
+
+  /** the key for the sample rate. */
+  public static final String KEY_SAMPLE_RATE = "sample_rate";
+
+  /** the key for the number of channels. */
+  public static final String KEY_CHANNELS = "channels";
+
+  /** the duration in seconds. */
+  protected double m_Duration;
+
+  /** the sample rate. */
+  protected int m_SampleRate;
+
+  /** the number of channels. */
+  protected int m_Channels;
+
+  /**
+   * Initializes the header information.
+   *
+   * @param duration	the duration in seconds
+   * @param sampleRate	the sample rate
+   * @param channels	the number of channels
+   */
+  public UFDLAudioHeader(double duration, int sampleRate, int channels) {
+    m_Duration   = duration;
+    m_SampleRate = sampleRate;
+    m_Channels   = channels;
+  }
+
+  /**
+   * Returns the duration.
+   *
+   * @return		the duration in seconds
+   */
+  public double getDuration() {
+    return m_Duration;
+  }
+
+  /**
+   * Returns the sample rate.
+   *
+   * @return		the sample rate
+   */
+  public int getSampleRate() {
+    return m_SampleRate;
+  }
+
+  /**
+   * Returns the number of channels.
+   *
+   * @return		the channels
+   */
+  public int getChannels() {
+    return m_Channels;
+  }
+
+  /**
+   * Returns the information as JSON object.
+   *
+   * @return		the JSON object
+   */
+  public JSONObject toJson() {
+    JSONObject	result;
+
+    result = new JSONObject();
+    result.put(KEY_DURATION, m_Duration);
+    result.put(KEY_SAMPLE_RATE, m_SampleRate);
+    result.put(KEY_CHANNELS, m_Channels);
+
+    return result;
+  }
+
+  /**
+   * Returns a short description of the header.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return "duration=" + m_Duration + ", sampleRate=" + m_SampleRate + ", channels=" + m_Channels;
+  }
+
+  /**
+   * Reads a little-endian integer.
+   *
+   * @param buf		the buffer to read from
+   * @param offset	the offset in the buffer
+   * @param len		the number of bytes (max 4)
+   * @return		the value
+   */
+  protected static long readLE(byte[] buf, int offset, int len) {
+    long	result;
+    int		i;
+
+    result = 0;
+    for (i = len - 1; i >= 0; i--)
+      result = (result << 8) | (buf[offset + i] & 0xFF);
+
+    return result;
+  }
+
+  /**
+   * Parses the header of a WAV file.
+   *
+   * @param raf		the file to read from
+   * @return		the header, null if not a WAV file
+   * @throws IOException	if reading fails
+   */
+  protected static UFDLAudioHeader probeWav(RandomAccessFile raf) throws IOException {
+    byte[]	buf;
+    long	pos;
+    long	size;
+    String	id;
+    int		channels;
+    long	sampleRate;
+    long	byteRate;
+    long	dataSize;
+
+    buf = new byte[16];
+    raf.seek(0);
+    raf.readFully(buf, 0, 12);
+    if (!new String(buf, 0, 4, "US-ASCII").equals("RIFF") || !new String(buf, 8, 4, "US-ASCII").equals("WAVE"))
+      return null;
+
+    channels   = -1;
+    sampleRate = -1;
+    byteRate   = -1;
+    dataSize   = -1;
+    pos        = 12;
+    while ((pos + 8 <= raf.length()) && ((byteRate == -1) || (dataSize == -1))) {
+      raf.seek(pos);
+      raf.readFully(buf, 0, 8);
+      id   = new String(buf, 0, 4, "US-ASCII");
+      size = readLE(buf, 4, 4);
+      if (id.equals("fmt ")) {
+	raf.readFully(buf, 0, 16);
+	channels   = (int) readLE(buf, 2, 2);
+	sampleRate = readLE(buf, 4, 4);
+	byteRate   = readLE(buf, 8, 4);
+      }
+      else if (id.equals("data")) {
+	dataSize = size;
+      }
+      pos += 8 + size + (size % 2);
+    }
+
+    if ((byteRate <= 0) || (dataSize == -1))
+      return null;
+
+    return new UFDLAudioHeader((double) dataSize / byteRate, (int) sampleRate, channels);
+  }
+
+  /**
+   * Parses the header of a FLAC file (STREAMINFO block). Skips ID3v2 tags.
+   *
+   * @param raf		the file to read from
+   * @return		the header, null if not a FLAC file
+   * @throws IOException	if reading fails
+   */
+  protected static UFDLAudioHeader probeFlac(RandomAccessFile raf) throws IOException {
+    byte[]	buf;
+    long	offset;
+    long	sampleRate;
+    int		channels;
+    long	totalSamples;
+
+    buf    = new byte[34];
+    offset = 0;
+    raf.seek(0);
+    raf.readFully(buf, 0, 10);
+    if (new String(buf, 0, 3, "US-ASCII").equals("ID3")) {
+      // syncsafe integer
+      offset = 10 + (((buf[6] & 0x7F) << 21) | ((buf[7] & 0x7F) << 14) | ((buf[8] & 0x7F) << 7) | (buf[9] & 0x7F));
+      raf.seek(offset);
+      raf.readFully(buf, 0, 4);
+    }
+    if (!new String(buf, 0, 4, "US-ASCII").equals("fLaC"))
+      return null;
+
+    // metadata block header, STREAMINFO is always first
+    raf.seek(offset + 4);
+    raf.readFully(buf, 0, 4);
+    if ((buf[0] & 0x7F) != 0)
+      return null;
+    raf.readFully(buf, 0, 34);
+
+    sampleRate   = ((buf[10] & 0xFFL) << 12) | ((buf[11] & 0xFFL) << 4) | ((buf[12] & 0xF0L) >> 4);
+    channels     = ((buf[12] & 0x0E) >> 1) + 1;
+    totalSamples = ((buf[13] & 0x0FL) << 32) | ((buf[14] & 0xFFL) << 24) | ((buf[15] & 0xFFL) << 16) | ((buf[16] & 0xFFL) << 8) | (buf[17] & 0xFFL);
+
+    if (sampleRate <= 0)
+      return null;
+
+    return new UFDLAudioHeader((double) totalSamples / sampleRate, (int) sampleRate, channels);
+  }
+
+  /**
+   * Reads the header information from the file.
+   *
+   * @param file	the file to probe
+   * @return		the header information, null if unsupported format
+   * @throws IOException	if reading fails
+   */
+  public static UFDLAudioHeader probe(File file) throws IOException {
+    UFDLAudioHeader	result;
+
+    if (file.length() < 12)
+      return null;
+
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      result = probeWav(raf);
+      if (result == null)
+	result = probeFlac(raf);
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLManifestFormat.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import adams.data.io.input.CsvSpreadSheetReader;
+
+/**
+ * The formats of speech manifest files.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public enum UFDLManifestFormat {
+  CSV(","),
+  TSV("\t");
+
+  /** the separator. */
+  private final String m_Separator;
+
+  /**
+   * Initializes the format.
+   *
+   * @param separator	the separator to use
+   */
+  private UFDLManifestFormat(String separator) {
+    m_Separator = separator;
+  }
+
+  /**
+   * Returns the separator.
+   *
+   * @return		the separator
+   */
+  public String getSeparator() {
+    return m_Separator;
+  }
+
+  /**
+   * Returns a reader for this format.
+   *
+   * @return		the reader
+   */
+  public CsvSpreadSheetReader getReader() {
+    CsvSpreadSheetReader	result;
+
+    result = new CsvSpreadSheetReader();
+    result.setSeparator(m_Separator);
+
+    return result;
+  }
+
+  /**
+   * Quotes the value if necessary, i.e., if it contains the separator,
+   * double quotes or line breaks.
+   *
+   * @param value	the value to quote
+   * @return		the (quoted) value
+   */
+  public String quote(String value) {
+    if (value == null)
+      return "";
+    if (value.contains(m_Separator) || value.contains("\"") || value.contains("\n") || value.contains("\r"))
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    return value;
+  }
+}
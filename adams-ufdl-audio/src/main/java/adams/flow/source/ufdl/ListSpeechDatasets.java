@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import adams.flow.core.UFDLSoftDeleteObjectState;
 import adams.flow.core.UFDLSoftDeleteObjectStateHandler;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
@@ -43,7 +44,7 @@ import java.util.List;
  */
 public class ListSpeechDatasets
   extends AbstractUFDLSourceAction
-  implements UFDLSoftDeleteObjectStateHandler, UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLSoftDeleteObjectStateHandler, UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -235,6 +236,7 @@ public class ListSpeechDatasets
       conv  = new UFDLSpeechDatasetToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
       conv.setResolveIDs(m_ResolveIDs);
+      conv.setConnection(getConnection());
       for (Dataset dataset : datasets) {
         if (!m_State.accept(dataset))
           continue;
@@ -0,0 +1,573 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * BulkAddSpeechFiles.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.core.base.BaseRegExp;
+import adams.core.io.PlaceholderDirectory;
+import adams.core.io.PlaceholderFile;
+import adams.data.audio.UFDLAudioHeader;
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.flow.core.UFDLFileNameExtraction;
+import adams.flow.core.UFDLManifestFormat;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLParallelRequests.Request;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.SpeechDatasets;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds all the audio files from a directory to the speech dataset passing
+ * through, setting the transcripts from a manifest and storing duration,
+ * sample rate and channels (obtained from the WAV/FLAC headers) as metadata.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class BulkAddSpeechFiles
+  extends AbstractSpeechDatasetTransformerAction {
+
+  private static final long serialVersionUID = -8313569419183093420L;
+
+  /** the directory with the audio files. */
+  protected PlaceholderDirectory m_Directory;
+
+  /** the regular expression the file names must match. */
+  protected BaseRegExp m_RegExp;
+
+  /** how to extract the name of the file. */
+  protected UFDLFileNameExtraction m_FileNameExtraction;
+
+  /** the manifest file with the transcripts. */
+  protected PlaceholderFile m_Manifest;
+
+  /** the format of the manifest. */
+  protected UFDLManifestFormat m_Format;
+
+  /** the column with the file names. */
+  protected SpreadSheetColumnIndex m_NameColumn;
+
+  /** the column with the transcripts. */
+  protected SpreadSheetColumnIndex m_TranscriptColumn;
+
+  /** whether to store the audio header information as metadata. */
+  protected boolean m_StoreAudioInfo;
+
+  /** the number of concurrent requests. */
+  protected int m_NumThreads;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Adds all the audio files from a directory to the speech dataset passing through.\n"
+      + "The transcripts get set from the manifest (if the manifest file exists) right after "
+      + "the upload of each file. Duration, sample rate and channels can be obtained from the "
+      + "WAV/FLAC headers (without decoding the audio) and stored as JSON metadata "
+      + "(keys: " + UFDLAudioHeader.KEY_DURATION + ", " + UFDLAudioHeader.KEY_SAMPLE_RATE + ", " + UFDLAudioHeader.KEY_CHANNELS + ").\n"
+      + "The files get uploaded concurrently.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "directory", "directory",
+      new PlaceholderDirectory());
+
+    m_OptionManager.add(
+      "reg-exp", "regExp",
+      new BaseRegExp(".*\\.([wW][aA][vV]|[fF][lL][aA][cC]|[mM][pP]3)"));
+
+    m_OptionManager.add(
+      "file-name-extraction", "fileNameExtraction",
+      UFDLFileNameExtraction.NAME);
+
+    m_OptionManager.add(
+      "manifest", "manifest",
+      new PlaceholderFile());
+
+    m_OptionManager.add(
+      "format", "format",
+      UFDLManifestFormat.TSV);
+
+    m_OptionManager.add(
+      "name-column", "nameColumn",
+      new SpreadSheetColumnIndex("1"));
+
+    m_OptionManager.add(
+      "transcript-column", "transcriptColumn",
+      new SpreadSheetColumnIndex("2"));
+
+    m_OptionManager.add(
+      "store-audio-info", "storeAudioInfo",
+      true);
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+  }
+
+  /**
+   * Sets the directory with the audio files.
+   *
+   * @param value	the directory
+   */
+  public void setDirectory(PlaceholderDirectory value) {
+    m_Directory = value;
+    reset();
+  }
+
+  /**
+   * Returns the directory with the audio files.
+   *
+   * @return		the directory
+   */
+  public PlaceholderDirectory getDirectory() {
+    return m_Directory;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String directoryTipText() {
+    return "The directory with the audio files to add.";
+  }
+
+  /**
+   * Sets the regular expression that the file names must match.
+   *
+   * @param value	the expression
+   */
+  public void setRegExp(BaseRegExp value) {
+    m_RegExp = value;
+    reset();
+  }
+
+  /**
+   * Returns the regular expression that the file names must match.
+   *
+   * @return		the expression
+   */
+  public BaseRegExp getRegExp() {
+    return m_RegExp;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String regExpTipText() {
+    return "The regular expression that the file names (without path) must match.";
+  }
+
+  /**
+   * Sets how to extract the name of the file.
+   *
+   * @param value	the extraction type
+   */
+  public void setFileNameExtraction(UFDLFileNameExtraction value) {
+    m_FileNameExtraction = value;
+    reset();
+  }
+
+  /**
+   * Returns how to extract the name of the file.
+   *
+   * @return		the extraction type
+   */
+  public UFDLFileNameExtraction getFileNameExtraction() {
+    return m_FileNameExtraction;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String fileNameExtractionTipText() {
+    return "Determines how to generate the name of the file from its filename (also applied to the manifest entries).";
+  }
+
+  /**
+   * Sets the manifest file with the transcripts.
+   *
+   * @param value	the file
+   */
+  public void setManifest(PlaceholderFile value) {
+    m_Manifest = value;
+    reset();
+  }
+
+  /**
+   * Returns the manifest file with the transcripts.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getManifest() {
+    return m_Manifest;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String manifestTipText() {
+    return "The manifest file with the file names and transcripts (with header row); ignored if pointing to a directory.";
+  }
+
+  /**
+   * Sets the format of the manifest.
+   *
+   * @param value	the format
+   */
+  public void setFormat(UFDLManifestFormat value) {
+    m_Format = value;
+    reset();
+  }
+
+  /**
+   * Returns the format of the manifest.
+   *
+   * @return		the format
+   */
+  public UFDLManifestFormat getFormat() {
+    return m_Format;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String formatTipText() {
+    return "The format of the manifest file.";
+  }
+
+  /**
+   * Sets the column with the file names.
+   *
+   * @param value	the column
+   */
+  public void setNameColumn(SpreadSheetColumnIndex value) {
+    m_NameColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the column with the file names.
+   *
+   * @return		the column
+   */
+  public SpreadSheetColumnIndex getNameColumn() {
+    return m_NameColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String nameColumnTipText() {
+    return "The column in the manifest with the file names.";
+  }
+
+  /**
+   * Sets the column with the transcripts.
+   *
+   * @param value	the column
+   */
+  public void setTranscriptColumn(SpreadSheetColumnIndex value) {
+    m_TranscriptColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the column with the transcripts.
+   *
+   * @return		the column
+   */
+  public SpreadSheetColumnIndex getTranscriptColumn() {
+    return m_TranscriptColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String transcriptColumnTipText() {
+    return "The column in the manifest with the transcripts.";
+  }
+
+  /**
+   * Sets whether to store the audio header information as metadata.
+   *
+   * @param value	true if to store
+   */
+  public void setStoreAudioInfo(boolean value) {
+    m_StoreAudioInfo = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to store the audio header information as metadata.
+   *
+   * @return		true if to store
+   */
+  public boolean getStoreAudioInfo() {
+    return m_StoreAudioInfo;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String storeAudioInfoTipText() {
+    return "If enabled, duration, sample rate and channels get read from the WAV/FLAC header and stored as metadata.";
+  }
+
+  /**
+   * Sets the number of concurrent requests.
+   *
+   * @param value	the number of requests
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of concurrent requests.
+   *
+   * @return		the number of requests
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return UFDLParallelRequests.numThreadsTipText();
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "directory", m_Directory, "dir: ");
+    result += QuickInfoHelper.toString(this, "regExp", m_RegExp, ", regexp: ");
+    result += QuickInfoHelper.toString(this, "manifest", m_Manifest, ", manifest: ");
+    result += QuickInfoHelper.toString(this, "storeAudioInfo", m_StoreAudioInfo, "audio info", ", ");
+    result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", threads: ");
+
+    return result;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{Dataset.class};
+  }
+
+  /**
+   * Reads the transcripts from the manifest, if available.
+   *
+   * @param errors	for collecting errors
+   * @return		the transcripts (file name - transcript), null if failed to read
+   */
+  protected Map<String,String> readTranscripts(MessageCollection errors) {
+    Map<String,String>	result;
+    SpreadSheet		sheet;
+    int			colName;
+    int			colTranscript;
+    Cell		cellName;
+    Cell		cellTranscript;
+
+    result = new HashMap<>();
+    if (m_Manifest.isDirectory() || !m_Manifest.exists())
+      return result;
+
+    sheet = m_Format.getReader().read(m_Manifest.getAbsoluteFile());
+    if (sheet == null) {
+      errors.add("Failed to read manifest: " + m_Manifest);
+      return null;
+    }
+
+    m_NameColumn.setData(sheet);
+    m_TranscriptColumn.setData(sheet);
+    colName       = m_NameColumn.getIntIndex();
+    colTranscript = m_TranscriptColumn.getIntIndex();
+    if ((colName == -1) || (colTranscript == -1)) {
+      errors.add("Name and/or transcript column not found in manifest: " + m_NameColumn + "/" + m_TranscriptColumn);
+      return null;
+    }
+
+    for (Row row: sheet.rows()) {
+      cellName       = row.getCell(colName);
+      cellTranscript = row.getCell(colTranscript);
+      if ((cellName == null) || cellName.isMissing() || (cellTranscript == null) || cellTranscript.isMissing())
+	continue;
+      result.put(m_FileNameExtraction.extract(cellName.getContent()), cellTranscript.getContent());
+    }
+
+    return result;
+  }
+
+  /**
+   * Uploads the file, sets the transcript and metadata.
+   *
+   * @param action	the action to use
+   * @param dataset	the dataset to add the file to
+   * @param file	the file to add
+   * @param transcript	the transcript, can be null
+   * @return		true if successful
+   * @throws Exception	if uploading fails
+   */
+  protected boolean process(SpeechDatasets action, Dataset dataset, File file, String transcript) throws Exception {
+    String		name;
+    UFDLAudioHeader	header;
+
+    name = m_FileNameExtraction.extract(file);
+    if (!action.addFile(dataset, file, name))
+      throw new IllegalStateException("Failed to add file '" + name + "': " + file);
+
+    if (transcript != null) {
+      if (!action.setTranscript(dataset, name, transcript))
+	throw new IllegalStateException("Failed to set transcript for '" + name + "': " + transcript);
+    }
+
+    if (m_StoreAudioInfo) {
+      header = UFDLAudioHeader.probe(file);
+      if (header == null) {
+	if (isLoggingEnabled())
+	  getLogger().info("Unsupported audio format, no metadata stored: " + file);
+      }
+      else {
+	if (!action.setMetadata(dataset, name, header.toJson().toJSONString()))
+	  throw new IllegalStateException("Failed to set metadata for '" + name + "': " + header);
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Transforms the input data.
+   *
+   * @param dataset	the input data
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(final Dataset dataset, MessageCollection errors) {
+    final SpeechDatasets	action;
+    Map<String,String>		transcripts;
+    File[]			files;
+    List<Request<Boolean>>	requests;
+
+    try {
+      action = getDatasetsAction();
+    }
+    catch (Exception e) {
+      errors.add("Failed to instantiate " + Utils.classToString(SpeechDatasets.class) + " action!", e);
+      return null;
+    }
+
+    transcripts = readTranscripts(errors);
+    if (transcripts == null)
+      return null;
+
+    files = m_Directory.getAbsoluteFile().listFiles((File f) -> f.isFile() && m_RegExp.isMatch(f.getName()));
+    if (files == null) {
+      errors.add("Failed to list files in directory: " + m_Directory);
+      return null;
+    }
+    Arrays.sort(files);
+
+    if (isLoggingEnabled())
+      getLogger().info("Adding " + files.length + " file(s) to dataset " + dataset + ", transcripts available: " + transcripts.size());
+
+    requests = new ArrayList<>();
+    for (final File file: files) {
+      final String transcript = transcripts.get(m_FileNameExtraction.extract(file));
+      requests.add(new Request<Boolean>() {
+	@Override
+	public String getDescription() {
+	  return "add file '" + file + "' to dataset: " + dataset;
+	}
+	@Override
+	public Boolean execute() throws Exception {
+	  return process(action, dataset, file, transcript);
+	}
+      });
+    }
+    UFDLParallelRequests.execute(requests, m_NumThreads, errors);
+
+    return dataset;
+  }
+}
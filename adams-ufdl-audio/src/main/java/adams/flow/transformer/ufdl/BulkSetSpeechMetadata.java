@@ -0,0 +1,88 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * BulkSetSpeechMetadata.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.SpeechDatasets;
+
+import java.util.Map;
+
+/**
+ * Sets the metadata of many files in the speech dataset coming in, using a spreadsheet from storage.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class BulkSetSpeechMetadata
+  extends AbstractBulkSetMetadata<SpeechDatasets> {
+
+  private static final long serialVersionUID = -3090362650554338909L;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Sets the metadata of many files in the speech dataset coming in.\n"
+      + "The file names and metadata are obtained from a spreadsheet in storage. "
+      + "Unchanged entries can be skipped and the requests get sent concurrently.";
+  }
+
+  /**
+   * Returns the datasets action to use.
+   *
+   * @return		the action
+   * @throws Exception	if instantiation of action fails
+   */
+  @Override
+  protected SpeechDatasets getDatasetsAction() throws Exception {
+    return m_Client.action(SpeechDatasets.class);
+  }
+
+  /**
+   * Retrieves the metadata for all the files in the dataset.
+   *
+   * @param action	the datasets action to use
+   * @param dataset	the dataset to get the metadata for
+   * @return		the metadata (file name - metadata string)
+   * @throws Exception	if retrieval fails
+   */
+  @Override
+  protected Map<String,String> getMetadata(SpeechDatasets action, Dataset dataset) throws Exception {
+    return action.getMetadata(dataset);
+  }
+
+  /**
+   * Sets the metadata for the specified file.
+   *
+   * @param action	the datasets action to use
+   * @param dataset	the dataset to update
+   * @param name	the name of the file
+   * @param metadata	the metadata to set
+   * @return		true if successful
+   * @throws Exception	if setting fails
+   */
+  @Override
+  protected boolean setMetadata(SpeechDatasets action, Dataset dataset, String name, String metadata) throws Exception {
+    return action.setMetadata(dataset, name, metadata);
+  }
+}
@@ -0,0 +1,472 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * BulkSetSpeechTranscripts.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.core.io.PlaceholderFile;
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.flow.core.UFDLFileNameExtraction;
+import adams.flow.core.UFDLManifestFormat;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLParallelRequests.Request;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.SpeechDatasets;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sets the transcripts of the files in the speech dataset passing through,
+ * using a CSV/TSV manifest file.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class BulkSetSpeechTranscripts
+  extends AbstractSpeechDatasetTransformerAction {
+
+  private static final long serialVersionUID = 6180275441903372210L;
+
+  /** the manifest file. */
+  protected PlaceholderFile m_Manifest;
+
+  /** the format of the manifest. */
+  protected UFDLManifestFormat m_Format;
+
+  /** the column with the file names. */
+  protected SpreadSheetColumnIndex m_NameColumn;
+
+  /** the column with the transcripts. */
+  protected SpreadSheetColumnIndex m_TranscriptColumn;
+
+  /** how to extract the name of the file. */
+  protected UFDLFileNameExtraction m_NameExtraction;
+
+  /** whether to skip entries that haven't changed. */
+  protected boolean m_SkipUnchanged;
+
+  /** the number of concurrent requests. */
+  protected int m_NumThreads;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Sets the transcripts of the files in the speech dataset passing through, using a CSV/TSV manifest file.\n"
+      + "Only transcripts that differ from the current ones get sent to the backend (if enabled), "
+      + "using concurrent requests.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "manifest", "manifest",
+      new PlaceholderFile());
+
+    m_OptionManager.add(
+      "format", "format",
+      UFDLManifestFormat.TSV);
+
+    m_OptionManager.add(
+      "name-column", "nameColumn",
+      new SpreadSheetColumnIndex("1"));
+
+    m_OptionManager.add(
+      "transcript-column", "transcriptColumn",
+      new SpreadSheetColumnIndex("2"));
+
+    m_OptionManager.add(
+      "name-extraction", "nameExtraction",
+      UFDLFileNameExtraction.NAME);
+
+    m_OptionManager.add(
+      "skip-unchanged", "skipUnchanged",
+      true);
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+  }
+
+  /**
+   * Sets the manifest file to read.
+   *
+   * @param value	the file
+   */
+  public void setManifest(PlaceholderFile value) {
+    m_Manifest = value;
+    reset();
+  }
+
+  /**
+   * Returns the manifest file to read.
+   *
+   * @return		the file
+   */
+  public PlaceholderFile getManifest() {
+    return m_Manifest;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String manifestTipText() {
+    return "The manifest file with the file names and transcripts (with header row).";
+  }
+
+  /**
+   * Sets the format of the manifest.
+   *
+   * @param value	the format
+   */
+  public void setFormat(UFDLManifestFormat value) {
+    m_Format = value;
+    reset();
+  }
+
+  /**
+   * Returns the format of the manifest.
+   *
+   * @return		the format
+   */
+  public UFDLManifestFormat getFormat() {
+    return m_Format;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String formatTipText() {
+    return "The format of the manifest file.";
+  }
+
+  /**
+   * Sets the column with the file names.
+   *
+   * @param value	the column
+   */
+  public void setNameColumn(SpreadSheetColumnIndex value) {
+    m_NameColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the column with the file names.
+   *
+   * @return		the column
+   */
+  public SpreadSheetColumnIndex getNameColumn() {
+    return m_NameColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String nameColumnTipText() {
+    return "The column with the file names (eg 'path' for Common Voice).";
+  }
+
+  /**
+   * Sets the column with the transcripts.
+   *
+   * @param value	the column
+   */
+  public void setTranscriptColumn(SpreadSheetColumnIndex value) {
+    m_TranscriptColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the column with the transcripts.
+   *
+   * @return		the column
+   */
+  public SpreadSheetColumnIndex getTranscriptColumn() {
+    return m_TranscriptColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String transcriptColumnTipText() {
+    return "The column with the transcripts (eg 'sentence' for Common Voice).";
+  }
+
+  /**
+   * Sets how to extract the file name from the manifest entries.
+   *
+   * @param value	the extraction type
+   */
+  public void setNameExtraction(UFDLFileNameExtraction value) {
+    m_NameExtraction = value;
+    reset();
+  }
+
+  /**
+   * Returns how to extract the file name from the manifest entries.
+   *
+   * @return		the extraction type
+   */
+  public UFDLFileNameExtraction getNameExtraction() {
+    return m_NameExtraction;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String nameExtractionTipText() {
+    return "Determines how to generate the name of the file in the dataset from the manifest entry.";
+  }
+
+  /**
+   * Sets whether to skip entries whose transcript is already up-to-date.
+   *
+   * @param value	true if to skip
+   */
+  public void setSkipUnchanged(boolean value) {
+    m_SkipUnchanged = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to skip entries whose transcript is already up-to-date.
+   *
+   * @return		true if to skip
+   */
+  public boolean getSkipUnchanged() {
+    return m_SkipUnchanged;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String skipUnchangedTipText() {
+    return "If enabled, the current transcripts get retrieved first and only entries with different transcripts get sent to the backend.";
+  }
+
+  /**
+   * Sets the number of concurrent requests.
+   *
+   * @param value	the number of requests
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of concurrent requests.
+   *
+   * @return		the number of requests
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return UFDLParallelRequests.numThreadsTipText();
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "manifest", m_Manifest, "manifest: ");
+    result += QuickInfoHelper.toString(this, "format", m_Format, ", format: ");
+    result += QuickInfoHelper.toString(this, "skipUnchanged", m_SkipUnchanged, "skip unchanged", ", ");
+    result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", threads: ");
+
+    return result;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{Dataset.class};
+  }
+
+  /**
+   * Reads the manifest.
+   *
+   * @param errors	for collecting errors
+   * @return		the transcripts (file name - transcript), null if failed to read
+   */
+  protected Map<String,String> readManifest(MessageCollection errors) {
+    Map<String,String>	result;
+    SpreadSheet		sheet;
+    int			colName;
+    int			colTranscript;
+    Cell		cellName;
+    Cell		cellTranscript;
+
+    sheet = m_Format.getReader().read(m_Manifest.getAbsoluteFile());
+    if (sheet == null) {
+      errors.add("Failed to read manifest: " + m_Manifest);
+      return null;
+    }
+
+    m_NameColumn.setData(sheet);
+    m_TranscriptColumn.setData(sheet);
+    colName       = m_NameColumn.getIntIndex();
+    colTranscript = m_TranscriptColumn.getIntIndex();
+    if (colName == -1) {
+      errors.add("Name column not found in manifest: " + m_NameColumn);
+      return null;
+    }
+    if (colTranscript == -1) {
+      errors.add("Transcript column not found in manifest: " + m_TranscriptColumn);
+      return null;
+    }
+
+    result = new LinkedHashMap<>();
+    for (Row row: sheet.rows()) {
+      cellName       = row.getCell(colName);
+      cellTranscript = row.getCell(colTranscript);
+      if ((cellName == null) || cellName.isMissing())
+	continue;
+      result.put(
+	m_NameExtraction.extract(cellName.getContent()),
+	((cellTranscript == null) || cellTranscript.isMissing()) ? "" : cellTranscript.getContent());
+    }
+
+    return result;
+  }
+
+  /**
+   * Transforms the input data.
+   *
+   * @param dataset	the input data
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(final Dataset dataset, MessageCollection errors) {
+    final SpeechDatasets	action;
+    Map<String,String>		transcripts;
+    Map<String,String>		current;
+    List<Request<Boolean>>	requests;
+    int				skipped;
+
+    try {
+      action = getDatasetsAction();
+    }
+    catch (Exception e) {
+      errors.add("Failed to instantiate " + Utils.classToString(SpeechDatasets.class) + " action!", e);
+      return null;
+    }
+
+    transcripts = readManifest(errors);
+    if (transcripts == null)
+      return null;
+
+    // remove unchanged ones
+    skipped = 0;
+    if (m_SkipUnchanged && !transcripts.isEmpty()) {
+      try {
+	current = action.getTranscripts(dataset);
+      }
+      catch (Exception e) {
+	errors.add("Failed to retrieve transcripts for dataset: " + dataset, e);
+	return null;
+      }
+      if (current != null) {
+	for (String name: new ArrayList<>(transcripts.keySet())) {
+	  if (transcripts.get(name).equals(current.get(name))) {
+	    transcripts.remove(name);
+	    skipped++;
+	  }
+	}
+      }
+    }
+
+    if (isLoggingEnabled())
+      getLogger().info("Setting transcripts for " + transcripts.size() + " file(s) in dataset " + dataset + ", skipped: " + skipped);
+
+    requests = new ArrayList<>();
+    for (final String name: transcripts.keySet()) {
+      final String transcript = transcripts.get(name);
+      requests.add(new Request<Boolean>() {
+	@Override
+	public String getDescription() {
+	  return "set transcript for '" + name + "' in dataset: " + dataset;
+	}
+	@Override
+	public Boolean execute() throws Exception {
+	  if (!action.setTranscript(dataset, name, transcript))
+	    throw new IllegalStateException("Backend rejected transcript: " + transcript);
+	  return true;
+	}
+      });
+    }
+    UFDLParallelRequests.execute(requests, m_NumThreads, errors);
+
+    return dataset;
+  }
+}
@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.flow.core.UFDLBatchSupporter;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -30,7 +31,8 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class DeleteSpeechFile
-  extends AbstractSpeechDatasetTransformerAction {
+  extends AbstractSpeechDatasetTransformerAction
+  implements UFDLBatchSupporter {
 
   private static final long serialVersionUID = -1421130988687306299L;
 
@@ -108,6 +110,17 @@ public class DeleteSpeechFile
     return new Class[]{Boolean.class};
   }
 
+  /**
+   * Returns the current values of the options that are required for
+   * processing a single input in batch mode.
+   *
+   * @return		the name of the file
+   */
+  @Override
+  protected Object getBatchState() {
+    return m_Name;
+  }
+
   /**
    * Transforms the input data.
    *
@@ -117,15 +130,30 @@ public class DeleteSpeechFile
    */
   @Override
   protected Object doTransform(Dataset dataset, MessageCollection errors) {
+    return doTransform(dataset, getBatchState(), errors);
+  }
+
+  /**
+   * Transforms the dataset using the captured options.
+   *
+   * @param dataset	the dataset
+   * @param state	the name of the file
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(Dataset dataset, Object state, MessageCollection errors) {
     boolean	result;
+    String	name;
 
     result = false;
+    name   = (String) state;
 
     try {
-      result = getDatasetsAction().deleteFile(dataset, m_Name);
+      result = getDatasetsAction().deleteFile(dataset, name);
     }
     catch (Exception e) {
-      errors.add("Failed to delete file '" + m_Name + "' from dataset: " + dataset, e);
+      errors.add("Failed to delete file '" + name + "' from dataset: " + dataset, e);
     }
 
     return result;
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 import java.util.Map;
@@ -31,7 +32,8 @@ import java.util.Map;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class GetSpeechMetadata
-  extends AbstractSpeechDatasetTransformerAction {
+  extends AbstractSpeechDatasetTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = -1421130988687306299L;
 
@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -30,7 +31,8 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class GetSpeechMetadataForFile
-  extends AbstractSpeechDatasetTransformerAction {
+  extends AbstractSpeechDatasetTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = -1421130988687306299L;
 
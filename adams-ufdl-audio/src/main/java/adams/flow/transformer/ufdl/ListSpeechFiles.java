@@ -24,6 +24,7 @@ import adams.core.AdditionalInformationHandler;
 import adams.core.MessageCollection;
 import adams.data.conversion.UFDLSpeechDatasetFilesToSpreadSheet;
 import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -33,7 +34,7 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  */
 public class ListSpeechFiles
   extends AbstractSpeechDatasetTransformerAction
-  implements AdditionalInformationHandler {
+  implements AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
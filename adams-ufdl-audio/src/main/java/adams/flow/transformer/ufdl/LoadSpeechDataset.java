@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 import com.github.waikatoufdl.ufdl4j.action.SpeechDatasets;
 import com.github.waikatoufdl.ufdl4j.action.SpeechDatasets.SpeechDataset;
@@ -31,7 +32,8 @@ import com.github.waikatoufdl.ufdl4j.action.SpeechDatasets.SpeechDataset;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class LoadSpeechDataset
-  extends AbstractDatasetTransformerAction {
+  extends AbstractDatasetTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -31,7 +32,8 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class MergeSpeechDatasets
-  extends AbstractSpeechDatasetTransformerAction {
+  extends AbstractSpeechDatasetTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -213,4 +215,14 @@ public class MergeSpeechDatasets
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{Dataset.class};
+  }
 }
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class ReinstateSpeechDataset
-  extends AbstractSpeechDatasetTransformerAction {
+  extends AbstractSpeechDatasetTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -78,4 +80,14 @@ public class ReinstateSpeechDataset
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{Dataset.class};
+  }
 }
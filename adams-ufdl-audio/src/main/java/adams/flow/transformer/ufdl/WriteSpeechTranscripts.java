@@ -0,0 +1,281 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * WriteSpeechTranscripts.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.io.FileWriter;
+import adams.core.io.PlaceholderFile;
+import adams.flow.core.UFDLManifestFormat;
+import adams.flow.core.UFDLReadOnlyAction;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Writes the transcripts of the speech dataset passing through straight to
+ * a CSV/TSV manifest file and forwards the file name.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class WriteSpeechTranscripts
+  extends AbstractSpeechDatasetTransformerAction
+  implements FileWriter, UFDLReadOnlyAction {
+
+  private static final long serialVersionUID = -5001880143316387125L;
+
+  /** the output file to use. */
+  protected PlaceholderFile m_OutputFile;
+
+  /** the format of the manifest. */
+  protected UFDLManifestFormat m_Format;
+
+  /** the header for the file name column. */
+  protected String m_NameHeader;
+
+  /** the header for the transcript column. */
+  protected String m_TranscriptHeader;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Writes the transcripts of the speech dataset passing through straight to a CSV/TSV "
+      + "manifest file and forwards the file name.\n"
+      + "Rather than generating a spreadsheet or map token, the entries get written line by line.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "output-file", "outputFile",
+      new PlaceholderFile());
+
+    m_OptionManager.add(
+      "format", "format",
+      UFDLManifestFormat.TSV);
+
+    m_OptionManager.add(
+      "name-header", "nameHeader",
+      "path");
+
+    m_OptionManager.add(
+      "transcript-header", "transcriptHeader",
+      "sentence");
+  }
+
+  /**
+   * Sets the output file.
+   *
+   * @param value 	the file
+   */
+  public void setOutputFile(PlaceholderFile value) {
+    m_OutputFile = value;
+    reset();
+  }
+
+  /**
+   * Returns the output file.
+   *
+   * @return 		the file
+   */
+  public PlaceholderFile getOutputFile() {
+    return m_OutputFile;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String outputFileTipText() {
+    return "The manifest file to write the transcripts to.";
+  }
+
+  /**
+   * Sets the format of the manifest.
+   *
+   * @param value	the format
+   */
+  public void setFormat(UFDLManifestFormat value) {
+    m_Format = value;
+    reset();
+  }
+
+  /**
+   * Returns the format of the manifest.
+   *
+   * @return		the format
+   */
+  public UFDLManifestFormat getFormat() {
+    return m_Format;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String formatTipText() {
+    return "The format of the manifest file.";
+  }
+
+  /**
+   * Sets the header for the file name column.
+   *
+   * @param value	the header
+   */
+  public void setNameHeader(String value) {
+    m_NameHeader = value;
+    reset();
+  }
+
+  /**
+   * Returns the header for the file name column.
+   *
+   * @return		the header
+   */
+  public String getNameHeader() {
+    return m_NameHeader;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String nameHeaderTipText() {
+    return "The header for the column with the file names.";
+  }
+
+  /**
+   * Sets the header for the transcript column.
+   *
+   * @param value	the header
+   */
+  public void setTranscriptHeader(String value) {
+    m_TranscriptHeader = value;
+    reset();
+  }
+
+  /**
+   * Returns the header for the transcript column.
+   *
+   * @return		the header
+   */
+  public String getTranscriptHeader() {
+    return m_TranscriptHeader;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String transcriptHeaderTipText() {
+    return "The header for the column with the transcripts.";
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "outputFile", m_OutputFile, "output: ");
+    result += QuickInfoHelper.toString(this, "format", m_Format, ", format: ");
+
+    return result;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{String.class};
+  }
+
+  /**
+   * Transforms the input data.
+   *
+   * @param dataset	the input data
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(Dataset dataset, MessageCollection errors) {
+    String		result;
+    Map<String,String>	transcripts;
+    String		sep;
+    int			count;
+
+    result = null;
+
+    try {
+      transcripts = getDatasetsAction().getTranscripts(dataset);
+    }
+    catch (Exception e) {
+      errors.add("Failed to retrieve transcripts for dataset: " + dataset, e);
+      return null;
+    }
+
+    sep   = m_Format.getSeparator();
+    count = 0;
+    try (BufferedWriter writer = Files.newBufferedWriter(m_OutputFile.getAbsoluteFile().toPath(), StandardCharsets.UTF_8)) {
+      writer.write(m_Format.quote(m_NameHeader) + sep + m_Format.quote(m_TranscriptHeader));
+      writer.newLine();
+      for (Map.Entry<String,String> entry: transcripts.entrySet()) {
+	writer.write(m_Format.quote(entry.getKey()) + sep + m_Format.quote(entry.getValue()));
+	writer.newLine();
+	count++;
+      }
+      result = m_OutputFile.getAbsolutePath();
+      if (isLoggingEnabled())
+	getLogger().info("Wrote " + count + " transcript(s) of dataset " + dataset + " to: " + m_OutputFile);
+    }
+    catch (Exception e) {
+      errors.add("Failed to write transcripts of dataset " + dataset + " to: " + m_OutputFile, e);
+    }
+
+    return result;
+  }
+}
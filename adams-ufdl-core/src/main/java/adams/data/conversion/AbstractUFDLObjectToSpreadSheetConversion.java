@@ -22,12 +22,16 @@ package adams.data.conversion;
 
 import adams.core.AdditionalInformationHandler;
 import adams.core.Utils;
+import adams.core.base.BaseString;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.flow.core.Actor;
 import adams.flow.core.ActorUtils;
 import adams.flow.core.FlowContextHandler;
 import adams.flow.standalone.UFDLConnection;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Ancestor for conversions that convert UFDL objects into spreadsheets.
  *
@@ -45,9 +49,15 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
   /** whether to resolve IDs to names. */
   protected boolean m_ResolveIDs;
 
+  /** the fields to output. */
+  protected BaseString[] m_Fields;
+
   /** the connection. */
   protected transient UFDLConnection m_Connection;
 
+  /** the lookup for the fields to output (null if all). */
+  protected transient Set<String> m_FieldsLookup;
+
   /**
    * Adds options to the internal list of options.
    */
@@ -60,6 +70,10 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
 	"resolve-ids", "resolveIDs",
 	false);
     }
+
+    m_OptionManager.add(
+      "field", "fields",
+      new BaseString[0]);
   }
 
   /**
@@ -77,7 +91,8 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
   protected void reset() {
     super.reset();
 
-    m_Connection = null;
+    m_Connection   = null;
+    m_FieldsLookup = null;
   }
 
   /**
@@ -105,6 +120,16 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
     return m_FlowContext;
   }
 
+  /**
+   * Sets the connection to use, rather than locating it via the flow context.
+   * Gets cleared when resetting the conversion.
+   *
+   * @param value	the connection, null to locate it via the flow context
+   */
+  public void setConnection(UFDLConnection value) {
+    m_Connection = value;
+  }
+
   /**
    * Sets whether to resolve any IDs.
    *
@@ -134,6 +159,74 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
     return "If enabled, any IDs get resolved (e.g., outputting license name instead of license ID).";
   }
 
+  /**
+   * Sets the fields (ie columns) to output.
+   *
+   * @param value	the fields, empty for all
+   */
+  public void setFields(BaseString[] value) {
+    m_Fields = value;
+    reset();
+  }
+
+  /**
+   * Returns the fields (ie columns) to output.
+   *
+   * @return		the fields, empty for all
+   */
+  public BaseString[] getFields() {
+    return m_Fields;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return		tip text for this property suitable for
+   *             	displaying in the GUI or for listing the options.
+   */
+  public String fieldsTipText() {
+    return "The fields (ie column names) to output, outputs all if empty; fields that are not requested do not get converted.";
+  }
+
+  /**
+   * Returns whether the field is to be output.
+   *
+   * @param field	the field (ie column name) to check
+   * @return		true if to output
+   */
+  protected boolean isRequested(String field) {
+    if (m_Fields.length == 0)
+      return true;
+
+    if (m_FieldsLookup == null) {
+      m_FieldsLookup = new HashSet<>();
+      for (BaseString f: m_Fields)
+	m_FieldsLookup.add(f.getValue());
+    }
+
+    return m_FieldsLookup.contains(field);
+  }
+
+  /**
+   * Removes all the columns from the spreadsheet that were not requested.
+   *
+   * @param sheet	the sheet to trim
+   * @return		the (trimmed) sheet
+   */
+  public SpreadSheet project(SpreadSheet sheet) {
+    int		i;
+
+    if (m_Fields.length == 0)
+      return sheet;
+
+    for (i = sheet.getColumnCount() - 1; i >= 0; i--) {
+      if (!isRequested(sheet.getColumnName(i)))
+	sheet.removeColumn(i);
+    }
+
+    return sheet;
+  }
+
   /**
    * Returns whether an UFDL connection is required.
    *
@@ -172,7 +265,7 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
     int			i;
 
     result   = new StringBuilder();
-    template = getTemplate();
+    template = project(getTemplate());
     result.append("Spreadsheet columns:\n");
     for (i = 0; i < template.getColumnCount(); i++)
       result.append((i+1)).append(". ").append(template.getColumnName(i)).append("\n");
@@ -192,7 +285,7 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
     result = super.checkData();
 
     if (result == null) {
-      if (m_ResolveIDs || requiresConnection()) {
+      if ((m_ResolveIDs || requiresConnection()) && (m_Connection == null)) {
 	m_Connection = (UFDLConnection) ActorUtils.findClosestType(m_FlowContext, UFDLConnection.class, true);
 	if (m_Connection == null)
 	  result = "Failed to locate an instance of " + Utils.classToString(UFDLConnection.class) + "!";
@@ -354,4 +447,20 @@ public abstract class AbstractUFDLObjectToSpreadSheetConversion
 
     return result;
   }
+
+  /**
+   * Performs the conversion, removing any columns that were not requested.
+   *
+   * @return		null if successful, otherwise error message
+   */
+  @Override
+  public String convert() {
+    String	result;
+
+    result = super.convert();
+    if ((result == null) && (m_Output instanceof SpreadSheet))
+      m_Output = project((SpreadSheet) m_Output);
+
+    return result;
+  }
 }
@@ -119,17 +119,21 @@ public class UFDLDatasetToSpreadSheet
     row.addCell("tn").setContent(dataset.getName());
     row.addCell("de").setContent(dataset.getDescription());
     row.addCell("do").setContent(dataset.getDomain());
-    row.addCell("ci").setContent(getUser(dataset.getCreator()));
+    if (isRequested("creator"))
+      row.addCell("ci").setContent(getUser(dataset.getCreator()));
     if (dataset.getCreationTime() != null)
       row.addCell("ct").setContent(new DateTimeMsec(Date.from(dataset.getCreationTime().toInstant(ZoneOffset.UTC))));
     if (dataset.getDeletionTime() != null)
       row.addCell("dt").setContent(new DateTimeMsec(Date.from(dataset.getDeletionTime().toInstant(ZoneOffset.UTC))));
-    row.addCell("li").setContent(getLicense(dataset.getLicense()));
-    row.addCell("pi").setContent(getProject(dataset.getProject()));
+    if (isRequested("license"))
+      row.addCell("li").setContent(getLicense(dataset.getLicense()));
+    if (isRequested("project"))
+      row.addCell("pi").setContent(getProject(dataset.getProject()));
     row.addCell("ve").setContent(dataset.getVersion());
     row.addCell("ta").setContent(dataset.getTags());
     row.addCell("pu").setContent(dataset.isPublic());
-    row.addCell("fi").setContent(Utils.flatten(dataset.getFiles(), ","));
+    if (isRequested("files"))
+      row.addCell("fi").setContent(Utils.flatten(dataset.getFiles(), ","));
 
     return result;
   }
@@ -119,8 +119,10 @@ public class UFDLJobTemplateToSpreadSheet
     row.addCell("na").setContentAsString(template.getName());
     row.addCell("ve").setContent(template.getVersion());
     row.addCell("de").setContent(template.getDescription());
-    row.addCell("li").setContent(getLicense(template.getLicense()));
-    row.addCell("cr").setContent(getUser(template.getCreator()));
+    if (isRequested("license"))
+      row.addCell("li").setContent(getLicense(template.getLicense()));
+    if (isRequested("creator"))
+      row.addCell("cr").setContent(getUser(template.getCreator()));
     if (template.getCreationTime() != null)
       row.addCell("ct").setContent(new DateTimeMsec(Date.from(template.getCreationTime().toInstant(ZoneOffset.UTC))));
     if (template.getDeletionTime() != null)
@@ -129,8 +131,10 @@ public class UFDLJobTemplateToSpreadSheet
     row.addCell("ty").setContentAsString(template.getType());
     row.addCell("do").setContentAsString(template.getDomain());
     row.addCell("ec").setContentAsString(template.getExecutorClass());
-    row.addCell("rp").setContentAsString(template.getRequiredPackages());
-    row.addCell("pm").setContentAsString(template.getParameters().toString());
+    if (isRequested("required_packages"))
+      row.addCell("rp").setContentAsString(template.getRequiredPackages());
+    if (isRequested("parameters"))
+      row.addCell("pm").setContentAsString(template.getParameters().toString());
 
     return result;
   }
@@ -116,7 +116,8 @@ public class UFDLJobToSpreadSheet
     row     = result.addRow();
     row.addCell("pk").setContent(job.getPK());
     row.addCell("de").setContentAsString(job.getDescription());
-    row.addCell("cr").setContent(getUser(job.getCreator()));
+    if (isRequested("creator"))
+      row.addCell("cr").setContent(getUser(job.getCreator()));
     if (job.getCreationTime() != null)
       row.addCell("ct").setContent(new DateTimeMsec(Date.from(job.getCreationTime().toInstant(ZoneOffset.UTC))));
     if (job.getDeletionTime() != null)
@@ -126,10 +127,14 @@ public class UFDLJobToSpreadSheet
       row.addCell("st").setContent(new DateTimeMsec(Date.from(job.getStartTime().toInstant(ZoneOffset.UTC))));
     if (job.getEndTime() != null)
       row.addCell("et").setContent(new DateTimeMsec(Date.from(job.getEndTime().toInstant(ZoneOffset.UTC))));
-    row.addCell("jt").setContent(getJobTemplate(job.getJobTemplate()));
-    row.addCell("iv").setContentAsString(job.getInputValues().toString());
-    row.addCell("pv").setContentAsString(job.getParameterValues().toString());
-    row.addCell("ou").setContentAsString(job.getOutputs().toString());
+    if (isRequested("job_template"))
+      row.addCell("jt").setContent(getJobTemplate(job.getJobTemplate()));
+    if (isRequested("input_values"))
+      row.addCell("iv").setContentAsString(job.getInputValues().toString());
+    if (isRequested("parameter_values"))
+      row.addCell("pv").setContentAsString(job.getParameterValues().toString());
+    if (isRequested("outputs"))
+      row.addCell("ou").setContentAsString(job.getOutputs().toString());
     row.addCell("er").setContentAsString(job.getError());
 
     return result;
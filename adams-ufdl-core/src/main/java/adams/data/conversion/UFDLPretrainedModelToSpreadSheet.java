@@ -114,17 +114,20 @@ public class UFDLPretrainedModelToSpreadSheet
     row     = result.addRow();
     row.addCell("pk").setContent(model.getPK());
     row.addCell("na").setContentAsString(model.getName());
-    row.addCell("cr").setContent(getUser(model.getCreator()));
+    if (isRequested("creator"))
+      row.addCell("cr").setContent(getUser(model.getCreator()));
     if (model.getCreationTime() != null)
       row.addCell("ct").setContent(new DateTimeMsec(Date.from(model.getCreationTime().toInstant(ZoneOffset.UTC))));
     if (model.getDeletionTime() != null)
       row.addCell("dt").setContent(new DateTimeMsec(Date.from(model.getDeletionTime().toInstant(ZoneOffset.UTC))));
-    row.addCell("fw").setContent(model.getFramework().getShortDescription());
+    if (isRequested("framework"))
+      row.addCell("fw").setContent(model.getFramework().getShortDescription());
     row.addCell("do").setContentAsString(model.getDomain());
     row.addCell("li").setContent(model.getLicense());
     row.addCell("ur").setContentAsString(model.getURL());
     row.addCell("de").setContentAsString(model.getDescription());
-    row.addCell("me").setContentAsString(model.getMetaData());
+    if (isRequested("metadata"))
+      row.addCell("me").setContentAsString(model.getMetaData());
 
     return result;
   }
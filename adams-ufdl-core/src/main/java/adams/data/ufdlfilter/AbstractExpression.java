@@ -22,6 +22,9 @@ package adams.data.ufdlfilter;
 
 import adams.core.MessageCollection;
 import adams.core.option.AbstractOptionHandler;
+import com.google.gson.JsonObject;
+
+import java.util.function.Predicate;
 
 /**
  * Ancestor for expressions.
@@ -118,4 +121,38 @@ public abstract class AbstractExpression
       }
     }
   }
+
+  /**
+   * Compiles the expression into a predicate for local evaluation.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  protected abstract Predicate<JsonObject> doCompile(MessageCollection errors);
+
+  /**
+   * Compiles the expression into a predicate for evaluating it locally
+   * on the JSON data of objects, rather than on the backend.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  public Predicate<JsonObject> compile(MessageCollection errors) {
+    String	msg;
+
+    msg = check();
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+    else {
+      try {
+	return doCompile(errors);
+      }
+      catch (Exception e) {
+        errors.add("Failed to compile expression!", e);
+        return null;
+      }
+    }
+  }
 }
@@ -75,4 +75,43 @@ public abstract class AbstractUFDLFilter
       }
     }
   }
+
+  /**
+   * Compiles the filter for local evaluation.
+   * <br>
+   * Default implementation reports that local evaluation is not supported.
+   *
+   * @param errors	for collecting errors
+   * @return		the compiled filter, null if failed to compile
+   */
+  protected CompiledFilter doCompile(MessageCollection errors) {
+    errors.add("Local evaluation not supported: " + getClass().getName());
+    return null;
+  }
+
+  /**
+   * Compiles the filter for evaluating it locally on objects that have
+   * already been retrieved from the backend (e.g., cached or mirrored).
+   *
+   * @param errors	for collecting errors
+   * @return		the compiled filter, null if failed to compile
+   */
+  public CompiledFilter compile(MessageCollection errors) {
+    String	msg;
+
+    msg = check();
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+    else {
+      try {
+	return doCompile(errors);
+      }
+      catch (Exception e) {
+        errors.add("Failed to compile filter!", e);
+        return null;
+      }
+    }
+  }
 }
@@ -31,7 +31,8 @@ import com.github.waikatoufdl.ufdl4j.filter.OrderBy;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class AllFilter
-  extends AbstractUFDLFilter {
+  extends AbstractUFDLFilter
+  implements GenericFilterEquivalent {
 
   private static final long serialVersionUID = 2812847375649367286L;
 
@@ -89,6 +90,21 @@ public class AllFilter
     return "If enabled, inactive results will be included in the results.";
   }
 
+  /**
+   * Returns a generic filter that selects the same objects as this filter.
+   *
+   * @return		the equivalent filter
+   */
+  @Override
+  public GenericFilter toGenericFilter() {
+    GenericFilter	result;
+
+    result = new GenericFilter();
+    result.setIncludeInactive(m_IncludeInactive);
+
+    return result;
+  }
+
   /**
    * Generates the filter.
    *
@@ -100,4 +116,15 @@ public class AllFilter
     return new com.github.waikatoufdl.ufdl4j.filter.GenericFilter(
       new AbstractExpression[0], new OrderBy[0], m_IncludeInactive);
   }
+
+  /**
+   * Compiles the filter for local evaluation.
+   *
+   * @param errors	for collecting errors
+   * @return		the compiled filter
+   */
+  @Override
+  protected CompiledFilter doCompile(MessageCollection errors) {
+    return new CompiledFilter(data -> true, null, m_IncludeInactive);
+  }
 }
@@ -0,0 +1,129 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompiledFilter.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.data.ufdlfilter;
+
+import adams.flow.core.UFDLSoftDeleteObjectState;
+import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapper;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Filter compiled from an {@link AbstractUFDLFilter} for evaluating it
+ * locally on objects that have already been retrieved from the backend,
+ * e.g., cached or mirrored lists.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see AbstractUFDLFilter#compile(adams.core.MessageCollection)
+ */
+public class CompiledFilter {
+
+  /** the predicate to apply. */
+  protected Predicate<JsonObject> m_Predicate;
+
+  /** the comparator for sorting (can be null). */
+  protected Comparator<JsonObject> m_Comparator;
+
+  /** whether to include inactive objects. */
+  protected boolean m_IncludeInactive;
+
+  /**
+   * Initializes the filter.
+   *
+   * @param predicate		the predicate to apply
+   * @param comparator		the comparator for sorting, can be null
+   * @param includeInactive	whether to include inactive (ie deleted) objects
+   */
+  public CompiledFilter(Predicate<JsonObject> predicate, Comparator<JsonObject> comparator, boolean includeInactive) {
+    m_Predicate       = predicate;
+    m_Comparator      = comparator;
+    m_IncludeInactive = includeInactive;
+  }
+
+  /**
+   * Returns the predicate.
+   *
+   * @return		the predicate
+   */
+  public Predicate<JsonObject> getPredicate() {
+    return m_Predicate;
+  }
+
+  /**
+   * Returns the comparator for sorting.
+   *
+   * @return		the comparator, null if none
+   */
+  public Comparator<JsonObject> getComparator() {
+    return m_Comparator;
+  }
+
+  /**
+   * Returns whether inactive objects are included.
+   *
+   * @return		true if included
+   */
+  public boolean getIncludeInactive() {
+    return m_IncludeInactive;
+  }
+
+  /**
+   * Checks whether the object passes the filter.
+   *
+   * @param object	the object to check
+   * @return		true if accepted
+   */
+  public boolean accept(AbstractJsonObjectWrapper object) {
+    JsonObject	data;
+
+    data = object.getData();
+    if (!m_IncludeInactive && (LocalEvaluationHelper.getValue(data, new String[]{UFDLSoftDeleteObjectState.DELETION_TIME}) != null))
+      return false;
+
+    return m_Predicate.test(data);
+  }
+
+  /**
+   * Filters and sorts the objects. The order of objects that are equal
+   * according to the comparator is preserved.
+   *
+   * @param objects	the objects to filter
+   * @return		the filtered objects
+   * @param <T>		the type of objects
+   */
+  public <T extends AbstractJsonObjectWrapper> List<T> apply(List<T> objects) {
+    List<T>	result;
+
+    result = new ArrayList<>();
+    for (T object: objects) {
+      if (accept(object))
+	result.add(object);
+    }
+
+    if (m_Comparator != null)
+      result.sort((o1, o2) -> m_Comparator.compare(o1.getData(), o2.getData()));
+
+    return result;
+  }
+}
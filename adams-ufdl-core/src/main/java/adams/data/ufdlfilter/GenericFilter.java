@@ -22,6 +22,12 @@ package adams.data.ufdlfilter;
 
 import adams.core.MessageCollection;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Generic filter, requires knowledge about the API field names.
@@ -224,4 +230,40 @@ public class GenericFilter
 
     return new com.github.waikatoufdl.ufdl4j.filter.GenericFilter(expressions, order, m_IncludeInactive);
   }
+
+  /**
+   * Compiles the filter for local evaluation. Like on the backend, all
+   * expressions must match.
+   *
+   * @param errors	for collecting errors
+   * @return		the compiled filter, null if failed to compile
+   */
+  @Override
+  protected CompiledFilter doCompile(MessageCollection errors) {
+    final List<Predicate<JsonObject>>	predicates;
+    Predicate<JsonObject>		predicate;
+    Comparator<JsonObject>		comparator;
+    Comparator<JsonObject>		current;
+
+    predicates = new ArrayList<>();
+    for (AbstractExpression expression: m_Expressions) {
+      predicate = expression.compile(errors);
+      if (predicate == null)
+	return null;
+      predicates.add(predicate);
+    }
+
+    comparator = null;
+    for (OrderBy order: m_Order) {
+      current = order.compile(errors);
+      if (current == null)
+	return null;
+      comparator = (comparator == null) ? current : comparator.thenComparing(current);
+    }
+
+    return new CompiledFilter(
+      (JsonObject data) -> predicates.stream().allMatch(p -> p.test(data)),
+      comparator,
+      m_IncludeInactive);
+  }
 }
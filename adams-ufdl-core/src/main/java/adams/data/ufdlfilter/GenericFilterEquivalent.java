@@ -0,0 +1,37 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * GenericFilterEquivalent.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.data.ufdlfilter;
+
+/**
+ * Interface for filters that can be expressed as a {@link GenericFilter},
+ * allowing further expressions to get added to what the backend evaluates.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public interface GenericFilterEquivalent {
+
+  /**
+   * Returns a generic filter that selects the same objects as this filter.
+   *
+   * @return		the equivalent filter
+   */
+  public GenericFilter toGenericFilter();
+}
@@ -0,0 +1,208 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * LocalEvaluationHelper.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.data.ufdlfilter;
+
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Helper methods for evaluating filter expressions locally, i.e., on the
+ * JSON data of objects that have already been retrieved from the backend.
+ * The semantics follow the ones of the backend: comparisons with null
+ * values never match and inverting a match also inverts these.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class LocalEvaluationHelper {
+
+  /** the separator for nested fields. */
+  public static final String SEPARATOR = ".";
+
+  /** the separator for lookups on the backend (not supported locally). */
+  public static final String LOOKUP = "__";
+
+  /**
+   * Checks whether the field can be evaluated locally.
+   *
+   * @param field	the field to check
+   * @return		null if supported, otherwise error message
+   */
+  public static String checkField(String field) {
+    if ((field == null) || field.isEmpty())
+      return "No field provided!";
+    if (field.contains(LOOKUP))
+      return "Field lookups are not supported for local evaluation: " + field;
+    return null;
+  }
+
+  /**
+   * Splits the field name into its path elements.
+   *
+   * @param field	the field to split
+   * @return		the path
+   */
+  public static String[] toPath(String field) {
+    return field.split("\\" + SEPARATOR);
+  }
+
+  /**
+   * Returns the value for the specified path.
+   *
+   * @param data	the data to get the value from
+   * @param path	the path to the value
+   * @return		the value, null if not present or null
+   */
+  public static JsonElement getValue(JsonObject data, String[] path) {
+    JsonElement	result;
+    int		i;
+
+    result = data;
+    for (i = 0; i < path.length; i++) {
+      if ((result == null) || !result.isJsonObject())
+	return null;
+      result = result.getAsJsonObject().get(path[i]);
+    }
+
+    if ((result == null) || result.isJsonNull())
+      return null;
+
+    return result;
+  }
+
+  /**
+   * Returns the value as string, if possible.
+   *
+   * @param value	the value to convert
+   * @return		the string, null if not a primitive
+   */
+  public static String toString(JsonElement value) {
+    if ((value == null) || !value.isJsonPrimitive())
+      return null;
+    return value.getAsString();
+  }
+
+  /**
+   * Returns the value as number, if possible. Strings get parsed.
+   *
+   * @param value	the value to convert
+   * @return		the number, null if not numeric
+   */
+  public static Double toNumber(JsonElement value) {
+    JsonPrimitive	prim;
+
+    if ((value == null) || !value.isJsonPrimitive())
+      return null;
+
+    prim = value.getAsJsonPrimitive();
+    if (prim.isNumber())
+      return prim.getAsDouble();
+    if (prim.isString()) {
+      try {
+	return Double.parseDouble(prim.getAsString());
+      }
+      catch (Exception e) {
+	return null;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the value as boolean, if possible.
+   *
+   * @param value	the value to convert
+   * @return		the boolean, null if not a boolean
+   */
+  public static Boolean toBoolean(JsonElement value) {
+    if ((value == null) || !value.isJsonPrimitive() || !value.getAsJsonPrimitive().isBoolean())
+      return null;
+    return value.getAsBoolean();
+  }
+
+  /**
+   * Checks whether the comparison can be evaluated locally.
+   *
+   * @param comparison	the comparison to check
+   * @return		null if supported, otherwise error message
+   */
+  public static String checkComparison(Comparison comparison) {
+    switch (comparison.name()) {
+      case "LESS_THAN":
+      case "LESS_THAN_OR_EQUAL":
+      case "GREATER_THAN":
+      case "GREATER_THAN_OR_EQUAL":
+	return null;
+      default:
+	return "Comparison not supported for local evaluation: " + comparison;
+    }
+  }
+
+  /**
+   * Evaluates the comparison.
+   *
+   * @param comparison	the comparison to perform
+   * @param cmp		the result of comparing the value with the reference value (value.compareTo(reference))
+   * @return		true if the comparison holds
+   * @see		#checkComparison(Comparison)
+   */
+  public static boolean compare(Comparison comparison, int cmp) {
+    switch (comparison.name()) {
+      case "LESS_THAN":
+	return cmp < 0;
+      case "LESS_THAN_OR_EQUAL":
+	return cmp <= 0;
+      case "GREATER_THAN":
+	return cmp > 0;
+      case "GREATER_THAN_OR_EQUAL":
+	return cmp >= 0;
+      default:
+	throw new IllegalStateException("Unhandled comparison: " + comparison);
+    }
+  }
+
+  /**
+   * Compares two non-null values for sorting. Numbers and booleans get
+   * compared by value, other primitives by their string representation.
+   *
+   * @param value1	the first value
+   * @param value2	the second value
+   * @return		the result of the comparison
+   */
+  public static int compareValues(JsonElement value1, JsonElement value2) {
+    JsonPrimitive	prim1;
+    JsonPrimitive	prim2;
+
+    if (!value1.isJsonPrimitive() || !value2.isJsonPrimitive())
+      return value1.toString().compareTo(value2.toString());
+
+    prim1 = value1.getAsJsonPrimitive();
+    prim2 = value2.getAsJsonPrimitive();
+    if (prim1.isNumber() && prim2.isNumber())
+      return Double.compare(prim1.getAsDouble(), prim2.getAsDouble());
+    if (prim1.isBoolean() && prim2.isBoolean())
+      return Boolean.compare(prim1.getAsBoolean(), prim2.getAsBoolean());
+
+    return prim1.getAsString().compareTo(prim2.getAsString());
+  }
+}
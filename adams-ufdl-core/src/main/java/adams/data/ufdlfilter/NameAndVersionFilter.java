@@ -21,6 +21,7 @@
 package adams.data.ufdlfilter;
 
 import adams.core.MessageCollection;
+import adams.data.ufdlfilter.field.ExactString;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.filter.Filter;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class NameAndVersionFilter
-  extends AbstractUFDLFilter {
+  extends AbstractUFDLFilter
+  implements GenericFilterEquivalent {
 
   private static final long serialVersionUID = 2619705759928753024L;
 
@@ -142,6 +144,23 @@ public class NameAndVersionFilter
     return "The exact version to look for.";
   }
 
+  /**
+   * Returns a generic filter that selects the same objects as this filter.
+   *
+   * @return		the equivalent filter
+   */
+  @Override
+  public GenericFilter toGenericFilter() {
+    GenericFilter	result;
+
+    result = new GenericFilter();
+    result.setIncludeInactive(false);
+    result.addExpression(new ExactString("name", m_Name, false));
+    result.addExpression(new ExactString("version", m_Version, false));
+
+    return result;
+  }
+
   /**
    * Generates the filter.
    *
@@ -152,4 +171,15 @@ public class NameAndVersionFilter
   protected Filter doGenerate(MessageCollection errors) {
     return new com.github.waikatoufdl.ufdl4j.filter.NameAndVersionFilter(m_Name, m_Version);
   }
+
+  /**
+   * Compiles the filter for local evaluation.
+   *
+   * @param errors	for collecting errors
+   * @return		the compiled filter, null if failed to compile
+   */
+  @Override
+  protected CompiledFilter doCompile(MessageCollection errors) {
+    return toGenericFilter().compile(errors);
+  }
 }
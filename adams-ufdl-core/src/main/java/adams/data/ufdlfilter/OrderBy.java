@@ -23,6 +23,10 @@ package adams.data.ufdlfilter;
 import adams.core.MessageCollection;
 import adams.core.TriState;
 import adams.core.option.AbstractOptionHandler;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.Comparator;
 
 /**
  * For imposing order on the filtering.
@@ -227,4 +231,42 @@ public class OrderBy
       return null;
     }
   }
+
+  /**
+   * Compiles the ordering into a comparator for sorting locally. Without
+   * an explicit nulls setting, nulls are treated as larger than any other
+   * value (ie last when ascending, first when descending), like the
+   * database does.
+   *
+   * @param errors	for collecting errors
+   * @return		the comparator, null if failed to compile
+   */
+  public Comparator<JsonObject> compile(MessageCollection errors) {
+    final String[]	path;
+    final boolean	ascending;
+    final Boolean	nullsFirst;
+    String		msg;
+
+    msg = LocalEvaluationHelper.checkField(m_Field);
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+
+    path       = LocalEvaluationHelper.toPath(m_Field);
+    ascending  = m_Ascending;
+    nullsFirst = m_NullsFirst.toBoolean();
+    return (JsonObject o1, JsonObject o2) -> {
+      JsonElement v1 = LocalEvaluationHelper.getValue(o1, path);
+      JsonElement v2 = LocalEvaluationHelper.getValue(o2, path);
+      if ((v1 == null) && (v2 == null))
+	return 0;
+      if ((v1 == null) || (v2 == null)) {
+	if (nullsFirst == null)
+	  return ((v1 == null) ? 1 : -1) * (ascending ? 1 : -1);
+	return ((v1 == null) == nullsFirst) ? -1 : 1;
+      }
+      return LocalEvaluationHelper.compareValues(v1, v2) * (ascending ? 1 : -1);
+    };
+  }
 }
@@ -21,6 +21,7 @@
 package adams.data.ufdlfilter;
 
 import adams.core.MessageCollection;
+import adams.data.ufdlfilter.field.ExactString;
 import com.github.waikatoufdl.ufdl4j.filter.Filter;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.filter.Filter;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class VersionFilter
-  extends AbstractUFDLFilter {
+  extends AbstractUFDLFilter
+  implements GenericFilterEquivalent {
 
   private static final long serialVersionUID = 2619705759928753024L;
 
@@ -104,6 +106,22 @@ public class VersionFilter
     return "The exact version to look for.";
   }
 
+  /**
+   * Returns a generic filter that selects the same objects as this filter.
+   *
+   * @return		the equivalent filter
+   */
+  @Override
+  public GenericFilter toGenericFilter() {
+    GenericFilter	result;
+
+    result = new GenericFilter();
+    result.setIncludeInactive(false);
+    result.addExpression(new ExactString("version", m_Version, false));
+
+    return result;
+  }
+
   /**
    * Generates the filter.
    *
@@ -114,4 +132,15 @@ public class VersionFilter
   protected Filter doGenerate(MessageCollection errors) {
     return new com.github.waikatoufdl.ufdl4j.filter.VersionFilter(m_Version);
   }
+
+  /**
+   * Compiles the filter for local evaluation.
+   *
+   * @param errors	for collecting errors
+   * @return		the compiled filter, null if failed to compile
+   */
+  @Override
+  protected CompiledFilter doCompile(MessageCollection errors) {
+    return toGenericFilter().compile(errors);
+  }
 }
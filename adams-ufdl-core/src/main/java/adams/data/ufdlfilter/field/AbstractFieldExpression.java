@@ -20,7 +20,13 @@
 
 package adams.data.ufdlfilter.field;
 
+import adams.core.MessageCollection;
 import adams.data.ufdlfilter.AbstractExpression;
+import adams.data.ufdlfilter.LocalEvaluationHelper;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.function.Predicate;
 
 /**
  * Ancestor for expressions that operate on fields.
@@ -92,4 +98,41 @@ public abstract class AbstractFieldExpression
   public String fieldTipText() {
     return "The name of the field to operate on.";
   }
+
+  /**
+   * Compiles the test for the value of the field. The value is null if
+   * the field is not present or null.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  protected abstract Predicate<JsonElement> compileValue(MessageCollection errors);
+
+  /**
+   * Compiles the expression into a predicate for local evaluation.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonObject> doCompile(MessageCollection errors) {
+    final String[]		path;
+    final boolean		invert;
+    final Predicate<JsonElement>	value;
+    String			msg;
+
+    msg = LocalEvaluationHelper.checkField(m_Field);
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+
+    value = compileValue(errors);
+    if (value == null)
+      return null;
+
+    path   = LocalEvaluationHelper.toPath(m_Field);
+    invert = m_Invert;
+    return (JsonObject data) -> value.test(LocalEvaluationHelper.getValue(data, path)) != invert;
+  }
 }
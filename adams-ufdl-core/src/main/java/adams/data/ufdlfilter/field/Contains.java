@@ -21,7 +21,11 @@
 package adams.data.ufdlfilter.field;
 
 import adams.core.MessageCollection;
+import adams.data.ufdlfilter.LocalEvaluationHelper;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.google.gson.JsonElement;
+
+import java.util.function.Predicate;
 
 /**
  * Checks for sub-strings in string fields.
@@ -153,4 +157,25 @@ public class Contains
   protected AbstractExpression doGenerate(MessageCollection errors) {
     return new com.github.waikatoufdl.ufdl4j.filter.field.Contains(m_Field, m_SubString, m_CaseInsensitive, m_Invert);
   }
+
+  /**
+   * Compiles the test for the value of the field.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonElement> compileValue(MessageCollection errors) {
+    final String	subString;
+    final boolean	caseInsensitive;
+
+    caseInsensitive = m_CaseInsensitive;
+    subString       = caseInsensitive ? m_SubString.toLowerCase() : m_SubString;
+    return (JsonElement value) -> {
+      String str = LocalEvaluationHelper.toString(value);
+      if (str == null)
+	return false;
+      return (caseInsensitive ? str.toLowerCase() : str).contains(subString);
+    };
+  }
 }
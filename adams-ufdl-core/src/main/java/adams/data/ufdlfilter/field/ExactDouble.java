@@ -21,7 +21,11 @@
 package adams.data.ufdlfilter.field;
 
 import adams.core.MessageCollection;
+import adams.data.ufdlfilter.LocalEvaluationHelper;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.google.gson.JsonElement;
+
+import java.util.function.Predicate;
 
 /**
  * Performs an exact match.
@@ -115,4 +119,21 @@ public class ExactDouble
   protected AbstractExpression doGenerate(MessageCollection errors) {
     return new com.github.waikatoufdl.ufdl4j.filter.field.ExactNumber(m_Field, m_Value, m_Invert);
   }
+
+  /**
+   * Compiles the test for the value of the field.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonElement> compileValue(MessageCollection errors) {
+    final double	reference;
+
+    reference = m_Value;
+    return (JsonElement value) -> {
+      Double num = LocalEvaluationHelper.toNumber(value);
+      return (num != null) && (Double.compare(num, reference) == 0);
+    };
+  }
 }
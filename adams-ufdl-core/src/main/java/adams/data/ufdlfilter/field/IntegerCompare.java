@@ -21,7 +21,12 @@
 package adams.data.ufdlfilter.field;
 
 import adams.core.MessageCollection;
+import adams.data.ufdlfilter.LocalEvaluationHelper;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+import com.google.gson.JsonElement;
+
+import java.util.function.Predicate;
 
 /**
  * Compares integers using the specified comparison operator.
@@ -36,6 +41,25 @@ public class IntegerCompare
   /** the value to compare against. */
   protected int m_Value;
 
+  /**
+   * Default constructor.
+   */
+  public IntegerCompare() {
+    super();
+  }
+
+  /**
+   * Initializes the expression.
+   *
+   * @param field	the field to operate on
+   * @param comparison	the comparison to perform
+   * @param value	the value to compare against
+   */
+  public IntegerCompare(String field, Comparison comparison, int value) {
+    super(field, comparison);
+    setValue(value);
+  }
+
   /**
    * Returns a string describing the object.
    *
@@ -97,4 +121,30 @@ public class IntegerCompare
   protected AbstractExpression doGenerate(MessageCollection errors) {
     return new com.github.waikatoufdl.ufdl4j.filter.field.NumericCompare(m_Field, m_Value, m_Comparison, m_Invert);
   }
+
+  /**
+   * Compiles the test for the value of the field.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonElement> compileValue(MessageCollection errors) {
+    final double	reference;
+    final Comparison	comparison;
+    String		msg;
+
+    msg = LocalEvaluationHelper.checkComparison(m_Comparison);
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+
+    reference  = m_Value;
+    comparison = m_Comparison;
+    return (JsonElement value) -> {
+      Double num = LocalEvaluationHelper.toNumber(value);
+      return (num != null) && LocalEvaluationHelper.compare(comparison, Double.compare(num, reference));
+    };
+  }
 }
@@ -22,6 +22,9 @@ package adams.data.ufdlfilter.field;
 
 import adams.core.MessageCollection;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.google.gson.JsonElement;
+
+import java.util.function.Predicate;
 
 /**
  * Checks for null values in fields.
@@ -69,4 +72,15 @@ public class IsNull
   protected AbstractExpression doGenerate(MessageCollection errors) {
     return new com.github.waikatoufdl.ufdl4j.filter.field.IsNull(m_Field, m_Invert);
   }
+
+  /**
+   * Compiles the test for the value of the field.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonElement> compileValue(MessageCollection errors) {
+    return (JsonElement value) -> (value == null);
+  }
 }
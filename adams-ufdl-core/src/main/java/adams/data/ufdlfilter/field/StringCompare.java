@@ -21,7 +21,12 @@
 package adams.data.ufdlfilter.field;
 
 import adams.core.MessageCollection;
+import adams.data.ufdlfilter.LocalEvaluationHelper;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+import com.google.gson.JsonElement;
+
+import java.util.function.Predicate;
 
 /**
  * Compares strings using the specified comparison operator.
@@ -97,4 +102,30 @@ public class StringCompare
   protected AbstractExpression doGenerate(MessageCollection errors) {
     return new com.github.waikatoufdl.ufdl4j.filter.field.StringCompare(m_Field, m_Value, m_Comparison, m_Invert);
   }
+
+  /**
+   * Compiles the test for the value of the field.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonElement> compileValue(MessageCollection errors) {
+    final String	reference;
+    final Comparison	comparison;
+    String		msg;
+
+    msg = LocalEvaluationHelper.checkComparison(m_Comparison);
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+
+    reference  = m_Value;
+    comparison = m_Comparison;
+    return (JsonElement value) -> {
+      String str = LocalEvaluationHelper.toString(value);
+      return (str != null) && LocalEvaluationHelper.compare(comparison, str.compareTo(reference));
+    };
+  }
 }
@@ -20,7 +20,13 @@
 
 package adams.data.ufdlfilter.logical;
 
+import adams.core.MessageCollection;
 import adams.data.ufdlfilter.AbstractExpression;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Ancestor for logical expressions.
@@ -95,4 +101,25 @@ public abstract class AbstractLogicalExpression
 
     return this;
   }
+
+  /**
+   * Compiles the sub-expressions.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicates, null if failed to compile
+   */
+  protected List<Predicate<JsonObject>> compileSubExpressions(MessageCollection errors) {
+    List<Predicate<JsonObject>>	result;
+    Predicate<JsonObject>	predicate;
+
+    result = new ArrayList<>();
+    for (AbstractExpression expression: m_SubExpressions) {
+      predicate = expression.compile(errors);
+      if (predicate == null)
+	return null;
+      result.add(predicate);
+    }
+
+    return result;
+  }
 }
@@ -22,6 +22,10 @@ package adams.data.ufdlfilter.logical;
 
 import adams.core.MessageCollection;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.google.gson.JsonObject;
+
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Represents a logical AND combination of the sub-expressions.
@@ -80,4 +84,21 @@ public class And
 
     return new com.github.waikatoufdl.ufdl4j.filter.logical.And(expressions);
   }
+
+  /**
+   * Compiles the expression into a predicate for local evaluation.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonObject> doCompile(MessageCollection errors) {
+    final List<Predicate<JsonObject>>	predicates;
+
+    predicates = compileSubExpressions(errors);
+    if (predicates == null)
+      return null;
+
+    return (JsonObject data) -> predicates.stream().allMatch(p -> p.test(data));
+  }
 }
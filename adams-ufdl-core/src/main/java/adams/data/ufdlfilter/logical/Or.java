@@ -22,6 +22,10 @@ package adams.data.ufdlfilter.logical;
 
 import adams.core.MessageCollection;
 import com.github.waikatoufdl.ufdl4j.filter.AbstractExpression;
+import com.google.gson.JsonObject;
+
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
  * Represents a logical OR combination of the sub-expressions.
@@ -63,4 +67,21 @@ public class Or
 
     return new com.github.waikatoufdl.ufdl4j.filter.logical.Or(expressions);
   }
+
+  /**
+   * Compiles the expression into a predicate for local evaluation.
+   *
+   * @param errors	for collecting errors
+   * @return		the predicate, null if failed to compile
+   */
+  @Override
+  protected Predicate<JsonObject> doCompile(MessageCollection errors) {
+    final List<Predicate<JsonObject>>	predicates;
+
+    predicates = compileSubExpressions(errors);
+    if (predicates == null)
+      return null;
+
+    return (JsonObject data) -> predicates.stream().anyMatch(p -> p.test(data));
+  }
 }
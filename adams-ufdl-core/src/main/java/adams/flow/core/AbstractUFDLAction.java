@@ -20,9 +20,22 @@
 
 package adams.flow.core;
 
+import adams.core.MessageCollection;
 import adams.core.QuickInfoSupporter;
 import adams.core.option.AbstractOptionHandler;
+import adams.core.option.OptionUtils;
+import adams.data.ufdlfilter.AbstractUFDLFilter;
+import adams.data.ufdlfilter.AllFilter;
+import adams.data.ufdlfilter.CompiledFilter;
+import adams.flow.standalone.UFDLConnection;
+import adams.flow.standalone.ufdlcache.QueryResultCache;
 import com.github.waikatoufdl.ufdl4j.Client;
+import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapper;
+import com.github.waikatoufdl.ufdl4j.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Ancestor for all UFDL actions.
@@ -35,12 +48,32 @@ public abstract class AbstractUFDLAction
 
   private static final long serialVersionUID = -7067718770232842692L;
 
+  /**
+   * Interface for list queries against the backend.
+   *
+   * @param <T> the type of objects to list
+   */
+  public interface ListQuery<T> {
+
+    /**
+     * Lists the objects.
+     *
+     * @param filter	the filter to apply
+     * @return		the objects
+     * @throws Exception	if the API call fails
+     */
+    public List<T> list(Filter filter) throws Exception;
+  }
+
   /** the client to use for interacting with the backend. */
   protected transient Client m_Client;
 
   /** the flow context. */
   protected Actor m_FlowContext;
 
+  /** the connection to use instead of locating it via the flow context. */
+  protected transient UFDLConnection m_Connection;
+
   /**
    * Sets the flow context.
    *
@@ -96,4 +129,218 @@ public abstract class AbstractUFDLAction
   public Client getClient() {
     return m_Client;
   }
+
+  /**
+   * Sets the connection to use, rather than locating it via the flow context,
+   * e.g., when querying multiple servers.
+   *
+   * @param value	the connection, null to locate it via the flow context
+   */
+  public void setConnection(UFDLConnection value) {
+    m_Connection = value;
+  }
+
+  /**
+   * Returns the connection that was set explicitly or, if none set, locates
+   * the connection via the flow context.
+   *
+   * @return		the connection, null if none found
+   */
+  protected UFDLConnection getConnection() {
+    if (m_Connection != null)
+      return m_Connection;
+    if (m_FlowContext == null)
+      return null;
+    return (UFDLConnection) ActorUtils.findClosestType(m_FlowContext, UFDLConnection.class, true);
+  }
+
+  /**
+   * Returns the cache for the results of list queries.
+   *
+   * @return		the cache, null if not available
+   */
+  protected QueryResultCache getQueryResultCache() {
+    UFDLConnection	conn;
+
+    conn = getConnection();
+    if ((conn == null) || (conn.getCacheManager() == null))
+      return null;
+    return conn.getCacheManager().queryResults();
+  }
+
+  /**
+   * Evaluates the filter locally on the cached complete list of objects,
+   * i.e., the result of an {@link AllFilter} that includes inactive objects.
+   *
+   * @param cache	the cache to use
+   * @param entity	the type of objects to list
+   * @param filter	the filter to apply
+   * @return		the objects, null if not possible
+   * @param <T>		the type of objects
+   */
+  protected <T> List<T> evaluateLocally(QueryResultCache cache, Class<T> entity, AbstractUFDLFilter filter) {
+    AllFilter				all;
+    List<T>				objects;
+    List<AbstractJsonObjectWrapper>	wrappers;
+    CompiledFilter			compiled;
+    MessageCollection			errors;
+
+    all = new AllFilter();
+    all.setIncludeInactive(true);
+    objects = (List<T>) cache.peek(entity, OptionUtils.getCommandLine(all));
+    if (objects == null)
+      return null;
+
+    errors   = new MessageCollection();
+    compiled = filter.compile(errors);
+    if (compiled == null) {
+      if (isLoggingEnabled())
+	getLogger().info("Cannot evaluate filter locally: " + errors);
+      return null;
+    }
+
+    wrappers = new ArrayList<>();
+    for (T object: objects) {
+      if (!(object instanceof AbstractJsonObjectWrapper))
+	return null;
+      wrappers.add((AbstractJsonObjectWrapper) object);
+    }
+
+    return (List<T>) Collections.unmodifiableList(compiled.apply(wrappers));
+  }
+
+  /**
+   * Lists the objects from the local mirror, evaluating the filter locally.
+   *
+   * @param entity	the type of objects to list
+   * @param filter	the filter to apply
+   * @return		the objects (read-only)
+   * @param <T>		the type of objects
+   * @throws Exception	if no mirror available or the filter cannot be evaluated locally
+   */
+  protected <T> List<T> listMirror(Class<T> entity, AbstractUFDLFilter filter) throws Exception {
+    UFDLConnection			conn;
+    List<T>				objects;
+    List<AbstractJsonObjectWrapper>	wrappers;
+    CompiledFilter			compiled;
+    MessageCollection			errors;
+    String				msg;
+
+    conn = getConnection();
+    if ((conn == null) || (conn.getCacheManager() == null))
+      throw new IllegalStateException("No connection available for accessing the mirror!");
+    msg = conn.getCacheManager().mirror().checkDirectory(true);
+    if (msg != null)
+      throw new IllegalStateException(msg);
+
+    errors   = new MessageCollection();
+    compiled = filter.compile(errors);
+    if (compiled == null)
+      throw new IllegalStateException("Filter cannot be evaluated on the mirror: " + errors);
+
+    objects  = conn.getCacheManager().mirror().load(entity);
+    wrappers = new ArrayList<>();
+    for (T object: objects)
+      wrappers.add((AbstractJsonObjectWrapper) object);
+    if (isLoggingEnabled())
+      getLogger().info("Evaluating on mirror: " + OptionUtils.getCommandLine(filter));
+
+    return (List<T>) Collections.unmodifiableList(compiled.apply(wrappers));
+  }
+
+  /**
+   * Executes the list query, using the cached result of a previous
+   * execution with the same filter if available. If enabled on the
+   * connection, the filter gets evaluated locally on the cached complete
+   * list of objects. The filter only gets generated if the query needs
+   * to be executed. Actions that implement {@link UFDLMirrorHandler} and
+   * have the mirror enabled read the objects from the local mirror instead.
+   *
+   * @param entity	the type of objects to list
+   * @param filter	the filter to apply
+   * @param query	the query to execute
+   * @param errors	for collecting errors
+   * @return		the objects (read-only if cached)
+   * @param <T>		the type of objects
+   * @throws Exception	if the API call fails
+   */
+  protected <T> List<T> list(Class<T> entity, AbstractUFDLFilter filter, ListQuery<T> query, MessageCollection errors) throws Exception {
+    List<T>		result;
+    QueryResultCache	cache;
+    String		key;
+    int			numErrors;
+
+    if ((this instanceof UFDLMirrorHandler) && ((UFDLMirrorHandler) this).getUseMirror())
+      return listMirror(entity, filter);
+
+    cache = getQueryResultCache();
+    if ((cache == null) || (cache.getMaxSize() == 0))
+      return query.list(filter.generate(errors));
+
+    key    = OptionUtils.getCommandLine(filter);
+    result = (List<T>) cache.get(entity, key);
+    if (result != null) {
+      if (isLoggingEnabled())
+	getLogger().info("Using cached results: " + key);
+      return result;
+    }
+
+    if (getConnection().getLocalEvaluation()) {
+      result = evaluateLocally(cache, entity, filter);
+      if (result != null) {
+	if (isLoggingEnabled())
+	  getLogger().info("Evaluated locally: " + key);
+	cache.put(entity, key, result);
+	return result;
+      }
+    }
+
+    numErrors = errors.size();
+    result    = query.list(filter.generate(errors));
+    if ((result != null) && (errors.size() == numErrors)) {
+      result = Collections.unmodifiableList(new ArrayList<>(result));
+      cache.put(entity, key, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns whether the action only reads from the backend, allowing its
+   * requests to go to a replica.
+   * <br>
+   * Default implementation checks for {@link UFDLReadOnlyAction}.
+   *
+   * @return		true if read-only
+   */
+  public boolean isReadOnly() {
+    return (this instanceof UFDLReadOnlyAction);
+  }
+
+  /**
+   * Invalidates the cached results of list queries for the types that
+   * this action modifies. Actions that are neither read-only nor implement
+   * {@link UFDLModifyingAction} invalidate all cached results, as the
+   * modified types are unknown. Does nothing if no connection can be located.
+   *
+   * @see #isReadOnly()
+   */
+  protected void invalidateQueryResults() {
+    QueryResultCache	cache;
+
+    if (isReadOnly())
+      return;
+
+    cache = getQueryResultCache();
+    if (cache == null)
+      return;
+
+    if (this instanceof UFDLModifyingAction) {
+      for (Class type: ((UFDLModifyingAction) this).getModifiedTypes())
+	cache.invalidate(type);
+    }
+    else {
+      cache.invalidateAll();
+    }
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLBatchSupporter.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import adams.core.MessageCollection;
+
+import java.util.List;
+
+/**
+ * Interface for transformer actions that can process several inputs at
+ * once, cutting down the number of round trips to the backend.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public interface UFDLBatchSupporter {
+
+  /**
+   * Checks the input and captures it together with the current option
+   * values, as these can change with every token (e.g., via variables).
+   *
+   * @param input	the input to capture
+   * @param errors	for collecting errors
+   * @return		the batch item, null if the input was rejected
+   */
+  public Object newBatchItem(Object input, MessageCollection errors);
+
+  /**
+   * Transforms the batch items.
+   *
+   * @param items	the items to transform, generated by {@link #newBatchItem(Object, MessageCollection)}
+   * @param errors	for collecting errors
+   * @return		the outputs, in the same order as the items (null for failed items or no output)
+   */
+  public List<Object> transformBatch(List<Object> items, MessageCollection errors);
+}
@@ -0,0 +1,66 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLErrorQueueHelper.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import adams.core.DateUtils;
+import adams.core.MessageCollection;
+import adams.data.text.TextContainer;
+import adams.flow.control.StorageName;
+import adams.flow.control.StorageQueueHandler;
+
+import java.util.Date;
+
+/**
+ * Helper class for forwarding errors of UFDL actions to an error queue.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class UFDLErrorQueueHelper {
+
+  /**
+   * Forwards the errors to the error queue as {@link TextContainer}, with
+   * the errors as content. The report contains the actor ('Actor'), the
+   * command-line of the action ('Action') and the date/time ('Timestamp').
+   *
+   * @param actor	the actor that generated the errors
+   * @param errorQueue	the name of the error queue
+   * @param action	the action that generated the errors
+   * @param errors	the errors to forward
+   */
+  public static void forwardErrors(Actor actor, StorageName errorQueue, AbstractUFDLAction action, MessageCollection errors) {
+    StorageQueueHandler queue;
+    TextContainer	cont;
+
+    queue = QueueHelper.getQueue(actor, errorQueue);
+    if (queue != null) {
+      cont = new TextContainer();
+      cont.setContent(errors.toString());
+      cont.setID(actor.getFullName());
+      cont.getReport().setStringValue("Actor", actor.getFullName());
+      cont.getReport().setStringValue("Action", action.toCommandLine());
+      cont.getReport().setStringValue("Timestamp", DateUtils.getTimestampFormatterMsecs().format(new Date()));
+      queue.add(cont);
+    }
+    else {
+      actor.getLogger().warning("Error queue not found: " + errorQueue);
+    }
+  }
+}
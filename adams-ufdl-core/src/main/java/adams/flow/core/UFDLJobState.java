@@ -0,0 +1,75 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLJobState.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import com.github.waikatoufdl.ufdl4j.action.Jobs.Job;
+
+/**
+ * Enumeration for the states of a job, derived from its node, start/end
+ * time, error and deletion time.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public enum UFDLJobState {
+  /** waiting for a node. */
+  PENDING,
+  /** acquired by a node, but not started yet. */
+  ACQUIRED,
+  /** running. */
+  RUNNING,
+  /** finished successfully. */
+  FINISHED,
+  /** finished with an error. */
+  FAILED,
+  /** cancelled/deleted. */
+  CANCELLED;
+
+  /**
+   * Returns whether the state is a final one.
+   *
+   * @return		true if final
+   */
+  public boolean isTerminal() {
+    return (this == FINISHED) || (this == FAILED) || (this == CANCELLED);
+  }
+
+  /**
+   * Determines the state of the job.
+   *
+   * @param job		the job to determine the state for
+   * @return		the state
+   */
+  public static UFDLJobState determine(Job job) {
+    if (job.getDeletionTime() != null)
+      return CANCELLED;
+    if (job.getEndTime() != null) {
+      if ((job.getError() != null) && !job.getError().trim().isEmpty())
+        return FAILED;
+      else
+        return FINISHED;
+    }
+    if (job.getStartTime() != null)
+      return RUNNING;
+    if (job.getNode() != null)
+      return ACQUIRED;
+    return PENDING;
+  }
+}
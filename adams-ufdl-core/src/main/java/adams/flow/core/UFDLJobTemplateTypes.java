@@ -0,0 +1,210 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLJobTemplateTypes.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import adams.core.Utils;
+import com.github.waikatoufdl.ufdl4j.action.Domains.Domain;
+import com.github.waikatoufdl.ufdl4j.action.Frameworks.Framework;
+import com.github.waikatoufdl.ufdl4j.action.JobTemplates;
+import com.github.waikatoufdl.ufdl4j.core.Types;
+
+import java.io.Serializable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.github.waikatoufdl.ufdl4j.core.Types.dataset;
+import static com.github.waikatoufdl.ufdl4j.core.Types.dockerImage;
+import static com.github.waikatoufdl.ufdl4j.core.Types.domain;
+import static com.github.waikatoufdl.ufdl4j.core.Types.pk;
+
+/**
+ * Helper class for determining the types of job template inputs and
+ * parameters and for converting values into these types.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class UFDLJobTemplateTypes
+  implements Serializable {
+
+  private static final long serialVersionUID = -4520185938364372071L;
+
+  /**
+   * Returns the type of the input, if supported.
+   *
+   * @param domain	the domain of the template
+   * @param type	the type of the input
+   * @return		the type, null if not supported
+   */
+  public static String getInputType(Domain domain, String type) {
+    if (type == null)
+      return null;
+    if (type.equals(pk(dataset(domain(domain)))))
+      return type;
+    if (type.startsWith("JobOutput<"))
+      return type;
+    return null;
+  }
+
+  /**
+   * Returns the first supported type of the parameter. Size limited arrays
+   * get turned into open ones.
+   *
+   * @param domain	the domain of the template
+   * @param framework	the framework of the template
+   * @param parameter	the parameter to get the type for
+   * @param logger	for logging unhandled types
+   * @return		the type, null if none supported
+   * @throws IllegalStateException	if an unhandled docker image type is encountered
+   */
+  public static String getParameterType(Domain domain, Framework framework, JobTemplates.Parameter parameter, Logger logger) {
+    String 	datasetPK;
+    String 	dockerImage;
+    String 	dockerImagePK;
+    String 	dockerImageName;
+    boolean	ignored;
+
+    datasetPK       = pk(dataset(domain(domain)));
+    dockerImage     = dockerImage(domain, framework, null);
+    dockerImagePK   = Types.PK + dockerImage;
+    dockerImageName = Types.NAME + dockerImage;
+
+    ignored = false;
+    for (String type: parameter.getTypes()) {
+      if (type.equals(datasetPK))
+	return type;
+      if (type.startsWith(dockerImagePK))
+	return type;
+      if (type.startsWith(dockerImageName) || type.startsWith(dockerImage)) {
+	// handled by dockerImagePK
+	ignored = true;
+	continue;
+      }
+
+      // change size limited arrays to open ones:
+      if (type.startsWith(Types.ARRAY_BOOL_LIMITED))
+	type = Types.ARRAY_BOOL;
+      else if (type.startsWith(Types.ARRAY_INT_LIMITED))
+	type = Types.ARRAY_INT;
+      else if (type.startsWith(Types.ARRAY_FLOAT_LIMITED))
+	type = Types.ARRAY_FLOAT;
+      else if (type.startsWith(Types.ARRAY_STR_LIMITED))
+	type = Types.ARRAY_STR;
+
+      switch (type) {
+	case Types.PRIMITIVE_BOOL:
+	case Types.PRIMITIVE_INT:
+	case Types.PRIMITIVE_FLOAT:
+	case Types.PRIMITIVE_STR:
+	case Types.ARRAY_STR:
+	case Types.ARRAY_BOOL:
+	case Types.ARRAY_INT:
+	case Types.ARRAY_FLOAT:
+	  return type;
+
+	default:
+	  if (!ignored) {
+	    if (type.contains(Types.DOCKER_IMAGE))
+	      throw new IllegalStateException("Unhandled parameter type: " + type + "\n" + parameter.toString());
+	    else
+	      logger.warning("Unhandled parameter type: " + type + "\n" + parameter.toString());
+	  }
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Fixes the type of the value if necessary. Arrays are expected to
+   * be separated by new lines.
+   *
+   * @param key		the name of the input/parameter
+   * @param type	the desired type
+   * @param value	the current value
+   * @param logger	for logging parse errors
+   * @return		the potentially fixed value
+   */
+  public static Object fixValue(String key, String type, Object value, Logger logger) {
+    String[]	parts;
+    Boolean[]	boolArray;
+    Integer[]	intArray;
+    Double[]	numArray;
+    int		i;
+
+    try {
+      if (value instanceof String) {
+	if (type.startsWith(Types.PK)) {
+	  value = Integer.parseInt((String) value);
+	}
+	else if (type.startsWith(Types.JOB_OUTPUT)) {
+	  value = Integer.parseInt((String) value);
+	}
+	else if (type.equals(Types.ARRAY_STR) || type.startsWith(Types.ARRAY_STR_LIMITED)) {
+	  value = Utils.unbackQuoteChars((String) value).split("\n");
+	  // TODO check size
+	}
+	else if (type.equals(Types.ARRAY_INT) || type.startsWith(Types.ARRAY_INT_LIMITED)) {
+	  parts    = ((String) value).split("\n");
+	  intArray = new Integer[parts.length];
+	  for (i = 0; i < parts.length; i++)
+	    intArray[i] = Integer.parseInt(parts[i]);
+	  value = intArray;
+	  // TODO check size
+	}
+	else if (type.equals(Types.ARRAY_BOOL) || type.startsWith(Types.ARRAY_BOOL_LIMITED)) {
+	  parts     = ((String) value).split("\n");
+	  boolArray = new Boolean[parts.length];
+	  for (i = 0; i < parts.length; i++)
+	    boolArray[i] = Boolean.parseBoolean(parts[i]);
+	  value = boolArray;
+	  // TODO check size
+	}
+	else if (type.equals(Types.ARRAY_FLOAT) || type.startsWith(Types.ARRAY_FLOAT_LIMITED)) {
+	  parts    = ((String) value).split("\n");
+	  numArray = new Double[parts.length];
+	  for (i = 0; i < parts.length; i++)
+	    numArray[i] = Double.parseDouble(parts[i]);
+	  value = numArray;
+	  // TODO check size
+	}
+	else {
+	  switch (type) {
+	    case Types.PRIMITIVE_BOOL:
+	      value = Boolean.parseBoolean((String) value);
+	      break;
+	    case Types.PRIMITIVE_INT:
+	      value = Integer.parseInt((String) value);
+	      break;
+	    case Types.PRIMITIVE_FLOAT:
+	      value = Double.parseDouble((String) value);
+	      break;
+	  }
+	}
+      }
+
+      return value;
+    }
+    catch (Exception e) {
+      logger.log(Level.SEVERE, "Failed to parse key/type/value: " + key + "/" + type + "/" + value);
+      return value;
+    }
+  }
+}
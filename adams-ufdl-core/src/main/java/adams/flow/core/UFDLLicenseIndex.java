@@ -0,0 +1,191 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLLicenseIndex.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Condition;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Domain;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Limitation;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Permission;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Index for querying licenses by domains, permissions, limitations and
+ * conditions. For each enum value, a bitset records which licenses
+ * (by position) have it, so that a query is merely an AND over the
+ * bitsets of the requested values.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class UFDLLicenseIndex
+  implements Serializable {
+
+  private static final long serialVersionUID = 2968128478329419166L;
+
+  /** the licenses. */
+  protected License[] m_Licenses;
+
+  /** the domain bitsets (ordinal -> licenses). */
+  protected BitSet[] m_Domains;
+
+  /** the permission bitsets (ordinal -> licenses). */
+  protected BitSet[] m_Permissions;
+
+  /** the limitation bitsets (ordinal -> licenses). */
+  protected BitSet[] m_Limitations;
+
+  /** the condition bitsets (ordinal -> licenses). */
+  protected BitSet[] m_Conditions;
+
+  /**
+   * Initializes the index.
+   *
+   * @param licenses	the licenses to index
+   */
+  public UFDLLicenseIndex(License[] licenses) {
+    int		i;
+
+    m_Licenses    = licenses.clone();
+    m_Domains     = newBitSets(Domain.values().length);
+    m_Permissions = newBitSets(Permission.values().length);
+    m_Limitations = newBitSets(Limitation.values().length);
+    m_Conditions  = newBitSets(Condition.values().length);
+
+    for (i = 0; i < m_Licenses.length; i++) {
+      index(i, m_Licenses[i].getDomains(), m_Domains);
+      index(i, m_Licenses[i].getPermissions(), m_Permissions);
+      index(i, m_Licenses[i].getLimitations(), m_Limitations);
+      index(i, m_Licenses[i].getConditions(), m_Conditions);
+    }
+  }
+
+  /**
+   * Creates the empty bitsets.
+   *
+   * @param num		the number of bitsets
+   * @return		the bitsets
+   */
+  protected BitSet[] newBitSets(int num) {
+    BitSet[]	result;
+    int		i;
+
+    result = new BitSet[num];
+    for (i = 0; i < num; i++)
+      result[i] = new BitSet();
+
+    return result;
+  }
+
+  /**
+   * Records the values of the license in the bitsets.
+   *
+   * @param index	the position of the license
+   * @param values	the values of the license
+   * @param bitsets	the bitsets to update
+   */
+  protected void index(int index, Collection<? extends Enum> values, BitSet[] bitsets) {
+    for (Enum value: values)
+      bitsets[value.ordinal()].set(index);
+  }
+
+  /**
+   * Restricts the matches to the licenses that have all the values.
+   *
+   * @param matches	the matches to restrict
+   * @param values	the required values, can be null
+   * @param bitsets	the bitsets to use
+   */
+  protected void restrict(BitSet matches, Enum[] values, BitSet[] bitsets) {
+    if (values == null)
+      return;
+    for (Enum value: values)
+      matches.and(bitsets[value.ordinal()]);
+  }
+
+  /**
+   * Returns the number of indexed licenses.
+   *
+   * @return		the number of licenses
+   */
+  public int size() {
+    return m_Licenses.length;
+  }
+
+  /**
+   * Returns the indexed licenses.
+   *
+   * @return		the licenses
+   */
+  public License[] getLicenses() {
+    return m_Licenses;
+  }
+
+  /**
+   * Determines the positions of the licenses that have all the specified
+   * domains, permissions, limitations and conditions.
+   *
+   * @param domains	the required domains, can be null
+   * @param permissions	the required permissions, can be null
+   * @param limitations	the required limitations, can be null
+   * @param conditions	the required conditions, can be null
+   * @return		the positions of the matching licenses
+   */
+  public BitSet match(Domain[] domains, Permission[] permissions, Limitation[] limitations, Condition[] conditions) {
+    BitSet	result;
+
+    result = new BitSet(m_Licenses.length);
+    result.set(0, m_Licenses.length);
+    restrict(result, domains, m_Domains);
+    restrict(result, permissions, m_Permissions);
+    restrict(result, limitations, m_Limitations);
+    restrict(result, conditions, m_Conditions);
+
+    return result;
+  }
+
+  /**
+   * Returns the licenses that have all the specified domains, permissions,
+   * limitations and conditions.
+   *
+   * @param domains	the required domains, can be null
+   * @param permissions	the required permissions, can be null
+   * @param limitations	the required limitations, can be null
+   * @param conditions	the required conditions, can be null
+   * @return		the matching licenses, in the order they were indexed
+   */
+  public List<License> query(Domain[] domains, Permission[] permissions, Limitation[] limitations, Condition[] conditions) {
+    List<License>	result;
+    BitSet		matches;
+    int			i;
+
+    matches = match(domains, permissions, limitations, conditions);
+    result  = new ArrayList<>(matches.cardinality());
+    for (i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1))
+      result.add(m_Licenses[i]);
+
+    return result;
+  }
+}
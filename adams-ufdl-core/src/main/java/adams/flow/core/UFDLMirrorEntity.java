@@ -0,0 +1,147 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLMirrorEntity.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import adams.flow.core.AbstractUFDLAction.ListQuery;
+import com.github.waikatoufdl.ufdl4j.Client;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
+import com.github.waikatoufdl.ufdl4j.action.Jobs.Job;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
+import com.github.waikatoufdl.ufdl4j.action.PretrainedModels.PretrainedModel;
+import com.github.waikatoufdl.ufdl4j.action.Projects.Project;
+import com.github.waikatoufdl.ufdl4j.action.Teams.Team;
+import com.github.waikatoufdl.ufdl4j.action.Users.User;
+
+/**
+ * The types of objects that can be stored in the local mirror of a
+ * UFDL server.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see adams.flow.standalone.ufdlcache.Mirror
+ */
+public enum UFDLMirrorEntity {
+  USERS(User.class),
+  TEAMS(Team.class, "creation_time", "deletion_time"),
+  PROJECTS(Project.class, "creation_time", "deletion_time"),
+  LICENSES(License.class),
+  DATASETS(Dataset.class, "creation_time", "deletion_time"),
+  JOB_TEMPLATES(JobTemplate.class, "creation_time", "deletion_time"),
+  JOBS(Job.class, "creation_time", "deletion_time", "start_time", "end_time"),
+  PRETRAINED_MODELS(PretrainedModel.class, "creation_time", "deletion_time");
+
+  /** the type of object. */
+  private final Class m_Entity;
+
+  /** the timestamp fields to use for incremental synchronization. */
+  private final String[] m_TimestampFields;
+
+  /**
+   * Initializes the enum.
+   *
+   * @param entity		the type of object
+   * @param timestampFields	the timestamp fields, none if only full synchronization possible
+   */
+  private UFDLMirrorEntity(Class entity, String... timestampFields) {
+    m_Entity          = entity;
+    m_TimestampFields = timestampFields;
+  }
+
+  /**
+   * Returns the type of object.
+   *
+   * @return		the type
+   */
+  public Class getEntity() {
+    return m_Entity;
+  }
+
+  /**
+   * Returns the timestamp fields that get checked during an incremental
+   * synchronization.
+   *
+   * @return		the fields
+   */
+  public String[] getTimestampFields() {
+    return m_TimestampFields;
+  }
+
+  /**
+   * Returns whether the objects can be synchronized incrementally.
+   *
+   * @return		true if incremental synchronization supported
+   */
+  public boolean supportsIncrementalSync() {
+    return (m_TimestampFields.length > 0);
+  }
+
+  /**
+   * Returns the name of the file that stores the objects in the mirror.
+   *
+   * @return		the file name
+   */
+  public String getFileName() {
+    return name().toLowerCase() + ".json";
+  }
+
+  /**
+   * Returns the list query for retrieving the objects from the backend.
+   *
+   * @param client	the client to use
+   * @return		the query
+   */
+  public ListQuery getQuery(Client client) {
+    switch (this) {
+      case USERS:
+	return client.users()::list;
+      case TEAMS:
+	return client.teams()::list;
+      case PROJECTS:
+	return client.projects()::list;
+      case LICENSES:
+	return client.licenses()::list;
+      case DATASETS:
+	return client.datasets()::list;
+      case JOB_TEMPLATES:
+	return client.jobTemplates()::list;
+      case JOBS:
+	return client.jobs()::list;
+      case PRETRAINED_MODELS:
+	return client.pretrainedModels()::list;
+      default:
+	throw new IllegalStateException("Unhandled mirror entity: " + this);
+    }
+  }
+
+  /**
+   * Determines the enum for the type of object.
+   *
+   * @param entity	the type of object
+   * @return		the enum, null if the type cannot be mirrored
+   */
+  public static UFDLMirrorEntity forEntity(Class entity) {
+    for (UFDLMirrorEntity value: values()) {
+      if (value.getEntity().equals(entity))
+	return value;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLMirrorHandler.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+/**
+ * Interface for actions that can read the objects from the local mirror
+ * rather than querying the backend.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see adams.flow.standalone.ufdlcache.Mirror
+ */
+public interface UFDLMirrorHandler {
+
+  /**
+   * Sets whether to read the objects from the local mirror.
+   *
+   * @param value	true if to use the mirror
+   */
+  public void setUseMirror(boolean value);
+
+  /**
+   * Returns whether to read the objects from the local mirror.
+   *
+   * @return		true if to use the mirror
+   */
+  public boolean getUseMirror();
+}
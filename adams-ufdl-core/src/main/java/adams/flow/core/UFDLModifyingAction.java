@@ -0,0 +1,40 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLModifyingAction.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+/**
+ * Interface for actions that create, update, delete or reinstate objects
+ * in the backend. Cached results of list queries for the modified types
+ * get invalidated after the action has been executed.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see adams.flow.standalone.ufdlcache.QueryResultCache
+ */
+public interface UFDLModifyingAction {
+
+  /**
+   * Returns the types of objects that the action modifies, e.g.,
+   * {@link com.github.waikatoufdl.ufdl4j.action.Teams.Team}.
+   *
+   * @return		the types
+   */
+  public Class[] getModifiedTypes();
+}
@@ -0,0 +1,163 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLParallelRequests.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import adams.core.MessageCollection;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helper class for executing requests against the backend concurrently.
+ * Since the requests are I/O bound, the number of threads is not capped by
+ * the number of available cores.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class UFDLParallelRequests
+  implements Serializable {
+
+  private static final long serialVersionUID = 8210459233542170863L;
+
+  /** the default number of concurrent requests. */
+  public static final int DEFAULT_NUM_THREADS = 4;
+
+  /**
+   * Interface for a single request.
+   *
+   * @param <T> the type of result
+   */
+  public interface Request<T> {
+
+    /**
+     * Returns a short description of the request, used in error messages.
+     *
+     * @return		the description
+     */
+    public String getDescription();
+
+    /**
+     * Executes the request.
+     *
+     * @return		the result, null if failed
+     * @throws Exception	if execution fails
+     */
+    public T execute() throws Exception;
+  }
+
+  /**
+   * Returns the tip text for the number of threads option.
+   *
+   * @return		the tip text
+   */
+  public static String numThreadsTipText() {
+    return "The maximum number of concurrent requests to the backend; 1 = sequential execution.";
+  }
+
+  /**
+   * Creates a thread pool with daemon threads.
+   *
+   * @param numThreads	the number of threads
+   * @param prefix	the prefix for the thread names
+   * @return		the thread pool
+   */
+  public static ExecutorService newExecutor(int numThreads, final String prefix) {
+    final AtomicInteger	count;
+
+    count = new AtomicInteger();
+    return Executors.newFixedThreadPool(Math.max(1, numThreads), new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+	Thread result = new Thread(r, prefix + "-" + count.incrementAndGet());
+	result.setDaemon(true);
+	return result;
+      }
+    });
+  }
+
+  /**
+   * Executes the requests, using the specified number of threads.
+   * Errors get added to the message collection.
+   *
+   * @param requests	the requests to execute
+   * @param numThreads	the maximum number of concurrent requests
+   * @param errors	for collecting errors
+   * @return		the results, in the same order as the requests (null for failed requests)
+   * @param <T>		the type of result
+   */
+  public static <T> List<T> execute(List<? extends Request<T>> requests, int numThreads, MessageCollection errors) {
+    List<T>		result;
+    ExecutorService	executor;
+    List<Future<T>>	futures;
+    int			i;
+    Exception		cause;
+
+    result = new ArrayList<>();
+
+    // sequential
+    if ((numThreads <= 1) || (requests.size() < 2)) {
+      for (Request<T> request: requests) {
+	try {
+	  result.add(request.execute());
+	}
+	catch (Exception e) {
+	  result.add(null);
+	  errors.add("Failed to " + request.getDescription() + "!", e);
+	}
+      }
+      return result;
+    }
+
+    // parallel
+    executor = newExecutor(Math.min(numThreads, requests.size()), UFDLParallelRequests.class.getSimpleName());
+    futures  = new ArrayList<>();
+    for (final Request<T> request: requests)
+      futures.add(executor.submit(request::execute));
+    executor.shutdown();
+
+    for (i = 0; i < futures.size(); i++) {
+      try {
+	result.add(futures.get(i).get());
+      }
+      catch (InterruptedException e) {
+	executor.shutdownNow();
+	errors.add("Interrupted while waiting for requests to finish!");
+	while (result.size() < requests.size())
+	  result.add(null);
+	break;
+      }
+      catch (ExecutionException e) {
+	result.add(null);
+	cause = (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+	errors.add("Failed to " + requests.get(i).getDescription() + "!", cause);
+      }
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLReadOnlyAction.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+/**
+ * Marker interface for actions that only read from the backend, i.e., that
+ * never create, update or delete objects. Only these actions get their
+ * requests spread across replicas, all other actions use the write client.
+ * Actions that are read-only depending on their setup override
+ * {@link AbstractUFDLAction#isReadOnly()} instead.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see adams.flow.standalone.UFDLConnection#getClientFor(Object)
+ */
+public interface UFDLReadOnlyAction {
+}
@@ -20,6 +20,12 @@
 
 package adams.flow.core;
 
+import adams.core.logging.LoggingHelper;
+import adams.core.option.OptionUtils;
+import adams.data.ufdlfilter.AbstractUFDLFilter;
+import adams.data.ufdlfilter.GenericFilter;
+import adams.data.ufdlfilter.GenericFilterEquivalent;
+import adams.data.ufdlfilter.field.IsNull;
 import com.github.waikatoufdl.ufdl4j.core.SoftDeleteObject;
 
 /**
@@ -35,6 +41,9 @@ public enum UFDLSoftDeleteObjectState {
   /** only deleted. */
   DELETED;
 
+  /** the field storing the deletion time. */
+  public static final String DELETION_TIME = "deletion_time";
+
   /**
    * Whether to accept the soft delete object based on the enum.
    *
@@ -57,4 +66,51 @@ public enum UFDLSoftDeleteObjectState {
     }
     return true;
   }
+
+  /**
+   * Turns the filter into one that lets the backend already restrict the
+   * results to the state represented by the enum. Works for {@link GenericFilter}
+   * and any filter implementing {@link GenericFilterEquivalent}. Any other
+   * filter (e.g., {@link adams.data.ufdlfilter.DomainFilter}) gets returned as
+   * is and a warning is logged, leaving the restriction to {@link #accept(SoftDeleteObject)}.
+   * The supplied filter is not modified.
+   *
+   * @param filter	the filter to augment
+   * @return		the (potentially) augmented filter
+   */
+  public AbstractUFDLFilter apply(AbstractUFDLFilter filter) {
+    GenericFilter	result;
+    IsNull		isNull;
+
+    if (this == ANY)
+      return filter;
+
+    if (filter instanceof GenericFilterEquivalent) {
+      result = ((GenericFilterEquivalent) filter).toGenericFilter();
+    }
+    else if (filter instanceof GenericFilter) {
+      result = (GenericFilter) OptionUtils.shallowCopy(filter);
+      if (result == null)
+        return filter;
+    }
+    else {
+      LoggingHelper.getLogger(UFDLSoftDeleteObjectState.class).warning(
+        "State " + this + " cannot be pushed to the backend for filter " + filter.getClass().getName() + ", filtering client-side only!");
+      return filter;
+    }
+
+    isNull = new IsNull(DELETION_TIME);
+    switch (this) {
+      case ACTIVE:
+        result.addExpression(isNull);
+        break;
+      case DELETED:
+        isNull.setInvert(true);
+        result.addExpression(isNull);
+        result.setIncludeInactive(true);
+        break;
+    }
+
+    return result;
+  }
 }
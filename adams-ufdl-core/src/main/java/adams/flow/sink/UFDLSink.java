@@ -21,25 +21,30 @@
 package adams.flow.sink;
 
 import adams.core.AdditionalInformationHandler;
-import adams.core.DateUtils;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.Utils;
+import adams.core.option.OptionUtils;
 import adams.data.text.TextContainer;
 import adams.flow.control.StorageName;
-import adams.flow.control.StorageQueueHandler;
 import adams.flow.control.StorageUpdater;
 import adams.flow.core.ActorUtils;
-import adams.flow.core.QueueHelper;
+import adams.flow.core.UFDLErrorQueueHelper;
+import adams.flow.core.UFDLParallelRequests;
 import adams.flow.sink.ufdl.AbstractUFDLSinkAction;
 import adams.flow.sink.ufdl.Null;
 import adams.flow.standalone.UFDLConnection;
 
-import java.util.Date;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  <!-- globalinfo-start -->
- * Forwards the data to the specified action.
+ * Forwards the data to the specified action.<br>
+ * In asynchronous mode, the data gets queued and consumed by a pool of workers, using a copy of the action with the option values at the time the data arrived. Once the queue is full, the sink blocks until a slot becomes available. At wrap-up, the sink waits for all the queued data to be consumed. Failures get reported with the next token and at wrap-up.
  * <br><br>
  <!-- globalinfo-end -->
  *
@@ -100,6 +105,25 @@ import java.util.Date;
  * &nbsp;&nbsp;&nbsp;default: errors
  * </pre>
  *
+ * <pre>-asynchronous &lt;boolean&gt; (property: asynchronous)
+ * &nbsp;&nbsp;&nbsp;If enabled, the data gets queued and consumed in the background by a pool
+ * &nbsp;&nbsp;&nbsp;of workers.
+ * &nbsp;&nbsp;&nbsp;default: false
+ * </pre>
+ *
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The number of workers consuming the queued data in asynchronous mode.
+ * &nbsp;&nbsp;&nbsp;default: 4
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ * <pre>-queue-size &lt;int&gt; (property: queueSize)
+ * &nbsp;&nbsp;&nbsp;The maximum number of tokens waiting for a worker in asynchronous mode;
+ * &nbsp;&nbsp;&nbsp;the sink blocks when the queue is full.
+ * &nbsp;&nbsp;&nbsp;default: 10
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
  <!-- options-end -->
  *
  * @author FracPete (fracpete at waikato dot ac dot nz)
@@ -119,9 +143,27 @@ public class UFDLSink
   /** the name of the error queue in the internal storage. */
   protected StorageName m_ErrorQueue;
 
+  /** whether to consume the data asynchronously. */
+  protected boolean m_Asynchronous;
+
+  /** the number of workers. */
+  protected int m_NumThreads;
+
+  /** the maximum number of queued tokens. */
+  protected int m_QueueSize;
+
   /** the connection to use. */
   protected transient UFDLConnection m_Connection;
 
+  /** the workers. */
+  protected transient ExecutorService m_Executor;
+
+  /** the available slots (workers and queue). */
+  protected transient Semaphore m_Slots;
+
+  /** the errors of the workers that haven't been reported yet. */
+  protected transient Queue<MessageCollection> m_Failures;
+
   /**
    * Returns a string describing the object.
    *
@@ -150,6 +192,18 @@ public class UFDLSink
     m_OptionManager.add(
       "error-queue", "errorQueue",
       new StorageName("errors"));
+
+    m_OptionManager.add(
+      "asynchronous", "asynchronous",
+      false);
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+
+    m_OptionManager.add(
+      "queue-size", "queueSize",
+      10, 1, null);
   }
 
   /**
@@ -175,6 +229,10 @@ public class UFDLSink
 
     if (m_UseErrorQueue)
       result += QuickInfoHelper.toString(this, "errorQueue", m_ErrorQueue, ", error queue: ");
+    if (m_Asynchronous) {
+      result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", workers: ");
+      result += QuickInfoHelper.toString(this, "queueSize", m_QueueSize, ", queue: ");
+    }
 
     return result;
   }
@@ -266,6 +324,97 @@ public class UFDLSink
     return "The name of the queue in internal storage to forward the errors to.";
   }
 
+  /**
+   * Sets whether to consume the data asynchronously.
+   *
+   * @param value	true if asynchronous
+   */
+  public void setAsynchronous(boolean value) {
+    m_Asynchronous = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to consume the data asynchronously.
+   *
+   * @return		true if asynchronous
+   */
+  public boolean getAsynchronous() {
+    return m_Asynchronous;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String asynchronousTipText() {
+    return "If enabled, the data gets queued and consumed in the background by a pool of workers.";
+  }
+
+  /**
+   * Sets the number of workers consuming the queued data.
+   *
+   * @param value	the number of workers
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of workers consuming the queued data.
+   *
+   * @return		the number of workers
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return "The number of workers consuming the queued data in asynchronous mode.";
+  }
+
+  /**
+   * Sets the maximum number of tokens waiting for a worker.
+   *
+   * @param value	the size of the queue
+   */
+  public void setQueueSize(int value) {
+    if (getOptionManager().isValid("queueSize", value)) {
+      m_QueueSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of tokens waiting for a worker.
+   *
+   * @return		the size of the queue
+   */
+  public int getQueueSize() {
+    return m_QueueSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String queueSizeTipText() {
+    return "The maximum number of tokens waiting for a worker in asynchronous mode; the sink blocks when the queue is full.";
+  }
+
   /**
    * Returns whether storage items are being updated.
    *
@@ -303,7 +452,8 @@ public class UFDLSink
 
     result.append("\n\n");
     result.append("If enabled, errors get forwarded as ").append(Utils.classToString(TextContainer.class)).append(", with the error as the content.\n");
-    result.append("The 'Actor' field in the report contains the actor that generated the error, the 'Action' field the full command-line of the action and 'Timestamp' the date/time of the error.");
+    result.append("The 'Actor' field in the report contains the actor that generated the error, the 'Action' field the full command-line of the action and 'Timestamp' the date/time of the error.\n");
+    result.append("In asynchronous mode, errors of the workers get reported with the next token and at wrap-up (logged if no error queue is used).");
 
     return result.toString();
   }
@@ -328,6 +478,106 @@ public class UFDLSink
     return result;
   }
 
+  /**
+   * Reports the errors of the workers that occurred since the last call.
+   *
+   * @return		the combined errors, null if none
+   */
+  protected String reportFailures() {
+    StringBuilder	result;
+    MessageCollection	errors;
+
+    if (m_Failures == null)
+      return null;
+
+    result = new StringBuilder();
+    while ((errors = m_Failures.poll()) != null) {
+      if (m_UseErrorQueue)
+        UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, errors);
+      if (result.length() > 0)
+        result.append("\n");
+      result.append(errors.toString());
+    }
+
+    if (result.length() == 0)
+      return null;
+    else
+      return result.toString();
+  }
+
+  /**
+   * Queues the data for the workers, blocking while the queue is full.
+   *
+   * @param payload	the data to consume
+   * @return		null if successful, otherwise error message
+   */
+  protected String enqueue(final Object payload) {
+    final AbstractUFDLSinkAction	action;
+
+    if (m_Executor == null) {
+      m_Executor = UFDLParallelRequests.newExecutor(m_NumThreads, getClass().getSimpleName());
+      m_Slots    = new Semaphore(m_NumThreads + m_QueueSize);
+      m_Failures = new ConcurrentLinkedQueue<>();
+    }
+
+    // the options can change with every token (e.g., via variables)
+    action = (AbstractUFDLSinkAction) OptionUtils.shallowCopy(m_Action, true);
+    if (action == null)
+      return "Failed to create copy of action: " + m_Action.toCommandLine();
+    action.setClient(m_Connection.getClientFor(action));
+    action.setFlowContext(this);
+
+    // backpressure
+    try {
+      while (!m_Slots.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+        if (isStopped())
+          return null;
+      }
+    }
+    catch (InterruptedException e) {
+      return "Interrupted while waiting for free slot in queue!";
+    }
+
+    m_Executor.submit(() -> {
+      MessageCollection errors = new MessageCollection();
+      try {
+        action.consume(payload, errors);
+      }
+      catch (Exception e) {
+        errors.add("Failed to consume input data!", e);
+      }
+      finally {
+        m_Slots.release();
+      }
+      if (!errors.isEmpty())
+        m_Failures.add(errors);
+    });
+
+    return null;
+  }
+
+  /**
+   * Waits for the workers to consume all the queued data.
+   */
+  protected void awaitWorkers() {
+    if (m_Executor == null)
+      return;
+
+    m_Executor.shutdown();
+    try {
+      while (!m_Executor.awaitTermination(100, TimeUnit.MILLISECONDS)) {
+        if (isStopped()) {
+          m_Executor.shutdownNow();
+          break;
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      m_Executor.shutdownNow();
+    }
+    m_Executor = null;
+  }
+
   /**
    * Executes the flow item.
    *
@@ -336,41 +586,72 @@ public class UFDLSink
   @Override
   protected String doExecute() {
     String		result;
+    String		failures;
     MessageCollection	errors;
-    StorageQueueHandler queue;
-    TextContainer	cont;
-
-    result = null;
-    errors = new MessageCollection();
-    try {
-      m_Action.setClient(m_Connection.getClient());
-      m_Action.setFlowContext(this);
-      m_Action.consume(m_InputToken.getPayload(), errors);
+    int			attempt;
+
+    if (m_Asynchronous) {
+      // report earlier failures, but always queue the current token
+      failures = reportFailures();
+      result   = enqueue(m_InputToken.getPayload());
+      if (failures != null)
+        result = (result == null) ? failures : (failures + "\n" + result);
+      return result;
     }
-    catch (Exception e) {
-      errors.add("Failed to consume input data!", e);
+
+    result  = null;
+    attempt = 0;
+    // read-only actions get retried once with another host if theirs stopped responding
+    do {
+      attempt++;
+      errors = new MessageCollection();
+      try {
+        m_Action.setClient(m_Connection.getClientFor(m_Action));
+        m_Action.setFlowContext(this);
+        m_Action.consume(m_InputToken.getPayload(), errors);
+      }
+      catch (Exception e) {
+        errors.add("Failed to consume input data!", e);
+      }
     }
+    while (!errors.isEmpty() && (attempt == 1) && !isStopped() && m_Connection.failoverRead(m_Action));
 
     if (!errors.isEmpty()) {
       result = errors.toString();
-
-      if (m_UseErrorQueue) {
-	queue = QueueHelper.getQueue(this, m_ErrorQueue);
-	if (queue != null) {
-	  cont = new TextContainer();
-	  cont.setContent(errors.toString());
-	  cont.setID(getFullName());
-	  cont.getReport().setStringValue("Actor", getFullName());
-	  cont.getReport().setStringValue("Action", m_Action.toCommandLine());
-	  cont.getReport().setStringValue("Timestamp", DateUtils.getTimestampFormatterMsecs().format(new Date()));
-	  queue.add(cont);
-	}
-	else {
-	  getLogger().warning("Error queue not found: " + m_ErrorQueue);
-	}
-      }
+      if (m_UseErrorQueue)
+        UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, errors);
     }
 
     return result;
   }
+
+  /**
+   * Stops the execution. No message set.
+   */
+  @Override
+  public void stopExecution() {
+    if (m_Executor != null) {
+      m_Executor.shutdownNow();
+      m_Executor = null;
+    }
+    super.stopExecution();
+  }
+
+  /**
+   * Cleans up after the execution has finished. Waits for the
+   * workers to finish first.
+   */
+  @Override
+  public void wrapUp() {
+    String	failures;
+
+    awaitWorkers();
+    failures = reportFailures();
+    if (failures != null)
+      getLogger().severe("Failed to consume data:\n" + failures);
+    m_Slots    = null;
+    m_Failures = null;
+
+    super.wrapUp();
+  }
 }
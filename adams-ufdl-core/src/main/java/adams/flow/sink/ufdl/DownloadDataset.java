@@ -24,6 +24,7 @@ import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.io.FileWriter;
 import adams.core.io.PlaceholderFile;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -33,7 +34,7 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  */
 public class DownloadDataset
   extends AbstractUFDLSinkAction
-  implements FileWriter {
+  implements FileWriter, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
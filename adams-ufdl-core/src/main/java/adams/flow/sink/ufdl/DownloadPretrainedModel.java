@@ -24,6 +24,7 @@ import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.io.FileWriter;
 import adams.core.io.PlaceholderFile;
+import adams.flow.core.UFDLReadOnlyAction;
 
 /**
  * Downloads the pretrained model either via PK.
@@ -32,7 +33,7 @@ import adams.core.io.PlaceholderFile;
  */
 public class DownloadPretrainedModel
   extends AbstractUFDLSinkAction
-  implements FileWriter {
+  implements FileWriter, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
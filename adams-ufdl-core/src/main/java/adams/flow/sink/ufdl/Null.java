@@ -21,6 +21,7 @@
 package adams.flow.sink.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import adams.flow.core.Unknown;
 
 /**
@@ -29,7 +30,8 @@ import adams.flow.core.Unknown;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class Null
-  extends AbstractUFDLSinkAction {
+  extends AbstractUFDLSinkAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = -1101851502827634641L;
 
@@ -21,22 +21,20 @@
 package adams.flow.source;
 
 import adams.core.AdditionalInformationHandler;
-import adams.core.DateUtils;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.Utils;
 import adams.data.text.TextContainer;
 import adams.flow.control.StorageName;
-import adams.flow.control.StorageQueueHandler;
 import adams.flow.control.StorageUpdater;
 import adams.flow.core.ActorUtils;
-import adams.flow.core.QueueHelper;
 import adams.flow.core.Token;
+import adams.flow.core.UFDLErrorQueueHelper;
 import adams.flow.source.ufdl.AbstractUFDLSourceAction;
+import adams.flow.source.ufdl.AbstractUFDLStreamingSourceAction;
 import adams.flow.source.ufdl.Null;
 import adams.flow.standalone.UFDLConnection;
 
-import java.util.Date;
 
 /**
  <!-- globalinfo-start -->
@@ -304,7 +302,9 @@ public class UFDLSource
 
     result.append("\n\n");
     result.append("If enabled, errors get forwarded as ").append(Utils.classToString(TextContainer.class)).append(", with the error as the content.\n");
-    result.append("The 'Actor' field in the report contains the actor that generated the error, the 'Action' field the full command-line of the action and 'Timestamp' the date/time of the error.");
+    result.append("The 'Actor' field in the report contains the actor that generated the error, the 'Action' field the full command-line of the action and 'Timestamp' the date/time of the error.\n");
+    result.append("Actions derived from ").append(Utils.classToString(AbstractUFDLStreamingSourceAction.class)).append(" generate a stream of outputs; ");
+    result.append("errors that occur after the first output get logged if no error queue is used.");
 
     return result.toString();
   }
@@ -339,42 +339,83 @@ public class UFDLSource
     String		result;
     Object		output;
     MessageCollection	errors;
-    StorageQueueHandler queue;
-    TextContainer	cont;
-
-    result = null;
-    errors = new MessageCollection();
-    try {
-      m_Action.setClient(m_Connection.getClient());
-      m_Action.setFlowContext(this);
-      output = m_Action.generate(errors);
-      if ((output != null) && errors.isEmpty())
-        m_OutputToken = new Token(output);
-    }
-    catch (Exception e) {
-      errors.add("Failed to generate output data!", e);
+    int			attempt;
+
+    result  = null;
+    attempt = 0;
+    // read-only actions get retried once with another host if theirs stopped responding
+    do {
+      attempt++;
+      errors = new MessageCollection();
+      try {
+        m_Action.setClient(m_Connection.getClientFor(m_Action));
+        m_Action.setFlowContext(this);
+        output = m_Action.generate(errors);
+        if ((output != null) && errors.isEmpty())
+          m_OutputToken = new Token(output);
+      }
+      catch (Exception e) {
+        errors.add("Failed to generate output data!", e);
+      }
     }
+    while (!errors.isEmpty() && (attempt == 1) && !isStopped() && m_Connection.failoverRead(m_Action));
 
     if (!errors.isEmpty()) {
       result = errors.toString();
+      if (m_UseErrorQueue)
+        UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, errors);
+    }
+
+    return result;
+  }
 
-      if (m_UseErrorQueue) {
-        queue = QueueHelper.getQueue(this, m_ErrorQueue);
-        if (queue != null) {
-          cont = new TextContainer();
-          cont.setContent(errors.toString());
-          cont.setID(getFullName());
-          cont.getReport().setStringValue("Actor", getFullName());
-          cont.getReport().setStringValue("Action", m_Action.toCommandLine());
-          cont.getReport().setStringValue("Timestamp", DateUtils.getTimestampFormatterMsecs().format(new Date()));
-          queue.add(cont);
+  /**
+   * Checks whether there is pending output to be collected after
+   * executing the flow item. For streaming actions, this blocks until
+   * the next output is available or the stream has finished.
+   *
+   * @return		true if there is pending output
+   */
+  @Override
+  public boolean hasPendingOutput() {
+    AbstractUFDLStreamingSourceAction	stream;
+    Object				output;
+    MessageCollection			errors;
+
+    if ((m_OutputToken == null) && (m_Action instanceof AbstractUFDLStreamingSourceAction)) {
+      stream = (AbstractUFDLStreamingSourceAction) m_Action;
+      while (!isStopped() && stream.hasNext()) {
+        errors = new MessageCollection();
+        try {
+          output = stream.next(errors);
+        }
+        catch (Exception e) {
+          output = null;
+          errors.add("Failed to generate output data!", e);
+        }
+        if (!errors.isEmpty()) {
+          if (m_UseErrorQueue)
+            UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, errors);
+          else
+            getLogger().severe(errors.toString());
         }
-        else {
-          getLogger().warning("Error queue not found: " + m_ErrorQueue);
+        else if (output != null) {
+          m_OutputToken = new Token(output);
+          break;
         }
       }
     }
 
-    return result;
+    return super.hasPendingOutput();
+  }
+
+  /**
+   * Stops the execution. No message set.
+   */
+  @Override
+  public void stopExecution() {
+    if (m_Action instanceof AbstractUFDLStreamingSourceAction)
+      ((AbstractUFDLStreamingSourceAction) m_Action).stopExecution();
+    super.stopExecution();
   }
 }
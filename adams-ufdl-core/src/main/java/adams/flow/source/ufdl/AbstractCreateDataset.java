@@ -22,6 +22,7 @@ package adams.flow.source.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -30,7 +31,8 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public abstract class AbstractCreateDataset
-  extends AbstractUFDLSourceAction {
+  extends AbstractUFDLSourceAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -302,4 +304,14 @@ public abstract class AbstractCreateDataset
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{Dataset.class};
+  }
 }
@@ -73,10 +73,13 @@ public abstract class AbstractUFDLSourceAction
 
     result = null;
     msg    = check();
-    if (msg == null)
+    if (msg == null) {
       result = doGenerate(errors);
-    else
+      invalidateQueryResults();
+    }
+    else {
       errors.add(msg);
+    }
 
     return result;
   }
@@ -0,0 +1,133 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * AbstractUFDLStreamingSourceAction.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.source.ufdl;
+
+import adams.core.MessageCollection;
+
+/**
+ * Ancestor for source actions that generate a stream of outputs, e.g.,
+ * when monitoring the backend for changes. The first output gets
+ * generated by {@link #generate(MessageCollection)}, any subsequent ones
+ * by {@link #next(MessageCollection)}, as long as {@link #hasNext()}
+ * returns true.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class AbstractUFDLStreamingSourceAction
+  extends AbstractUFDLSourceAction {
+
+  private static final long serialVersionUID = -2143689437245624391L;
+
+  /** whether the stream got stopped. */
+  protected transient volatile boolean m_Stopped;
+
+  /**
+   * Initializes the stream.
+   *
+   * @param errors	for collecting errors
+   * @return		true if successfully initialized
+   */
+  protected abstract boolean initStream(MessageCollection errors);
+
+  /**
+   * Generates the next output, blocking until one is available.
+   *
+   * @param errors	for collecting errors
+   * @return		the output, null if none available (eg stream finished or error)
+   */
+  protected abstract Object doNext(MessageCollection errors);
+
+  /**
+   * Returns whether the stream can generate more output.
+   *
+   * @return		true if more output can be generated
+   */
+  public abstract boolean hasNext();
+
+  /**
+   * Initializes the stream and generates the first output.
+   *
+   * @param errors 	for collecting errors
+   * @return		the generated data, null if none generated
+   */
+  @Override
+  protected Object doGenerate(MessageCollection errors) {
+    m_Stopped = false;
+    if (!initStream(errors))
+      return null;
+    return doNext(errors);
+  }
+
+  /**
+   * Generates the next output, blocking until one is available.
+   *
+   * @param errors	for collecting errors
+   * @return		the output, null if none available (eg stream finished or error)
+   */
+  public Object next(MessageCollection errors) {
+    String	msg;
+
+    if (m_Stopped)
+      return null;
+
+    msg = check();
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+
+    return doNext(errors);
+  }
+
+  /**
+   * Waits for the specified amount of time, unless stopped.
+   *
+   * @param msec	the time to wait in msec
+   * @return		true if waited, false if stopped
+   */
+  protected boolean waitFor(long msec) {
+    long	end;
+
+    end = System.currentTimeMillis() + msec;
+    while (!m_Stopped && (System.currentTimeMillis() < end)) {
+      try {
+	synchronized (this) {
+	  wait(Math.max(1, Math.min(100, end - System.currentTimeMillis())));
+	}
+      }
+      catch (InterruptedException e) {
+	m_Stopped = true;
+      }
+    }
+
+    return !m_Stopped;
+  }
+
+  /**
+   * Stops the stream.
+   */
+  public void stopExecution() {
+    m_Stopped = true;
+    synchronized (this) {
+      notifyAll();
+    }
+  }
+}
@@ -25,6 +25,7 @@ import adams.core.QuickInfoHelper;
 import adams.core.base.BaseObject;
 import adams.core.base.BasePassword;
 import adams.core.base.BaseString;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.DockerImages.DockerImage;
 
 /**
@@ -33,7 +34,8 @@ import com.github.waikatoufdl.ufdl4j.action.DockerImages.DockerImage;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class CreateDockerImage
-  extends AbstractUFDLSourceAction {
+  extends AbstractUFDLSourceAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -573,4 +575,14 @@ public class CreateDockerImage
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{DockerImage.class};
+  }
 }
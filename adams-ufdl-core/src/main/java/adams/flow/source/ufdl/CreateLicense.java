@@ -23,6 +23,7 @@ package adams.flow.source.ufdl;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.base.BaseURL;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
 
 /**
@@ -31,7 +32,8 @@ import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class CreateLicense
-  extends AbstractUFDLSourceAction {
+  extends AbstractUFDLSourceAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -170,4 +172,14 @@ public class CreateLicense
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{License.class};
+  }
 }
@@ -23,6 +23,7 @@ package adams.flow.source.ufdl;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.base.BaseText;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.PretrainedModels.PretrainedModel;
 
 /**
@@ -31,7 +32,8 @@ import com.github.waikatoufdl.ufdl4j.action.PretrainedModels.PretrainedModel;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class CreatePretrainedModel
-  extends AbstractUFDLSourceAction {
+  extends AbstractUFDLSourceAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -356,4 +358,14 @@ public class CreatePretrainedModel
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{PretrainedModel.class};
+  }
 }
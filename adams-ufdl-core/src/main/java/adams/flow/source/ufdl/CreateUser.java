@@ -24,6 +24,7 @@ import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.base.BasePassword;
 import adams.core.net.EmailAddress;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.Users.User;
 
 /**
@@ -32,7 +33,8 @@ import com.github.waikatoufdl.ufdl4j.action.Users.User;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class CreateUser
-  extends AbstractUFDLSourceAction {
+  extends AbstractUFDLSourceAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -274,4 +276,14 @@ public class CreateUser
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{User.class};
+  }
 }
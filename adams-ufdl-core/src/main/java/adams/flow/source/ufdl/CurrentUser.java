@@ -21,6 +21,7 @@
 package adams.flow.source.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Users.User;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.action.Users.User;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class CurrentUser
-  extends AbstractUFDLSourceAction {
+  extends AbstractUFDLSourceAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
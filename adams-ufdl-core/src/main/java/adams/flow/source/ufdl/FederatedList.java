@@ -0,0 +1,644 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * FederatedList.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.source.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.base.BaseString;
+import adams.core.option.OptionUtils;
+import adams.data.spreadsheet.DefaultSpreadSheet;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.Actor;
+import adams.flow.core.ActorHandler;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLReadOnlyAction;
+import adams.flow.standalone.UFDLConnection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes a list action against multiple UFDL servers concurrently, using
+ * the same filter, and tags the rows of the generated spreadsheets with the
+ * name of the connection they came from. Either outputs the merged
+ * spreadsheet or the spreadsheets of the individual servers as soon as they
+ * become available.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class FederatedList
+  extends AbstractUFDLStreamingSourceAction
+  implements UFDLReadOnlyAction {
+
+  private static final long serialVersionUID = -1871536021339361052L;
+
+  /** the key of the server column. */
+  public static final String KEY_SERVER = "federated-server";
+
+  /**
+   * Container for the result of a single server.
+   */
+  protected static class ServerResult {
+
+    /** the name of the connection. */
+    public String server;
+
+    /** the generated spreadsheet, null if failed. */
+    public SpreadSheet sheet;
+
+    /** the errors. */
+    public MessageCollection errors = new MessageCollection();
+  }
+
+  /** the names of the connections to use. */
+  protected BaseString[] m_Connections;
+
+  /** the action to execute. */
+  protected AbstractUFDLSourceAction m_Action;
+
+  /** the name of the server column. */
+  protected String m_ServerColumn;
+
+  /** the timeout per server in seconds. */
+  protected int m_Timeout;
+
+  /** whether to merge the results. */
+  protected boolean m_Merge;
+
+  /** the executor. */
+  protected transient ExecutorService m_Executor;
+
+  /** for obtaining the results in order of completion. */
+  protected transient CompletionService<ServerResult> m_Completion;
+
+  /** the pending requests (future -> connection name). */
+  protected transient Map<Future<ServerResult>,String> m_Pending;
+
+  /** the deadline for the requests (msec since epoch; -1 for none). */
+  protected transient long m_Deadline;
+
+  /** whether the merged output has been generated. */
+  protected transient boolean m_Merged;
+
+  /** the errors that still need to be output. */
+  protected transient MessageCollection m_PendingErrors;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Executes a list action against multiple UFDL servers concurrently, using the same filter, and tags "
+      + "the rows of the generated spreadsheets with the name of the connection they came from.\n"
+      + "Either outputs the merged spreadsheet or the spreadsheets of the individual servers as soon as they "
+      + "become available. Servers that fail or do not respond within the timeout get reported as errors after "
+      + "the results of the other servers have been output.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "connection", "connections",
+      new BaseString[0]);
+
+    m_OptionManager.add(
+      "action", "action",
+      new ListDatasets());
+
+    m_OptionManager.add(
+      "server-column", "serverColumn",
+      "Server");
+
+    m_OptionManager.add(
+      "timeout", "timeout",
+      60, 0, null);
+
+    m_OptionManager.add(
+      "merge", "merge",
+      true);
+  }
+
+  /**
+   * Sets the names of the connections to use.
+   *
+   * @param value	the names, empty for all
+   */
+  public void setConnections(BaseString[] value) {
+    m_Connections = value;
+    reset();
+  }
+
+  /**
+   * Returns the names of the connections to use.
+   *
+   * @return		the names, empty for all
+   */
+  public BaseString[] getConnections() {
+    return m_Connections;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String connectionsTipText() {
+    return "The names of the " + UFDLConnection.class.getSimpleName() + " actors to use; uses all that are in scope if none specified.";
+  }
+
+  /**
+   * Sets the list action to execute.
+   *
+   * @param value	the action
+   */
+  public void setAction(AbstractUFDLSourceAction value) {
+    m_Action = value;
+    reset();
+  }
+
+  /**
+   * Returns the list action to execute.
+   *
+   * @return		the action
+   */
+  public AbstractUFDLSourceAction getAction() {
+    return m_Action;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String actionTipText() {
+    return "The list action to execute on each server; must generate a spreadsheet.";
+  }
+
+  /**
+   * Sets the name of the column with the server.
+   *
+   * @param value	the name
+   */
+  public void setServerColumn(String value) {
+    m_ServerColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the name of the column with the server.
+   *
+   * @return		the name
+   */
+  public String getServerColumn() {
+    return m_ServerColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String serverColumnTipText() {
+    return "The name of the column that stores the name of the connection the row came from.";
+  }
+
+  /**
+   * Sets the timeout per server.
+   *
+   * @param value	the timeout in seconds, 0 for no timeout
+   */
+  public void setTimeout(int value) {
+    if (getOptionManager().isValid("timeout", value)) {
+      m_Timeout = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the timeout per server.
+   *
+   * @return		the timeout in seconds, 0 for no timeout
+   */
+  public int getTimeout() {
+    return m_Timeout;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String timeoutTipText() {
+    return "The timeout in seconds for each server; servers that have not responded by then get abandoned; 0 for no timeout.";
+  }
+
+  /**
+   * Sets whether to merge the results into a single spreadsheet.
+   *
+   * @param value	true if to merge
+   */
+  public void setMerge(boolean value) {
+    m_Merge = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to merge the results into a single spreadsheet.
+   *
+   * @return		true if to merge
+   */
+  public boolean getMerge() {
+    return m_Merge;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String mergeTipText() {
+    return "If enabled, the results of all servers get merged into a single spreadsheet, otherwise the spreadsheet of each server gets output as soon as it is available.";
+  }
+
+  /**
+   * Returns a quick info about the object, which can be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "action", m_Action, "action: ");
+    result += QuickInfoHelper.toString(this, "connections", (m_Connections.length == 0 ? "all" : Arrays.toString(m_Connections)), ", connections: ");
+    result += QuickInfoHelper.toString(this, "timeout", m_Timeout, ", timeout: ");
+    result += QuickInfoHelper.toString(this, "merge", m_Merge, "merge", ", ");
+
+    return result;
+  }
+
+  /**
+   * Returns whether the action requires flow context.
+   *
+   * @return		true if required
+   */
+  @Override
+  public boolean requiresFlowContext() {
+    return true;
+  }
+
+  /**
+   * Returns the classes that the source generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{SpreadSheet.class};
+  }
+
+  /**
+   * Check method before generating the data.
+   *
+   * @return		null if checks successful, otherwise error message
+   */
+  @Override
+  protected String check() {
+    String	result;
+
+    result = super.check();
+
+    if (result == null) {
+      if (m_Action instanceof AbstractUFDLStreamingSourceAction)
+	result = "Streaming actions are not supported: " + OptionUtils.getCommandLine(m_Action);
+      else if (!Arrays.asList(m_Action.generates()).contains(SpreadSheet.class))
+	result = "Action does not generate a spreadsheet: " + OptionUtils.getCommandLine(m_Action);
+    }
+
+    return result;
+  }
+
+  /**
+   * Locates the connections in scope, i.e., in the same actor handlers
+   * that are searched when locating the closest connection.
+   *
+   * @return		the connections
+   */
+  protected List<UFDLConnection> findConnections() {
+    List<UFDLConnection>	result;
+    Set<String>			names;
+    Actor			parent;
+    ActorHandler		handler;
+    Actor			actor;
+    int				i;
+
+    result = new ArrayList<>();
+    names  = new HashSet<>();
+    for (BaseString conn: m_Connections)
+      names.add(conn.getValue());
+
+    parent = m_FlowContext;
+    while (parent != null) {
+      if (parent instanceof ActorHandler) {
+	handler = (ActorHandler) parent;
+	for (i = 0; i < handler.size(); i++) {
+	  actor = handler.get(i);
+	  if (!(actor instanceof UFDLConnection) || actor.getSkip() || result.contains(actor))
+	    continue;
+	  if (names.isEmpty() || names.contains(actor.getName()))
+	    result.add((UFDLConnection) actor);
+	}
+      }
+      parent = parent.getParent();
+    }
+
+    return result;
+  }
+
+  /**
+   * Executes the action against the connection.
+   *
+   * @param conn	the connection to use
+   * @return		the result
+   */
+  protected ServerResult execute(UFDLConnection conn) {
+    ServerResult		result;
+    AbstractUFDLSourceAction	action;
+    Object			output;
+
+    result        = new ServerResult();
+    result.server = conn.getName();
+    action        = (AbstractUFDLSourceAction) OptionUtils.shallowCopy(m_Action, true);
+    action.setClient(conn.getClientFor(action));
+    action.setFlowContext(m_FlowContext);
+    action.setConnection(conn);
+    try {
+      output = action.generate(result.errors);
+      if ((output != null) && result.errors.isEmpty())
+	result.sheet = (SpreadSheet) output;
+    }
+    catch (Exception e) {
+      result.errors.add("Failed to execute action!", e);
+    }
+
+    return result;
+  }
+
+  /**
+   * Initializes the stream.
+   *
+   * @param errors	for collecting errors
+   * @return		true if successfully initialized
+   */
+  @Override
+  protected boolean initStream(MessageCollection errors) {
+    List<UFDLConnection>	conns;
+    Set<String>			found;
+
+    m_Pending       = new HashMap<>();
+    m_PendingErrors = new MessageCollection();
+    m_Merged        = false;
+
+    conns = findConnections();
+    found = new HashSet<>();
+    for (UFDLConnection conn: conns)
+      found.add(conn.getName());
+    for (BaseString name: m_Connections) {
+      if (!found.contains(name.getValue()))
+	errors.add("Connection not found: " + name);
+    }
+    if (conns.isEmpty())
+      errors.add("No connections found!");
+    if (!errors.isEmpty())
+      return false;
+
+    m_Executor   = UFDLParallelRequests.newExecutor(conns.size(), getClass().getSimpleName());
+    m_Completion = new ExecutorCompletionService<>(m_Executor);
+    m_Deadline   = (m_Timeout > 0) ? System.currentTimeMillis() + m_Timeout * 1000L : -1;
+    for (final UFDLConnection conn: conns) {
+      if (conn.getClient() == null)
+	m_PendingErrors.add("Connection not initialized: " + conn.getName());
+      else
+	m_Pending.put(m_Completion.submit(() -> execute(conn)), conn.getName());
+    }
+    m_Executor.shutdown();
+
+    return true;
+  }
+
+  /**
+   * Abandons all pending requests.
+   *
+   * @param reason	the reason for abandoning them
+   */
+  protected void abandon(String reason) {
+    for (Future<ServerResult> future: m_Pending.keySet()) {
+      future.cancel(true);
+      m_PendingErrors.add(reason + ": " + m_Pending.get(future));
+    }
+    m_Pending.clear();
+    if (m_Executor != null)
+      m_Executor.shutdownNow();
+  }
+
+  /**
+   * Waits for the next server to finish, taking the timeout into account.
+   *
+   * @return		the result, null if none available anymore
+   */
+  protected ServerResult poll() {
+    Future<ServerResult>	future;
+    ServerResult		result;
+    String			name;
+    long			remaining;
+
+    if (m_Pending.isEmpty())
+      return null;
+
+    try {
+      if (m_Deadline == -1) {
+	future = m_Completion.take();
+      }
+      else {
+	remaining = m_Deadline - System.currentTimeMillis();
+	future    = m_Completion.poll(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+      }
+    }
+    catch (InterruptedException e) {
+      abandon("Interrupted");
+      return null;
+    }
+
+    if (future == null) {
+      abandon("Timed out after " + m_Timeout + " seconds");
+      return null;
+    }
+
+    name = m_Pending.remove(future);
+    try {
+      result = future.get();
+    }
+    catch (Exception e) {
+      result        = new ServerResult();
+      result.server = name;
+      result.errors.add("Failed to execute action!", e);
+    }
+    if (!result.errors.isEmpty())
+      m_PendingErrors.add("Server " + result.server + ":\n" + result.errors);
+
+    return result;
+  }
+
+  /**
+   * Returns a copy of the spreadsheet with the server column inserted as
+   * the first column.
+   *
+   * @param sheet	the sheet to tag
+   * @param server	the name of the server
+   * @return		the tagged sheet
+   */
+  protected SpreadSheet tag(SpreadSheet sheet, String server) {
+    SpreadSheet		result;
+    Row			header;
+    Row			row;
+
+    result = new DefaultSpreadSheet();
+    result.setName(sheet.getName());
+    header = result.getHeaderRow();
+    header.addCell(KEY_SERVER).setContentAsString(m_ServerColumn);
+    for (String key: sheet.getHeaderRow().cellKeys())
+      header.addCell(key).assign(sheet.getHeaderRow().getCell(key));
+
+    for (Row r: sheet.rows()) {
+      row = result.addRow();
+      row.assign(r);
+      row.addCell(KEY_SERVER).setContentAsString(server);
+    }
+
+    return result;
+  }
+
+  /**
+   * Appends the rows of the tagged spreadsheet to the merged one.
+   *
+   * @param merged	the merged spreadsheet so far, null if none yet
+   * @param tagged	the tagged spreadsheet to append
+   * @return		the merged spreadsheet
+   */
+  protected SpreadSheet merge(SpreadSheet merged, SpreadSheet tagged) {
+    if (merged == null)
+      return tagged;
+
+    for (String key: tagged.getHeaderRow().cellKeys()) {
+      if (!merged.getHeaderRow().hasCell(key))
+	merged.getHeaderRow().addCell(key).assign(tagged.getHeaderRow().getCell(key));
+    }
+    for (Row row: tagged.rows())
+      merged.addRow().assign(row);
+
+    return merged;
+  }
+
+  /**
+   * Generates the next output, blocking until one is available.
+   *
+   * @param errors	for collecting errors
+   * @return		the output, null if none available (eg stream finished or error)
+   */
+  @Override
+  protected Object doNext(MessageCollection errors) {
+    SpreadSheet		result;
+    ServerResult	server;
+
+    result = null;
+
+    if (m_Merge) {
+      if (!m_Merged) {
+	while ((server = poll()) != null) {
+	  if (server.sheet != null)
+	    result = merge(result, tag(server.sheet, server.server));
+	}
+	m_Merged = true;
+      }
+    }
+    else {
+      while ((server = poll()) != null) {
+	if (server.sheet != null) {
+	  result = tag(server.sheet, server.server);
+	  break;
+	}
+      }
+    }
+
+    // report errors once all results have been output
+    if ((result == null) && !m_PendingErrors.isEmpty()) {
+      errors.add(m_PendingErrors.toString());
+      m_PendingErrors = new MessageCollection();
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns whether the stream can generate more output.
+   *
+   * @return		true if more output can be generated
+   */
+  @Override
+  public boolean hasNext() {
+    if (m_Stopped || (m_Pending == null))
+      return false;
+    return !m_Pending.isEmpty() || (m_Merge && !m_Merged) || !m_PendingErrors.isEmpty();
+  }
+
+  /**
+   * Stops the stream.
+   */
+  @Override
+  public void stopExecution() {
+    super.stopExecution();
+    if (m_Executor != null)
+      m_Executor.shutdownNow();
+  }
+}
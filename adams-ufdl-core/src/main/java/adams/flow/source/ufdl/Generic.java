@@ -21,18 +21,37 @@
 package adams.flow.source.ufdl;
 
 import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
 import adams.core.base.BaseText;
+import adams.core.io.PlaceholderFile;
+import adams.flow.standalone.UFDLConnection;
 import com.github.fracpete.requests4j.core.MediaTypeHelper;
 import com.github.fracpete.requests4j.request.Method;
+import com.github.waikatoufdl.ufdl4j.auth.Authentication;
 import okhttp3.MediaType;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
 /**
  * Generic API call.
  *
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class Generic
-  extends AbstractUFDLSourceAction {
+  extends AbstractUFDLStreamingSourceAction {
 
   private static final long serialVersionUID = 3382503754835867361L;
 
@@ -54,6 +73,30 @@ public class Generic
   /** whether to text or binary data is generated. */
   protected boolean m_BinaryOutput;
 
+  /** the file to stream binary responses to. */
+  protected PlaceholderFile m_OutputFile;
+
+  /** the size of the chunks to output binary responses in (0 = single byte array). */
+  protected int m_ChunkSize;
+
+  /** the size of the buffer for streaming. */
+  public static final int BUFFER_SIZE = 65536;
+
+  /** the output that was generated in one go. */
+  protected transient Object m_Output;
+
+  /** the response stream to read the chunks from. */
+  protected transient InputStream m_Stream;
+
+  /** the HTTP connection in use for streaming. */
+  protected transient HttpURLConnection m_HttpConnection;
+
+  /** the number of bytes transferred. */
+  protected transient long m_Transferred;
+
+  /** the start of the transfer (msec since epoch). */
+  protected transient long m_TransferStart;
+
   /**
    * Returns a string describing the object.
    *
@@ -61,7 +104,11 @@ public class Generic
    */
   @Override
   public String globalInfo() {
-    return "Generic API call.";
+    return "Generic API call.\n"
+      + "Binary responses can be streamed straight to an output file (outputting the file name) or output as "
+      + "a sequence of byte arrays of fixed size, avoiding holding large responses in memory. "
+      + "The transfer rate gets logged at info level. Since PATCH requests cannot be streamed, their "
+      + "responses are retrieved in one go before they get written to the file or output in chunks.";
   }
 
   /**
@@ -94,6 +141,14 @@ public class Generic
     m_OptionManager.add(
       "binary-output", "binaryOutput",
       false);
+
+    m_OptionManager.add(
+      "output-file", "outputFile",
+      new PlaceholderFile());
+
+    m_OptionManager.add(
+      "chunk-size", "chunkSize",
+      0, 0, null);
   }
 
   /**
@@ -274,6 +329,106 @@ public class Generic
     return "If enabled, a byte array is forwarded instead of a string.";
   }
 
+  /**
+   * Sets the file to stream binary responses to.
+   *
+   * @param value	the file, ignored if pointing to a directory
+   */
+  public void setOutputFile(PlaceholderFile value) {
+    m_OutputFile = value;
+    reset();
+  }
+
+  /**
+   * Returns the file to stream binary responses to.
+   *
+   * @return		the file, ignored if pointing to a directory
+   */
+  public PlaceholderFile getOutputFile() {
+    return m_OutputFile;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String outputFileTipText() {
+    return "The file to stream binary responses to, outputting the file name instead of the data; the data gets written to a temporary "
+      + "file first, which replaces the file once the transfer has finished; ignored if pointing to a directory.";
+  }
+
+  /**
+   * Sets the size of the chunks to output binary responses in.
+   *
+   * @param value	the size in bytes, 0 for a single byte array
+   */
+  public void setChunkSize(int value) {
+    if (getOptionManager().isValid("chunkSize", value)) {
+      m_ChunkSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the size of the chunks to output binary responses in.
+   *
+   * @return		the size in bytes, 0 for a single byte array
+   */
+  public int getChunkSize() {
+    return m_ChunkSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String chunkSizeTipText() {
+    return "The size in bytes of the chunks to output binary responses in, for processing them as a stream; "
+      + "0 for outputting a single byte array; ignored if streaming to an output file.";
+  }
+
+  /**
+   * Returns a quick info about the object, which can be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "method", m_Method, "method: ");
+    result += QuickInfoHelper.toString(this, "path", m_Path, ", path: ");
+    result += QuickInfoHelper.toString(this, "binaryOutput", m_BinaryOutput, "binary", ", ");
+    if (isStreamingToFile())
+      result += QuickInfoHelper.toString(this, "outputFile", m_OutputFile, ", file: ");
+    else if (m_BinaryOutput && (m_ChunkSize > 0))
+      result += QuickInfoHelper.toString(this, "chunkSize", m_ChunkSize, ", chunk size: ");
+
+    return result;
+  }
+
+  /**
+   * Returns whether binary responses get streamed to the output file.
+   *
+   * @return		true if streamed to file
+   */
+  protected boolean isStreamingToFile() {
+    return m_BinaryOutput && !m_OutputFile.isDirectory();
+  }
+
+  /**
+   * Returns whether binary responses get output in chunks.
+   *
+   * @return		true if output in chunks
+   */
+  protected boolean isChunking() {
+    return m_BinaryOutput && !isStreamingToFile() && (m_ChunkSize > 0);
+  }
+
   /**
    * Returns the classes that the source generates.
    *
@@ -281,22 +436,242 @@ public class Generic
    */
   @Override
   public Class[] generates() {
-    if (m_BinaryOutput)
+    if (isStreamingToFile())
+      return new Class[]{String.class};
+    else if (m_BinaryOutput)
       return new Class[]{byte[].class};
     else
       return new Class[]{String.class};
   }
 
   /**
-   * Generates the data.
+   * Returns whether the action only reads from the backend.
+   *
+   * @return		true if GET, HEAD or OPTIONS
+   */
+  @Override
+  public boolean isReadOnly() {
+    switch (m_Method) {
+      case GET:
+      case HEAD:
+      case OPTIONS:
+	return true;
+      default:
+	return false;
+    }
+  }
+
+  /**
+   * Returns the access token of the client.
+   *
+   * @return		the token
+   */
+  protected String getAccessToken() {
+    return m_Client.connection().authentication().getTokens().getAccessToken();
+  }
+
+  /**
+   * Opens a connection for the request and sends the body, if any.
+   *
+   * @param host	the host to connect to
+   * @param body	the body, null if none
+   * @param token	the access token to use
+   * @return		the connection
+   * @throws Exception	if the request fails
+   */
+  protected HttpURLConnection request(String host, String body, String token) throws Exception {
+    HttpURLConnection	result;
+    UFDLConnection	conn;
+
+    conn   = getConnection();
+    result = (HttpURLConnection) new URL(host.replaceAll("/$", "") + m_Path).openConnection();
+    result.setRequestMethod(m_Method.name());
+    result.setRequestProperty("Authorization", "Bearer " + token);
+    if (conn != null) {
+      result.setConnectTimeout(conn.getConnectTimeout() * 1000);
+      result.setReadTimeout(conn.getReadTimeout() * 1000);
+    }
+    if (body != null) {
+      result.setDoOutput(true);
+      result.setRequestProperty("Content-Type", m_MediaType);
+      try (OutputStream out = result.getOutputStream()) {
+	out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Refreshes the tokens of the client via its authentication, obtaining
+   * new tokens if the refresh token has expired as well.
+   *
+   * @return		true if successful
+   */
+  protected boolean refreshTokens() {
+    Authentication	auth;
+
+    auth = m_Client.connection().authentication();
+    if (auth.refresh())
+      return true;
+    if (isLoggingEnabled())
+      getLogger().info("Failed to refresh tokens, obtaining new ones");
+    return auth.obtain();
+  }
+
+  /**
+   * Opens the response stream of the request. If the access token has
+   * expired, the tokens of the client get refreshed and the request gets
+   * repeated once.
+   *
+   * @param body	the body, null if none
+   * @return		the stream
+   * @throws Exception	if the request fails
+   */
+  protected InputStream openStream(String body) throws Exception {
+    UFDLConnection	conn;
+    String		host;
+    String		token;
+    int			code;
+
+    conn = getConnection();
+    host = (conn == null) ? null : conn.getHost(m_Client);
+    if (host == null)
+      throw new IllegalStateException("Failed to determine host of client!");
+
+    token            = getAccessToken();
+    m_HttpConnection = request(host, body, token);
+    code             = m_HttpConnection.getResponseCode();
+    if ((code == HttpURLConnection.HTTP_UNAUTHORIZED) && refreshTokens()) {
+      m_HttpConnection.disconnect();
+      m_HttpConnection = request(host, body, getAccessToken());
+      code             = m_HttpConnection.getResponseCode();
+    }
+    if (code >= 400)
+      throw new IllegalStateException("Request failed with HTTP status " + code + ": " + m_HttpConnection.getResponseMessage());
+
+    return new BufferedInputStream(m_HttpConnection.getInputStream(), BUFFER_SIZE);
+  }
+
+  /**
+   * Logs the transfer rate.
+   */
+  protected void logTransferRate() {
+    double	secs;
+
+    if (!isLoggingEnabled())
+      return;
+
+    secs = Math.max(1, System.currentTimeMillis() - m_TransferStart) / 1000.0;
+    getLogger().info("Transferred " + m_Transferred + " bytes in " + Utils.doubleToString(secs, 3) + " sec ("
+      + Utils.doubleToString(m_Transferred / 1024.0 / secs, 1) + " KB/sec)");
+  }
+
+  /**
+   * Closes the response stream and the connection.
+   */
+  protected void closeStream() {
+    if (m_Stream != null) {
+      try {
+	m_Stream.close();
+      }
+      catch (Exception e) {
+	// ignored
+      }
+    }
+    if (m_HttpConnection != null)
+      m_HttpConnection.disconnect();
+    m_Stream         = null;
+    m_HttpConnection = null;
+  }
+
+  /**
+   * Streams the response to a temporary file next to the output file,
+   * which replaces the output file once the transfer has finished. The
+   * temporary file gets removed if the transfer fails or gets stopped.
    *
-   * @param errors 	for collecting errors
-   * @return		the generated data, null if none generated
+   * @param stream	the response stream
+   * @return		the file name
+   * @throws Exception	if streaming fails
+   */
+  protected String streamToFile(InputStream stream) throws Exception {
+    File	target;
+    File	tmp;
+    byte[]	buffer;
+    int		read;
+    boolean	success;
+
+    target  = m_OutputFile.getAbsoluteFile();
+    tmp     = File.createTempFile(target.getName() + ".", ".part", target.getParentFile());
+    buffer  = new byte[BUFFER_SIZE];
+    success = false;
+    try {
+      try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp), BUFFER_SIZE)) {
+	while (!m_Stopped && ((read = stream.read(buffer)) != -1)) {
+	  out.write(buffer, 0, read);
+	  m_Transferred += read;
+	}
+      }
+      if (m_Stopped)
+	throw new IllegalStateException("Transfer stopped: " + m_OutputFile);
+      Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      success = true;
+    }
+    finally {
+      if (!success && tmp.exists() && !tmp.delete())
+	getLogger().warning("Failed to remove partial download: " + tmp);
+    }
+    logTransferRate();
+
+    return target.getAbsolutePath();
+  }
+
+  /**
+   * Executes the request, retrieving the response in one go.
+   *
+   * @param body	the body, null if none
+   * @param mediaType	the media type of the body, null if none
+   * @return		the response
+   * @throws Exception	if the request fails
+   */
+  protected Object execute(String body, MediaType mediaType) throws Exception {
+    switch (m_Method) {
+      case GET:
+	return m_BinaryOutput ? m_Client.generic().getBinary(m_Path) : m_Client.generic().get(m_Path);
+      case POST:
+	return m_BinaryOutput ? m_Client.generic().postBinary(m_Path, body, mediaType) : m_Client.generic().post(m_Path, body, mediaType);
+      case PUT:
+	return m_BinaryOutput ? m_Client.generic().putBinary(m_Path, body, mediaType) : m_Client.generic().put(m_Path, body, mediaType);
+      case PATCH:
+	return m_BinaryOutput ? m_Client.generic().patchBinary(m_Path, body, mediaType) : m_Client.generic().patch(m_Path, body, mediaType);
+      case DELETE:
+	return m_Client.generic().delete(m_Path);
+      case HEAD:
+	return m_Client.generic().head(m_Path);
+      case OPTIONS:
+	return m_Client.generic().options(m_Path);
+      default:
+	throw new IllegalStateException("Unhandled method: " + m_Method);
+    }
+  }
+
+  /**
+   * Initializes the stream.
+   *
+   * @param errors	for collecting errors
+   * @return		true if successfully initialized
    */
   @Override
-  protected Object doGenerate(MessageCollection errors) {
+  protected boolean initStream(MessageCollection errors) {
     String	body;
     MediaType	mediaType;
+    boolean	streaming;
+    byte[]	data;
+
+    closeStream();
+    m_Output        = null;
+    m_Transferred   = 0;
+    m_TransferStart = System.currentTimeMillis();
 
     body = null;
     if (m_HasBody)
@@ -305,30 +680,95 @@ public class Generic
     if (body != null)
       mediaType = MediaType.parse(m_MediaType);
 
+    streaming = (isStreamingToFile() || isChunking())
+      && ((m_Method == Method.GET) || (m_Method == Method.POST) || (m_Method == Method.PUT));
+
     try {
-      switch (m_Method) {
-	case GET:
-	  return m_BinaryOutput ? m_Client.generic().getBinary(m_Path) : m_Client.generic().get(m_Path);
-	case POST:
-	  return m_BinaryOutput ? m_Client.generic().postBinary(m_Path, body, mediaType) : m_Client.generic().post(m_Path, body, mediaType);
-	case PUT:
-	  return m_BinaryOutput ? m_Client.generic().putBinary(m_Path, body, mediaType) : m_Client.generic().put(m_Path, body, mediaType);
-	case PATCH:
-	  return m_BinaryOutput ? m_Client.generic().patchBinary(m_Path, body, mediaType) : m_Client.generic().patch(m_Path, body, mediaType);
-	case DELETE:
-	  return m_Client.generic().delete(m_Path);
-	case HEAD:
-	  return m_Client.generic().head(m_Path);
-	case OPTIONS:
-	  return m_Client.generic().options(m_Path);
-	default:
-	  throw new IllegalStateException("Unhandled method: " + m_Method);
+      if (streaming) {
+	m_Stream = openStream(body);
+      }
+      else {
+	m_Output = execute(body, mediaType);
+	if ((m_Output instanceof byte[]) && (isStreamingToFile() || isChunking())) {
+	  data     = (byte[]) m_Output;
+	  m_Output = null;
+	  m_Stream = new ByteArrayInputStream(data);
+	}
+      }
+      if ((m_Stream != null) && isStreamingToFile()) {
+	m_Output = streamToFile(m_Stream);
+	closeStream();
       }
+      return true;
     }
     catch (Exception e) {
+      closeStream();
       errors.add("Failed to " + m_Method + " '" + m_Path + "'!", e);
+      return false;
     }
+  }
 
-    return null;
+  /**
+   * Generates the next output, blocking until one is available.
+   *
+   * @param errors	for collecting errors
+   * @return		the output, null if none available (eg stream finished or error)
+   */
+  @Override
+  protected Object doNext(MessageCollection errors) {
+    Object	result;
+    byte[]	chunk;
+    int		read;
+    int		total;
+
+    if (m_Output != null) {
+      result   = m_Output;
+      m_Output = null;
+      return result;
+    }
+
+    if (m_Stream == null)
+      return null;
+
+    try {
+      chunk = new byte[m_ChunkSize];
+      total = 0;
+      while (!m_Stopped && (total < chunk.length) && ((read = m_Stream.read(chunk, total, chunk.length - total)) != -1))
+	total += read;
+      m_Transferred += total;
+      if (total < chunk.length) {
+	logTransferRate();
+	closeStream();
+      }
+      if (total == 0)
+	return null;
+      if (total < chunk.length)
+	chunk = Arrays.copyOf(chunk, total);
+      return chunk;
+    }
+    catch (Exception e) {
+      closeStream();
+      errors.add("Failed to read chunk from '" + m_Path + "'!", e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns whether the stream can generate more output.
+   *
+   * @return		true if more output can be generated
+   */
+  @Override
+  public boolean hasNext() {
+    return !m_Stopped && ((m_Output != null) || (m_Stream != null));
+  }
+
+  /**
+   * Stops the stream.
+   */
+  @Override
+  public void stopExecution() {
+    super.stopExecution();
+    closeStream();
   }
 }
@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.CudaVersions.CudaVersion;
 
 import java.util.List;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListCudaVersions
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -146,9 +147,10 @@ public class ListCudaVersions
     result = null;
 
     try {
-      versions = m_Client.cuda().list(m_Filter.generate(errors));
+      versions = list(CudaVersion.class, m_Filter, m_Client.cuda()::list, errors);
       conv     = new UFDLCudaVersionToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
+      conv.setConnection(getConnection());
       for (CudaVersion version : versions) {
         conv.setInput(version);
         msg = conv.convert();
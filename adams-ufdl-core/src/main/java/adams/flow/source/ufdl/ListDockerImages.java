@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.DockerImages.DockerImage;
 
 import java.util.List;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListDockerImages
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -187,10 +188,11 @@ public class ListDockerImages
     result = null;
 
     try {
-      images = m_Client.docker().list(m_Filter.generate(errors));
+      images = list(DockerImage.class, m_Filter, m_Client.docker()::list, errors);
       conv     = new UFDLDockerImageToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
       conv.setResolveIDs(m_ResolveIDs);
+      conv.setConnection(getConnection());
       for (DockerImage image : images) {
         conv.setInput(image);
         msg = conv.convert();
@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Domains.Domain;
 
 import java.util.List;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListDomains
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -146,9 +147,10 @@ public class ListDomains
     result = null;
 
     try {
-      domains = m_Client.domains().list(m_Filter.generate(errors));
+      domains = list(Domain.class, m_Filter, m_Client.domains()::list, errors);
       conv     = new UFDLDomainToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
+      conv.setConnection(getConnection());
       for (Domain domain : domains) {
         conv.setInput(domain);
         msg = conv.convert();
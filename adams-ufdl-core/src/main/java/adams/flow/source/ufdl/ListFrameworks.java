@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Frameworks.Framework;
 
 import java.util.List;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListFrameworks
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -146,9 +147,10 @@ public class ListFrameworks
     result = null;
 
     try {
-      frameworks = m_Client.frameworks().list(m_Filter.generate(errors));
+      frameworks = list(Framework.class, m_Filter, m_Client.frameworks()::list, errors);
       conv     = new UFDLFrameworkToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
+      conv.setConnection(getConnection());
       for (Framework framework : frameworks) {
         conv.setInput(framework);
         msg = conv.convert();
@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.HardwareGenerations.HardwareGeneration;
 
 import java.util.List;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListHardwareGeneration
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -146,9 +147,10 @@ public class ListHardwareGeneration
     result = null;
 
     try {
-      hardwareGenerations = m_Client.hardware().list(m_Filter.generate(errors));
+      hardwareGenerations = list(HardwareGeneration.class, m_Filter, m_Client.hardware()::list, errors);
       conv     = new UFDLHardwareGenerationToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
+      conv.setConnection(getConnection());
       for (HardwareGeneration hardwareGeneration : hardwareGenerations) {
         conv.setInput(hardwareGeneration);
         msg = conv.convert();
@@ -26,6 +26,7 @@ import adams.core.QuickInfoHelper;
 import adams.data.conversion.UFDLJobOutputToSpreadSheet;
 import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Jobs.Job;
 import com.github.waikatoufdl.ufdl4j.action.Jobs.JobOutput;
 
@@ -36,7 +37,7 @@ import com.github.waikatoufdl.ufdl4j.action.Jobs.JobOutput;
  */
 public class ListJobOutputs
   extends AbstractUFDLSourceAction
-  implements AdditionalInformationHandler {
+  implements AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -143,6 +144,7 @@ public class ListJobOutputs
       job     = m_Client.jobs().load(m_Job);
       conv    = new UFDLJobOutputToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
+      conv.setConnection(getConnection());
       for (JobOutput output : job.getOutputs()) {
         conv.setInput(output);
         msg = conv.convert();
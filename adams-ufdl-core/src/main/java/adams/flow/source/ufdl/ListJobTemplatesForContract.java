@@ -27,6 +27,7 @@ import adams.data.conversion.UFDLJobTemplateToSpreadSheet;
 import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.flow.core.UFDLContractType;
+import adams.flow.core.UFDLReadOnlyAction;
 import adams.flow.core.UFDLSoftDeleteObjectState;
 import adams.flow.core.UFDLSoftDeleteObjectStateHandler;
 import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListJobTemplatesForContract
   extends AbstractUFDLSourceAction
-  implements UFDLSoftDeleteObjectStateHandler, AdditionalInformationHandler {
+  implements UFDLSoftDeleteObjectStateHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -228,6 +229,7 @@ public class ListJobTemplatesForContract
       conv      = new UFDLJobTemplateToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
       conv.setResolveIDs(m_ResolveIDs);
+      conv.setConnection(getConnection());
       for (JobTemplate template : templates) {
 	if (!m_State.accept(template))
 	  continue;
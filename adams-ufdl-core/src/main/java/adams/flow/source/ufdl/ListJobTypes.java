@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.JobTypes.JobType;
 
 import java.util.List;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListJobTypes
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -146,9 +147,10 @@ public class ListJobTypes
     result = null;
 
     try {
-      types = m_Client.jobTypes().list(m_Filter.generate(errors));
+      types = list(JobType.class, m_Filter, m_Client.jobTypes()::list, errors);
       conv  = new UFDLJobTypeToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
+      conv.setConnection(getConnection());
       for (JobType type : types) {
         conv.setInput(type);
         msg = conv.convert();
@@ -23,12 +23,15 @@ package adams.flow.source.ufdl;
 import adams.core.AdditionalInformationHandler;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.core.base.BaseString;
 import adams.data.conversion.UFDLJobToSpreadSheet;
 import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLMirrorHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import adams.flow.core.UFDLSoftDeleteObjectState;
 import adams.flow.core.UFDLSoftDeleteObjectStateHandler;
 import com.github.waikatoufdl.ufdl4j.action.Jobs.Job;
@@ -42,19 +45,25 @@ import java.util.List;
  */
 public class ListJobs
   extends AbstractUFDLSourceAction
-  implements UFDLSoftDeleteObjectStateHandler, UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLSoftDeleteObjectStateHandler, UFDLFilterHandler, UFDLMirrorHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
   /** the filter to apply. */
   protected AbstractUFDLFilter m_Filter;
 
+  /** whether to read from the local mirror. */
+  protected boolean m_UseMirror;
+
   /** the state of the jobs to list. */
   protected UFDLSoftDeleteObjectState m_State;
 
   /** whether to resolve IDs to names. */
   protected boolean m_ResolveIDs;
 
+  /** the fields to output (empty = all). */
+  protected BaseString[] m_Fields;
+
   /**
    * Returns a string describing the object.
    *
@@ -83,6 +92,14 @@ public class ListJobs
     m_OptionManager.add(
       "resolve-ids", "resolveIDs",
       false);
+
+    m_OptionManager.add(
+      "field", "fields",
+      new BaseString[0]);
+
+    m_OptionManager.add(
+      "use-mirror", "useMirror",
+      false);
   }
 
   /**
@@ -176,6 +193,66 @@ public class ListJobs
     return "If enabled, any IDs get resolved (e.g., outputting license name instead of license ID).";
   }
 
+  /**
+   * Sets the fields to output.
+   *
+   * @param value	the fields, empty for all
+   */
+  public void setFields(BaseString[] value) {
+    m_Fields = value;
+    reset();
+  }
+
+  /**
+   * Returns the fields to output.
+   *
+   * @return 		the fields, empty for all
+   */
+  public BaseString[] getFields() {
+    return m_Fields;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return		tip text for this property suitable for
+   *             	displaying in the GUI or for listing the options.
+   */
+  public String fieldsTipText() {
+    return "The fields (ie columns) to output, outputs all if none specified; skipping unused fields avoids their conversion and ID resolution.";
+  }
+
+  /**
+   * Sets whether to read the objects from the local mirror.
+   *
+   * @param value	true if to use the mirror
+   */
+  @Override
+  public void setUseMirror(boolean value) {
+    m_UseMirror = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to read the objects from the local mirror.
+   *
+   * @return		true if to use the mirror
+   */
+  @Override
+  public boolean getUseMirror() {
+    return m_UseMirror;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return		tip text for this property suitable for
+   *             	displaying in the GUI or for listing the options.
+   */
+  public String useMirrorTipText() {
+    return "If enabled, the objects are read from the local mirror (see UFDLConnection) and the filter gets evaluated locally, rather than querying the backend.";
+  }
+
   /**
    * Returns a quick info about the object, which can be displayed in the GUI.
    *
@@ -188,6 +265,8 @@ public class ListJobs
     result = QuickInfoHelper.toString(this, "filter", m_Filter, "filter: ");
     result += QuickInfoHelper.toString(this, "state", m_State, ", state: ");
     result += QuickInfoHelper.toString(this, "resolveIDs", m_ResolveIDs, "resolve IDs", ", ");
+    result += QuickInfoHelper.toString(this, "fields", m_Fields, ", fields: ");
+    result += QuickInfoHelper.toString(this, "useMirror", m_UseMirror, "mirror", ", ");
 
     return result;
   }
@@ -208,7 +287,11 @@ public class ListJobs
    * @return		the additional information, null or 0-length string for no information
    */
   public String getAdditionalInformation() {
-    return new UFDLJobToSpreadSheet().getAdditionalInformation();
+    UFDLJobToSpreadSheet	conv;
+
+    conv = new UFDLJobToSpreadSheet();
+    conv.setFields(m_Fields);
+    return conv.getAdditionalInformation();
   }
 
   /**
@@ -228,10 +311,12 @@ public class ListJobs
     result = null;
 
     try {
-      jobs = m_Client.jobs().list(m_Filter.generate(errors));
+      jobs = list(Job.class, m_State.apply(m_Filter), m_Client.jobs()::list, errors);
       conv  = new UFDLJobToSpreadSheet();
       conv.setFlowContext(m_FlowContext);
       conv.setResolveIDs(m_ResolveIDs);
+      conv.setFields(m_Fields);
+      conv.setConnection(getConnection());
       for (Job job : jobs) {
         if (!m_State.accept(job))
           continue;
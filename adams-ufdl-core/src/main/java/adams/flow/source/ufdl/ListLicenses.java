@@ -29,6 +29,8 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLMirrorHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
 
 import java.util.List;
@@ -40,13 +42,16 @@ import java.util.List;
  */
 public class ListLicenses
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, UFDLMirrorHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
   /** the filter to apply. */
   protected AbstractUFDLFilter m_Filter;
 
+  /** whether to read from the local mirror. */
+  protected boolean m_UseMirror;
+
   /**
    * Returns a string describing the object.
    *
@@ -67,6 +72,10 @@ public class ListLicenses
     m_OptionManager.add(
       "filter", "filter",
       new AllFilter());
+
+    m_OptionManager.add(
+      "use-mirror", "useMirror",
+      false);
   }
 
   /**
@@ -100,6 +109,37 @@ public class ListLicenses
     return "The filter to apply.";
   }
 
+  /**
+   * Sets whether to read the objects from the local mirror.
+   *
+   * @param value	true if to use the mirror
+   */
+  @Override
+  public void setUseMirror(boolean value) {
+    m_UseMirror = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to read the objects from the local mirror.
+   *
+   * @return		true if to use the mirror
+   */
+  @Override
+  public boolean getUseMirror() {
+    return m_UseMirror;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return		tip text for this property suitable for
+   *             	displaying in the GUI or for listing the options.
+   */
+  public String useMirrorTipText() {
+    return "If enabled, the objects are read from the local mirror (see UFDLConnection) and the filter gets evaluated locally, rather than querying the backend.";
+  }
+
   /**
    * Returns a quick info about the object, which can be displayed in the GUI.
    *
@@ -107,7 +147,12 @@ public class ListLicenses
    */
   @Override
   public String getQuickInfo() {
-    return QuickInfoHelper.toString(this, "filter", m_Filter, "filter: ");
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "filter", m_Filter, "filter: ");
+    result += QuickInfoHelper.toString(this, "useMirror", m_UseMirror, "mirror", ", ");
+
+    return result;
   }
 
   /**
@@ -146,7 +191,7 @@ public class ListLicenses
     result = null;
 
     try {
-      licenses = m_Client.licenses().list(m_Filter.generate(errors));
+      licenses = list(License.class, m_Filter, m_Client.licenses()::list, errors);
       conv  = new UFDLLicenseToSpreadSheet();
       for (License license : licenses) {
         conv.setInput(license);
@@ -29,6 +29,7 @@ import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Nodes.Node;
 
 import java.util.List;
@@ -40,7 +41,7 @@ import java.util.List;
  */
 public class ListNodes
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -187,10 +188,11 @@ public class ListNodes
     result = null;
 
     try {
-      nodes = m_Client.nodes().list(m_Filter.generate(errors));
+      nodes = list(Node.class, m_Filter, m_Client.nodes()::list, errors);
       conv     = new UFDLNodeToSpreadSheet();
       conv.setResolveIDs(m_ResolveIDs);
       conv.setFlowContext(m_FlowContext);
+      conv.setConnection(getConnection());
       for (Node node : nodes) {
         conv.setInput(node);
         msg = conv.convert();
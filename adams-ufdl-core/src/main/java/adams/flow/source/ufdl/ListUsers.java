@@ -24,12 +24,17 @@ import adams.core.AdditionalInformationHandler;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.TriState;
+import adams.core.option.OptionUtils;
 import adams.data.conversion.UFDLUserToSpreadSheet;
 import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.SpreadSheet;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
+import adams.data.ufdlfilter.GenericFilter;
+import adams.data.ufdlfilter.field.ExactBoolean;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLMirrorHandler;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Users.User;
 
 import java.util.List;
@@ -41,13 +46,16 @@ import java.util.List;
  */
 public class ListUsers
   extends AbstractUFDLSourceAction
-  implements UFDLFilterHandler, AdditionalInformationHandler {
+  implements UFDLFilterHandler, UFDLMirrorHandler, AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
   /** the filter to apply. */
   protected AbstractUFDLFilter m_Filter;
 
+  /** whether to read from the local mirror. */
+  protected boolean m_UseMirror;
+
   /** the active state of the users. */
   protected TriState m_Active;
 
@@ -75,6 +83,10 @@ public class ListUsers
     m_OptionManager.add(
       "active", "active",
       TriState.TRUE);
+
+    m_OptionManager.add(
+      "use-mirror", "useMirror",
+      false);
   }
 
   /**
@@ -137,6 +149,37 @@ public class ListUsers
     return "The active state of the users to retrieve.";
   }
 
+  /**
+   * Sets whether to read the objects from the local mirror.
+   *
+   * @param value	true if to use the mirror
+   */
+  @Override
+  public void setUseMirror(boolean value) {
+    m_UseMirror = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to read the objects from the local mirror.
+   *
+   * @return		true if to use the mirror
+   */
+  @Override
+  public boolean getUseMirror() {
+    return m_UseMirror;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return		tip text for this property suitable for
+   *             	displaying in the GUI or for listing the options.
+   */
+  public String useMirrorTipText() {
+    return "If enabled, the objects are read from the local mirror (see UFDLConnection) and the filter gets evaluated locally, rather than querying the backend.";
+  }
+
   /**
    * Returns a quick info about the object, which can be displayed in the GUI.
    *
@@ -148,6 +191,7 @@ public class ListUsers
 
     result = QuickInfoHelper.toString(this, "filter", m_Filter, "filter: ");
     result += QuickInfoHelper.toString(this, "active", m_Active, ", active: ");
+    result += QuickInfoHelper.toString(this, "useMirror", m_UseMirror, "mirror", ", ");
 
     return result;
   }
@@ -171,6 +215,39 @@ public class ListUsers
     return new UFDLUserToSpreadSheet().getAdditionalInformation();
   }
 
+  /**
+   * Turns the filter into one that lets the backend already restrict the
+   * users to the selected active state. Only {@link AllFilter} and
+   * {@link GenericFilter} can be extended, other filters get returned as is.
+   *
+   * @return		the (potentially) augmented filter
+   */
+  protected AbstractUFDLFilter applyActive() {
+    GenericFilter	result;
+
+    if (m_Active == TriState.NEUTRAL)
+      return m_Filter;
+
+    if (m_Filter instanceof AllFilter) {
+      result = new GenericFilter();
+      result.setIncludeInactive(((AllFilter) m_Filter).getIncludeInactive());
+    }
+    else if (m_Filter instanceof GenericFilter) {
+      result = (GenericFilter) OptionUtils.shallowCopy(m_Filter);
+      if (result == null)
+        return m_Filter;
+    }
+    else {
+      return m_Filter;
+    }
+
+    result.addExpression(new ExactBoolean("is_active", m_Active == TriState.TRUE));
+    if (m_Active == TriState.FALSE)
+      result.setIncludeInactive(true);
+
+    return result;
+  }
+
   /**
    * Generates the data.
    *
@@ -188,7 +265,7 @@ public class ListUsers
     result = null;
 
     try {
-      users = m_Client.users().list(m_Filter.generate(errors));
+      users = list(User.class, applyActive(), m_Client.users()::list, errors);
       conv  = new UFDLUserToSpreadSheet();
       for (User user: users) {
         switch (m_Active) {
@@ -0,0 +1,578 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * MonitorJobs.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.source.ufdl;
+
+import adams.core.DateUtils;
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.base.BaseInteger;
+import adams.data.spreadsheet.DefaultSpreadSheet;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.ufdlfilter.AbstractUFDLFilter;
+import adams.data.ufdlfilter.AllFilter;
+import adams.data.ufdlfilter.GenericFilter;
+import adams.data.ufdlfilter.field.ExactInteger;
+import adams.data.ufdlfilter.logical.Or;
+import adams.flow.core.UFDLFilterHandler;
+import adams.flow.core.UFDLJobState;
+import adams.flow.core.UFDLReadOnlyAction;
+import com.github.waikatoufdl.ufdl4j.action.Jobs.Job;
+import com.github.waikatoufdl.ufdl4j.filter.Filter;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Monitors jobs and outputs a spreadsheet with a single row whenever the
+ * state of a job changes.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class MonitorJobs
+  extends AbstractUFDLStreamingSourceAction
+  implements UFDLFilterHandler, UFDLReadOnlyAction {
+
+  private static final long serialVersionUID = 3957498234187461236L;
+
+  /** the event for progress of a running job. */
+  public static final String EVENT_PROGRESS = "PROGRESS";
+
+  /** the PKs of the jobs to monitor. */
+  protected BaseInteger[] m_Jobs;
+
+  /** the filter to apply if no PKs specified. */
+  protected AbstractUFDLFilter m_Filter;
+
+  /** the minimum poll interval in msec. */
+  protected int m_MinInterval;
+
+  /** the maximum poll interval in msec. */
+  protected int m_MaxInterval;
+
+  /** whether to output the initial states. */
+  protected boolean m_OutputInitialStates;
+
+  /** whether to stop once all jobs have finished. */
+  protected boolean m_StopWhenFinished;
+
+  /** the jobs that are still being watched (PK mode). */
+  protected transient Set<Integer> m_Watched;
+
+  /** the last known states. */
+  protected transient Map<Integer,UFDLJobState> m_States;
+
+  /** the last known outputs. */
+  protected transient Map<Integer,String> m_Outputs;
+
+  /** the events that haven't been output yet. */
+  protected transient Deque<SpreadSheet> m_Events;
+
+  /** the current poll interval. */
+  protected transient long m_Interval;
+
+  /** the number of polls so far. */
+  protected transient int m_Polls;
+
+  /** whether monitoring has finished. */
+  protected transient boolean m_Finished;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Monitors the specified jobs (or, if no PKs specified, all the jobs that match the filter) "
+      + "and outputs a spreadsheet with a single row whenever the state of a job changes "
+      + "(" + UFDLJobState.PENDING + ", " + UFDLJobState.ACQUIRED + ", " + UFDLJobState.RUNNING + ", "
+      + UFDLJobState.FINISHED + ", " + UFDLJobState.FAILED + ", " + UFDLJobState.CANCELLED + ") "
+      + "or a running job generates new outputs (" + EVENT_PROGRESS + ").\n"
+      + "All the jobs get checked with a single list request per poll; jobs that reached a final state "
+      + "are no longer included in the request when monitoring PKs. The poll interval doubles with "
+      + "every poll that didn't result in a change (up to the maximum interval) and gets reset to "
+      + "the minimum interval whenever a change occurs.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "job", "jobs",
+      new BaseInteger[0]);
+
+    m_OptionManager.add(
+      "filter", "filter",
+      new AllFilter());
+
+    m_OptionManager.add(
+      "min-interval", "minInterval",
+      1000, 100, null);
+
+    m_OptionManager.add(
+      "max-interval", "maxInterval",
+      30000, 100, null);
+
+    m_OptionManager.add(
+      "output-initial-states", "outputInitialStates",
+      true);
+
+    m_OptionManager.add(
+      "stop-when-finished", "stopWhenFinished",
+      true);
+  }
+
+  /**
+   * Sets the PKs of the jobs to monitor.
+   *
+   * @param value	the PKs
+   */
+  public void setJobs(BaseInteger[] value) {
+    m_Jobs = value;
+    reset();
+  }
+
+  /**
+   * Returns the PKs of the jobs to monitor.
+   *
+   * @return		the PKs
+   */
+  public BaseInteger[] getJobs() {
+    return m_Jobs;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String jobsTipText() {
+    return "The PKs of the jobs to monitor; if none specified, the filter gets used.";
+  }
+
+  /**
+   * Sets the filter to apply.
+   *
+   * @param value	the filter
+   */
+  @Override
+  public void setFilter(AbstractUFDLFilter value) {
+    m_Filter = value;
+    reset();
+  }
+
+  /**
+   * Returns the filter to apply.
+   *
+   * @return		the filter
+   */
+  @Override
+  public AbstractUFDLFilter getFilter() {
+    return m_Filter;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String filterTipText() {
+    return "The filter for selecting the jobs to monitor; only used if no PKs specified.";
+  }
+
+  /**
+   * Sets the minimum poll interval.
+   *
+   * @param value	the interval in msec
+   */
+  public void setMinInterval(int value) {
+    if (getOptionManager().isValid("minInterval", value)) {
+      m_MinInterval = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the minimum poll interval.
+   *
+   * @return		the interval in msec
+   */
+  public int getMinInterval() {
+    return m_MinInterval;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String minIntervalTipText() {
+    return "The minimum interval in msec between polls, used after a change occurred.";
+  }
+
+  /**
+   * Sets the maximum poll interval.
+   *
+   * @param value	the interval in msec
+   */
+  public void setMaxInterval(int value) {
+    if (getOptionManager().isValid("maxInterval", value)) {
+      m_MaxInterval = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum poll interval.
+   *
+   * @return		the interval in msec
+   */
+  public int getMaxInterval() {
+    return m_MaxInterval;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String maxIntervalTipText() {
+    return "The maximum interval in msec between polls, reached when no changes occur.";
+  }
+
+  /**
+   * Sets whether to output the states of the jobs from the first poll.
+   *
+   * @param value	true if to output
+   */
+  public void setOutputInitialStates(boolean value) {
+    m_OutputInitialStates = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to output the states of the jobs from the first poll.
+   *
+   * @return		true if to output
+   */
+  public boolean getOutputInitialStates() {
+    return m_OutputInitialStates;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String outputInitialStatesTipText() {
+    return "If enabled, the states of the jobs from the first poll get output as well.";
+  }
+
+  /**
+   * Sets whether to stop monitoring once all jobs have reached a final state.
+   *
+   * @param value	true if to stop
+   */
+  public void setStopWhenFinished(boolean value) {
+    m_StopWhenFinished = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to stop monitoring once all jobs have reached a final state.
+   *
+   * @return		true if to stop
+   */
+  public boolean getStopWhenFinished() {
+    return m_StopWhenFinished;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String stopWhenFinishedTipText() {
+    return "If enabled, monitoring stops once all jobs have reached a final state ("
+      + UFDLJobState.FINISHED + ", " + UFDLJobState.FAILED + ", " + UFDLJobState.CANCELLED + ").";
+  }
+
+  /**
+   * Returns a quick info about the object, which can be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    if (m_Jobs.length > 0)
+      result = QuickInfoHelper.toString(this, "jobs", m_Jobs, "jobs: ");
+    else
+      result = QuickInfoHelper.toString(this, "filter", m_Filter, "filter: ");
+    result += QuickInfoHelper.toString(this, "minInterval", m_MinInterval, ", interval: ");
+    result += QuickInfoHelper.toString(this, "maxInterval", m_MaxInterval, "-");
+    result += QuickInfoHelper.toString(this, "stopWhenFinished", m_StopWhenFinished, "stop when finished", ", ");
+
+    return result;
+  }
+
+  /**
+   * Returns the classes that the source generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{SpreadSheet.class};
+  }
+
+  /**
+   * Initializes the stream.
+   *
+   * @param errors	for collecting errors
+   * @return		true if successfully initialized
+   */
+  @Override
+  protected boolean initStream(MessageCollection errors) {
+    if (m_MinInterval > m_MaxInterval) {
+      errors.add("Minimum interval is larger than maximum one: " + m_MinInterval + " > " + m_MaxInterval);
+      return false;
+    }
+
+    m_Watched = new LinkedHashSet<>();
+    for (BaseInteger job: m_Jobs)
+      m_Watched.add(job.intValue());
+    m_States   = new HashMap<>();
+    m_Outputs  = new HashMap<>();
+    m_Events   = new ArrayDeque<>();
+    m_Interval = m_MinInterval;
+    m_Polls    = 0;
+    m_Finished = false;
+
+    return true;
+  }
+
+  /**
+   * Returns whether the stream can generate more output.
+   *
+   * @return		true if more output can be generated
+   */
+  @Override
+  public boolean hasNext() {
+    return !m_Stopped && ((m_Events != null) && (!m_Events.isEmpty() || !m_Finished));
+  }
+
+  /**
+   * Generates the filter for the current poll.
+   *
+   * @return		the filter
+   */
+  protected AbstractUFDLFilter getPollFilter() {
+    GenericFilter	result;
+    Or			or;
+
+    if (m_Jobs.length == 0)
+      return m_Filter;
+
+    or = new Or();
+    for (int pk: m_Watched)
+      or.addSubExpression(new ExactInteger("pk", pk));
+    result = new GenericFilter();
+    result.addExpression(or);
+    result.setIncludeInactive(true);
+
+    return result;
+  }
+
+  /**
+   * Queues an event.
+   *
+   * @param pk		the PK of the job
+   * @param job		the job, null if no longer available
+   * @param event	the event
+   * @param state	the current state
+   * @param previous	the previous state, can be null
+   */
+  protected void addEvent(int pk, Job job, String event, UFDLJobState state, UFDLJobState previous) {
+    SpreadSheet		sheet;
+    Row			row;
+
+    sheet = new DefaultSpreadSheet();
+    sheet.setName("Job " + pk);
+    row = sheet.getHeaderRow();
+    row.addCell("pk").setContentAsString("PK");
+    row.addCell("de").setContentAsString("Description");
+    row.addCell("ev").setContentAsString("Event");
+    row.addCell("st").setContentAsString("State");
+    row.addCell("ps").setContentAsString("Previous state");
+    row.addCell("no").setContentAsString("Node");
+    row.addCell("er").setContentAsString("Error");
+    row.addCell("ts").setContentAsString("Timestamp");
+
+    row = sheet.addRow();
+    row.addCell("pk").setContent(pk);
+    if (job != null) {
+      row.addCell("de").setContentAsString(job.getDescription());
+      if (job.getNode() != null)
+	row.addCell("no").setContent(job.getNode());
+      if (job.getError() != null)
+	row.addCell("er").setContentAsString(job.getError());
+    }
+    row.addCell("ev").setContentAsString(event);
+    row.addCell("st").setContentAsString(state.toString());
+    if (previous != null)
+      row.addCell("ps").setContentAsString(previous.toString());
+    row.addCell("ts").setContentAsString(DateUtils.getTimestampFormatterMsecs().format(new Date()));
+
+    m_Events.add(sheet);
+  }
+
+  /**
+   * Polls the backend and queues events for any changes.
+   *
+   * @param errors	for collecting errors
+   * @return		true if successfully polled
+   */
+  protected boolean poll(MessageCollection errors) {
+    Filter		filter;
+    List<Job>		jobs;
+    Set<Integer>	seen;
+    UFDLJobState	state;
+    UFDLJobState	previous;
+    String		outputs;
+    boolean		initial;
+    boolean		active;
+    int			numEvents;
+    int			pk;
+
+    m_Polls++;
+    initial   = (m_Polls == 1);
+    numEvents = m_Events.size();
+
+    filter = getPollFilter().generate(errors);
+    if (filter == null)
+      return false;
+
+    try {
+      jobs = m_Client.jobs().list(filter);
+    }
+    catch (Exception e) {
+      errors.add("Failed to list jobs!", e);
+      return false;
+    }
+
+    seen   = new HashSet<>();
+    active = false;
+    for (Job job: jobs) {
+      pk       = job.getPK();
+      state    = UFDLJobState.determine(job);
+      previous = m_States.get(pk);
+      outputs  = job.getOutputs().toString();
+      seen.add(pk);
+      if (previous == null) {
+	if (!initial || m_OutputInitialStates)
+	  addEvent(pk, job, state.toString(), state, null);
+      }
+      else if (previous != state) {
+	addEvent(pk, job, state.toString(), state, previous);
+      }
+      else if ((state == UFDLJobState.RUNNING) && !outputs.equals(m_Outputs.get(pk))) {
+	addEvent(pk, job, EVENT_PROGRESS, state, previous);
+      }
+      m_States.put(pk, state);
+      m_Outputs.put(pk, outputs);
+      if (state.isTerminal())
+	m_Watched.remove(pk);
+      else
+	active = true;
+    }
+
+    // watched jobs that no longer exist
+    if (m_Jobs.length > 0) {
+      for (Integer watched: new HashSet<>(m_Watched)) {
+	if (seen.contains(watched))
+	  continue;
+	addEvent(watched, null, UFDLJobState.CANCELLED.toString(), UFDLJobState.CANCELLED, m_States.get(watched));
+	m_States.put(watched, UFDLJobState.CANCELLED);
+	m_Watched.remove(watched);
+      }
+      active = !m_Watched.isEmpty();
+    }
+
+    if (m_StopWhenFinished && !active)
+      m_Finished = true;
+
+    // adapt interval
+    if (m_Events.size() > numEvents)
+      m_Interval = m_MinInterval;
+    else
+      m_Interval = Math.min(m_Interval * 2, m_MaxInterval);
+
+    if (isLoggingEnabled())
+      getLogger().info("Poll #" + m_Polls + ": " + jobs.size() + " job(s), " + (m_Events.size() - numEvents) + " event(s), next poll in " + m_Interval + "msec");
+
+    return true;
+  }
+
+  /**
+   * Generates the next output, blocking until one is available.
+   *
+   * @param errors	for collecting errors
+   * @return		the output, null if none available (eg stream finished or error)
+   */
+  @Override
+  protected Object doNext(MessageCollection errors) {
+    while (!m_Stopped) {
+      if (!m_Events.isEmpty())
+	return m_Events.poll();
+      if (m_Finished)
+	return null;
+      if ((m_Polls > 0) && !waitFor(m_Interval))
+	return null;
+      if (!poll(errors)) {
+	// try again later
+	m_Interval = Math.min(m_Interval * 2, m_MaxInterval);
+	return null;
+      }
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * SyncMirror.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.source.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.data.spreadsheet.DefaultSpreadSheet;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.UFDLMirrorEntity;
+import adams.flow.core.UFDLReadOnlyAction;
+import adams.flow.standalone.UFDLConnection;
+import adams.flow.standalone.ufdlcache.Mirror;
+
+/**
+ * Synchronizes the local mirror of the connection with the backend and
+ * outputs a spreadsheet with the statistics.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class SyncMirror
+  extends AbstractUFDLSourceAction
+  implements UFDLReadOnlyAction {
+
+  private static final long serialVersionUID = 6139064457129357914L;
+
+  /** the types of objects to synchronize. */
+  protected UFDLMirrorEntity[] m_Entities;
+
+  /** whether to perform a full synchronization. */
+  protected boolean m_Full;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Synchronizes the local mirror of the connection with the backend and outputs a spreadsheet with the statistics.\n"
+      + "Objects get synchronized incrementally using their timestamp fields (creation, deletion, etc), if available. "
+      + "Since there is no modification timestamp, a full synchronization should be performed periodically to "
+      + "pick up any other changes.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "entity", "entities",
+      UFDLMirrorEntity.values());
+
+    m_OptionManager.add(
+      "full", "full",
+      false);
+  }
+
+  /**
+   * Sets the types of objects to synchronize.
+   *
+   * @param value	the types
+   */
+  public void setEntities(UFDLMirrorEntity[] value) {
+    m_Entities = value;
+    reset();
+  }
+
+  /**
+   * Returns the types of objects to synchronize.
+   *
+   * @return		the types
+   */
+  public UFDLMirrorEntity[] getEntities() {
+    return m_Entities;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String entitiesTipText() {
+    return "The types of objects to synchronize.";
+  }
+
+  /**
+   * Sets whether to perform a full synchronization.
+   *
+   * @param value	true if full
+   */
+  public void setFull(boolean value) {
+    m_Full = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to perform a full synchronization.
+   *
+   * @return		true if full
+   */
+  public boolean getFull() {
+    return m_Full;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String fullTipText() {
+    return "If enabled, all objects get retrieved again rather than just the ones that changed since the last synchronization.";
+  }
+
+  /**
+   * Returns a quick info about the object, which can be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "entities", m_Entities, "entities: ");
+    result += QuickInfoHelper.toString(this, "full", m_Full, "full", ", ");
+
+    return result;
+  }
+
+  /**
+   * Returns whether the action requires flow context.
+   *
+   * @return		true if required
+   */
+  @Override
+  public boolean requiresFlowContext() {
+    return true;
+  }
+
+  /**
+   * Returns the classes that the source generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{SpreadSheet.class};
+  }
+
+  /**
+   * Generates the data.
+   *
+   * @param errors 	for collecting errors
+   * @return		the generated data, null if none generated
+   */
+  @Override
+  protected Object doGenerate(MessageCollection errors) {
+    SpreadSheet		result;
+    Row			row;
+    UFDLConnection	conn;
+    Mirror		mirror;
+    int			retrieved;
+    String		lastSync;
+    String		msg;
+
+    conn = getConnection();
+    if ((conn == null) || (conn.getCacheManager() == null)) {
+      errors.add("No connection available for synchronizing the mirror!");
+      return null;
+    }
+    if (conn.getOffline()) {
+      errors.add("Cannot synchronize the mirror when working offline!");
+      return null;
+    }
+    mirror = conn.getCacheManager().mirror();
+    msg    = mirror.checkDirectory(false);
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+
+    result = new DefaultSpreadSheet();
+    result.setName("Mirror");
+    row = result.getHeaderRow();
+    row.addCell("en").setContentAsString("Entity");
+    row.addCell("mo").setContentAsString("Mode");
+    row.addCell("re").setContentAsString("Retrieved");
+    row.addCell("to").setContentAsString("Total");
+    row.addCell("ls").setContentAsString("Last sync");
+
+    for (UFDLMirrorEntity entity: m_Entities) {
+      try {
+	row = result.addRow();
+	row.addCell("en").setContentAsString(entity.toString());
+	row.addCell("mo").setContentAsString((m_Full || !entity.supportsIncrementalSync() || !mirror.has(entity)) ? "full" : "incremental");
+	retrieved = mirror.sync(entity, m_Full, errors);
+	if (retrieved == -1) {
+	  errors.add("Failed to synchronize mirror: " + entity);
+	  continue;
+	}
+	row.addCell("re").setContent(retrieved);
+	row.addCell("to").setContent(mirror.load(entity.getEntity()).size());
+	lastSync = mirror.getLastSync(entity);
+	if (lastSync != null)
+	  row.addCell("ls").setContentAsString(lastSync);
+      }
+      catch (Exception e) {
+	errors.add("Failed to synchronize mirror: " + entity, e);
+      }
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,545 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * TailLogEntries.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.source.ufdl;
+
+import adams.core.AdditionalInformationHandler;
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.option.OptionUtils;
+import adams.data.conversion.UFDLLogEntryToSpreadSheet;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.ufdlfilter.GenericFilter;
+import adams.data.ufdlfilter.OrderBy;
+import adams.data.ufdlfilter.field.IntegerCompare;
+import adams.flow.core.UFDLReadOnlyAction;
+import com.github.waikatoufdl.ufdl4j.action.Log.LogEntry;
+import com.github.waikatoufdl.ufdl4j.filter.Filter;
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Follows the log and outputs spreadsheets with the log entries that
+ * were added since the last poll.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class TailLogEntries
+  extends AbstractUFDLStreamingSourceAction
+  implements AdditionalInformationHandler, UFDLReadOnlyAction {
+
+  private static final long serialVersionUID = -5563197431279810874L;
+
+  /** the filter to apply. */
+  protected GenericFilter m_Filter;
+
+  /** the poll interval in msec. */
+  protected int m_PollInterval;
+
+  /** the maximum number of entries per spreadsheet. */
+  protected int m_BatchSize;
+
+  /** whether to output the entries already present at the start. */
+  protected boolean m_OutputExisting;
+
+  /** the highest PK seen so far. */
+  protected transient int m_LastPK;
+
+  /** the number of polls so far. */
+  protected transient int m_Polls;
+
+  /** whether the last poll returned no new entries. */
+  protected transient boolean m_CaughtUp;
+
+  /** the entries that haven't been output yet. */
+  protected transient Deque<LogEntry> m_Pending;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Follows the log and outputs spreadsheets with the log entries that match the filter "
+      + "and were added since the last poll.\n"
+      + "Only entries with a PK larger than the highest one seen so far get requested from the backend, "
+      + "i.e., entries are downloaded only once. Requests are restricted to a PK range of 'batch-size' "
+      + "width; only if that range contains no entries, all newer entries get requested. "
+      + "If existing entries are not to be output, the highest PK gets determined with requests of the "
+      + "same width instead of downloading the whole log.\n"
+      + "Each spreadsheet contains at most 'batch-size' entries, sorted by PK.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "filter", "filter",
+      new GenericFilter());
+
+    m_OptionManager.add(
+      "poll-interval", "pollInterval",
+      1000, 1, null);
+
+    m_OptionManager.add(
+      "batch-size", "batchSize",
+      100, 1, null);
+
+    m_OptionManager.add(
+      "output-existing", "outputExisting",
+      true);
+  }
+
+  /**
+   * Sets the filter to apply.
+   *
+   * @param value	the filter
+   */
+  public void setFilter(GenericFilter value) {
+    m_Filter = value;
+    reset();
+  }
+
+  /**
+   * Returns the filter to apply.
+   *
+   * @return		the filter
+   */
+  public GenericFilter getFilter() {
+    return m_Filter;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String filterTipText() {
+    return "The filter to apply, e.g., for restricting the entries to a certain level; "
+      + "the restriction on the PK and the ascending ordering by PK get added automatically; "
+      + "the filter must not define its own ordering, as tailing relies on the PK ordering.";
+  }
+
+  /**
+   * Sets the poll interval.
+   *
+   * @param value	the interval in msec
+   */
+  public void setPollInterval(int value) {
+    if (getOptionManager().isValid("pollInterval", value)) {
+      m_PollInterval = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the poll interval.
+   *
+   * @return		the interval in msec
+   */
+  public int getPollInterval() {
+    return m_PollInterval;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String pollIntervalTipText() {
+    return "The interval in msec between polls for new log entries.";
+  }
+
+  /**
+   * Sets the maximum number of entries per spreadsheet.
+   *
+   * @param value	the maximum
+   */
+  public void setBatchSize(int value) {
+    if (getOptionManager().isValid("batchSize", value)) {
+      m_BatchSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of entries per spreadsheet.
+   *
+   * @return		the maximum
+   */
+  public int getBatchSize() {
+    return m_BatchSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String batchSizeTipText() {
+    return "The width of the PK range per request and the maximum number of log entries per generated spreadsheet.";
+  }
+
+  /**
+   * Sets whether to output the entries that are already present when
+   * starting to follow the log.
+   *
+   * @param value	true if to output
+   */
+  public void setOutputExisting(boolean value) {
+    m_OutputExisting = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to output the entries that are already present when
+   * starting to follow the log.
+   *
+   * @return		true if to output
+   */
+  public boolean getOutputExisting() {
+    return m_OutputExisting;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String outputExistingTipText() {
+    return "If enabled, the entries that are already present when starting to follow the log get output as well.";
+  }
+
+  /**
+   * Returns a quick info about the object, which can be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "filter", m_Filter, "filter: ");
+    result += QuickInfoHelper.toString(this, "pollInterval", m_PollInterval, ", interval: ");
+    result += QuickInfoHelper.toString(this, "batchSize", m_BatchSize, ", batch: ");
+    result += QuickInfoHelper.toString(this, "outputExisting", m_OutputExisting, "existing", ", ");
+
+    return result;
+  }
+
+  /**
+   * Returns the classes that the source generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{SpreadSheet.class};
+  }
+
+  /**
+   * Returns the additional information.
+   *
+   * @return		the additional information, null or 0-length string for no information
+   */
+  public String getAdditionalInformation() {
+    return new UFDLLogEntryToSpreadSheet().getAdditionalInformation();
+  }
+
+  /**
+   * Initializes the stream.
+   *
+   * @param errors	for collecting errors
+   * @return		true if successfully initialized
+   */
+  @Override
+  protected boolean initStream(MessageCollection errors) {
+    if ((m_Filter.getOrder() != null) && (m_Filter.getOrder().length > 0)) {
+      errors.add("Filter must not define an ordering, entries are always retrieved in ascending PK order!");
+      return false;
+    }
+
+    m_LastPK   = 0;
+    m_Polls    = 0;
+    m_CaughtUp = false;
+    m_Pending  = new ArrayDeque<>();
+    return true;
+  }
+
+  /**
+   * Returns whether the stream can generate more output.
+   *
+   * @return		true if more output can be generated
+   */
+  @Override
+  public boolean hasNext() {
+    return !m_Stopped && (m_Pending != null);
+  }
+
+  /**
+   * Generates the filter for requesting the entries within the PK range.
+   *
+   * @param lower	the exclusive lower bound for the PK
+   * @param upper	the inclusive upper bound for the PK, -1 for unbounded
+   * @param filtered	whether to apply the user-supplied filter
+   * @return		the filter
+   */
+  protected GenericFilter getPollFilter(int lower, int upper, boolean filtered) {
+    GenericFilter	result;
+
+    if (filtered)
+      result = (GenericFilter) OptionUtils.shallowCopy(m_Filter);
+    else
+      result = new GenericFilter();
+    result.addExpression(new IntegerCompare("pk", Comparison.GREATER_THAN, lower));
+    if (upper > -1)
+      result.addExpression(new IntegerCompare("pk", Comparison.LESS_THAN_OR_EQUAL, upper));
+    result.setOrder(new OrderBy[]{new OrderBy("pk")});
+
+    return result;
+  }
+
+  /**
+   * Lists the entries within the PK range.
+   *
+   * @param lower	the exclusive lower bound for the PK
+   * @param upper	the inclusive upper bound for the PK, -1 for unbounded
+   * @param filtered	whether to apply the user-supplied filter
+   * @param errors	for collecting errors
+   * @return		the entries sorted by PK, null if failed to list
+   */
+  protected List<LogEntry> listRange(long lower, long upper, boolean filtered, MessageCollection errors) {
+    List<LogEntry>	result;
+    Filter		filter;
+
+    filter = getPollFilter((int) lower, (int) Math.min(upper, Integer.MAX_VALUE), filtered).generate(errors);
+    if (filter == null)
+      return null;
+
+    try {
+      result = new ArrayList<>(m_Client.log().list(filter));
+    }
+    catch (Exception e) {
+      errors.add("Failed to list log entries!", e);
+      return null;
+    }
+    result.sort(Comparator.comparingInt(LogEntry::getPK));
+
+    return result;
+  }
+
+  /**
+   * Returns the highest PK of the entries.
+   *
+   * @param entries	the entries, sorted by PK
+   * @param defPK	the PK to use if higher or no entries
+   * @return		the highest PK
+   */
+  protected int maxPK(List<LogEntry> entries, int defPK) {
+    if (entries.isEmpty())
+      return defPK;
+    return Math.max(defPK, entries.get(entries.size() - 1).getPK());
+  }
+
+  /**
+   * Determines the highest PK in the log without downloading the whole log.
+   * All requests are restricted to a PK range of 'batch-size' width: the
+   * range gets moved further up with doubling steps until it comes back
+   * empty, then the remaining interval gets bisected. Since gaps in the PKs
+   * wider than the batch size can hide entries, the result gets verified
+   * with a request for all entries above it, which only returns entries in
+   * case of such a gap.
+   *
+   * @param errors	for collecting errors
+   * @return		the highest PK, -1 if failed to determine
+   */
+  protected int findHighestPK(MessageCollection errors) {
+    List<LogEntry>	entries;
+    int			result;
+    long		step;
+    long		lower;
+    long		upper;
+    long		mid;
+
+    result = 0;
+    step   = m_BatchSize;
+    while (true) {
+      lower = Math.min((long) result + step - m_BatchSize, Integer.MAX_VALUE);
+      if (lower == Integer.MAX_VALUE)
+	break;
+      entries = listRange(lower, lower + m_BatchSize, false, errors);
+      if (entries == null)
+	return -1;
+      if (entries.isEmpty())
+	break;
+      result = maxPK(entries, result);
+      step  *= 2;
+    }
+
+    // entries up to "result", none right above "lower"
+    upper = lower;
+    lower = result;
+    while (upper - lower > m_BatchSize) {
+      mid     = lower + (upper - lower) / 2;
+      entries = listRange(mid, mid + m_BatchSize, false, errors);
+      if (entries == null)
+	return -1;
+      if (entries.isEmpty())
+	upper = mid;
+      else
+	lower = maxPK(entries, (int) lower);
+    }
+    if (upper > lower) {
+      entries = listRange(lower, upper, false, errors);
+      if (entries == null)
+	return -1;
+      lower = maxPK(entries, (int) lower);
+    }
+    result = (int) lower;
+
+    entries = listRange(result, -1, false, errors);
+    if (entries == null)
+      return -1;
+
+    return maxPK(entries, result);
+  }
+
+  /**
+   * Polls the backend for new entries. Only the entries within the next
+   * PK range of 'batch-size' width get requested. If that range contains
+   * no entries, all newer entries get requested, to skip over gaps in the
+   * PKs (e.g., due to the filter).
+   *
+   * @param errors	for collecting errors
+   * @return		true if successfully polled
+   */
+  protected boolean poll(MessageCollection errors) {
+    List<LogEntry>	entries;
+    int			pk;
+
+    m_Polls++;
+
+    if ((m_Polls == 1) && !m_OutputExisting) {
+      pk = findHighestPK(errors);
+      if (pk == -1)
+	return false;
+      m_LastPK   = pk;
+      m_CaughtUp = true;
+      if (isLoggingEnabled())
+	getLogger().info("Poll #" + m_Polls + ": skipping existing entries, last PK: " + m_LastPK);
+      return true;
+    }
+
+    entries = listRange(m_LastPK, (long) m_LastPK + m_BatchSize, true, errors);
+    if ((entries != null) && entries.isEmpty())
+      entries = listRange(m_LastPK, -1, true, errors);
+    if (entries == null)
+      return false;
+
+    for (LogEntry entry: entries) {
+      if (entry.getPK() <= m_LastPK)
+	continue;
+      m_LastPK = entry.getPK();
+      m_Pending.add(entry);
+    }
+    m_CaughtUp = entries.isEmpty();
+
+    if (isLoggingEnabled())
+      getLogger().info("Poll #" + m_Polls + ": " + entries.size() + " new entries, last PK: " + m_LastPK);
+
+    return true;
+  }
+
+  /**
+   * Turns the next batch of pending entries into a spreadsheet.
+   *
+   * @param errors	for collecting errors
+   * @return		the spreadsheet, null if none of the entries could be converted
+   */
+  protected SpreadSheet nextBatch(MessageCollection errors) {
+    SpreadSheet			result;
+    SpreadSheet			sheet;
+    UFDLLogEntryToSpreadSheet	conv;
+    LogEntry			entry;
+    String			msg;
+    int				count;
+
+    result = null;
+    conv   = new UFDLLogEntryToSpreadSheet();
+    count  = 0;
+    while (!m_Pending.isEmpty() && (count < m_BatchSize)) {
+      entry = m_Pending.poll();
+      count++;
+      conv.setInput(entry);
+      msg = conv.convert();
+      if (msg == null) {
+	if (result == null) {
+	  result = (SpreadSheet) conv.getOutput();
+	}
+	else {
+	  sheet = (SpreadSheet) conv.getOutput();
+	  for (Row row: sheet.rows())
+	    result.addRow().assign(row);
+	}
+      }
+      else {
+	errors.add("Failed to convert log entry: " + entry + "\n" + msg);
+      }
+    }
+    conv.cleanUp();
+
+    return result;
+  }
+
+  /**
+   * Generates the next output, blocking until one is available.
+   *
+   * @param errors	for collecting errors
+   * @return		the output, null if none available (eg stream finished or error)
+   */
+  @Override
+  protected Object doNext(MessageCollection errors) {
+    while (!m_Stopped) {
+      if (!m_Pending.isEmpty())
+	return nextBatch(errors);
+      if (m_CaughtUp && !waitFor(m_PollInterval))
+	return null;
+      if (!poll(errors))
+	return null;
+    }
+
+    return null;
+  }
+}
@@ -22,18 +22,23 @@ package adams.flow.source.valuedefinition;
 
 import adams.core.Utils;
 import adams.core.io.ConsoleHelper;
+import adams.core.option.OptionUtils;
 import adams.data.ufdlfilter.AbstractUFDLFilter;
 import adams.data.ufdlfilter.AllFilter;
 import adams.flow.core.UFDLFilterHandler;
 import adams.flow.core.UFDLListSorting;
+import adams.flow.standalone.ufdlcache.QueryResultCache;
 import adams.gui.core.PropertiesParameterPanel;
 import adams.gui.core.PropertiesParameterPanel.PropertyType;
 import com.github.fracpete.javautils.struct.Struct2;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Ancestor for list-based UFDL value definitions that return int (the PK).
@@ -201,8 +206,9 @@ public abstract class AbstractUFDLListValueDefinition
    * @return		the sorted list
    */
   protected List<Struct2<Integer,String>> sortListItems(List<Struct2<Integer,String>> items) {
-    Struct2<Integer,String>[]		array;
-    Comparator<Struct2<Integer,String>>	comp;
+    Struct2<Integer,String>[]				array;
+    Comparator<Struct2<Integer,String>>			comp;
+    final Map<Struct2<Integer,String>,String>		keys;
 
     array = (Struct2<Integer,String>[]) items.toArray(new Struct2[0]);
     switch (m_Sorting) {
@@ -225,10 +231,14 @@ public abstract class AbstractUFDLListValueDefinition
 	break;
       case BY_DESCRIPTION_CASE_INSENSITIVE:
       case BY_DESCRIPTION_CASE_INSENSITIVE_NO_ID:
+	// lower-case keys get computed once per item rather than per comparison
+	keys = new IdentityHashMap<>();
+	for (Struct2<Integer,String> item: array)
+	  keys.put(item, item.value2.toLowerCase());
 	comp = new Comparator<Struct2<Integer, String>>() {
 	  @Override
 	  public int compare(Struct2<Integer, String> o1, Struct2<Integer, String> o2) {
-	    return o1.value2.toLowerCase().compareTo(o2.value2.toLowerCase());
+	    return keys.get(o1).compareTo(keys.get(o2));
 	  }
 	};
 	break;
@@ -261,6 +271,73 @@ public abstract class AbstractUFDLListValueDefinition
     return result;
   }
 
+  /**
+   * Returns the key for caching the list items. Name, display, help and
+   * default value get ignored, so that the list can be shared between
+   * values that only differ in these.
+   *
+   * @return		the key
+   */
+  protected String getCacheKey() {
+    AbstractUFDLListValueDefinition	copy;
+
+    copy = (AbstractUFDLListValueDefinition) OptionUtils.shallowCopy(this);
+    copy.setName("");
+    copy.setDisplay("");
+    copy.setHelp("");
+    copy.setDefaultValue("");
+
+    return OptionUtils.getCommandLine(copy);
+  }
+
+  /**
+   * Returns the type of objects that the list items are generated from,
+   * used for invalidating the cached items whenever objects of this type
+   * get modified.
+   * <br>
+   * Default implementation returns {@link Object}, i.e., any modification
+   * invalidates the items.
+   *
+   * @return		the type
+   */
+  protected Class getCacheEntity() {
+    return Object.class;
+  }
+
+  /**
+   * Returns the sorted list items as strings, using the cache of the
+   * connection if available.
+   *
+   * @return		the list items
+   * @see		#listItems()
+   * @see		#toStringList(List)
+   */
+  protected List<String> getStringList() {
+    List<String>			result;
+    List<Struct2<Integer,String>>	items;
+    QueryResultCache			cache;
+    String				key;
+
+    if (m_Connection.getCacheManager() == null)
+      return toStringList(listItems());
+
+    cache  = m_Connection.getCacheManager().queryResults();
+    key    = getCacheKey();
+    result = (List<String>) cache.get(getCacheEntity(), key);
+    if (result == null) {
+      items  = listItems();
+      result = Collections.unmodifiableList(toStringList(items));
+      // empty lists are not cached, as they can be the result of a failed request
+      if (!items.isEmpty())
+	cache.put(getCacheEntity(), key, result);
+    }
+    else if (isLoggingEnabled()) {
+      getLogger().info("Using cached list items: " + key);
+    }
+
+    return result;
+  }
+
   /**
    * Sets the default value as string.
    *
@@ -296,7 +373,7 @@ public abstract class AbstractUFDLListValueDefinition
     if (!check())
       return false;
 
-    itemsStr = toStringList(listItems());
+    itemsStr = getStringList();
 
     panel.addPropertyType(getName(), getType());
     panel.setList(getName(), itemsStr.toArray(new String[0]));
@@ -320,7 +397,7 @@ public abstract class AbstractUFDLListValueDefinition
     if (!check())
       return null;
 
-    itemsStr = toStringList(listItems());
+    itemsStr = getStringList();
 
     msg = "Available options:\n"
       + Utils.flatten(itemsStr, "\n")
@@ -73,7 +73,7 @@ public class UFDLDatasetList
     result = new ArrayList<>();
 
     try {
-      for (Dataset dataset : m_Connection.getClient().datasets().list(m_Filter.generate(new MessageCollection()))) {
+      for (Dataset dataset : m_Connection.getClient().datasets().list(m_State.apply(m_Filter).generate(new MessageCollection()))) {
         if (!m_State.accept(dataset))
           continue;
         result.add(new Struct2<>(dataset.getPK(), dataset.getName()));
@@ -85,4 +85,14 @@ public class UFDLDatasetList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return Dataset.class;
+  }
 }
@@ -82,4 +82,14 @@ public class UFDLDockerImagesList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return DockerImage.class;
+  }
 }
@@ -93,4 +93,14 @@ public class UFDLDomainList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return Domain.class;
+  }
 }
@@ -82,4 +82,14 @@ public class UFDLHardwareGenerationList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return HardwareGeneration.class;
+  }
 }
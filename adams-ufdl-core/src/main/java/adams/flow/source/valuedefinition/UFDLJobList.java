@@ -73,7 +73,7 @@ public class UFDLJobList
     result = new ArrayList<>();
 
     try {
-      for (Job job: m_Connection.getClient().jobs().list(m_Filter.generate(new MessageCollection()))) {
+      for (Job job: m_Connection.getClient().jobs().list(m_State.apply(m_Filter).generate(new MessageCollection()))) {
         if (!m_State.accept(job))
           continue;
         result.add(new Struct2<>(job.getPK(), job.getDescription()));
@@ -85,4 +85,14 @@ public class UFDLJobList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return Job.class;
+  }
 }
@@ -73,7 +73,7 @@ public class UFDLJobTemplateList
     result = new ArrayList<>();
 
     try {
-      for (JobTemplate template : m_Connection.getClient().jobTemplates().list(m_Filter.generate(new MessageCollection()))) {
+      for (JobTemplate template : m_Connection.getClient().jobTemplates().list(m_State.apply(m_Filter).generate(new MessageCollection()))) {
         if (!m_State.accept(template))
           continue;
         result.add(new Struct2<>(template.getPK(), template.getName()));
@@ -85,4 +85,14 @@ public class UFDLJobTemplateList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return JobTemplate.class;
+  }
 }
@@ -20,9 +20,21 @@
 
 package adams.flow.source.valuedefinition;
 
+import adams.core.MessageCollection;
+import adams.flow.core.UFDLLicenseIndex;
 import adams.gui.chooser.UFDLLicenseFilterChooser;
 import adams.gui.core.PropertiesParameterPanel;
 import adams.gui.core.PropertiesParameterPanel.PropertyType;
+import com.github.fracpete.javautils.struct.Struct2;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Condition;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Domain;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Limitation;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Permission;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
 
 /**
  * For selecting a UFDL license.
@@ -34,6 +46,18 @@ public class UFDLLicenseFilter
 
   private static final long serialVersionUID = 4093023607556720026L;
 
+  /** the required domains. */
+  protected Domain[] m_Domains;
+
+  /** the required permissions. */
+  protected Permission[] m_Permissions;
+
+  /** the required limitations. */
+  protected Limitation[] m_Limitations;
+
+  /** the required conditions. */
+  protected Condition[] m_Conditions;
+
   /**
    * Returns a string describing the object.
    *
@@ -41,7 +65,174 @@ public class UFDLLicenseFilter
    */
   @Override
   public String globalInfo() {
-    return "For selecting a UFDL license, with the help of a filtering dialog for permissions, limitations and conditions.";
+    return "For selecting a UFDL license, with the help of a filtering dialog for permissions, limitations and conditions.\n"
+      + "The specified domains, permissions, limitations and conditions get pre-selected in the dialog "
+      + "and restrict the licenses offered in headless mode.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "domain", "domains",
+      new Domain[0]);
+
+    m_OptionManager.add(
+      "permission", "permissions",
+      new Permission[0]);
+
+    m_OptionManager.add(
+      "limitation", "limitations",
+      new Limitation[0]);
+
+    m_OptionManager.add(
+      "condition", "conditions",
+      new Condition[0]);
+  }
+
+  /**
+   * Sets the domains that the licenses must have.
+   *
+   * @param value	the domains
+   */
+  public void setDomains(Domain[] value) {
+    m_Domains = value;
+    reset();
+  }
+
+  /**
+   * Returns the domains that the licenses must have.
+   *
+   * @return		the domains
+   */
+  public Domain[] getDomains() {
+    return m_Domains;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String domainsTipText() {
+    return "The domains that the licenses must have.";
+  }
+
+  /**
+   * Sets the permissions that the licenses must have.
+   *
+   * @param value	the permissions
+   */
+  public void setPermissions(Permission[] value) {
+    m_Permissions = value;
+    reset();
+  }
+
+  /**
+   * Returns the permissions that the licenses must have.
+   *
+   * @return		the permissions
+   */
+  public Permission[] getPermissions() {
+    return m_Permissions;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String permissionsTipText() {
+    return "The permissions that the licenses must have.";
+  }
+
+  /**
+   * Sets the limitations that the licenses must have.
+   *
+   * @param value	the limitations
+   */
+  public void setLimitations(Limitation[] value) {
+    m_Limitations = value;
+    reset();
+  }
+
+  /**
+   * Returns the limitations that the licenses must have.
+   *
+   * @return		the limitations
+   */
+  public Limitation[] getLimitations() {
+    return m_Limitations;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String limitationsTipText() {
+    return "The limitations that the licenses must have.";
+  }
+
+  /**
+   * Sets the conditions that the licenses must have.
+   *
+   * @param value	the conditions
+   */
+  public void setConditions(Condition[] value) {
+    m_Conditions = value;
+    reset();
+  }
+
+  /**
+   * Returns the conditions that the licenses must have.
+   *
+   * @return		the conditions
+   */
+  public Condition[] getConditions() {
+    return m_Conditions;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String conditionsTipText() {
+    return "The conditions that the licenses must have.";
+  }
+
+  /**
+   * Returns the list of items to display, restricted to the licenses
+   * that meet the domains, permissions, limitations and conditions.
+   *
+   * @return		the items for the list (PK and description)
+   */
+  @Override
+  protected List<Struct2<Integer, String>> listItems() {
+    List<Struct2<Integer, String>>	result;
+    UFDLLicenseIndex			index;
+
+    result = new ArrayList<>();
+
+    try {
+      index = new UFDLLicenseIndex(m_Connection.getClient().licenses().list(m_Filter.generate(new MessageCollection())).toArray(new License[0]));
+      for (License license : index.query(m_Domains, m_Permissions, m_Limitations, m_Conditions))
+        result.add(new Struct2<>(license.getPK(), license.getName()));
+    }
+    catch (Exception e) {
+      getLogger().log(Level.SEVERE, "Failed to retrieve list of licenses!", e);
+    }
+
+    return result;
   }
 
   /**
@@ -69,6 +260,10 @@ public class UFDLLicenseFilter
     chooser  = new UFDLLicenseFilterChooser();
     chooser.setConnection(m_Connection);
     chooser.setSorting(m_Sorting);
+    chooser.setDomains(m_Domains);
+    chooser.setPermissions(m_Permissions);
+    chooser.setLimitations(m_Limitations);
+    chooser.setConditions(m_Conditions);
 
     panel.addPropertyType(getName(), getType());
     panel.setComponent(getName(), chooser);
@@ -73,7 +73,7 @@ public class UFDLPretrainedModelList
     result = new ArrayList<>();
 
     try {
-      for (PretrainedModel model : m_Connection.getClient().pretrainedModels().list(m_Filter.generate(new MessageCollection()))) {
+      for (PretrainedModel model : m_Connection.getClient().pretrainedModels().list(m_State.apply(m_Filter).generate(new MessageCollection()))) {
         if (!m_State.accept(model))
           continue;
         result.add(new Struct2<>(model.getPK(), model.getName()));
@@ -85,4 +85,14 @@ public class UFDLPretrainedModelList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return PretrainedModel.class;
+  }
 }
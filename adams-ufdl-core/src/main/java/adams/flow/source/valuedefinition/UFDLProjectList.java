@@ -73,7 +73,7 @@ public class UFDLProjectList
     result = new ArrayList<>();
 
     try {
-      for (Project project : m_Connection.getClient().projects().list(m_Filter.generate(new MessageCollection()))) {
+      for (Project project : m_Connection.getClient().projects().list(m_State.apply(m_Filter).generate(new MessageCollection()))) {
         if (!m_State.accept(project))
           continue;
         result.add(new Struct2<>(project.getPK(), project.getName()));
@@ -85,4 +85,14 @@ public class UFDLProjectList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return Project.class;
+  }
 }
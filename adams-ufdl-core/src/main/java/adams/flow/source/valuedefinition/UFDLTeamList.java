@@ -73,7 +73,7 @@ public class UFDLTeamList
     result = new ArrayList<>();
 
     try {
-      for (Team team : m_Connection.getClient().teams().list(m_Filter.generate(new MessageCollection()))) {
+      for (Team team : m_Connection.getClient().teams().list(m_State.apply(m_Filter).generate(new MessageCollection()))) {
         if (!m_State.accept(team))
           continue;
         result.add(new Struct2<>(team.getPK(), team.getName()));
@@ -85,4 +85,14 @@ public class UFDLTeamList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return Team.class;
+  }
 }
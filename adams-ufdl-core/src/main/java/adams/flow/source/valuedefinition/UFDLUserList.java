@@ -138,4 +138,14 @@ public class UFDLUserList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return User.class;
+  }
 }
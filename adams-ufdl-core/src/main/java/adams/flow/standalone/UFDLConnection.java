@@ -20,15 +20,20 @@
 
 package adams.flow.standalone;
 
+import adams.core.MessageCollection;
 import adams.core.PasswordPrompter;
 import adams.core.QuickInfoHelper;
 import adams.core.base.BasePassword;
 import adams.core.base.BaseURL;
 import adams.core.io.ConsoleHelper;
+import adams.core.io.PlaceholderDirectory;
 import adams.flow.control.Flow;
+import adams.flow.core.AbstractUFDLAction;
 import adams.flow.core.OptionalPasswordPrompt;
 import adams.flow.core.StopHelper;
 import adams.flow.core.StopMode;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLParallelRequests.Request;
 import adams.flow.standalone.ufdlcache.CacheManager;
 import adams.gui.dialog.PasswordDialog;
 import adams.ml.ufdl.UfdlHelper;
@@ -37,8 +42,14 @@ import com.github.waikatoufdl.ufdl4j.auth.LocalStorage;
 
 import java.awt.Dialog;
 import java.awt.Dialog.ModalityType;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  <!-- globalinfo-start -->
@@ -132,6 +143,18 @@ public class UFDLConnection
   /** the host. */
   protected BaseURL m_Host;
 
+  /** the replicas of the host. */
+  protected BaseURL[] m_Replicas;
+
+  /** the interval in seconds for checking the health of the hosts. */
+  protected int m_HealthCheckInterval;
+
+  /** whether to spread read requests across the healthy hosts. */
+  protected boolean m_LoadBalanceReads;
+
+  /** whether write requests fail over to a replica. */
+  protected boolean m_WriteFailover;
+
   /** the SMTP user to use. */
   protected String m_User;
 
@@ -165,8 +188,38 @@ public class UFDLConnection
   /** the expiry in seconds for the ID cache. */
   protected int m_TimeToLive;
 
-  /** the client initialized with the details. */
-  protected transient Client m_Client;
+  /** the maximum number of cached list query results. */
+  protected int m_QueryCacheSize;
+
+  /** whether to evaluate filters locally on cached complete lists. */
+  protected boolean m_LocalEvaluation;
+
+  /** the directory of the local mirror. */
+  protected PlaceholderDirectory m_MirrorDir;
+
+  /** whether the ID resolution caches use the mirror. */
+  protected boolean m_MirrorIDResolution;
+
+  /** whether to work offline, i.e., only with the mirror. */
+  protected boolean m_Offline;
+
+  /** the client initialized with the details (for write requests). */
+  protected transient volatile Client m_Client;
+
+  /** the clients per host. */
+  protected transient Map<String,Client> m_Clients;
+
+  /** the healthy hosts, primary host first. */
+  protected transient volatile List<String> m_Healthy;
+
+  /** when the health of the hosts was last checked. */
+  protected transient volatile long m_LastHealthCheck;
+
+  /** whether a health check is currently running. */
+  protected transient AtomicBoolean m_HealthCheckRunning;
+
+  /** the counter for distributing read requests. */
+  protected transient AtomicInteger m_NextRead;
 
   /** the cache manager. */
   protected transient CacheManager m_CacheManager;
@@ -192,6 +245,22 @@ public class UFDLConnection
       "host", "host",
       new BaseURL(UfdlHelper.getHost()));
 
+    m_OptionManager.add(
+      "replica", "replicas",
+      new BaseURL[0]);
+
+    m_OptionManager.add(
+      "health-check-interval", "healthCheckInterval",
+      30, 0, null);
+
+    m_OptionManager.add(
+      "load-balance-reads", "loadBalanceReads",
+      true);
+
+    m_OptionManager.add(
+      "write-failover", "writeFailover",
+      false);
+
     m_OptionManager.add(
       "user", "user",
       UfdlHelper.getUser(), false);
@@ -231,6 +300,26 @@ public class UFDLConnection
     m_OptionManager.add(
       "time-to-live", "timeToLive",
       60, -1, null);
+
+    m_OptionManager.add(
+      "query-cache-size", "queryCacheSize",
+      100, -1, null);
+
+    m_OptionManager.add(
+      "local-evaluation", "localEvaluation",
+      false);
+
+    m_OptionManager.add(
+      "mirror-dir", "mirrorDir",
+      new PlaceholderDirectory());
+
+    m_OptionManager.add(
+      "mirror-id-resolution", "mirrorIDResolution",
+      false);
+
+    m_OptionManager.add(
+      "offline", "offline",
+      false);
   }
 
   /**
@@ -241,6 +330,8 @@ public class UFDLConnection
     super.reset();
 
     m_Client       = null;
+    m_Clients      = null;
+    m_Healthy      = null;
     m_CacheManager = null;
   }
 
@@ -268,6 +359,9 @@ public class UFDLConnection
       QuickInfoHelper.add(options, QuickInfoHelper.toString(this, "promptForPassword", m_PromptForPassword, "prompt for password"));
       QuickInfoHelper.add(options, QuickInfoHelper.toString(this, "stopFlowIfCanceled", m_StopFlowIfCanceled, "stop flow"));
     }
+    QuickInfoHelper.add(options, QuickInfoHelper.toString(this, "offline", m_Offline, "offline"));
+    if (QuickInfoHelper.hasVariable(this, "replicas") || (m_Replicas.length > 0))
+      QuickInfoHelper.add(options, QuickInfoHelper.toString(this, "replicas", m_Replicas.length, "replicas: "));
     result += QuickInfoHelper.flatten(options);
 
     return result;
@@ -302,6 +396,131 @@ public class UFDLConnection
     return "The UFDL backend API host to use.";
   }
 
+  /**
+   * Sets the replicas of the host, used for failover and for spreading
+   * read requests.
+   *
+   * @param value	the replicas
+   */
+  public void setReplicas(BaseURL[] value) {
+    m_Replicas = value;
+    reset();
+  }
+
+  /**
+   * Returns the replicas of the host, used for failover and for spreading
+   * read requests.
+   *
+   * @return		the replicas
+   */
+  public BaseURL[] getReplicas() {
+    return m_Replicas;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String replicasTipText() {
+    return "The replicas of the backend; write requests go to the primary host (or, with write failover enabled, to the "
+      + "first healthy replica if the primary is unavailable), read requests go to the healthy hosts.";
+  }
+
+  /**
+   * Sets the interval for checking the health of the hosts.
+   *
+   * @param value	the interval in seconds, 0 for only checking at start-up
+   */
+  public void setHealthCheckInterval(int value) {
+    if (getOptionManager().isValid("healthCheckInterval", value)) {
+      m_HealthCheckInterval = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the interval for checking the health of the hosts.
+   *
+   * @return		the interval in seconds, 0 for only checking at start-up
+   */
+  public int getHealthCheckInterval() {
+    return m_HealthCheckInterval;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String healthCheckIntervalTipText() {
+    return "The interval in seconds for checking the health of the hosts when using replicas; 0 for only checking at start-up.";
+  }
+
+  /**
+   * Sets whether to spread read requests across the healthy hosts.
+   *
+   * @param value	true if to spread
+   */
+  public void setLoadBalanceReads(boolean value) {
+    m_LoadBalanceReads = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to spread read requests across the healthy hosts.
+   *
+   * @return		true if to spread
+   */
+  public boolean getLoadBalanceReads() {
+    return m_LoadBalanceReads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String loadBalanceReadsTipText() {
+    return "If enabled, read requests (listing, loading, downloading) get spread across the healthy hosts when using replicas; "
+      + "otherwise they go to the primary host or, if unavailable, the first healthy replica.";
+  }
+
+  /**
+   * Sets whether write requests fail over to the first healthy replica if
+   * the primary host is unavailable.
+   *
+   * @param value	true if to fail over
+   */
+  public void setWriteFailover(boolean value) {
+    m_WriteFailover = value;
+    reset();
+  }
+
+  /**
+   * Returns whether write requests fail over to the first healthy replica if
+   * the primary host is unavailable.
+   *
+   * @return		true if to fail over
+   */
+  public boolean getWriteFailover() {
+    return m_WriteFailover;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String writeFailoverTipText() {
+    return "If enabled, write requests go to the first healthy replica if the primary host is unavailable; "
+      + "only enable this if the replicas accept writes (e.g., multi-primary setups), not for read replicas.";
+  }
+
   /**
    * Sets the UFDL user to use.
    *
@@ -605,6 +824,163 @@ public class UFDLConnection
     return "The expiry in seconds for the ID resolution caches (for displaying strings rather than numeric IDs).";
   }
 
+  /**
+   * Sets the maximum number of cached results of list queries.
+   *
+   * @param value	the maximum, -1 for unlimited, 0 for no caching
+   */
+  public void setQueryCacheSize(int value) {
+    if (getOptionManager().isValid("queryCacheSize", value)) {
+      m_QueryCacheSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of cached results of list queries.
+   *
+   * @return		the maximum, -1 for unlimited, 0 for no caching
+   */
+  public int getQueryCacheSize() {
+    return m_QueryCacheSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String queryCacheSizeTipText() {
+    return "The maximum number of results of list queries to cache (shared by list actions, choosers, etc), using the same expiry as the ID resolution caches; "
+      + "writes by actions of this flow invalidate the affected results, changes made by other clients only show once the results expire; "
+      + "-1 for unlimited, 0 to turn off caching (also for choosers and value definitions, and disables local evaluation).";
+  }
+
+  /**
+   * Sets whether to evaluate filters of list queries locally on the cached
+   * complete list of objects, if available, rather than querying the backend.
+   *
+   * @param value	true if to evaluate locally
+   */
+  public void setLocalEvaluation(boolean value) {
+    m_LocalEvaluation = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to evaluate filters of list queries locally on the cached
+   * complete list of objects, if available, rather than querying the backend.
+   *
+   * @return		true if to evaluate locally
+   */
+  public boolean getLocalEvaluation() {
+    return m_LocalEvaluation;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String localEvaluationTipText() {
+    return "If enabled, list queries get evaluated locally on the cached complete list of objects (ie the result of an "
+      + "AllFilter that includes inactive objects), if available, rather than querying the backend; only generic filters "
+      + "using field expressions without lookups are supported; requires the query cache, i.e., a query-cache-size other than 0.";
+  }
+
+  /**
+   * Sets the directory of the local mirror.
+   *
+   * @param value	the directory
+   */
+  public void setMirrorDir(PlaceholderDirectory value) {
+    m_MirrorDir = value;
+    reset();
+  }
+
+  /**
+   * Returns the directory of the local mirror.
+   *
+   * @return		the directory
+   */
+  public PlaceholderDirectory getMirrorDir() {
+    return m_MirrorDir;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String mirrorDirTipText() {
+    return "The directory of the local read-only mirror of the server's objects, synchronized with the SyncMirror action; "
+      + "must be set explicitly (the default, the current directory, is rejected) and must be a separate directory per server.";
+  }
+
+  /**
+   * Sets whether the ID resolution caches use the objects from the local mirror.
+   *
+   * @param value	true if to use the mirror
+   */
+  public void setMirrorIDResolution(boolean value) {
+    m_MirrorIDResolution = value;
+    reset();
+  }
+
+  /**
+   * Returns whether the ID resolution caches use the objects from the local mirror.
+   *
+   * @return		true if to use the mirror
+   */
+  public boolean getMirrorIDResolution() {
+    return m_MirrorIDResolution;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String mirrorIDResolutionTipText() {
+    return "If enabled, the ID resolution caches use the objects from the local mirror, if available, rather than querying the backend.";
+  }
+
+  /**
+   * Sets whether to work offline, i.e., without authenticating against the
+   * backend.
+   *
+   * @param value	true if offline
+   */
+  public void setOffline(boolean value) {
+    m_Offline = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to work offline, i.e., without authenticating against the
+   * backend.
+   *
+   * @return		true if offline
+   */
+  public boolean getOffline() {
+    return m_Offline;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String offlineTipText() {
+    return "If enabled, no authentication against the backend is performed, allowing flows to run with the server "
+      + "unreachable; only actions that read from the local mirror work then and ID resolution uses the mirror as well.";
+  }
+
   /**
    * Performs the interaction with the user.
    *
@@ -660,6 +1036,25 @@ public class UFDLConnection
     return result;
   }
 
+  /**
+   * Initializes the item for flow execution.
+   *
+   * @return		null if everything is fine, otherwise error message
+   */
+  @Override
+  public String setUp() {
+    String	result;
+
+    result = super.setUp();
+
+    if (result == null) {
+      if (m_LocalEvaluation && (m_QueryCacheSize == 0))
+	result = "Local evaluation requires the query cache, but query-cache-size is 0!";
+    }
+
+    return result;
+  }
+
   /**
    * Executes the flow item.
    *
@@ -674,7 +1069,7 @@ public class UFDLConnection
 
     m_ActualPassword = m_Password;
 
-    if (m_PromptForPassword && (m_Password.getValue().length() == 0)) {
+    if (!m_Offline && m_PromptForPassword && (m_Password.getValue().length() == 0)) {
       if (!isHeadless()) {
         msg = doInteract();
 	if (msg != null) {
@@ -702,9 +1097,25 @@ public class UFDLConnection
     }
 
     if (result == null) {
-      if (m_Client == null)
-	m_Client = new Client(m_Host.getValue(), m_User, m_Password.getValue(), new LocalStorage(), m_ConnectTimeout, m_ReadTimeout, m_WriteTimeout);
-      if (!m_Client.connection().authentication().getTokens().isValid())
+      if (m_Client == null) {
+	m_Clients            = new ConcurrentHashMap<>();
+	m_NextRead           = new AtomicInteger();
+	m_HealthCheckRunning = new AtomicBoolean();
+	if (m_Offline || (m_Replicas.length == 0)) {
+	  m_Client = new Client(m_Host.getValue(), m_User, m_Password.getValue(), new LocalStorage(), m_ConnectTimeout, m_ReadTimeout, m_WriteTimeout);
+	  m_Clients.put(m_Host.getValue(), m_Client);
+	  m_Healthy = new ArrayList<>();
+	  m_Healthy.add(m_Host.getValue());
+	}
+	else {
+	  checkHealth();
+	  if (m_Healthy.isEmpty())
+	    result = "No healthy backend available: " + getHosts();
+	  else if (m_Client == null)
+	    result = "Primary host not available and write failover disabled: " + m_Host.getValue();
+	}
+      }
+      if ((result == null) && !m_Offline && !m_Client.connection().authentication().getTokens().isValid())
 	result = "No valid API tokens available!";
     }
 
@@ -715,14 +1126,270 @@ public class UFDLConnection
   }
 
   /**
-   * Returns the client in use.
+   * Returns the primary host followed by the replicas.
+   *
+   * @return		the hosts
+   */
+  protected List<String> getHosts() {
+    List<String>	result;
+
+    result = new ArrayList<>();
+    result.add(m_Host.getValue());
+    for (BaseURL replica: m_Replicas) {
+      if (!result.contains(replica.getValue()))
+	result.add(replica.getValue());
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks whether the host responds. Server errors (e.g., 503 during
+   * maintenance) count as unhealthy.
+   *
+   * @param host	the host to check
+   * @return		true if healthy
+   */
+  protected boolean isHealthy(String host) {
+    HttpURLConnection	conn;
+    int			code;
+
+    conn = null;
+    try {
+      conn = (HttpURLConnection) new URL(host).openConnection();
+      conn.setConnectTimeout(m_ConnectTimeout * 1000);
+      conn.setReadTimeout(m_ConnectTimeout * 1000);
+      code = conn.getResponseCode();
+      return (code > 0) && (code < 500);
+    }
+    catch (Exception e) {
+      if (isLoggingEnabled())
+	getLogger().info("Health check failed for " + host + ": " + e);
+      return false;
+    }
+    finally {
+      if (conn != null)
+	conn.disconnect();
+    }
+  }
+
+  /**
+   * Returns the client for the host, instantiating it if necessary.
+   * Clients that have no valid API tokens are not returned.
+   *
+   * @param host	the host to get the client for
+   * @return		the client, null if no valid API tokens available
+   */
+  protected Client obtainClient(String host) {
+    Client	result;
+
+    result = m_Clients.get(host);
+    if (result == null) {
+      result = new Client(host, m_User, m_Password.getValue(), new LocalStorage(), m_ConnectTimeout, m_ReadTimeout, m_WriteTimeout);
+      if (!result.connection().authentication().getTokens().isValid()) {
+	getLogger().warning("No valid API tokens available for: " + host);
+	return null;
+      }
+      m_Clients.put(host, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks the health of the primary host and the replicas concurrently.
+   * Write requests stay with the primary host, unless write failover is
+   * enabled, in which case they go to the first healthy host.
+   * Keeps the current client if no host is healthy.
+   * The hosts get probed without holding any locks, the new state gets
+   * published in one go at the end.
+   */
+  protected void checkHealth() {
+    List<String>			hosts;
+    List<Request<Boolean>>		requests;
+    List<Boolean>			healthy;
+    List<String>			healthyHosts;
+    MessageCollection			errors;
+    Client				client;
+    int					i;
+
+    hosts    = getHosts();
+    requests = new ArrayList<>();
+    for (final String host: hosts) {
+      requests.add(new Request<Boolean>() {
+	@Override
+	public String getDescription() {
+	  return "check health of " + host;
+	}
+	@Override
+	public Boolean execute() throws Exception {
+	  return isHealthy(host);
+	}
+      });
+    }
+    errors  = new MessageCollection();
+    healthy = UFDLParallelRequests.execute(requests, hosts.size(), errors);
+
+    healthyHosts = new ArrayList<>();
+    for (i = 0; i < hosts.size(); i++) {
+      try {
+	if (Boolean.TRUE.equals(healthy.get(i)) && (obtainClient(hosts.get(i)) != null))
+	  healthyHosts.add(hosts.get(i));
+      }
+      catch (Exception e) {
+	getLogger().warning("Failed to instantiate client for " + hosts.get(i) + ": " + e);
+      }
+    }
+
+    synchronized(this) {
+      m_Healthy         = healthyHosts;
+      m_LastHealthCheck = System.currentTimeMillis();
+
+      if (healthyHosts.isEmpty()) {
+	getLogger().severe("No healthy backend available: " + hosts);
+	return;
+      }
+
+      if (m_WriteFailover) {
+	client = m_Clients.get(healthyHosts.get(0));
+	if ((m_Client != null) && (client != m_Client))
+	  getLogger().warning("Switching write requests to: " + healthyHosts.get(0));
+	m_Client = client;
+      }
+      else {
+	if (!healthyHosts.contains(m_Host.getValue()))
+	  getLogger().warning("Primary host unavailable, write requests will fail: " + m_Host.getValue());
+	if (m_Client == null)
+	  m_Client = m_Clients.get(m_Host.getValue());
+      }
+    }
+  }
+
+  /**
+   * Re-checks the health of the hosts in the background if replicas are
+   * used and the health check interval has passed. Does not block, i.e.,
+   * requests continue to use the current state until the check finishes.
+   */
+  protected void updateHealth() {
+    Thread	thread;
+
+    if (m_Offline || (m_Replicas.length == 0) || (m_HealthCheckInterval == 0) || (m_Clients == null))
+      return;
+    if (m_LastHealthCheck + m_HealthCheckInterval * 1000L > System.currentTimeMillis())
+      return;
+    if (!m_HealthCheckRunning.compareAndSet(false, true))
+      return;
+
+    thread = new Thread(() -> {
+      try {
+	checkHealth();
+      }
+      finally {
+	m_HealthCheckRunning.set(false);
+      }
+    }, getClass().getSimpleName() + "-health");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Returns the client in use for write requests, i.e., the one for the
+   * primary host or, with write failover enabled and the primary host not
+   * available, the first healthy replica.
    *
    * @return		the client, null if not yet instantiated
    */
   public Client getClient() {
+    updateHealth();
     return m_Client;
   }
 
+  /**
+   * Returns the client to use for read requests. If replicas are used,
+   * the requests get spread across the healthy hosts or, without load
+   * balancing, go to the first healthy host (primary first).
+   *
+   * @return		the client, null if not yet instantiated
+   */
+  public Client getReadClient() {
+    Client		result;
+    List<String>	healthy;
+
+    updateHealth();
+    healthy = m_Healthy;
+    if ((healthy == null) || healthy.isEmpty())
+      return m_Client;
+
+    if (m_LoadBalanceReads && (healthy.size() > 1))
+      result = m_Clients.get(healthy.get(Math.abs(m_NextRead.getAndIncrement() % healthy.size())));
+    else
+      result = m_Clients.get(healthy.get(0));
+    if (result == null)
+      result = m_Client;
+
+    return result;
+  }
+
+  /**
+   * Returns the client to use for the action: the read client for actions
+   * that explicitly state that they only read from the backend, otherwise
+   * the write client.
+   *
+   * @param action	the action to get the client for
+   * @return		the client, null if not yet instantiated
+   * @see AbstractUFDLAction#isReadOnly()
+   */
+  public Client getClientFor(Object action) {
+    if ((action instanceof AbstractUFDLAction) && ((AbstractUFDLAction) action).isReadOnly())
+      return getReadClient();
+    else
+      return getClient();
+  }
+
+  /**
+   * Checks whether a failed request of a read-only action can be retried
+   * with a different host: if the host of the action's client no longer
+   * responds, the health of all hosts gets re-checked immediately, rather
+   * than waiting for the next scheduled check.
+   *
+   * @param action	the action whose request failed
+   * @return		true if another healthy host is available for retrying
+   * @see #getClientFor(Object)
+   */
+  public boolean failoverRead(AbstractUFDLAction action) {
+    String		host;
+    List<String>	healthy;
+
+    if (m_Offline || (m_Replicas.length == 0) || (m_Clients == null) || !action.isReadOnly() || (action.getClient() == null))
+      return false;
+
+    host = getHost(action.getClient());
+    if (isHealthy(host))
+      return false;
+
+    getLogger().warning("Read request failed, host not responding: " + host);
+    checkHealth();
+    healthy = m_Healthy;
+
+    return (healthy != null) && !healthy.isEmpty() && !healthy.contains(host);
+  }
+
+  /**
+   * Returns the host that the client is connected to.
+   *
+   * @param client	the client to look up
+   * @return		the host, the primary host if client is unknown
+   */
+  public String getHost(Client client) {
+    if (m_Clients != null) {
+      for (Map.Entry<String,Client> entry: m_Clients.entrySet()) {
+	if (entry.getValue() == client)
+	  return entry.getKey();
+      }
+    }
+    return m_Host.getValue();
+  }
+
   /**
    * Returns the cache manager in use.
    *
@@ -731,4 +1398,15 @@ public class UFDLConnection
   public CacheManager getCacheManager() {
     return m_CacheManager;
   }
+
+  /**
+   * Cleans up after the execution has finished.
+   */
+  @Override
+  public void wrapUp() {
+    if ((m_CacheManager != null) && isLoggingEnabled())
+      getLogger().info("Query cache: " + m_CacheManager.queryResults().getStatistics());
+
+    super.wrapUp();
+  }
 }
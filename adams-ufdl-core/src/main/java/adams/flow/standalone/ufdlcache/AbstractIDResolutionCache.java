@@ -24,7 +24,9 @@ import adams.core.logging.LoggingObject;
 import adams.flow.standalone.UFDLConnection;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 
 /**
@@ -97,6 +99,28 @@ public abstract class AbstractIDResolutionCache<T>
     return m_Cache.size();
   }
 
+  /**
+   * Lists the objects, using the local mirror if enabled on the connection
+   * (or working offline) and the objects are available from the mirror.
+   *
+   * @param entity	the type of objects
+   * @param query	for querying the backend
+   * @return		the objects
+   * @param <E>		the type of objects
+   * @throws Exception	if listing fails
+   */
+  protected <E> List<E> list(Class<E> entity, Callable<List<E>> query) throws Exception {
+    Mirror	mirror;
+
+    if (m_Connection.getMirrorIDResolution() || m_Connection.getOffline()) {
+      mirror = m_Connection.getCacheManager().mirror();
+      if (mirror.has(entity))
+	return mirror.load(entity);
+    }
+
+    return query.call();
+  }
+
   /**
    * Initializes the cache.
    *
@@ -54,12 +54,21 @@ public class CacheManager
   /** job templates. */
   protected JobTemplateCache m_JobTemplates;
 
+  /** parsed job templates. */
+  protected JobTemplateDataCache m_JobTemplateData;
+
   /** licenses. */
   protected LicenseCache m_Licenses;
 
+  /** the local mirror. */
+  protected Mirror m_Mirror;
+
   /** projects. */
   protected ProjectCache m_Projects;
 
+  /** query results. */
+  protected QueryResultCache m_QueryResults;
+
   /** teams. */
   protected TeamCache m_Teams;
 
@@ -76,15 +85,18 @@ public class CacheManager
     m_Connection = connection;
     m_TimeToLive = timeToLive;
 
-    m_Cuda         = new CudaVersionCache(getConnection(), getTimeToLive());
-    m_Docker       = new DockerImageCache(getConnection(), getTimeToLive());
-    m_Frameworks   = new FrameworkCache(getConnection(), getTimeToLive());
-    m_Hardware     = new HardwareGenerationCache(getConnection(), getTimeToLive());
-    m_JobTemplates = new JobTemplateCache(getConnection(), getTimeToLive());
-    m_Licenses     = new LicenseCache(getConnection(), getTimeToLive());
-    m_Projects     = new ProjectCache(getConnection(), getTimeToLive());
-    m_Teams        = new TeamCache(getConnection(), getTimeToLive());
-    m_Users        = new UserCache(getConnection(), getTimeToLive());
+    m_Cuda            = new CudaVersionCache(getConnection(), getTimeToLive());
+    m_Docker          = new DockerImageCache(getConnection(), getTimeToLive());
+    m_Frameworks      = new FrameworkCache(getConnection(), getTimeToLive());
+    m_Hardware        = new HardwareGenerationCache(getConnection(), getTimeToLive());
+    m_JobTemplates    = new JobTemplateCache(getConnection(), getTimeToLive());
+    m_JobTemplateData = new JobTemplateDataCache(getConnection(), getTimeToLive());
+    m_Licenses        = new LicenseCache(getConnection(), getTimeToLive());
+    m_Mirror          = new Mirror(getConnection(), getConnection().getMirrorDir().getAbsoluteFile());
+    m_Projects        = new ProjectCache(getConnection(), getTimeToLive());
+    m_QueryResults    = new QueryResultCache(getConnection(), getTimeToLive(), getConnection().getQueryCacheSize());
+    m_Teams           = new TeamCache(getConnection(), getTimeToLive());
+    m_Users           = new UserCache(getConnection(), getTimeToLive());
   }
 
   /**
@@ -150,6 +162,15 @@ public class CacheManager
     return m_JobTemplates;
   }
 
+  /**
+   * Returns the cache for parsed job templates.
+   *
+   * @return		the cache
+   */
+  public JobTemplateDataCache jobTemplateData() {
+    return m_JobTemplateData;
+  }
+
   /**
    * Returns the cache for licenses.
    *
@@ -159,6 +180,15 @@ public class CacheManager
     return m_Licenses;
   }
 
+  /**
+   * Returns the local mirror.
+   *
+   * @return		the mirror
+   */
+  public Mirror mirror() {
+    return m_Mirror;
+  }
+
   /**
    * Returns the cache for projects.
    *
@@ -168,6 +198,15 @@ public class CacheManager
     return m_Projects;
   }
 
+  /**
+   * Returns the cache for query results.
+   *
+   * @return		the cache
+   */
+  public QueryResultCache queryResults() {
+    return m_QueryResults;
+  }
+
   /**
    * Returns the cache for teams.
    *
@@ -50,7 +50,7 @@ public class CudaVersionCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (CudaVersion obj : m_Connection.getClient().cuda().list())
+    for (CudaVersion obj : m_Connection.getReadClient().cuda().list())
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
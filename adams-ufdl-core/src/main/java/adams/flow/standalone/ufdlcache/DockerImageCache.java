@@ -50,7 +50,7 @@ public class DockerImageCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (DockerImage obj : m_Connection.getClient().docker().list())
+    for (DockerImage obj : m_Connection.getReadClient().docker().list())
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
@@ -50,7 +50,7 @@ public class FrameworkCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (Framework obj : m_Connection.getClient().frameworks().list())
+    for (Framework obj : m_Connection.getReadClient().frameworks().list())
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
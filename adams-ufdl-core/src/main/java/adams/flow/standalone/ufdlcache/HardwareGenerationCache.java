@@ -50,7 +50,7 @@ public class HardwareGenerationCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (HardwareGeneration obj : m_Connection.getClient().hardware().list())
+    for (HardwareGeneration obj : m_Connection.getReadClient().hardware().list())
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
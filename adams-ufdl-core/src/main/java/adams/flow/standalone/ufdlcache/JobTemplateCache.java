@@ -50,7 +50,7 @@ public class JobTemplateCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (JobTemplate obj : m_Connection.getClient().jobTemplates().list())
+    for (JobTemplate obj : list(JobTemplate.class, m_Connection.getReadClient().jobTemplates()::list))
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
@@ -0,0 +1,235 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * JobTemplateDataCache.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.standalone.ufdlcache;
+
+import adams.core.logging.LoggingObject;
+import adams.flow.core.UFDLContractType;
+import adams.flow.standalone.UFDLConnection;
+import adams.flow.transformer.UFDLCreateJob.JobTemplateData;
+import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache for the parsed definitions of job templates (inputs, parameters,
+ * domain, framework, license), to avoid the API calls that are required
+ * for determining them. Entries expire after the time to live or when a
+ * template object with a different version gets supplied.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class JobTemplateDataCache
+  extends LoggingObject {
+
+  private static final long serialVersionUID = -2201788264385471035L;
+
+  /**
+   * Container for a cached definition.
+   */
+  protected static class CacheEntry {
+
+    /** the template data. */
+    public JobTemplateData data;
+
+    /** when the entry got created. */
+    public long timestamp;
+  }
+
+  /** the cache (template PK/contract type -> entry). */
+  protected Map<String,CacheEntry> m_Cache;
+
+  /** the connection to use. */
+  protected UFDLConnection m_Connection;
+
+  /** the expiry in seconds. */
+  protected int m_TimeToLive;
+
+  /**
+   * Initializes the cache.
+   *
+   * @param connection	the connection to use
+   * @param timeToLive 	the expiry in seconds (< 1 = no expiry)
+   */
+  public JobTemplateDataCache(UFDLConnection connection, int timeToLive) {
+    super();
+    m_Connection = connection;
+    m_Cache      = new HashMap<>();
+    m_TimeToLive = timeToLive;
+  }
+
+  /**
+   * Returns the connection in use.
+   *
+   * @return		the connection
+   */
+  public UFDLConnection getConnection() {
+    return m_Connection;
+  }
+
+  /**
+   * Returns the time to live.
+   *
+   * @return		the expiry in seconds (< 1 = no expiry)
+   */
+  public int getTimeToLive() {
+    return m_TimeToLive;
+  }
+
+  /**
+   * Clears the cache.
+   */
+  public synchronized void clear() {
+    m_Cache.clear();
+  }
+
+  /**
+   * Returns the size of the cache.
+   *
+   * @return		the size
+   */
+  public synchronized int size() {
+    return m_Cache.size();
+  }
+
+  /**
+   * Removes all entries for the specified template.
+   *
+   * @param pk		the PK of the template
+   */
+  public synchronized void invalidate(int pk) {
+    for (UFDLContractType type: UFDLContractType.values())
+      m_Cache.remove(key(pk, type));
+  }
+
+  /**
+   * Generates the key for the cache.
+   *
+   * @param pk		the PK of the template
+   * @param contractType	the contract type
+   * @return		the key
+   */
+  protected String key(int pk, UFDLContractType contractType) {
+    return pk + "/" + contractType;
+  }
+
+  /**
+   * Checks whether the entry has expired.
+   *
+   * @param entry	the entry to check
+   * @return		true if expired
+   */
+  protected boolean isExpired(CacheEntry entry) {
+    return (m_TimeToLive > 0) && (entry.timestamp + m_TimeToLive * 1000L <= System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the cached entry, null if not present or expired.
+   *
+   * @param pk		the PK of the template
+   * @param contractType	the contract type
+   * @return		the entry, null if not available
+   */
+  protected CacheEntry lookUp(int pk, UFDLContractType contractType) {
+    CacheEntry	result;
+
+    result = m_Cache.get(key(pk, contractType));
+    if ((result != null) && isExpired(result)) {
+      if (isLoggingEnabled())
+	getLogger().info("Expired: " + key(pk, contractType));
+      m_Cache.remove(key(pk, contractType));
+      result = null;
+    }
+
+    return result;
+  }
+
+  /**
+   * Parses the template and adds it to the cache.
+   *
+   * @param template	the template to add
+   * @param contractType	the contract type
+   * @return		the entry
+   * @throws Exception	if parsing fails
+   */
+  protected CacheEntry add(JobTemplate template, UFDLContractType contractType) throws Exception {
+    CacheEntry	result;
+
+    if (isLoggingEnabled())
+      getLogger().info("Parsing: " + key(template.getPK(), contractType));
+
+    result           = new CacheEntry();
+    result.data      = new JobTemplateData(m_Connection.getReadClient(), template, contractType);
+    result.timestamp = System.currentTimeMillis();
+    m_Cache.put(key(template.getPK(), contractType), result);
+
+    return result;
+  }
+
+  /**
+   * Returns the data for the specified template, loading and parsing it
+   * if necessary.
+   *
+   * @param pk		the PK of the template
+   * @param contractType	the contract type
+   * @return		a copy of the template data, null if template not available
+   * @throws Exception	if loading/parsing fails
+   */
+  public synchronized JobTemplateData get(int pk, UFDLContractType contractType) throws Exception {
+    CacheEntry	entry;
+    JobTemplate	template;
+
+    entry = lookUp(pk, contractType);
+    if (entry == null) {
+      template = m_Connection.getReadClient().jobTemplates().load(pk);
+      if (template == null)
+	return null;
+      entry = add(template, contractType);
+    }
+
+    return new JobTemplateData(entry.data);
+  }
+
+  /**
+   * Returns the data for the specified template, parsing it if necessary.
+   * If the cached template differs in version or deletion state, the
+   * template gets parsed again.
+   *
+   * @param template	the template
+   * @param contractType	the contract type
+   * @return		a copy of the template data
+   * @throws Exception	if parsing fails
+   */
+  public synchronized JobTemplateData get(JobTemplate template, UFDLContractType contractType) throws Exception {
+    CacheEntry	entry;
+
+    entry = lookUp(template.getPK(), contractType);
+    if ((entry != null)
+      && (!Objects.equals(entry.data.template.getVersion(), template.getVersion())
+      || !Objects.equals(entry.data.template.getDeletionTime(), template.getDeletionTime())))
+      entry = null;
+    if (entry == null)
+      entry = add(template, contractType);
+
+    return new JobTemplateData(entry.data);
+  }
+}
@@ -50,7 +50,7 @@ public class LicenseCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (License obj : m_Connection.getClient().licenses().list())
+    for (License obj : list(License.class, m_Connection.getReadClient().licenses()::list))
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
@@ -0,0 +1,424 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * Mirror.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.standalone.ufdlcache;
+
+import adams.core.MessageCollection;
+import adams.core.io.PlaceholderDirectory;
+import adams.core.logging.LoggingObject;
+import adams.data.ufdlfilter.AbstractUFDLFilter;
+import adams.data.ufdlfilter.AllFilter;
+import adams.data.ufdlfilter.GenericFilter;
+import adams.data.ufdlfilter.field.StringCompare;
+import adams.data.ufdlfilter.logical.Or;
+import adams.flow.core.UFDLMirrorEntity;
+import adams.flow.standalone.UFDLConnection;
+import com.github.waikatoufdl.ufdl4j.core.AbstractJsonObjectWrapper;
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Constructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only local mirror of the objects of a UFDL server, stored as one
+ * JSON file per type of object in the mirror directory. Objects get
+ * synchronized incrementally using their timestamp fields, if available,
+ * otherwise the complete list gets retrieved again.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see UFDLMirrorEntity
+ */
+public class Mirror
+  extends LoggingObject {
+
+  private static final long serialVersionUID = -3218407316942870534L;
+
+  /** the key for the latest timestamp encountered in the objects. */
+  public static final String KEY_LAST_SYNC = "last_sync";
+
+  /** the key for the time of the last synchronization (msec since epoch). */
+  public static final String KEY_SYNC_TIME = "sync_time";
+
+  /** the key for the objects. */
+  public static final String KEY_OBJECTS = "objects";
+
+  /** the key for the primary key of an object. */
+  public static final String KEY_PK = "pk";
+
+  /** the underlying connection. */
+  protected UFDLConnection m_Connection;
+
+  /** the directory of the mirror. */
+  protected File m_Directory;
+
+  /** the loaded objects. */
+  protected Map<UFDLMirrorEntity,List> m_Objects;
+
+  /** the timestamps of the files when the objects got loaded. */
+  protected Map<UFDLMirrorEntity,Long> m_LastModified;
+
+  /**
+   * Initializes the mirror.
+   *
+   * @param connection	the connection to use
+   * @param directory	the directory of the mirror
+   */
+  public Mirror(UFDLConnection connection, File directory) {
+    m_Connection   = connection;
+    m_Directory    = directory;
+    m_Objects      = new HashMap<>();
+    m_LastModified = new HashMap<>();
+  }
+
+  /**
+   * Returns the connection in use.
+   *
+   * @return		the connection
+   */
+  public UFDLConnection getConnection() {
+    return m_Connection;
+  }
+
+  /**
+   * Returns the directory of the mirror.
+   *
+   * @return		the directory
+   */
+  public File getDirectory() {
+    return m_Directory;
+  }
+
+  /**
+   * Checks whether a directory was set for the mirror. The default, i.e.,
+   * the current directory, is not accepted, as several connections would
+   * otherwise share and overwrite the same mirror files.
+   *
+   * @param mustExist	whether the directory must exist already
+   * @return		null if usable, otherwise error message
+   */
+  public String checkDirectory(boolean mustExist) {
+    if ((m_Directory == null) || m_Directory.equals(new PlaceholderDirectory().getAbsoluteFile()))
+      return "No mirror directory set for connection: " + m_Connection.getHost();
+    if (mustExist && !m_Directory.isDirectory())
+      return "Mirror directory does not exist: " + m_Directory;
+    return null;
+  }
+
+  /**
+   * Returns the file that stores the objects of the specified type.
+   *
+   * @param entity	the type of objects
+   * @return		the file
+   */
+  public File getFile(UFDLMirrorEntity entity) {
+    return new File(m_Directory, entity.getFileName());
+  }
+
+  /**
+   * Returns whether the objects of the specified type are available.
+   *
+   * @param entity	the type of objects
+   * @return		true if available
+   */
+  public boolean has(UFDLMirrorEntity entity) {
+    return (checkDirectory(true) == null) && getFile(entity).exists();
+  }
+
+  /**
+   * Returns whether the objects of the specified type are available.
+   *
+   * @param entity	the type of objects
+   * @return		true if available
+   */
+  public boolean has(Class entity) {
+    UFDLMirrorEntity	mirrored;
+
+    mirrored = UFDLMirrorEntity.forEntity(entity);
+    return (mirrored != null) && has(mirrored);
+  }
+
+  /**
+   * Reads the stored data for the specified type of objects.
+   *
+   * @param entity	the type of objects
+   * @return		the data, null if not available
+   * @throws Exception	if reading fails
+   */
+  protected JsonObject read(UFDLMirrorEntity entity) throws Exception {
+    File	file;
+
+    file = getFile(entity);
+    if (!file.exists())
+      return null;
+
+    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      return JsonParser.parseReader(reader).getAsJsonObject();
+    }
+  }
+
+  /**
+   * Writes the data for the specified type of objects. A temporary file gets
+   * written first, which then replaces the existing file, to avoid leaving
+   * behind a corrupt mirror.
+   *
+   * @param entity	the type of objects
+   * @param data	the data to write
+   * @throws Exception	if writing fails
+   */
+  protected void write(UFDLMirrorEntity entity, JsonObject data) throws Exception {
+    File	file;
+    File	tmp;
+    String	msg;
+
+    msg = checkDirectory(false);
+    if (msg != null)
+      throw new IllegalStateException(msg);
+    if (!m_Directory.exists() && !m_Directory.mkdirs())
+      throw new IllegalStateException("Failed to create mirror directory: " + m_Directory);
+
+    file = getFile(entity);
+    tmp  = new File(file.getPath() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+      new Gson().toJson(data, writer);
+    }
+    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Turns the JSON object into the wrapper class of the type of objects.
+   *
+   * @param entity	the type of objects
+   * @param data	the JSON data
+   * @return		the wrapper
+   * @throws Exception	if instantiation fails
+   */
+  protected Object wrap(UFDLMirrorEntity entity, JsonObject data) throws Exception {
+    Constructor		constr;
+
+    constr = entity.getEntity().getDeclaredConstructor(JsonObject.class);
+    constr.setAccessible(true);
+    return constr.newInstance(data);
+  }
+
+  /**
+   * Loads the objects of the specified type from the mirror. The objects are
+   * only read from disk again if the file has changed.
+   *
+   * @param entity	the type of objects
+   * @return		the objects (read-only)
+   * @param <T>		the type of objects
+   * @throws Exception	if the type is not mirrored, not yet synchronized or loading fails
+   */
+  public synchronized <T> List<T> load(Class<T> entity) throws Exception {
+    UFDLMirrorEntity	mirrored;
+    File		file;
+    JsonObject		data;
+    List<T>		result;
+    String		msg;
+
+    msg = checkDirectory(true);
+    if (msg != null)
+      throw new IllegalStateException(msg);
+
+    mirrored = UFDLMirrorEntity.forEntity(entity);
+    if (mirrored == null)
+      throw new IllegalArgumentException("Objects cannot be mirrored: " + entity.getName());
+
+    file = getFile(mirrored);
+    if (!file.exists())
+      throw new IllegalStateException("Objects not yet mirrored (" + mirrored + "), mirror file missing: " + file);
+
+    if (m_Objects.containsKey(mirrored) && (m_LastModified.get(mirrored) == file.lastModified()))
+      return (List<T>) m_Objects.get(mirrored);
+
+    data   = read(mirrored);
+    result = new ArrayList<>();
+    for (JsonElement element: data.getAsJsonArray(KEY_OBJECTS))
+      result.add((T) wrap(mirrored, element.getAsJsonObject()));
+    result = Collections.unmodifiableList(result);
+    m_Objects.put(mirrored, result);
+    m_LastModified.put(mirrored, file.lastModified());
+    if (isLoggingEnabled())
+      getLogger().info("Loaded " + result.size() + " object(s) from mirror: " + file);
+
+    return result;
+  }
+
+  /**
+   * Returns the latest timestamp encountered during the last synchronization.
+   *
+   * @param entity	the type of objects
+   * @return		the timestamp, null if not available
+   * @throws Exception	if reading fails
+   */
+  public synchronized String getLastSync(UFDLMirrorEntity entity) throws Exception {
+    JsonObject	data;
+
+    data = read(entity);
+    if ((data == null) || !data.has(KEY_LAST_SYNC) || data.get(KEY_LAST_SYNC).isJsonNull())
+      return null;
+    return data.get(KEY_LAST_SYNC).getAsString();
+  }
+
+  /**
+   * Generates the filter for synchronizing the objects. Incremental
+   * synchronization retrieves all objects with at least one timestamp
+   * field that is not older than the latest timestamp encountered so far.
+   *
+   * @param entity	the type of objects
+   * @param lastSync	the latest timestamp, null for full synchronization
+   * @return		the filter
+   */
+  protected AbstractUFDLFilter getSyncFilter(UFDLMirrorEntity entity, String lastSync) {
+    AllFilter		all;
+    GenericFilter	result;
+    Or			or;
+    StringCompare	compare;
+
+    if (lastSync == null) {
+      all = new AllFilter();
+      all.setIncludeInactive(true);
+      return all;
+    }
+
+    or = new Or();
+    for (String field: entity.getTimestampFields()) {
+      compare = new StringCompare();
+      compare.setField(field);
+      compare.setComparison(Comparison.GREATER_THAN_OR_EQUAL);
+      compare.setValue(lastSync);
+      or.addSubExpression(compare);
+    }
+    result = new GenericFilter();
+    result.addExpression(or);
+    result.setIncludeInactive(true);
+
+    return result;
+  }
+
+  /**
+   * Determines the latest timestamp in the objects.
+   *
+   * @param entity	the type of objects
+   * @param objects	the objects to inspect
+   * @return		the timestamp, null if none found
+   */
+  protected String determineLastSync(UFDLMirrorEntity entity, Iterable<JsonObject> objects) {
+    String	result;
+    String	value;
+
+    result = null;
+    for (JsonObject object: objects) {
+      for (String field: entity.getTimestampFields()) {
+	if (!object.has(field) || object.get(field).isJsonNull())
+	  continue;
+	value = object.get(field).getAsString();
+	if ((result == null) || (value.compareTo(result) > 0))
+	  result = value;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Synchronizes the objects of the specified type with the backend.
+   * Incremental synchronization merges the retrieved objects into the
+   * stored ones, using their primary key. Since the backend offers no
+   * modification timestamp, changes that do not affect any of the
+   * timestamp fields (and objects that got purged) are only picked up
+   * by a full synchronization.
+   *
+   * @param entity	the type of objects
+   * @param full	whether to perform a full synchronization
+   * @param errors	for collecting errors
+   * @return		the number of objects retrieved from the backend, -1 if failed
+   * @throws Exception	if retrieving or storing fails
+   */
+  public synchronized int sync(UFDLMirrorEntity entity, boolean full, MessageCollection errors) throws Exception {
+    JsonObject				data;
+    String				lastSync;
+    Map<Integer,JsonObject>		objects;
+    List<AbstractJsonObjectWrapper>	retrieved;
+    JsonArray				array;
+    int					numErrors;
+    boolean				incremental;
+    String				msg;
+
+    msg = checkDirectory(false);
+    if (msg != null)
+      throw new IllegalStateException(msg);
+    if (m_Connection.getReadClient() == null)
+      throw new IllegalStateException("No client available for synchronizing the mirror!");
+
+    data     = full ? null : read(entity);
+    lastSync = null;
+    objects  = new LinkedHashMap<>();
+    if ((data != null) && entity.supportsIncrementalSync()) {
+      if (data.has(KEY_LAST_SYNC) && !data.get(KEY_LAST_SYNC).isJsonNull())
+	lastSync = data.get(KEY_LAST_SYNC).getAsString();
+      for (JsonElement element: data.getAsJsonArray(KEY_OBJECTS))
+	objects.put(element.getAsJsonObject().get(KEY_PK).getAsInt(), element.getAsJsonObject());
+    }
+    incremental = (lastSync != null);
+    if (!incremental)
+      objects.clear();
+
+    numErrors = errors.size();
+    retrieved = entity.getQuery(m_Connection.getReadClient()).list(getSyncFilter(entity, lastSync).generate(errors));
+    if ((retrieved == null) || (errors.size() != numErrors))
+      return -1;
+    for (AbstractJsonObjectWrapper object: retrieved)
+      objects.put(object.getData().get(KEY_PK).getAsInt(), object.getData());
+
+    array = new JsonArray();
+    for (JsonObject object: objects.values())
+      array.add(object);
+    lastSync = determineLastSync(entity, objects.values());
+    data     = new JsonObject();
+    if (lastSync != null)
+      data.addProperty(KEY_LAST_SYNC, lastSync);
+    data.addProperty(KEY_SYNC_TIME, System.currentTimeMillis());
+    data.add(KEY_OBJECTS, array);
+    write(entity, data);
+
+    if (isLoggingEnabled())
+      getLogger().info("Synchronized " + entity + " (" + (incremental ? "incremental" : "full") + "): "
+	+ retrieved.size() + " retrieved, " + objects.size() + " stored");
+
+    return retrieved.size();
+  }
+}
@@ -50,7 +50,7 @@ public class ProjectCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (Project obj : m_Connection.getClient().projects().list())
+    for (Project obj : list(Project.class, m_Connection.getReadClient().projects()::list))
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
@@ -0,0 +1,382 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * QueryResultCache.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.standalone.ufdlcache;
+
+import adams.core.logging.LoggingObject;
+import adams.flow.standalone.UFDLConnection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache for the results of list queries, e.g., the objects that the
+ * chooser panels offer for selection. Results are stored per entity type
+ * (e.g., the class of the UFDL objects that were listed), the keys must
+ * encode everything else that influences the result (filter, etc).
+ * Modifications of an entity type invalidate all the results stored for it.
+ * <br>
+ * Once the maximum number of results has been reached, the least recently
+ * used result gets evicted.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class QueryResultCache
+  extends LoggingObject {
+
+  private static final long serialVersionUID = 4318609532214000915L;
+
+  /**
+   * Container for a cached result.
+   */
+  protected static class CacheEntry {
+
+    /** the entity type. */
+    public Class entity;
+
+    /** the result. */
+    public Object result;
+
+    /** when the entry got created. */
+    public long timestamp;
+  }
+
+  /** the cache (entity + key -> entry). */
+  protected Map<String,CacheEntry> m_Cache;
+
+  /** the connection to use. */
+  protected UFDLConnection m_Connection;
+
+  /** the expiry in seconds. */
+  protected int m_TimeToLive;
+
+  /** the maximum number of results to store. */
+  protected int m_MaxSize;
+
+  /** the number of cache hits. */
+  protected long m_Hits;
+
+  /** the number of cache misses. */
+  protected long m_Misses;
+
+  /** the number of evictions due to size limit. */
+  protected long m_Evictions;
+
+  /** the number of invalidated results. */
+  protected long m_Invalidations;
+
+  /**
+   * Initializes the cache.
+   *
+   * @param connection	the connection to use
+   * @param timeToLive 	the expiry in seconds (< 1 = no expiry)
+   * @param maxSize 	the maximum number of results to store (-1 = unlimited, 0 = no caching)
+   */
+  public QueryResultCache(UFDLConnection connection, int timeToLive, int maxSize) {
+    super();
+    m_Connection = connection;
+    m_TimeToLive = timeToLive;
+    m_MaxSize    = maxSize;
+    m_Cache      = new LinkedHashMap<String,CacheEntry>(16, 0.75f, true) {
+      private static final long serialVersionUID = -2618302014546125402L;
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+	if ((m_MaxSize > -1) && (size() > m_MaxSize)) {
+	  m_Evictions++;
+	  if (isLoggingEnabled())
+	    getLogger().info("Evicted: " + eldest.getKey());
+	  return true;
+	}
+	return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the connection in use.
+   *
+   * @return		the connection
+   */
+  public UFDLConnection getConnection() {
+    return m_Connection;
+  }
+
+  /**
+   * Returns the time to live.
+   *
+   * @return		the expiry in seconds (< 1 = no expiry)
+   */
+  public int getTimeToLive() {
+    return m_TimeToLive;
+  }
+
+  /**
+   * Returns the maximum number of results to store.
+   *
+   * @return		the maximum (-1 = unlimited, 0 = no caching)
+   */
+  public int getMaxSize() {
+    return m_MaxSize;
+  }
+
+  /**
+   * Clears the cache.
+   */
+  public synchronized void clear() {
+    m_Cache.clear();
+  }
+
+  /**
+   * Returns the size of the cache.
+   *
+   * @return		the size
+   */
+  public synchronized int size() {
+    return m_Cache.size();
+  }
+
+  /**
+   * Generates the internal key.
+   *
+   * @param entity	the entity type
+   * @param key		the key of the result
+   * @return		the combined key
+   */
+  protected String combine(Class entity, String key) {
+    return entity.getName() + "\t" + key;
+  }
+
+  /**
+   * Checks whether the two entity types are related, i.e., whether one of
+   * them is derived from the other.
+   *
+   * @param entity1	the first type
+   * @param entity2	the second type
+   * @return		true if related
+   */
+  protected boolean isRelated(Class entity1, Class entity2) {
+    return entity1.isAssignableFrom(entity2) || entity2.isAssignableFrom(entity1);
+  }
+
+  /**
+   * Removes the result for the specified key.
+   *
+   * @param entity	the entity type
+   * @param key		the key of the result to remove
+   */
+  public synchronized void invalidate(Class entity, String key) {
+    if (m_Cache.remove(combine(entity, key)) != null)
+      m_Invalidations++;
+  }
+
+  /**
+   * Removes all the results for the specified entity type, including
+   * results for super- or sub-types.
+   *
+   * @param entity	the entity type
+   */
+  public synchronized void invalidate(Class entity) {
+    List<String>	keys;
+
+    keys = new ArrayList<>();
+    // iterating the entries, as get() alters the access order
+    for (Map.Entry<String,CacheEntry> entry: m_Cache.entrySet()) {
+      if (isRelated(entity, entry.getValue().entity))
+	keys.add(entry.getKey());
+    }
+    for (String key: keys)
+      m_Cache.remove(key);
+    m_Invalidations += keys.size();
+
+    if (isLoggingEnabled() && !keys.isEmpty())
+      getLogger().info("Invalidated " + keys.size() + " result(s) for: " + entity.getName());
+  }
+
+  /**
+   * Removes all the results, e.g., after a modification that cannot be
+   * attributed to specific entity types.
+   */
+  public synchronized void invalidateAll() {
+    m_Invalidations += m_Cache.size();
+    if (isLoggingEnabled() && !m_Cache.isEmpty())
+      getLogger().info("Invalidated all " + m_Cache.size() + " result(s)");
+    m_Cache.clear();
+  }
+
+  /**
+   * Checks whether the entry has expired.
+   *
+   * @param entry	the entry to check
+   * @return		true if expired
+   */
+  protected boolean isExpired(CacheEntry entry) {
+    return (m_TimeToLive > 0) && (entry.timestamp + m_TimeToLive * 1000L <= System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the entry for the key, removing it if expired.
+   *
+   * @param combined	the combined key
+   * @return		the entry, null if not present or expired
+   */
+  protected CacheEntry lookup(String combined) {
+    CacheEntry	entry;
+
+    entry = m_Cache.get(combined);
+    if ((entry != null) && isExpired(entry)) {
+      if (isLoggingEnabled())
+	getLogger().info("Expired: " + combined);
+      m_Cache.remove(combined);
+      entry = null;
+    }
+
+    return entry;
+  }
+
+  /**
+   * Returns the cached result.
+   *
+   * @param entity	the entity type
+   * @param key		the key of the result
+   * @return		the result, null if not present or expired
+   */
+  public synchronized Object get(Class entity, String key) {
+    CacheEntry	entry;
+
+    entry = lookup(combine(entity, key));
+    if (entry == null) {
+      m_Misses++;
+      return null;
+    }
+
+    m_Hits++;
+    return entry.result;
+  }
+
+  /**
+   * Returns the cached result, without updating the statistics.
+   *
+   * @param entity	the entity type
+   * @param key		the key of the result
+   * @return		the result, null if not present or expired
+   */
+  public synchronized Object peek(Class entity, String key) {
+    CacheEntry	entry;
+
+    entry = lookup(combine(entity, key));
+    if (entry == null)
+      return null;
+
+    return entry.result;
+  }
+
+  /**
+   * Stores the result.
+   *
+   * @param entity	the entity type
+   * @param key		the key of the result
+   * @param result	the result to store
+   */
+  public synchronized void put(Class entity, String key, Object result) {
+    CacheEntry	entry;
+
+    if (m_MaxSize == 0)
+      return;
+
+    entry           = new CacheEntry();
+    entry.entity    = entity;
+    entry.result    = result;
+    entry.timestamp = System.currentTimeMillis();
+    m_Cache.put(combine(entity, key), entry);
+  }
+
+  /**
+   * Returns the number of cache hits.
+   *
+   * @return		the hits
+   */
+  public synchronized long getHits() {
+    return m_Hits;
+  }
+
+  /**
+   * Returns the number of cache misses (including expired results).
+   *
+   * @return		the misses
+   */
+  public synchronized long getMisses() {
+    return m_Misses;
+  }
+
+  /**
+   * Returns the number of results evicted due to the size limit.
+   *
+   * @return		the evictions
+   */
+  public synchronized long getEvictions() {
+    return m_Evictions;
+  }
+
+  /**
+   * Returns the number of results removed due to modifications.
+   *
+   * @return		the invalidations
+   */
+  public synchronized long getInvalidations() {
+    return m_Invalidations;
+  }
+
+  /**
+   * Returns the hit rate.
+   *
+   * @return		the rate (0-1), NaN if no lookups yet
+   */
+  public synchronized double getHitRate() {
+    if (m_Hits + m_Misses == 0)
+      return Double.NaN;
+    return (double) m_Hits / (m_Hits + m_Misses);
+  }
+
+  /**
+   * Resets the statistics.
+   */
+  public synchronized void resetStatistics() {
+    m_Hits          = 0;
+    m_Misses        = 0;
+    m_Evictions     = 0;
+    m_Invalidations = 0;
+  }
+
+  /**
+   * Returns the statistics as string.
+   *
+   * @return		the statistics
+   */
+  public synchronized String getStatistics() {
+    return "size=" + m_Cache.size()
+      + ", hits=" + m_Hits
+      + ", misses=" + m_Misses
+      + ", hit-rate=" + (Double.isNaN(getHitRate()) ? "-" : String.format("%.3f", getHitRate()))
+      + ", evictions=" + m_Evictions
+      + ", invalidations=" + m_Invalidations;
+  }
+}
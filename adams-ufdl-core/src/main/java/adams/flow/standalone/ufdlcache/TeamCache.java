@@ -50,7 +50,7 @@ public class TeamCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (Team obj : m_Connection.getClient().teams().list())
+    for (Team obj : list(Team.class, m_Connection.getReadClient().teams()::list))
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
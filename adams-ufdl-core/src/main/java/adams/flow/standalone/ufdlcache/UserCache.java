@@ -50,7 +50,7 @@ public class UserCache
    */
   @Override
   protected void doInitialize() throws Exception {
-    for (User obj : m_Connection.getClient().users().list())
+    for (User obj : list(User.class, m_Connection.getReadClient().users()::list))
       m_Cache.put(obj.getPK(), obj.getShortDescription());
   }
 }
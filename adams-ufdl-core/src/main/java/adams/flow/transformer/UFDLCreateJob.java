@@ -35,6 +35,7 @@ import adams.data.ufdlfilter.field.ExactInteger;
 import adams.flow.core.ActorUtils;
 import adams.flow.core.Token;
 import adams.flow.core.UFDLContractType;
+import adams.flow.core.UFDLJobTemplateTypes;
 import adams.flow.core.UFDLListSorting;
 import adams.flow.core.UFDLSoftDeleteObjectState;
 import adams.flow.standalone.UFDLConnection;
@@ -280,6 +281,24 @@ public class UFDLCreateJob
       // inputs
       inputs = contractType.getContract().inputs(domain, framework);
     }
+
+    /**
+     * Initializes the container with the template definition of the
+     * provided container (shallow copy). The chosen types and values
+     * don't get copied.
+     *
+     * @param other	the container to copy
+     */
+    public JobTemplateData(JobTemplateData other) {
+      template     = other.template;
+      contractType = other.contractType;
+      license      = other.license;
+      types        = other.types;
+      domain       = other.domain;
+      framework    = other.framework;
+      parameters   = other.parameters;
+      inputs       = other.inputs;
+    }
   }
 
   /** the contract type. */
@@ -505,7 +524,9 @@ public class UFDLCreateJob
 
     datasetPK = pk(dataset(domain(templateData.domain)));
     label     = key.replace(GUIHelper.MNEMONIC_INDICATOR, '-');
-    type      = templateData.inputs.get(key);
+    type      = UFDLJobTemplateTypes.getInputType(templateData.domain, templateData.inputs.get(key));
+    if (type == null)
+      return;
 
     // dataset?
     if (type.equals(datasetPK)) {
@@ -548,208 +569,168 @@ public class UFDLCreateJob
    */
   protected void addParameter(PropertiesParameterPanel panel, JobTemplates.Parameter parameter, JobTemplateData templateData, Properties values, Properties types) throws Exception {
     String 			datasetPK;
-    String 			dockerImage;
     String 			dockerImagePK;
-    String 			dockerImageName;
+    String			type;
     String			defValue;
     Object			defValues;
     GenericArrayEditorPanel	gae;
-    boolean			added;
-    boolean			ignored;
     String			key;
     String			label;
 
-    key             = parameter.getName();
-    label           = parameter.getName().replace(GUIHelper.MNEMONIC_INDICATOR, '-');
-    datasetPK       = pk(dataset(domain(templateData.domain)));
-    dockerImage     = dockerImage(templateData.domain, templateData.framework, null);
-    dockerImagePK   = Types.PK + dockerImage;
-    dockerImageName = Types.NAME + dockerImage;
+    key           = parameter.getName();
+    label         = parameter.getName().replace(GUIHelper.MNEMONIC_INDICATOR, '-');
+    datasetPK     = pk(dataset(domain(templateData.domain)));
+    dockerImagePK = Types.PK + dockerImage(templateData.domain, templateData.framework, null);
+    type          = UFDLJobTemplateTypes.getParameterType(templateData.domain, templateData.framework, parameter, getLogger());
+    if (type == null)
+      return;
 
     defValue = null;
-    added    = false;
-    ignored  = false;
-    for (String type: parameter.getTypes()) {
-      if (type.equals(datasetPK)) {
-	added = true;
-	UFDLDatasetChooserPanel chooser = new UFDLDatasetChooserPanel();
-	chooser.setConnection(m_Connection);
-	chooser.setFilter(new DomainFilter(templateData.domain));
-	chooser.setMultiSelection(false);
-	chooser.setSorting(UFDLListSorting.BY_ID_ONLY);
-	chooser.setState(UFDLSoftDeleteObjectState.ACTIVE);
-	panel.addPropertyType(key, PropertyType.CUSTOM_COMPONENT);
-	panel.setLabel(key, label);
-	panel.setComponent(key, chooser);
-	types.setProperty(key, type);
-      }
-      else if (type.startsWith(dockerImagePK)) {
-	added = true;
-	UFDLDockerImageChooserPanel chooser = new UFDLDockerImageChooserPanel();
-	chooser.setConnection(m_Connection);
-	GenericFilter filter = new GenericFilter();
-	filter.addExpression(new ExactInteger("domain", templateData.domain.getPK()));
-	filter.addExpression(new ExactInteger("framework", templateData.framework.getPK()));
-	chooser.setFilter(filter);
-	chooser.setTask(m_ContractType.getName());
-	chooser.setMultiSelection(false);
-	chooser.setSorting(UFDLListSorting.BY_ID_ONLY);
-	panel.addPropertyType(key, PropertyType.CUSTOM_COMPONENT);
-	panel.setLabel(key, label);
-	panel.setComponent(key, chooser);
-	types.setProperty(key, type);
-      }
-      else if (type.startsWith(dockerImageName) || type.startsWith(dockerImage)) {
-	// handled by dockerImagePK
-	ignored = true;
-      }
-      else {
-        // change size limited arrays to open ones:
-        if (type.startsWith(Types.ARRAY_BOOL_LIMITED))
-          type = Types.ARRAY_BOOL;
-        else if (type.startsWith(Types.ARRAY_INT_LIMITED))
-          type = Types.ARRAY_INT;
-        else if (type.startsWith(Types.ARRAY_FLOAT_LIMITED))
-          type = Types.ARRAY_FLOAT;
-        else if (type.startsWith(Types.ARRAY_STR_LIMITED))
-          type = Types.ARRAY_STR;
-
-	switch (type) {
-	  case Types.PRIMITIVE_BOOL:
-	    added = true;
-	    panel.addPropertyType(key, PropertyType.BOOLEAN);
-	    panel.setLabel(key, label);
-	    if (parameter.hasDefault())
-	      defValue = "" + parameter.getDefault();
-	    else
-	      defValue = "false";
-	    types.setProperty(key, type);
-	    break;
-
-	  case Types.PRIMITIVE_INT:
-	    added = true;
-	    panel.addPropertyType(key, PropertyType.INTEGER);
-	    panel.setLabel(key, label);
-	    if (parameter.hasDefault())
-	      defValue = "" + parameter.getDefault();
-	    else
-	      defValue = "-1";
-	    types.setProperty(key, type);
-	    break;
-
-	  case Types.PRIMITIVE_FLOAT:
-	    added = true;
-	    panel.addPropertyType(key, PropertyType.DOUBLE);
-	    panel.setLabel(key, label);
-	    if (parameter.hasDefault())
-	      defValue = "" + parameter.getDefault();
-	    else
-	      defValue = "0.0";
-	    types.setProperty(key, type);
-	    break;
-
-	  case Types.PRIMITIVE_STR:
-	    added = true;
-	    panel.addPropertyType(key, PropertyType.STRING);
-	    panel.setLabel(key, label);
-	    if (parameter.hasDefault())
-	      defValue = "" + parameter.getDefault();
-	    else
-	      defValue = "";
-	    types.setProperty(key, type);
-	    break;
-
-	  case Types.ARRAY_STR:
-	    added = true;
-	    if (parameter.hasDefault()) {
-	      defValues = parameter.getDefault();
-	      if (defValues instanceof List)
-		defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseString.class);
-	      values.setProperty(key, Utils.flatten((BaseString[]) defValues, "\n"));
-	    }
-	    else {
-	      defValues = new BaseString[0];
-	    }
-	    gae = new GenericArrayEditorPanel(defValues);
-	    panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
-	    panel.setLabel(key, label);
-	    panel.setChooser(key, gae);
-	    panel.setArrayClass(key, BaseString.class);
-	    panel.setArraySeparator(key, "\n");
-	    types.setProperty(key, type);
-	    break;
-
-          case Types.ARRAY_BOOL:
-            added = true;
-            if (parameter.hasDefault()) {
-              defValues = parameter.getDefault();
-              if (defValues instanceof List)
-                defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseBoolean.class);
-              values.setProperty(key, Utils.flatten((BaseBoolean[]) defValues, "\n"));
-            }
-            else {
-              defValues = new BaseBoolean[0];
-            }
-            gae = new GenericArrayEditorPanel(defValues);
-            panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
-            panel.setLabel(key, label);
-            panel.setChooser(key, gae);
-            panel.setArrayClass(key, BaseBoolean.class);
-            panel.setArraySeparator(key, "\n");
-            types.setProperty(key, type);
-            break;
-
-	  case Types.ARRAY_INT:
-	    added = true;
-	    if (parameter.hasDefault()) {
-	      defValues = parameter.getDefault();
-	      if (defValues instanceof List)
-		defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseInteger.class);
-	      values.setProperty(key, Utils.flatten((BaseInteger[]) defValues, "\n"));
-	    }
-	    else {
-	      defValues = new BaseInteger[0];
-	    }
-	    gae = new GenericArrayEditorPanel(defValues);
-	    panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
-	    panel.setLabel(key, label);
-	    panel.setChooser(key, gae);
-	    panel.setArrayClass(key, BaseInteger.class);
-	    panel.setArraySeparator(key, "\n");
-	    types.setProperty(key, type);
-	    break;
-
-          case Types.ARRAY_FLOAT:
-            added = true;
-            if (parameter.hasDefault()) {
-              defValues = parameter.getDefault();
-              if (defValues instanceof List)
-                defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseDouble.class);
-              values.setProperty(key, Utils.flatten((BaseDouble[]) defValues, "\n"));
-            }
-            else {
-              defValues = new BaseDouble[0];
-            }
-            gae = new GenericArrayEditorPanel(defValues);
-            panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
-            panel.setLabel(key, label);
-            panel.setChooser(key, gae);
-            panel.setArrayClass(key, BaseDouble.class);
-            panel.setArraySeparator(key, "\n");
-            types.setProperty(key, type);
-            break;
-
-	  default:
-	    if (!ignored) {
-	      if (type.contains(Types.DOCKER_IMAGE))
-		throw new IllegalStateException("Unhandled parameter type: " + type + "\n" + parameter.toString());
-	      else
-		getLogger().warning("Unhandled parameter type: " + type + "\n" + parameter.toString());
-	    }
-	}
+    if (type.equals(datasetPK)) {
+      UFDLDatasetChooserPanel chooser = new UFDLDatasetChooserPanel();
+      chooser.setConnection(m_Connection);
+      chooser.setFilter(new DomainFilter(templateData.domain));
+      chooser.setMultiSelection(false);
+      chooser.setSorting(UFDLListSorting.BY_ID_ONLY);
+      chooser.setState(UFDLSoftDeleteObjectState.ACTIVE);
+      panel.addPropertyType(key, PropertyType.CUSTOM_COMPONENT);
+      panel.setLabel(key, label);
+      panel.setComponent(key, chooser);
+      types.setProperty(key, type);
+    }
+    else if (type.startsWith(dockerImagePK)) {
+      UFDLDockerImageChooserPanel chooser = new UFDLDockerImageChooserPanel();
+      chooser.setConnection(m_Connection);
+      GenericFilter filter = new GenericFilter();
+      filter.addExpression(new ExactInteger("domain", templateData.domain.getPK()));
+      filter.addExpression(new ExactInteger("framework", templateData.framework.getPK()));
+      chooser.setFilter(filter);
+      chooser.setTask(m_ContractType.getName());
+      chooser.setMultiSelection(false);
+      chooser.setSorting(UFDLListSorting.BY_ID_ONLY);
+      panel.addPropertyType(key, PropertyType.CUSTOM_COMPONENT);
+      panel.setLabel(key, label);
+      panel.setComponent(key, chooser);
+      types.setProperty(key, type);
+    }
+    else {
+      switch (type) {
+	case Types.PRIMITIVE_BOOL:
+	  panel.addPropertyType(key, PropertyType.BOOLEAN);
+	  panel.setLabel(key, label);
+	  if (parameter.hasDefault())
+	    defValue = "" + parameter.getDefault();
+	  else
+	    defValue = "false";
+	  types.setProperty(key, type);
+	  break;
+
+	case Types.PRIMITIVE_INT:
+	  panel.addPropertyType(key, PropertyType.INTEGER);
+	  panel.setLabel(key, label);
+	  if (parameter.hasDefault())
+	    defValue = "" + parameter.getDefault();
+	  else
+	    defValue = "-1";
+	  types.setProperty(key, type);
+	  break;
+
+	case Types.PRIMITIVE_FLOAT:
+	  panel.addPropertyType(key, PropertyType.DOUBLE);
+	  panel.setLabel(key, label);
+	  if (parameter.hasDefault())
+	    defValue = "" + parameter.getDefault();
+	  else
+	    defValue = "0.0";
+	  types.setProperty(key, type);
+	  break;
+
+	case Types.PRIMITIVE_STR:
+	  panel.addPropertyType(key, PropertyType.STRING);
+	  panel.setLabel(key, label);
+	  if (parameter.hasDefault())
+	    defValue = "" + parameter.getDefault();
+	  else
+	    defValue = "";
+	  types.setProperty(key, type);
+	  break;
+
+	case Types.ARRAY_STR:
+	  if (parameter.hasDefault()) {
+	    defValues = parameter.getDefault();
+	    if (defValues instanceof List)
+	      defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseString.class);
+	    values.setProperty(key, Utils.flatten((BaseString[]) defValues, "\n"));
+	  }
+	  else {
+	    defValues = new BaseString[0];
+	  }
+	  gae = new GenericArrayEditorPanel(defValues);
+	  panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
+	  panel.setLabel(key, label);
+	  panel.setChooser(key, gae);
+	  panel.setArrayClass(key, BaseString.class);
+	  panel.setArraySeparator(key, "\n");
+	  types.setProperty(key, type);
+	  break;
+
+	case Types.ARRAY_BOOL:
+	  if (parameter.hasDefault()) {
+	    defValues = parameter.getDefault();
+	    if (defValues instanceof List)
+	      defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseBoolean.class);
+	    values.setProperty(key, Utils.flatten((BaseBoolean[]) defValues, "\n"));
+	  }
+	  else {
+	    defValues = new BaseBoolean[0];
+	  }
+	  gae = new GenericArrayEditorPanel(defValues);
+	  panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
+	  panel.setLabel(key, label);
+	  panel.setChooser(key, gae);
+	  panel.setArrayClass(key, BaseBoolean.class);
+	  panel.setArraySeparator(key, "\n");
+	  types.setProperty(key, type);
+	  break;
+
+	case Types.ARRAY_INT:
+	  if (parameter.hasDefault()) {
+	    defValues = parameter.getDefault();
+	    if (defValues instanceof List)
+	      defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseInteger.class);
+	    values.setProperty(key, Utils.flatten((BaseInteger[]) defValues, "\n"));
+	  }
+	  else {
+	    defValues = new BaseInteger[0];
+	  }
+	  gae = new GenericArrayEditorPanel(defValues);
+	  panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
+	  panel.setLabel(key, label);
+	  panel.setChooser(key, gae);
+	  panel.setArrayClass(key, BaseInteger.class);
+	  panel.setArraySeparator(key, "\n");
+	  types.setProperty(key, type);
+	  break;
+
+	case Types.ARRAY_FLOAT:
+	  if (parameter.hasDefault()) {
+	    defValues = parameter.getDefault();
+	    if (defValues instanceof List)
+	      defValues = BaseObject.toObjectArray((String[]) ((List) defValues).toArray(new String[0]), BaseDouble.class);
+	    values.setProperty(key, Utils.flatten((BaseDouble[]) defValues, "\n"));
+	  }
+	  else {
+	    defValues = new BaseDouble[0];
+	  }
+	  gae = new GenericArrayEditorPanel(defValues);
+	  panel.addPropertyType(key, PropertyType.ARRAY_EDITOR);
+	  panel.setLabel(key, label);
+	  panel.setChooser(key, gae);
+	  panel.setArrayClass(key, BaseDouble.class);
+	  panel.setArraySeparator(key, "\n");
+	  types.setProperty(key, type);
+	  break;
       }
-      if (added)
-	break;
     }
 
     // set default value
@@ -846,74 +827,14 @@ public class UFDLCreateJob
   /**
    * Fixes the type of the value if necessary.
    *
+   * @param key		the name of the input/parameter
    * @param type	the desired type
    * @param value	the current value
    * @return		the potentially fixed value
+   * @see		UFDLJobTemplateTypes#fixValue(String, String, Object, java.util.logging.Logger)
    */
   protected Object fixValue(String key, String type, Object value) {
-    String[]	parts;
-    Boolean[]	boolArray;
-    Integer[]	intArray;
-    Double[]	numArray;
-    int		i;
-
-    try {
-      if (value instanceof String) {
-	if (type.startsWith(Types.PK)) {
-	  value = Integer.parseInt((String) value);
-	}
-	else if (type.startsWith(Types.JOB_OUTPUT)) {
-	  value = Integer.parseInt((String) value);
-	}
-	else if (type.equals(Types.ARRAY_STR) || type.startsWith(Types.ARRAY_STR_LIMITED)) {
-	  value = Utils.unbackQuoteChars((String) value).split("\n");
-	  // TODO check size
-	}
-	else if (type.equals(Types.ARRAY_INT) || type.startsWith(Types.ARRAY_INT_LIMITED)) {
-	  parts    = ((String) value).split("\n");
-	  intArray = new Integer[parts.length];
-	  for (i = 0; i < parts.length; i++)
-	    intArray[i] = Integer.parseInt(parts[i]);
-	  value = intArray;
-	  // TODO check size
-	}
-	else if (type.equals(Types.ARRAY_BOOL) || type.startsWith(Types.ARRAY_BOOL_LIMITED)) {
-	  parts     = ((String) value).split("\n");
-	  boolArray = new Boolean[parts.length];
-	  for (i = 0; i < parts.length; i++)
-	    boolArray[i] = Boolean.parseBoolean(parts[i]);
-	  value = boolArray;
-	  // TODO check size
-	}
-	else if (type.equals(Types.ARRAY_FLOAT) || type.startsWith(Types.ARRAY_FLOAT_LIMITED)) {
-	  parts    = ((String) value).split("\n");
-	  numArray = new Double[parts.length];
-	  for (i = 0; i < parts.length; i++)
-	    numArray[i] = Double.parseDouble(parts[i]);
-	  value = numArray;
-	  // TODO check size
-	}
-	else {
-	  switch (type) {
-	    case Types.PRIMITIVE_BOOL:
-	      value = Boolean.parseBoolean((String) value);
-	      break;
-	    case Types.PRIMITIVE_INT:
-	      value = Integer.parseInt((String) value);
-	      break;
-	    case Types.PRIMITIVE_FLOAT:
-	      value = Double.parseDouble((String) value);
-	      break;
-	  }
-	}
-      }
-
-      return value;
-    }
-    catch (Exception e) {
-      getLogger().log(Level.SEVERE, "Failed to parse key/type/value: " + key + "/" + type + "/" + value);
-      return value;
-    }
+    return UFDLJobTemplateTypes.fixValue(key, type, value, getLogger());
   }
 
   /**
@@ -950,6 +871,8 @@ public class UFDLCreateJob
     }
 
     result = m_Connection.getClient().jobTemplates().newJob(templateData.template.getPK(), inputs, params, description);
+    if (m_Connection.getCacheManager() != null)
+      m_Connection.getCacheManager().queryResults().invalidate(Job.class);
     if (isLoggingEnabled())
       getLogger().info("Job: " + result);
 
@@ -963,7 +886,6 @@ public class UFDLCreateJob
    */
   @Override
   public String doInteract() {
-    JobTemplate 	template;
     Job			job;
     JobTemplateData	templateData;
     boolean		cancelled;
@@ -977,13 +899,12 @@ public class UFDLCreateJob
     while (!m_Accepted && !cancelled) {
       try {
 	if (m_InputToken.hasPayload(Integer.class))
-	  template = m_Connection.getClient().jobTemplates().load(m_InputToken.getPayload(Integer.class));
+	  templateData = m_Connection.getCacheManager().jobTemplateData().get(m_InputToken.getPayload(Integer.class), m_ContractType);
 	else
-	  template = (JobTemplate) m_InputToken.getPayload();
-	if (isLoggingEnabled())
-	  getLogger().info("Template: " + template);
-	if (template != null) {
-	  templateData = new JobTemplateData(m_Connection.getClient(), template, m_ContractType);
+	  templateData = m_Connection.getCacheManager().jobTemplateData().get((JobTemplate) m_InputToken.getPayload(), m_ContractType);
+	if (templateData != null) {
+	  if (isLoggingEnabled())
+	    getLogger().info("Template: " + templateData.template);
 	  updatePanel(templateData);
 	}
       }
@@ -21,26 +21,51 @@
 package adams.flow.transformer;
 
 import adams.core.AdditionalInformationHandler;
-import adams.core.DateUtils;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.Utils;
+import adams.core.option.OptionUtils;
 import adams.data.text.TextContainer;
 import adams.flow.control.StorageName;
-import adams.flow.control.StorageQueueHandler;
 import adams.flow.control.StorageUpdater;
 import adams.flow.core.ActorUtils;
-import adams.flow.core.QueueHelper;
 import adams.flow.core.Token;
+import adams.flow.core.UFDLBatchSupporter;
+import adams.flow.core.UFDLErrorQueueHelper;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.Unknown;
 import adams.flow.standalone.UFDLConnection;
 import adams.flow.transformer.ufdl.AbstractUFDLTransformerAction;
 import adams.flow.transformer.ufdl.PassThrough;
 
-import java.util.Date;
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  <!-- globalinfo-start -->
- * Transforms the data using the specified action.
+ * Transforms the data using the specified action.<br>
+ * With more than one thread, the tokens get processed asynchronously, keeping up to that many action calls in flight across tokens; arrays of objects that the action accepts get processed element by element, with each element resulting in a separate output token. The outputs get forwarded either in input order or in the order of completion, as soon as the calls have finished, i.e., usually along with later tokens; the outputs of an array all get forwarded for the array itself. When the flow wraps up, calls still in flight get waited for, but their outputs can no longer be forwarded.<br>
+ * With a batch size larger than one, actions that support batches get handed the tokens once the batch is full or the linger time since the first token of the batch has passed (using a timer, i.e., also when no more tokens arrive). The outputs of a batch processed by the timer get forwarded the next time the flow checks this actor for output; the final partially filled batch gets processed when the flow wraps up at the latest.
  * <br><br>
  <!-- globalinfo-end -->
  *
@@ -103,6 +128,34 @@ import java.util.Date;
  * &nbsp;&nbsp;&nbsp;default: errors
  * </pre>
  *
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The maximum number of action calls in flight, across tokens; elements of
+ * &nbsp;&nbsp;&nbsp;arrays get processed individually; 1 = synchronous execution.
+ * &nbsp;&nbsp;&nbsp;default: 1
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ * <pre>-preserve-order &lt;boolean&gt; (property: preserveOrder)
+ * &nbsp;&nbsp;&nbsp;If enabled, the outputs of asynchronous calls get forwarded in input order,
+ * &nbsp;&nbsp;&nbsp;otherwise as soon as they complete.
+ * &nbsp;&nbsp;&nbsp;default: true
+ * </pre>
+ *
+ * <pre>-batch-size &lt;int&gt; (property: batchSize)
+ * &nbsp;&nbsp;&nbsp;The maximum number of tokens to hand to the action at once, if the action
+ * &nbsp;&nbsp;&nbsp;supports batches; 1 = no batching.
+ * &nbsp;&nbsp;&nbsp;default: 1
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ * <pre>-linger-time &lt;int&gt; (property: lingerTime)
+ * &nbsp;&nbsp;&nbsp;The time in msec after which a partially filled batch gets processed, also
+ * &nbsp;&nbsp;&nbsp;if no more tokens arrive; 0 = wait for the batch to fill up; the final partially
+ * &nbsp;&nbsp;&nbsp;filled batch gets processed when the flow wraps up at the latest.
+ * &nbsp;&nbsp;&nbsp;default: 1000
+ * &nbsp;&nbsp;&nbsp;minimum: 0
+ * </pre>
+ *
  <!-- options-end -->
  *
  * @author FracPete (fracpete at waikato dot ac dot nz)
@@ -113,6 +166,9 @@ public class UFDLTransformer
 
   private static final long serialVersionUID = -2779693911370733238L;
 
+  /** the interval in msec for checking whether the flow got stopped while waiting for asynchronous calls. */
+  public static final int ASYNC_POLL_INTERVAL = 100;
+
   /** the action to use. */
   protected AbstractUFDLTransformerAction m_Action;
 
@@ -122,9 +178,87 @@ public class UFDLTransformer
   /** the name of the error queue in the internal storage. */
   protected StorageName m_ErrorQueue;
 
+  /** the maximum number of action calls in flight. */
+  protected int m_NumThreads;
+
+  /** whether to forward the asynchronous outputs in input order. */
+  protected boolean m_PreserveOrder;
+
+  /** the maximum number of tokens per batch. */
+  protected int m_BatchSize;
+
+  /** the time in msec after which to process a partially filled batch. */
+  protected int m_LingerTime;
+
   /** the connection to use. */
   protected transient UFDLConnection m_Connection;
 
+  /** for synchronizing access to the batch and the action with the linger timer. */
+  protected transient Object m_BatchLock;
+
+  /** the current batch. */
+  protected transient List<Object> m_Batch;
+
+  /** the time the first item of the current batch arrived. */
+  protected long m_BatchStart;
+
+  /** the outputs of the processed batches that haven't been forwarded yet. */
+  protected transient Deque<Object> m_BatchOutputs;
+
+  /** the timer for processing partially filled batches once the linger time has passed. */
+  protected transient Timer m_LingerTimer;
+
+  /** the linger task of the current batch. */
+  protected transient TimerTask m_LingerTask;
+
+  /** the executor for the asynchronous calls. */
+  protected transient volatile ExecutorService m_Executor;
+
+  /** the calls in flight with their sequence number. */
+  protected transient volatile Map<Future<AsyncResult>,Long> m_InFlight;
+
+  /** the calls in flight, in order of completion. */
+  protected transient CompletionService<AsyncResult> m_Completion;
+
+  /** the results that wait for the ones of preceding calls (when preserving the order). */
+  protected transient Map<Long,AsyncResult> m_Completed;
+
+  /** the sequence number of the next call. */
+  protected long m_NextSequence;
+
+  /** the sequence number of the next result to forward (when preserving the order). */
+  protected long m_NextOutput;
+
+  /** the number of calls whose results haven't been retrieved yet. */
+  protected int m_Remaining;
+
+  /** the outputs of asynchronous calls that haven't been forwarded yet. */
+  protected transient Deque<Object> m_AsyncOutputs;
+
+  /**
+   * Container for the result of an asynchronous call.
+   */
+  protected static class AsyncResult {
+
+    /** the index of the input in the array. */
+    public int index;
+
+    /** the generated output, can be null. */
+    public Object output;
+
+    /** the errors encountered. */
+    public MessageCollection errors = new MessageCollection();
+
+    /**
+     * Initializes the result.
+     *
+     * @param index	the index of the input
+     */
+    public AsyncResult(int index) {
+      this.index = index;
+    }
+  }
+
   /**
    * Returns a string describing the object.
    *
@@ -153,6 +287,22 @@ public class UFDLTransformer
     m_OptionManager.add(
       "error-queue", "errorQueue",
       new StorageName("errors"));
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      1, 1, null);
+
+    m_OptionManager.add(
+      "preserve-order", "preserveOrder",
+      true);
+
+    m_OptionManager.add(
+      "batch-size", "batchSize",
+      1, 1, null);
+
+    m_OptionManager.add(
+      "linger-time", "lingerTime",
+      1000, 0, null);
   }
 
   /**
@@ -178,6 +328,14 @@ public class UFDLTransformer
 
     if (m_UseErrorQueue)
       result += QuickInfoHelper.toString(this, "errorQueue", m_ErrorQueue, ", error queue: ");
+    if (m_NumThreads > 1) {
+      result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", in flight: ");
+      result += QuickInfoHelper.toString(this, "preserveOrder", m_PreserveOrder, "ordered", ", ");
+    }
+    if (m_BatchSize > 1) {
+      result += QuickInfoHelper.toString(this, "batchSize", m_BatchSize, ", batch: ");
+      result += QuickInfoHelper.toString(this, "lingerTime", m_LingerTime, ", linger: ");
+    }
 
     return result;
   }
@@ -269,6 +427,129 @@ public class UFDLTransformer
     return "The name of the queue in internal storage to forward the errors to.";
   }
 
+  /**
+   * Sets the maximum number of action calls in flight.
+   *
+   * @param value	the number of calls, 1 = synchronous
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of action calls in flight.
+   *
+   * @return		the number of calls, 1 = synchronous
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return "The maximum number of action calls in flight, across tokens; elements of arrays get processed individually; 1 = synchronous execution.";
+  }
+
+  /**
+   * Sets whether to forward the outputs of asynchronous calls in input order.
+   *
+   * @param value	true if to preserve the order
+   */
+  public void setPreserveOrder(boolean value) {
+    m_PreserveOrder = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to forward the outputs of asynchronous calls in input order.
+   *
+   * @return		true if to preserve the order
+   */
+  public boolean getPreserveOrder() {
+    return m_PreserveOrder;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String preserveOrderTipText() {
+    return "If enabled, the outputs of asynchronous calls get forwarded in input order, otherwise as soon as they complete.";
+  }
+
+  /**
+   * Sets the maximum number of tokens to hand to the action at once.
+   *
+   * @param value	the batch size, 1 = no batching
+   */
+  public void setBatchSize(int value) {
+    if (getOptionManager().isValid("batchSize", value)) {
+      m_BatchSize = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of tokens to hand to the action at once.
+   *
+   * @return		the batch size, 1 = no batching
+   */
+  public int getBatchSize() {
+    return m_BatchSize;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String batchSizeTipText() {
+    return "The maximum number of tokens to hand to the action at once, if the action supports batches; 1 = no batching.";
+  }
+
+  /**
+   * Sets the time after which to process a partially filled batch.
+   *
+   * @param value	the time in msec, 0 = wait for batch to fill up
+   */
+  public void setLingerTime(int value) {
+    if (getOptionManager().isValid("lingerTime", value)) {
+      m_LingerTime = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the time after which to process a partially filled batch.
+   *
+   * @return		the time in msec, 0 = wait for batch to fill up
+   */
+  public int getLingerTime() {
+    return m_LingerTime;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String lingerTimeTipText() {
+    return "The time in msec after which a partially filled batch gets processed, also if no more tokens arrive; 0 = wait for the batch to fill up; "
+      + "the final partially filled batch gets processed when the flow wraps up at the latest.";
+  }
+
   /**
    * Returns whether storage items are being updated.
    *
@@ -285,7 +566,18 @@ public class UFDLTransformer
    */
   @Override
   public Class[] accepts() {
-    return m_Action.accepts();
+    List<Class>		result;
+
+    if (m_NumThreads <= 1)
+      return m_Action.accepts();
+
+    result = new ArrayList<>(Arrays.asList(m_Action.accepts()));
+    for (Class cls: m_Action.accepts()) {
+      if (!cls.isArray() && (cls != Unknown.class))
+        result.add(Array.newInstance(cls, 0).getClass());
+    }
+
+    return result.toArray(new Class[0]);
   }
 
   /**
@@ -316,7 +608,9 @@ public class UFDLTransformer
 
     result.append("\n\n");
     result.append("If enabled, errors get forwarded as ").append(Utils.classToString(TextContainer.class)).append(", with the error as the content.\n");
-    result.append("The 'Actor' field in the report contains the actor that generated the error, the 'Action' field the full command-line of the action and 'Timestamp' the date/time of the error.");
+    result.append("The 'Actor' field in the report contains the actor that generated the error, the 'Action' field the full command-line of the action and 'Timestamp' the date/time of the error.\n");
+    result.append("Errors from asynchronous calls get logged if no error queue is used.\n");
+    result.append("Batching is only available for actions implementing ").append(Utils.classToString(UFDLBatchSupporter.class)).append(".");
 
     return result.toString();
   }
@@ -341,6 +635,365 @@ public class UFDLTransformer
     return result;
   }
 
+  /**
+   * Returns whether the action accepts the payload as is.
+   *
+   * @param payload	the payload to check
+   * @return		true if accepted as is
+   */
+  protected boolean acceptsAsIs(Object payload) {
+    for (Class cls: m_Action.accepts()) {
+      if ((cls == Unknown.class) || cls.isInstance(payload))
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Initializes the executor and the bookkeeping of the calls, if necessary.
+   */
+  protected void initAsync() {
+    if (m_Executor != null)
+      return;
+
+    m_Completed    = new HashMap<>();
+    m_AsyncOutputs = new ArrayDeque<>();
+    m_NextSequence = 0;
+    m_NextOutput   = 0;
+    m_Remaining    = 0;
+    m_InFlight     = new ConcurrentHashMap<>();
+    m_Executor     = UFDLParallelRequests.newExecutor(m_NumThreads, getClass().getSimpleName());
+    m_Completion   = new ExecutorCompletionService<>(m_Executor);
+  }
+
+  /**
+   * Creates the copies of the action for the calls of the current token,
+   * using the current option values (with variables expanded), as these
+   * can change between tokens.
+   *
+   * @param size	the number of copies
+   * @return		the copies, null if failed to create
+   */
+  protected BlockingQueue<AbstractUFDLTransformerAction> newActionPool(int size) {
+    BlockingQueue<AbstractUFDLTransformerAction>	result;
+    AbstractUFDLTransformerAction			copy;
+    int							i;
+
+    result = new LinkedBlockingQueue<>();
+    for (i = 0; i < size; i++) {
+      copy = (AbstractUFDLTransformerAction) OptionUtils.shallowCopy(m_Action, true);
+      if (copy == null)
+        return null;
+      copy.setClient(m_Connection.getClientFor(copy));
+      copy.setFlowContext(this);
+      result.add(copy);
+    }
+
+    return result;
+  }
+
+  /**
+   * Creates the asynchronous call for the specified input.
+   *
+   * @param pool	the copies of the action to use
+   * @param index	the index of the input in the array
+   * @param input	the input to transform
+   * @return		the call
+   */
+  protected Callable<AsyncResult> newAsyncCall(final BlockingQueue<AbstractUFDLTransformerAction> pool, final int index, final Object input) {
+    return () -> {
+      AsyncResult 			result;
+      AbstractUFDLTransformerAction 	action;
+
+      result = new AsyncResult(index);
+      action = pool.take();
+      try {
+	result.output = action.transform(input, result.errors);
+	// read-only actions get retried once with another host if theirs stopped responding
+	if (!result.errors.isEmpty() && m_Connection.failoverRead(action)) {
+	  action.setClient(m_Connection.getClientFor(action));
+	  result.errors = new MessageCollection();
+	  result.output = action.transform(input, result.errors);
+	}
+      }
+      catch (Exception e) {
+	result.errors.add("Failed to transform input data #" + (index + 1) + "!", e);
+      }
+      finally {
+	pool.add(action);
+      }
+      return result;
+    };
+  }
+
+  /**
+   * Submits the payload or, in case of an array that the action does not
+   * accept as is, its elements for asynchronous transformation. Waits for
+   * calls to finish whenever the maximum number of calls is in flight.
+   * The outputs of an array all get collected before returning.
+   *
+   * @param payload	the payload to process
+   * @return		null if successful, otherwise error message
+   */
+  protected String submitAsync(Object payload) {
+    BlockingQueue<AbstractUFDLTransformerAction>	pool;
+    Future<AsyncResult>					future;
+    boolean						array;
+    int							num;
+    int							i;
+
+    array = payload.getClass().isArray() && !acceptsAsIs(payload);
+    num   = array ? Array.getLength(payload) : 1;
+    initAsync();
+    pool  = newActionPool(Math.max(1, Math.min(m_NumThreads, num)));
+    if (pool == null)
+      return "Failed to create copy of action: " + m_Action.toCommandLine();
+
+    for (i = 0; i < num; i++) {
+      while ((m_Remaining >= m_NumThreads) && !isStopped())
+        collectAsyncResult(nextAsyncResult(true));
+      if (isStopped())
+        break;
+      future = m_Completion.submit(newAsyncCall(pool, i, array ? Array.get(payload, i) : payload));
+      m_InFlight.put(future, m_NextSequence++);
+      m_Remaining++;
+    }
+
+    if (array) {
+      while ((m_Remaining > 0) && !isStopped())
+        collectAsyncResult(nextAsyncResult(true));
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the next result of the asynchronous calls. When waiting, checks
+   * regularly whether the flow got stopped.
+   *
+   * @param wait	whether to wait for a call to finish
+   * @return		the result, null if none available, stopped or interrupted
+   */
+  protected AsyncResult nextAsyncResult(boolean wait) {
+    AsyncResult		result;
+    Future<AsyncResult>	future;
+    Long		sequence;
+
+    while ((m_Remaining > 0) && !isStopped()) {
+      if (m_PreserveOrder && m_Completed.containsKey(m_NextOutput)) {
+        m_Remaining--;
+        return m_Completed.remove(m_NextOutput++);
+      }
+
+      try {
+        if (wait)
+          future = m_Completion.poll(ASYNC_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+        else
+          future = m_Completion.poll();
+      }
+      catch (InterruptedException e) {
+        return null;
+      }
+      if (future == null) {
+        if (wait)
+          continue;
+        return null;
+      }
+
+      sequence = m_InFlight.remove(future);
+      try {
+        result = future.get();
+      }
+      catch (CancellationException | InterruptedException e) {
+        return null;
+      }
+      catch (ExecutionException e) {
+        result = new AsyncResult(-1);
+        result.errors.add("Failed to transform input data!", e);
+      }
+
+      if (!m_PreserveOrder || (sequence == null)) {
+        m_Remaining--;
+        return result;
+      }
+      m_Completed.put(sequence, result);
+    }
+
+    return null;
+  }
+
+  /**
+   * Queues the output of the result or forwards/logs its errors.
+   *
+   * @param result	the result to process, ignored if null
+   */
+  protected void collectAsyncResult(AsyncResult result) {
+    if (result == null)
+      return;
+
+    if (!result.errors.isEmpty()) {
+      if (m_UseErrorQueue)
+        UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, result.errors);
+      else
+        getLogger().severe(result.errors.toString());
+    }
+    else if (result.output != null) {
+      m_AsyncOutputs.add(result.output);
+    }
+  }
+
+  /**
+   * Cancels the asynchronous calls, including the ones that haven't started
+   * yet, and shuts down the executor. Can be called from another thread,
+   * e.g., when stopping the flow; the bookkeeping gets released in
+   * {@link #wrapUp()}.
+   */
+  protected void stopAsync() {
+    Map<Future<AsyncResult>,Long>	inFlight;
+    ExecutorService			executor;
+
+    inFlight = m_InFlight;
+    if (inFlight != null) {
+      for (Future<AsyncResult> future: inFlight.keySet())
+        future.cancel(true);
+    }
+    executor = m_Executor;
+    if (executor != null)
+      executor.shutdownNow();
+  }
+
+  /**
+   * Returns whether batch mode is active.
+   *
+   * @return		true if batching
+   */
+  protected boolean isBatching() {
+    return (m_BatchSize > 1) && (m_Action instanceof UFDLBatchSupporter);
+  }
+
+  /**
+   * Processes the current batch and queues the generated outputs.
+   * Callers must synchronize on the batch lock.
+   *
+   * @param errors	for collecting errors
+   */
+  protected void flushBatch(MessageCollection errors) {
+    List<Object>	outputs;
+
+    if (m_LingerTask != null) {
+      m_LingerTask.cancel();
+      m_LingerTask = null;
+    }
+
+    if ((m_Batch == null) || m_Batch.isEmpty())
+      return;
+
+    if (isLoggingEnabled())
+      getLogger().info("Processing batch of " + m_Batch.size() + " item(s)");
+
+    m_Action.setClient(m_Connection.getClientFor(m_Action));
+    m_Action.setFlowContext(this);
+    try {
+      outputs = ((UFDLBatchSupporter) m_Action).transformBatch(m_Batch, errors);
+      for (Object output: outputs) {
+        if (output != null)
+          m_BatchOutputs.add(output);
+      }
+    }
+    catch (Exception e) {
+      errors.add("Failed to transform batch of " + m_Batch.size() + " item(s)!", e);
+    }
+    m_Batch.clear();
+  }
+
+  /**
+   * Schedules the processing of the current batch once the linger time
+   * has passed. Callers must synchronize on the batch lock.
+   */
+  protected void scheduleLinger() {
+    if ((m_LingerTime == 0) || isStopped())
+      return;
+
+    if (m_LingerTimer == null)
+      m_LingerTimer = new Timer(getClass().getSimpleName() + "-linger", true);
+    m_LingerTask = new TimerTask() {
+      @Override
+      public void run() {
+	flushLingeringBatch();
+      }
+    };
+    try {
+      m_LingerTimer.schedule(m_LingerTask, m_LingerTime);
+    }
+    catch (IllegalStateException e) {
+      // timer got cancelled by stopping the flow
+      m_LingerTask = null;
+    }
+  }
+
+  /**
+   * Adds the payload to the current batch, processing the batch if full
+   * or the linger time has passed.
+   *
+   * @param payload	the payload to add
+   * @param errors	for collecting errors
+   */
+  protected void addToBatch(Object payload, MessageCollection errors) {
+    Object	item;
+
+    if (m_Batch == null) {
+      m_BatchLock    = new Object();
+      m_Batch        = new ArrayList<>();
+      m_BatchOutputs = new ConcurrentLinkedDeque<>();
+    }
+
+    synchronized(m_BatchLock) {
+      m_Action.setClient(m_Connection.getClientFor(m_Action));
+      m_Action.setFlowContext(this);
+      item = ((UFDLBatchSupporter) m_Action).newBatchItem(payload, errors);
+      if (item == null)
+	return;
+
+      if (m_Batch.isEmpty()) {
+	m_BatchStart = System.currentTimeMillis();
+	scheduleLinger();
+      }
+      m_Batch.add(item);
+
+      if ((m_Batch.size() >= m_BatchSize) || ((m_LingerTime > 0) && (System.currentTimeMillis() - m_BatchStart >= m_LingerTime)))
+	flushBatch(errors);
+    }
+  }
+
+  /**
+   * Processes a partially filled batch if the linger time has passed.
+   * Gets called by the linger timer and when checking for pending output.
+   */
+  protected void flushLingeringBatch() {
+    Object		lock;
+    MessageCollection	errors;
+
+    lock = m_BatchLock;
+    if ((lock == null) || (m_LingerTime == 0))
+      return;
+
+    errors = new MessageCollection();
+    synchronized(lock) {
+      if (isStopped() || (m_Batch == null) || m_Batch.isEmpty())
+	return;
+      if (System.currentTimeMillis() - m_BatchStart < m_LingerTime)
+	return;
+      flushBatch(errors);
+    }
+
+    if (!errors.isEmpty()) {
+      if (m_UseErrorQueue)
+	UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, errors);
+      else
+	getLogger().severe(errors.toString());
+    }
+  }
+
   /**
    * Executes the flow item.
    *
@@ -351,42 +1004,132 @@ public class UFDLTransformer
     String		result;
     Object		output;
     MessageCollection	errors;
-    StorageQueueHandler queue;
-    TextContainer	cont;
+    Object		payload;
+    int			attempt;
 
-    result = null;
-    errors = new MessageCollection();
-    try {
-      m_Action.setClient(m_Connection.getClient());
-      m_Action.setFlowContext(this);
-      output = m_Action.transform(m_InputToken.getPayload(), errors);
-      if ((output != null) && errors.isEmpty())
-        m_OutputToken = new Token(output);
-    }
-    catch (Exception e) {
-      errors.add("Failed to transform input data!", e);
-    }
+    result  = null;
+    errors  = new MessageCollection();
+    payload = m_InputToken.getPayload();
 
-    if (!errors.isEmpty()) {
-      result = errors.toString();
+    if ((m_NumThreads > 1) && ((payload.getClass().isArray() && !acceptsAsIs(payload)) || !isBatching()))
+      return submitAsync(payload);
 
-      if (m_UseErrorQueue) {
-        queue = QueueHelper.getQueue(this, m_ErrorQueue);
-        if (queue != null) {
-          cont = new TextContainer();
-          cont.setContent(errors.toString());
-          cont.setID(getFullName());
-          cont.getReport().setStringValue("Actor", getFullName());
-          cont.getReport().setStringValue("Action", m_Action.toCommandLine());
-          cont.getReport().setStringValue("Timestamp", DateUtils.getTimestampFormatterMsecs().format(new Date()));
-          queue.add(cont);
+    if (isBatching()) {
+      addToBatch(payload, errors);
+    }
+    else {
+      attempt = 0;
+      // read-only actions get retried once with another host if theirs stopped responding
+      do {
+        attempt++;
+        errors = new MessageCollection();
+        try {
+          m_Action.setClient(m_Connection.getClientFor(m_Action));
+          m_Action.setFlowContext(this);
+          output = m_Action.transform(payload, errors);
+          if ((output != null) && errors.isEmpty())
+            m_OutputToken = new Token(output);
         }
-        else {
-          getLogger().warning("Error queue not found: " + m_ErrorQueue);
+        catch (Exception e) {
+          errors.add("Failed to transform input data!", e);
         }
       }
+      while (!errors.isEmpty() && (attempt == 1) && !isStopped() && m_Connection.failoverRead(m_Action));
+    }
+
+    if (!errors.isEmpty()) {
+      result = errors.toString();
+      if (m_UseErrorQueue)
+        UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, errors);
     }
 
     return result;
   }
+
+  /**
+   * Checks whether there is pending output to be collected after
+   * executing the flow item. Does not wait for asynchronous calls,
+   * only collects the results of the ones that have finished.
+   *
+   * @return		true if there is pending output
+   */
+  @Override
+  public boolean hasPendingOutput() {
+    AsyncResult	res;
+
+    if ((m_OutputToken == null) && (m_BatchOutputs != null) && m_BatchOutputs.isEmpty() && !isStopped())
+      flushLingeringBatch();
+    if ((m_OutputToken == null) && (m_BatchOutputs != null) && !m_BatchOutputs.isEmpty())
+      m_OutputToken = new Token(m_BatchOutputs.poll());
+
+    if ((m_OutputToken == null) && (m_AsyncOutputs != null)) {
+      while ((res = nextAsyncResult(false)) != null)
+        collectAsyncResult(res);
+      if (!m_AsyncOutputs.isEmpty())
+        m_OutputToken = new Token(m_AsyncOutputs.poll());
+    }
+
+    return super.hasPendingOutput();
+  }
+
+  /**
+   * Stops the execution. No message set.
+   */
+  @Override
+  public void stopExecution() {
+    Timer	timer;
+
+    super.stopExecution();
+    stopAsync();
+    timer = m_LingerTimer;
+    if (timer != null)
+      timer.cancel();
+  }
+
+  /**
+   * Cleans up after the execution has finished.
+   */
+  @Override
+  public void wrapUp() {
+    MessageCollection	errors;
+
+    if (m_Executor != null) {
+      while ((m_Remaining > 0) && !isStopped())
+        collectAsyncResult(nextAsyncResult(true));
+      if (!m_AsyncOutputs.isEmpty())
+        getLogger().severe("Unable to forward " + m_AsyncOutputs.size() + " output(s) of asynchronous calls, flow is wrapping up");
+      stopAsync();
+      m_Executor     = null;
+      m_InFlight     = null;
+      m_Completion   = null;
+      m_Completed    = null;
+      m_AsyncOutputs = null;
+      m_Remaining    = 0;
+    }
+
+    if (m_LingerTimer != null) {
+      m_LingerTimer.cancel();
+      m_LingerTimer = null;
+    }
+
+    if ((m_Batch != null) && !isStopped()) {
+      errors = new MessageCollection();
+      synchronized(m_BatchLock) {
+	flushBatch(errors);
+      }
+      if (!m_BatchOutputs.isEmpty())
+        getLogger().severe("Unable to forward " + m_BatchOutputs.size() + " output(s) of final batch(es), flow is wrapping up");
+      if (!errors.isEmpty()) {
+        if (m_UseErrorQueue)
+          UFDLErrorQueueHelper.forwardErrors(this, m_ErrorQueue, m_Action, errors);
+        else
+          getLogger().severe(errors.toString());
+      }
+    }
+    m_Batch        = null;
+    m_BatchOutputs = null;
+    m_BatchLock    = null;
+    m_LingerTask   = null;
+    super.wrapUp();
+  }
 }
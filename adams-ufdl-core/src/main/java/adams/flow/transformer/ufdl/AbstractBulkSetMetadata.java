@@ -0,0 +1,496 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * AbstractBulkSetMetadata.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.data.spreadsheet.SpreadSheetColumnRange;
+import adams.flow.control.StorageName;
+import adams.flow.control.StorageUser;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLParallelRequests.Request;
+import com.github.waikatoufdl.ufdl4j.action.Datasets;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ancestor for actions that set the metadata of many files in the dataset
+ * passing through, using a spreadsheet from storage.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @param <T> the type of Datasets action
+ */
+public abstract class AbstractBulkSetMetadata<T extends Datasets>
+  extends AbstractDatasetTransformerAction<T>
+  implements StorageUser {
+
+  private static final long serialVersionUID = -3087137318462592085L;
+
+  /** the storage item with the spreadsheet. */
+  protected StorageName m_StorageName;
+
+  /** the column with the file names. */
+  protected SpreadSheetColumnIndex m_NameColumn;
+
+  /** the columns with the metadata. */
+  protected SpreadSheetColumnRange m_MetadataColumns;
+
+  /** whether to skip entries that haven't changed. */
+  protected boolean m_SkipUnchanged;
+
+  /** the number of concurrent requests. */
+  protected int m_NumThreads;
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "storage-name", "storageName",
+      new StorageName("metadata"));
+
+    m_OptionManager.add(
+      "name-column", "nameColumn",
+      new SpreadSheetColumnIndex("1"));
+
+    m_OptionManager.add(
+      "metadata-columns", "metadataColumns",
+      new SpreadSheetColumnRange("2-last"));
+
+    m_OptionManager.add(
+      "skip-unchanged", "skipUnchanged",
+      true);
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+  }
+
+  /**
+   * Sets the name for the spreadsheet in the internal storage.
+   *
+   * @param value	the name
+   */
+  public void setStorageName(StorageName value) {
+    m_StorageName = value;
+    reset();
+  }
+
+  /**
+   * Returns the name for the spreadsheet in the internal storage.
+   *
+   * @return		the name
+   */
+  public StorageName getStorageName() {
+    return m_StorageName;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String storageNameTipText() {
+    return "The name for the spreadsheet with the file names and metadata in the internal storage.";
+  }
+
+  /**
+   * Sets the column with the file names.
+   *
+   * @param value	the column
+   */
+  public void setNameColumn(SpreadSheetColumnIndex value) {
+    m_NameColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the column with the file names.
+   *
+   * @return		the column
+   */
+  public SpreadSheetColumnIndex getNameColumn() {
+    return m_NameColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String nameColumnTipText() {
+    return "The column with the file names.";
+  }
+
+  /**
+   * Sets the columns with the metadata.
+   *
+   * @param value	the columns
+   */
+  public void setMetadataColumns(SpreadSheetColumnRange value) {
+    m_MetadataColumns = value;
+    reset();
+  }
+
+  /**
+   * Returns the columns with the metadata.
+   *
+   * @return		the columns
+   */
+  public SpreadSheetColumnRange getMetadataColumns() {
+    return m_MetadataColumns;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String metadataColumnsTipText() {
+    return "The columns with the metadata; a single column is used as is, multiple columns get "
+      + "turned into a JSON object with the column names as keys.";
+  }
+
+  /**
+   * Sets whether to skip entries whose metadata is already up-to-date.
+   *
+   * @param value	true if to skip
+   */
+  public void setSkipUnchanged(boolean value) {
+    m_SkipUnchanged = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to skip entries whose metadata is already up-to-date.
+   *
+   * @return		true if to skip
+   */
+  public boolean getSkipUnchanged() {
+    return m_SkipUnchanged;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String skipUnchangedTipText() {
+    return "If enabled, the current metadata gets retrieved first and only entries with different metadata get sent to the backend.";
+  }
+
+  /**
+   * Sets the number of concurrent requests.
+   *
+   * @param value	the number of requests
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of concurrent requests.
+   *
+   * @return		the number of requests
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return UFDLParallelRequests.numThreadsTipText();
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "storageName", m_StorageName, "storage: ");
+    result += QuickInfoHelper.toString(this, "nameColumn", m_NameColumn, ", name: ");
+    result += QuickInfoHelper.toString(this, "metadataColumns", m_MetadataColumns, ", metadata: ");
+    result += QuickInfoHelper.toString(this, "skipUnchanged", m_SkipUnchanged, "skip unchanged", ", ");
+    result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", threads: ");
+
+    return result;
+  }
+
+  /**
+   * Returns whether storage items are being used.
+   *
+   * @return		true if storage items are used
+   */
+  public boolean isUsingStorage() {
+    return true;
+  }
+
+  /**
+   * Returns whether the action requires flow context.
+   *
+   * @return		true if required
+   */
+  @Override
+  public boolean requiresFlowContext() {
+    return true;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{Dataset.class};
+  }
+
+  /**
+   * Check method before processing the data.
+   *
+   * @param input	the data to check
+   * @return		null if checks successful, otherwise error message
+   */
+  @Override
+  protected String check(Object input) {
+    String 	result;
+
+    result = super.check(input);
+
+    if (result == null) {
+      if (m_FlowContext.getStorageHandler() == null)
+        result = "No storage handler available!";
+      else if (m_FlowContext.getStorageHandler().getStorage() == null)
+        result = "No storage available!";
+      else if (!m_FlowContext.getStorageHandler().getStorage().has(m_StorageName))
+        result = "Spreadsheet not available from storage: " + m_StorageName;
+      else if (!(m_FlowContext.getStorageHandler().getStorage().get(m_StorageName) instanceof SpreadSheet))
+        result = "Didn't find " + Utils.classToString(SpreadSheet.class) + " object in storage ('" + m_StorageName + "'), but: "
+	  + Utils.classToString(m_FlowContext.getStorageHandler().getStorage().get(m_StorageName));
+    }
+
+    return result;
+  }
+
+  /**
+   * Retrieves the metadata for all the files in the dataset.
+   *
+   * @param action	the datasets action to use
+   * @param dataset	the dataset to get the metadata for
+   * @return		the metadata (file name - metadata string)
+   * @throws Exception	if retrieval fails
+   */
+  protected abstract Map<String,String> getMetadata(T action, Dataset dataset) throws Exception;
+
+  /**
+   * Sets the metadata for the specified file.
+   *
+   * @param action	the datasets action to use
+   * @param dataset	the dataset to update
+   * @param name	the name of the file
+   * @param metadata	the metadata to set
+   * @return		true if successful
+   * @throws Exception	if setting fails
+   */
+  protected abstract boolean setMetadata(T action, Dataset dataset, String name, String metadata) throws Exception;
+
+  /**
+   * Generates the metadata string for the row.
+   *
+   * @param header	the header row
+   * @param row		the row to get the metadata from
+   * @param cols	the metadata columns
+   * @return		the metadata, null if none available
+   */
+  protected String toMetadata(Row header, Row row, int[] cols) {
+    JSONObject	json;
+    Cell	cell;
+
+    if (cols.length == 1) {
+      cell = row.getCell(cols[0]);
+      if ((cell == null) || cell.isMissing())
+	return null;
+      return cell.getContent();
+    }
+
+    json = new JSONObject();
+    for (int col: cols) {
+      cell = row.getCell(col);
+      if ((cell == null) || cell.isMissing())
+	continue;
+      json.put(header.getCell(col).getContent(), cell.getNative());
+    }
+
+    return json.toJSONString();
+  }
+
+  /**
+   * Checks whether the two metadata strings are the same. JSON gets compared
+   * structurally if possible.
+   *
+   * @param current	the current metadata, can be null
+   * @param metadata	the new metadata
+   * @return		true if the same
+   */
+  protected boolean isSame(String current, String metadata) {
+    Object	currentJson;
+    Object	metadataJson;
+
+    if (current == null)
+      return false;
+    if (current.equals(metadata))
+      return true;
+
+    currentJson  = JSONValue.parse(current);
+    metadataJson = JSONValue.parse(metadata);
+    if ((currentJson == null) || (metadataJson == null))
+      return false;
+
+    return currentJson.equals(metadataJson);
+  }
+
+  /**
+   * Transforms the input data.
+   *
+   * @param dataset	the input data
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(final Dataset dataset, MessageCollection errors) {
+    final T			action;
+    SpreadSheet			sheet;
+    int				colName;
+    int[]			colsMeta;
+    Map<String,String>		entries;
+    Map<String,String>		current;
+    List<Request<Boolean>>	requests;
+    Cell			cell;
+    String			metadata;
+    int				skipped;
+
+    try {
+      action = getDatasetsAction();
+    }
+    catch (Exception e) {
+      errors.add("Failed to instantiate datasets action!", e);
+      return null;
+    }
+
+    sheet = (SpreadSheet) m_FlowContext.getStorageHandler().getStorage().get(m_StorageName);
+    m_NameColumn.setData(sheet);
+    m_MetadataColumns.setData(sheet);
+    colName  = m_NameColumn.getIntIndex();
+    colsMeta = m_MetadataColumns.getIntIndices();
+    if (colName == -1) {
+      errors.add("Name column not found: " + m_NameColumn);
+      return null;
+    }
+    if (colsMeta.length == 0) {
+      errors.add("No metadata columns found: " + m_MetadataColumns);
+      return null;
+    }
+
+    // collect metadata
+    entries = new LinkedHashMap<>();
+    for (Row row: sheet.rows()) {
+      cell = row.getCell(colName);
+      if ((cell == null) || cell.isMissing())
+	continue;
+      metadata = toMetadata(sheet.getHeaderRow(), row, colsMeta);
+      if (metadata != null)
+	entries.put(cell.getContent(), metadata);
+    }
+
+    // remove unchanged ones
+    skipped = 0;
+    if (m_SkipUnchanged && !entries.isEmpty()) {
+      try {
+	current = getMetadata(action, dataset);
+      }
+      catch (Exception e) {
+	errors.add("Failed to retrieve metadata for dataset: " + dataset, e);
+	return null;
+      }
+      if (current != null) {
+	for (String name: new ArrayList<>(entries.keySet())) {
+	  if (isSame(current.get(name), entries.get(name))) {
+	    entries.remove(name);
+	    skipped++;
+	  }
+	}
+      }
+    }
+
+    if (isLoggingEnabled())
+      getLogger().info("Setting metadata for " + entries.size() + " file(s) in dataset " + dataset + ", skipped: " + skipped);
+
+    requests = new ArrayList<>();
+    for (final String name: entries.keySet()) {
+      final String meta = entries.get(name);
+      requests.add(new Request<Boolean>() {
+	@Override
+	public String getDescription() {
+	  return "set metadata for file '" + name + "' in dataset: " + dataset;
+	}
+	@Override
+	public Boolean execute() throws Exception {
+	  if (!setMetadata(action, dataset, name, meta))
+	    throw new IllegalStateException("Backend rejected metadata: " + meta);
+	  return true;
+	}
+      });
+    }
+    UFDLParallelRequests.execute(requests, m_NumThreads, errors);
+
+    return dataset;
+  }
+}
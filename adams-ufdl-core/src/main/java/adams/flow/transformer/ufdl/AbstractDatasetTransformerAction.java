@@ -24,8 +24,19 @@ import adams.core.MessageCollection;
 import com.github.waikatoufdl.ufdl4j.action.Datasets;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Ancestor of transformer actions on datasets.
+ * <br>
+ * Derived classes that implement {@link adams.flow.core.UFDLBatchSupporter}
+ * capture their per-token options via {@link #getBatchState()} and process
+ * them in {@link #doTransform(Dataset, Object, MessageCollection)}. Each
+ * distinct dataset in a batch only gets loaded once.
  *
  * @author FracPete (fracpete at waikato dot ac dot nz)
  * @param <T> the type of Datasets action
@@ -34,6 +45,51 @@ public abstract class AbstractDatasetTransformerAction<T extends Datasets>
   extends AbstractUFDLTransformerAction {
 
   private static final long serialVersionUID = 1320770985737432995L;
+
+  /**
+   * Container for an input and the options at the time it arrived.
+   */
+  public static class DatasetBatchItem
+    implements Serializable {
+
+    private static final long serialVersionUID = 5209462188741133618L;
+
+    /** the input (PK, name or dataset). */
+    protected Object m_Input;
+
+    /** the captured options. */
+    protected Object m_State;
+
+    /**
+     * Initializes the item.
+     *
+     * @param input	the input
+     * @param state	the captured options
+     */
+    public DatasetBatchItem(Object input, Object state) {
+      m_Input = input;
+      m_State = state;
+    }
+
+    /**
+     * Returns the input.
+     *
+     * @return		the input
+     */
+    public Object getInput() {
+      return m_Input;
+    }
+
+    /**
+     * Returns the captured options.
+     *
+     * @return		the options
+     */
+    public Object getState() {
+      return m_State;
+    }
+  }
+
   /**
    * Returns the classes that the transformer accepts.
    *
@@ -63,6 +119,37 @@ public abstract class AbstractDatasetTransformerAction<T extends Datasets>
    */
   protected abstract Object doTransform(Dataset dataset, MessageCollection errors);
 
+  /**
+   * Loads the dataset.
+   *
+   * @param input	the PK, name or dataset
+   * @param errors	for collecting errors
+   * @return		the dataset, null if failed to load
+   */
+  protected Dataset loadDataset(Object input, MessageCollection errors) {
+    Dataset 	result;
+    T		action;
+
+    result = null;
+    try {
+      action = getDatasetsAction();
+      if (input instanceof Integer)
+	result = action.load((Integer) input);
+      else if (input instanceof String)
+	result = action.load("" + input);
+      else
+	result = (Dataset) input;
+    }
+    catch (Exception e) {
+      errors.add("Failed to load dataset: " + input, e);
+    }
+
+    if (result == null)
+      errors.add("Unknown dataset: " + input);
+
+    return result;
+  }
+
   /**
    * Transforms the input data.
    *
@@ -74,32 +161,129 @@ public abstract class AbstractDatasetTransformerAction<T extends Datasets>
   protected Object doTransform(Object input, MessageCollection errors) {
     Object	result;
     Dataset 	dataset;
-    T		action;
 
     result = null;
 
     if (isLoggingEnabled())
       getLogger().info("Transforming dataset: " + input);
 
-    // load dataset
-    dataset = null;
+    dataset = loadDataset(input, errors);
+    if (dataset != null)
+      result = doTransform(dataset, errors);
+
+    return result;
+  }
+
+  /**
+   * Returns the current values of the options that are required for
+   * processing a single input in batch mode.
+   *
+   * @return		the options, null by default
+   */
+  protected Object getBatchState() {
+    return null;
+  }
+
+  /**
+   * Transforms the dataset using the captured options.
+   * <br>
+   * Default implementation ignores the options and calls {@link #doTransform(Dataset, MessageCollection)}.
+   *
+   * @param dataset	the dataset
+   * @param state	the options captured by {@link #getBatchState()}
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  protected Object doTransform(Dataset dataset, Object state, MessageCollection errors) {
+    return doTransform(dataset, errors);
+  }
+
+  /**
+   * Checks the input and captures it together with the current option values.
+   *
+   * @param input	the input to capture
+   * @param errors	for collecting errors
+   * @return		the batch item, null if the input was rejected
+   * @see		adams.flow.core.UFDLBatchSupporter
+   */
+  public Object newBatchItem(Object input, MessageCollection errors) {
+    String	msg;
+
+    msg = check(input);
+    if (msg != null) {
+      errors.add(msg);
+      return null;
+    }
+
+    return new DatasetBatchItem(input, getBatchState());
+  }
+
+  /**
+   * Transforms the batch items, loading each distinct dataset only once.
+   *
+   * @param items	the items to transform
+   * @param errors	for collecting errors
+   * @return		the outputs, in the same order as the items (null for failed items)
+   * @see		adams.flow.core.UFDLBatchSupporter
+   */
+  public List<Object> transformBatch(List<Object> items, MessageCollection errors) {
+    List<DatasetBatchItem>	batch;
+    Map<Object,Dataset>		datasets;
+    DatasetBatchItem		item;
+
+    batch    = new ArrayList<>();
+    datasets = new HashMap<>();
+    for (Object obj: items) {
+      item = (DatasetBatchItem) obj;
+      batch.add(item);
+      if (!datasets.containsKey(item.getInput()))
+        datasets.put(item.getInput(), loadDataset(item.getInput(), errors));
+    }
+
+    if (isLoggingEnabled())
+      getLogger().info("Transforming batch of " + batch.size() + " item(s) for " + datasets.size() + " dataset(s)");
+
     try {
-      action = getDatasetsAction();
-      if (input instanceof Integer)
-	dataset = action.load((Integer) input);
-      else if (input instanceof String)
-	dataset = action.load("" + input);
-      else
-	dataset = (Dataset) input;
+      return doTransformBatch(batch, datasets, errors);
     }
-    catch (Exception e) {
-      errors.add("Failed to load dataset: " + input, e);
+    finally {
+      invalidateQueryResults();
     }
+  }
 
-    if (dataset == null)
-      errors.add("Unknown dataset: " + input);
-    else
-      result = doTransform(dataset, errors);
+  /**
+   * Transforms the batch items. Items whose dataset failed to load
+   * generate no output.
+   * <br>
+   * Default implementation processes the items one by one using
+   * {@link #doTransform(Dataset, Object, MessageCollection)}.
+   *
+   * @param items	the items to transform
+   * @param datasets	the loaded datasets (input - dataset, null if failed to load)
+   * @param errors	for collecting errors
+   * @return		the outputs, in the same order as the items (null for failed items)
+   */
+  protected List<Object> doTransformBatch(List<DatasetBatchItem> items, Map<Object,Dataset> datasets, MessageCollection errors) {
+    List<Object>	result;
+    Dataset		dataset;
+    MessageCollection	itemErrors;
+    Object		output;
+
+    result = new ArrayList<>();
+    for (DatasetBatchItem item: items) {
+      dataset = datasets.get(item.getInput());
+      if (dataset == null) {
+        result.add(null);
+        continue;
+      }
+      itemErrors = new MessageCollection();
+      output     = doTransform(dataset, item.getState(), itemErrors);
+      if (!itemErrors.isEmpty()) {
+        errors.add(itemErrors.toString());
+        output = null;
+      }
+      result.add(output);
+    }
 
     return result;
   }
@@ -85,10 +85,13 @@ public abstract class AbstractUFDLTransformerAction
 
     result = null;
     msg    = check(input);
-    if (msg == null)
+    if (msg == null) {
       result = doTransform(input, errors);
-    else
+      invalidateQueryResults();
+    }
+    else {
       errors.add(msg);
+    }
 
     return result;
   }
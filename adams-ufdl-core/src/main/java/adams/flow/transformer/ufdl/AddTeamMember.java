@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.base.BaseInteger;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.Permissions;
 import com.github.waikatoufdl.ufdl4j.action.Teams.Team;
 import com.github.waikatoufdl.ufdl4j.action.Users.User;
@@ -32,7 +33,8 @@ import com.github.waikatoufdl.ufdl4j.action.Users.User;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class AddTeamMember
-  extends AbstractTeamTransformerAction {
+  extends AbstractTeamTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -172,4 +174,14 @@ public class AddTeamMember
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{Team.class};
+  }
 }
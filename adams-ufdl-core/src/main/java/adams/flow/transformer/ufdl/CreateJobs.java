@@ -0,0 +1,628 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CreateJobs.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.control.StorageName;
+import adams.flow.control.StorageUser;
+import adams.flow.core.UFDLContractType;
+import adams.flow.core.UFDLJobTemplateTypes;
+import adams.flow.core.UFDLModifyingAction;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.transformer.UFDLCreateJob.JobTemplateData;
+import com.github.waikatoufdl.ufdl4j.action.JobTemplates;
+import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
+import com.github.waikatoufdl.ufdl4j.action.Jobs.Job;
+import com.github.waikatoufdl.ufdl4j.core.TypeValuePair;
+import com.github.waikatoufdl.ufdl4j.core.Types;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ <!-- globalinfo-start -->
+ * Creates a job for each row of the combinations spreadsheet obtained from storage, using the job template that is passing through, without any user interaction (e.g., for hyper-parameter sweeps).<br>
+ * The column names of the spreadsheet must correspond to the names of the inputs and parameters of the template. Missing cells and parameters not present in the spreadsheet fall back to the defaults of the template. Rows with identical configurations only get submitted once. Rows that lack a value for an input get skipped with a warning.<br>
+ * Outputs the created jobs as array. Failed submissions get logged; they are only treated as an error if no job could be created at all.
+ * <br><br>
+ <!-- globalinfo-end -->
+ *
+ <!-- options-start -->
+ * <pre>-logging-level &lt;OFF|SEVERE|WARNING|INFO|CONFIG|FINE|FINER|FINEST&gt; (property: loggingLevel)
+ * &nbsp;&nbsp;&nbsp;The logging level for outputting errors and debugging output.
+ * &nbsp;&nbsp;&nbsp;default: WARNING
+ * </pre>
+ *
+ * <pre>-contract-type &lt;TRAIN|PREDICT&gt; (property: contractType)
+ * &nbsp;&nbsp;&nbsp;The type of contract to create the jobs for.
+ * &nbsp;&nbsp;&nbsp;default: TRAIN
+ * </pre>
+ *
+ * <pre>-storage-name &lt;adams.flow.control.StorageName&gt; (property: storageName)
+ * &nbsp;&nbsp;&nbsp;The name of the storage item containing the spreadsheet with the input
+ * &nbsp;&nbsp;&nbsp;and parameter combinations.
+ * &nbsp;&nbsp;&nbsp;default: combinations
+ * </pre>
+ *
+ * <pre>-description-column &lt;java.lang.String&gt; (property: descriptionColumn)
+ * &nbsp;&nbsp;&nbsp;The name of the (optional) column containing the job descriptions.
+ * &nbsp;&nbsp;&nbsp;default: description
+ * </pre>
+ *
+ * <pre>-array-separator &lt;java.lang.String&gt; (property: arraySeparator)
+ * &nbsp;&nbsp;&nbsp;The separator for the elements of array parameters.
+ * &nbsp;&nbsp;&nbsp;default: ,
+ * </pre>
+ *
+ * <pre>-num-threads &lt;int&gt; (property: numThreads)
+ * &nbsp;&nbsp;&nbsp;The maximum number of concurrent requests to the backend; 1 = sequential
+ * &nbsp;&nbsp;&nbsp;execution.
+ * &nbsp;&nbsp;&nbsp;default: 4
+ * &nbsp;&nbsp;&nbsp;minimum: 1
+ * </pre>
+ *
+ <!-- options-end -->
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class CreateJobs
+  extends AbstractJobTemplateTransformerAction
+  implements StorageUser, UFDLModifyingAction {
+
+  private static final long serialVersionUID = 7526612838140617227L;
+
+  /** the contract type. */
+  protected UFDLContractType m_ContractType;
+
+  /** the storage item with the combinations. */
+  protected StorageName m_StorageName;
+
+  /** the column with the descriptions. */
+  protected String m_DescriptionColumn;
+
+  /** the separator for array elements. */
+  protected String m_ArraySeparator;
+
+  /** the number of concurrent requests. */
+  protected int m_NumThreads;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Creates a job for each row of the combinations spreadsheet obtained from storage, "
+      + "using the job template that is passing through, without any user interaction "
+      + "(e.g., for hyper-parameter sweeps).\n"
+      + "The column names of the spreadsheet must correspond to the names of the inputs "
+      + "and parameters of the template. Missing cells and parameters not present in the "
+      + "spreadsheet fall back to the defaults of the template. Rows with identical "
+      + "configurations only get submitted once. Rows that lack a value for an input get "
+      + "skipped with a warning.\n"
+      + "Outputs the created jobs as array. Failed submissions get logged; they are only "
+      + "treated as an error if no job could be created at all.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "contract-type", "contractType",
+      UFDLContractType.TRAIN);
+
+    m_OptionManager.add(
+      "storage-name", "storageName",
+      new StorageName("combinations"));
+
+    m_OptionManager.add(
+      "description-column", "descriptionColumn",
+      "description");
+
+    m_OptionManager.add(
+      "array-separator", "arraySeparator",
+      ",");
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+  }
+
+  /**
+   * Sets the contract type.
+   *
+   * @param value	the type
+   */
+  public void setContractType(UFDLContractType value) {
+    m_ContractType = value;
+    reset();
+  }
+
+  /**
+   * Returns the contract type.
+   *
+   * @return		the type
+   */
+  public UFDLContractType getContractType() {
+    return m_ContractType;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String contractTypeTipText() {
+    return "The type of contract to create the jobs for.";
+  }
+
+  /**
+   * Sets the name of the storage item with the combinations.
+   *
+   * @param value	the name
+   */
+  public void setStorageName(StorageName value) {
+    m_StorageName = value;
+    reset();
+  }
+
+  /**
+   * Returns the name of the storage item with the combinations.
+   *
+   * @return		the name
+   */
+  public StorageName getStorageName() {
+    return m_StorageName;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String storageNameTipText() {
+    return "The name of the storage item containing the spreadsheet with the input and parameter combinations.";
+  }
+
+  /**
+   * Sets the name of the column with the job descriptions.
+   *
+   * @param value	the column
+   */
+  public void setDescriptionColumn(String value) {
+    m_DescriptionColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the name of the column with the job descriptions.
+   *
+   * @return		the column
+   */
+  public String getDescriptionColumn() {
+    return m_DescriptionColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String descriptionColumnTipText() {
+    return "The name of the (optional) column containing the job descriptions.";
+  }
+
+  /**
+   * Sets the separator for the elements of array parameters.
+   *
+   * @param value	the separator
+   */
+  public void setArraySeparator(String value) {
+    m_ArraySeparator = value;
+    reset();
+  }
+
+  /**
+   * Returns the separator for the elements of array parameters.
+   *
+   * @return		the separator
+   */
+  public String getArraySeparator() {
+    return m_ArraySeparator;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String arraySeparatorTipText() {
+    return "The separator for the elements of array parameters.";
+  }
+
+  /**
+   * Sets the maximum number of concurrent requests.
+   *
+   * @param value	the number of threads
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the maximum number of concurrent requests.
+   *
+   * @return		the number of threads
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return UFDLParallelRequests.numThreadsTipText();
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "contractType", m_ContractType, "contract: ");
+    result += QuickInfoHelper.toString(this, "storageName", m_StorageName, ", storage: ");
+    result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", threads: ");
+
+    return result;
+  }
+
+  /**
+   * Returns whether storage items are being used.
+   *
+   * @return		true if storage items are used
+   */
+  public boolean isUsingStorage() {
+    return true;
+  }
+
+  /**
+   * Returns whether the action requires flow context.
+   *
+   * @return		true if required
+   */
+  @Override
+  public boolean requiresFlowContext() {
+    return true;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{Job[].class};
+  }
+
+  /**
+   * Check method before processing the data.
+   *
+   * @param input	the data to check
+   * @return		null if checks successful, otherwise error message
+   */
+  @Override
+  protected String check(Object input) {
+    String 	result;
+
+    result = super.check(input);
+
+    if (result == null) {
+      if (m_FlowContext.getStorageHandler() == null)
+        result = "No storage handler available!";
+      else if (m_FlowContext.getStorageHandler().getStorage() == null)
+        result = "No storage available!";
+      else if (!m_FlowContext.getStorageHandler().getStorage().has(m_StorageName))
+        result = "Spreadsheet not available from storage: " + m_StorageName;
+      else if (!(m_FlowContext.getStorageHandler().getStorage().get(m_StorageName) instanceof SpreadSheet))
+        result = "Didn't find " + Utils.classToString(SpreadSheet.class) + " object in storage ('" + m_StorageName + "'), but: "
+	  + Utils.classToString(m_FlowContext.getStorageHandler().getStorage().get(m_StorageName));
+    }
+
+    return result;
+  }
+
+  /**
+   * Determines the types of the inputs and parameters that are present
+   * in the spreadsheet.
+   *
+   * @param templateData	the template data
+   * @param sheet		the combinations
+   * @param inputTypes		for storing the input types (column index - type)
+   * @param paramTypes		for storing the parameter types (column index - type)
+   * @param errors		for collecting errors
+   */
+  protected void determineTypes(JobTemplateData templateData, SpreadSheet sheet, Map<Integer,String> inputTypes, Map<Integer,String> paramTypes, MessageCollection errors) {
+    Map<String,Integer>	columns;
+    String		type;
+    int			i;
+    String		name;
+
+    columns = new HashMap<>();
+    for (i = 0; i < sheet.getColumnCount(); i++)
+      columns.put(sheet.getColumnName(i), i);
+
+    for (String key: templateData.inputs.keySet()) {
+      type = UFDLJobTemplateTypes.getInputType(templateData.domain, templateData.inputs.get(key));
+      if (type == null)
+	continue;
+      if (!columns.containsKey(key))
+	errors.add("Input '" + key + "' not present in combinations spreadsheet!");
+      else
+	inputTypes.put(columns.get(key), type);
+    }
+
+    for (JobTemplates.Parameter parameter: templateData.parameters) {
+      if (!columns.containsKey(parameter.getName()))
+	continue;
+      try {
+	type = UFDLJobTemplateTypes.getParameterType(templateData.domain, templateData.framework, parameter, getLogger());
+	if (type != null)
+	  paramTypes.put(columns.get(parameter.getName()), type);
+      }
+      catch (Exception e) {
+	errors.add("Failed to determine type of parameter: " + parameter.getName(), e);
+      }
+    }
+
+    for (i = 0; i < sheet.getColumnCount(); i++) {
+      name = sheet.getColumnName(i);
+      if (inputTypes.containsKey(i) || paramTypes.containsKey(i) || name.equals(m_DescriptionColumn))
+	continue;
+      getLogger().warning("Column '" + name + "' is neither an input nor a supported parameter of template " + templateData.template.getPK() + ", ignored!");
+    }
+  }
+
+  /**
+   * Checks whether the type is an array type.
+   *
+   * @param type	the type to check
+   * @return		true if an array
+   */
+  protected boolean isArray(String type) {
+    return type.equals(Types.ARRAY_BOOL)
+      || type.equals(Types.ARRAY_INT)
+      || type.equals(Types.ARRAY_FLOAT)
+      || type.equals(Types.ARRAY_STR);
+  }
+
+  /**
+   * Returns the value of the cell, with array elements separated by
+   * new lines.
+   *
+   * @param row		the row to get the value from
+   * @param col		the column index
+   * @param type	the type of the input/parameter
+   * @return		the value, null if missing
+   */
+  protected String getValue(Row row, int col, String type) {
+    String	result;
+
+    if (!row.hasCell(col) || row.getCell(col).isMissing())
+      return null;
+
+    result = row.getCell(col).getContent().trim();
+    if (isArray(type) && !m_ArraySeparator.isEmpty())
+      result = result.replace(m_ArraySeparator, "\n");
+
+    return result;
+  }
+
+  /**
+   * Adds the value to the configuration.
+   *
+   * @param key		the name of the input/parameter
+   * @param type	the type
+   * @param value	the string value
+   * @param config	for storing the value (canonical form)
+   * @param pairs	for storing the type/value pair
+   */
+  protected void addValue(String key, String type, String value, Map<String,String> config, Map<String,Map<String,Object>> pairs) {
+    config.put(key, type + "=" + value);
+    pairs.put(key, TypeValuePair.typeValuePair(type, UFDLJobTemplateTypes.fixValue(key, type, value, getLogger())));
+  }
+
+  /**
+   * Transforms the job template.
+   *
+   * @param template	the job template
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(final JobTemplate template, MessageCollection errors) {
+    List<Job>						result;
+    SpreadSheet						sheet;
+    JobTemplateData					templateData;
+    Map<Integer,String>					inputTypes;
+    Map<Integer,String>					paramTypes;
+    Set<String>						configs;
+    List<UFDLParallelRequests.Request<Job>>		requests;
+    Row							row;
+    int							i;
+    int							descCol;
+    String						value;
+    String						key;
+    Map<String,String>					config;
+    Map<String,Map<String,Object>>			inputs;
+    Map<String,Map<String,Object>>			params;
+    String						description;
+    boolean						complete;
+    int							numDuplicates;
+    MessageCollection					failures;
+
+    sheet = (SpreadSheet) m_FlowContext.getStorageHandler().getStorage().get(m_StorageName);
+
+    try {
+      templateData = new JobTemplateData(m_Client, template, m_ContractType);
+    }
+    catch (Exception e) {
+      errors.add("Failed to initialize template data for job template: " + template, e);
+      return null;
+    }
+
+    inputTypes = new HashMap<>();
+    paramTypes = new HashMap<>();
+    determineTypes(templateData, sheet, inputTypes, paramTypes, errors);
+    if (!errors.isEmpty())
+      return null;
+
+    descCol       = sheet.getHeaderRow().indexOfContent(m_DescriptionColumn);
+    configs       = new HashSet<>();
+    requests      = new ArrayList<>();
+    numDuplicates = 0;
+    for (i = 0; i < sheet.getRowCount(); i++) {
+      row      = sheet.getRow(i);
+      config   = new TreeMap<>();
+      inputs   = new HashMap<>();
+      params   = new HashMap<>();
+      complete = true;
+
+      for (int col: inputTypes.keySet()) {
+	key   = sheet.getColumnName(col);
+	value = getValue(row, col, inputTypes.get(col));
+	if (value == null) {
+	  getLogger().warning("Row #" + (i + 1) + " has no value for input '" + key + "', skipped!");
+	  complete = false;
+	  break;
+	}
+	addValue(key, inputTypes.get(col), value, config, inputs);
+      }
+      if (!complete)
+	continue;
+
+      for (int col: paramTypes.keySet()) {
+	key   = sheet.getColumnName(col);
+	value = getValue(row, col, paramTypes.get(col));
+	if (value != null)
+	  addValue(key, paramTypes.get(col), value, config, params);
+      }
+
+      // duplicate?
+      if (!configs.add(config.toString())) {
+	numDuplicates++;
+	if (isLoggingEnabled())
+	  getLogger().info("Row #" + (i + 1) + " is a duplicate configuration, skipped: " + config);
+	continue;
+      }
+
+      if ((descCol > -1) && row.hasCell(descCol) && !row.getCell(descCol).isMissing())
+	description = row.getCell(descCol).getContent();
+      else
+	description = template.getName() + " #" + (i + 1);
+
+      requests.add(newRequest(template, inputs, params, description));
+    }
+
+    if (numDuplicates > 0)
+      getLogger().warning("Skipped " + numDuplicates + " duplicate configuration(s)");
+
+    // jobs that got created must not get lost due to failed submissions
+    result   = new ArrayList<>();
+    failures = new MessageCollection();
+    for (Job job: UFDLParallelRequests.execute(requests, m_NumThreads, failures)) {
+      if (job != null)
+	result.add(job);
+    }
+    if (!failures.isEmpty()) {
+      if (result.isEmpty())
+	errors.add(failures.toString());
+      else
+	getLogger().severe("Failed to submit " + (requests.size() - result.size()) + " of " + requests.size() + " job(s):\n" + failures);
+    }
+
+    return result.toArray(new Job[0]);
+  }
+
+  /**
+   * Creates the request for creating a single job.
+   *
+   * @param template	the template to use
+   * @param inputs	the inputs for the job
+   * @param params	the parameters for the job
+   * @param description	the description of the job
+   * @return		the request
+   */
+  protected UFDLParallelRequests.Request<Job> newRequest(final JobTemplate template, final Map<String,Map<String,Object>> inputs, final Map<String,Map<String,Object>> params, final String description) {
+    return new UFDLParallelRequests.Request<Job>() {
+      @Override
+      public String getDescription() {
+	return "create job '" + description + "' from template " + template.getPK();
+      }
+      @Override
+      public Job execute() throws Exception {
+	Job result = m_Client.jobTemplates().newJob(template.getPK(), inputs, params, description);
+	if (isLoggingEnabled())
+	  getLogger().info("Job: " + result);
+	return result;
+      }
+    };
+  }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{Job.class};
+  }
+}
@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
 
 /**
@@ -30,7 +31,8 @@ import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class DeleteJobTemplate
-  extends AbstractJobTemplateTransformerAction {
+  extends AbstractJobTemplateTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -147,4 +149,14 @@ public class DeleteJobTemplate
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{JobTemplate.class};
+  }
 }
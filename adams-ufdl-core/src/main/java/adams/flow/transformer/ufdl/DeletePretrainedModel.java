@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.PretrainedModels.PretrainedModel;
 
 /**
@@ -30,7 +31,8 @@ import com.github.waikatoufdl.ufdl4j.action.PretrainedModels.PretrainedModel;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class DeletePretrainedModel
-  extends AbstractPretrainedModelTransformerAction {
+  extends AbstractPretrainedModelTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -133,4 +135,14 @@ public class DeletePretrainedModel
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{PretrainedModel.class};
+  }
 }
@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.io.PrettyPrintingSupporter;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -34,7 +35,7 @@ import com.google.gson.JsonObject;
  */
 public class ExportJobTemplate
   extends AbstractJobTemplateTransformerAction
-  implements PrettyPrintingSupporter {
+  implements PrettyPrintingSupporter, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -31,7 +32,8 @@ import com.google.gson.JsonParser;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class ImportJobTemplate
-  extends AbstractUFDLTransformerAction {
+  extends AbstractUFDLTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 1178874915779328261L;
 
@@ -85,4 +87,14 @@ public class ImportJobTemplate
     }
     return null;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{JobTemplate.class};
+  }
 }
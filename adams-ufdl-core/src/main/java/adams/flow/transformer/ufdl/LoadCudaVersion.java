@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.CudaVersions.CudaVersion;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.action.CudaVersions.CudaVersion;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class LoadCudaVersion
-  extends AbstractCudaVersionTransformerAction {
+  extends AbstractCudaVersionTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.DockerImages.DockerImage;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.action.DockerImages.DockerImage;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class LoadDockerImage
-  extends AbstractDockerImageTransformerAction {
+  extends AbstractDockerImageTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Frameworks.Framework;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.action.Frameworks.Framework;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class LoadFramework
-  extends AbstractFrameworkTransformerAction {
+  extends AbstractFrameworkTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
 
 /**
@@ -29,7 +30,8 @@ import com.github.waikatoufdl.ufdl4j.action.JobTemplates.JobTemplate;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class LoadJobTemplate
-  extends AbstractJobTemplateTransformerAction {
+  extends AbstractJobTemplateTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import adams.flow.core.Unknown;
 
 /**
@@ -29,7 +30,8 @@ import adams.flow.core.Unknown;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class PassThrough
-  extends AbstractUFDLTransformerAction {
+  extends AbstractUFDLTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
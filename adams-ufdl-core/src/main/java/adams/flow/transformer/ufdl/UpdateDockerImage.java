@@ -25,6 +25,7 @@ import adams.core.QuickInfoHelper;
 import adams.core.base.BaseObject;
 import adams.core.base.BasePassword;
 import adams.core.base.BaseString;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.DockerImages.DockerImage;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
 
@@ -34,7 +35,8 @@ import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class UpdateDockerImage
-  extends AbstractDockerImageTransformerAction {
+  extends AbstractDockerImageTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -574,4 +576,14 @@ public class UpdateDockerImage
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{DockerImage.class};
+  }
 }
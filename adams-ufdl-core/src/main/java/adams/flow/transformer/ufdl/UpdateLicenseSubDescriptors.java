@@ -22,6 +22,7 @@ package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.Condition;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.Domain;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
@@ -38,7 +39,8 @@ import java.util.Set;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class UpdateLicenseSubDescriptors
-  extends AbstractLicenseTransformerAction {
+  extends AbstractLicenseTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -328,4 +330,14 @@ public class UpdateLicenseSubDescriptors
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{License.class};
+  }
 }
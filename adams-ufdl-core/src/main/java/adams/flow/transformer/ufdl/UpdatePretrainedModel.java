@@ -23,6 +23,7 @@ package adams.flow.transformer.ufdl;
 import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.base.BaseText;
+import adams.flow.core.UFDLModifyingAction;
 import com.github.waikatoufdl.ufdl4j.action.PretrainedModels.PretrainedModel;
 import com.github.waikatoufdl.ufdl4j.action.Teams.Team;
 
@@ -32,7 +33,8 @@ import com.github.waikatoufdl.ufdl4j.action.Teams.Team;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class UpdatePretrainedModel
-  extends AbstractPretrainedModelTransformerAction {
+  extends AbstractPretrainedModelTransformerAction
+  implements UFDLModifyingAction {
 
   private static final long serialVersionUID = 2444931814949354710L;
 
@@ -352,4 +354,14 @@ public class UpdatePretrainedModel
 
     return result;
   }
+
+  /**
+   * Returns the types of objects that the action modifies.
+   *
+   * @return		the types
+   */
+  @Override
+  public Class[] getModifiedTypes() {
+    return new Class[]{PretrainedModel.class};
+  }
 }
@@ -21,18 +21,37 @@
 package adams.gui.chooser;
 
 import adams.core.logging.LoggingLevel;
+import adams.core.option.OptionUtils;
 import adams.data.conversion.AbstractUFDLObjectToSpreadSheetConversion;
+import adams.data.spreadsheet.Row;
 import adams.data.spreadsheet.SpreadSheet;
-import adams.data.spreadsheet.SpreadSheetHelper;
 import adams.flow.core.UFDLFilterHandler;
+import adams.flow.standalone.ufdlcache.QueryResultCache;
+import adams.gui.core.BaseButton;
+import adams.gui.core.BaseDialog;
 import adams.gui.core.ConsolePanel;
 import adams.gui.core.GUIHelper;
 import adams.gui.dialog.SpreadSheetDialog;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import java.awt.BorderLayout;
 import java.awt.Dialog.ModalityType;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Ancestor for chooser panels which allow the user to select one or more
@@ -46,9 +65,29 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
 
   private static final long serialVersionUID = -5162524212611793388L;
 
+  /**
+   * Container for the objects that were loaded in the background.
+   *
+   * @param <T> the type of objects
+   */
+  protected static class LoadResult<T> {
+
+    /** the available objects (filtered). */
+    public T[] available;
+
+    /** the objects as spreadsheet. */
+    public SpreadSheet sheet;
+  }
+
   /** the dialog for selecting the projects. */
   protected SpreadSheetDialog m_Dialog;
 
+  /** the dialog for displaying the progress while loading. */
+  protected BaseDialog m_DialogProgress;
+
+  /** the worker loading the objects. */
+  protected transient SwingWorker<LoadResult<T>,Object> m_Worker;
+
   /** whether to resolve IDs to names. */
   protected boolean m_ResolveIDs;
 
@@ -122,6 +161,73 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
    */
   protected abstract T[] getAvailableObjects() throws Exception;
 
+  /**
+   * Returns the key for caching the available objects. Derived classes
+   * that use other criteria besides the filter for retrieving the objects
+   * must include these as well.
+   *
+   * @return		the key
+   * @see		#getCacheEntity()
+   */
+  protected String getCacheKey() {
+    return OptionUtils.getCommandLine(m_Filter);
+  }
+
+  /**
+   * Returns the type of objects that get cached, used for invalidating
+   * the cached objects whenever objects of this type get modified.
+   *
+   * @return		the type
+   */
+  protected Class getCacheEntity() {
+    return newArray(0).getClass().getComponentType();
+  }
+
+  /**
+   * Returns the cache for the available objects.
+   *
+   * @return		the cache, null if not available
+   */
+  protected QueryResultCache getCache() {
+    if ((getConnection() == null) || (getConnection().getCacheManager() == null))
+      return null;
+    return getConnection().getCacheManager().queryResults();
+  }
+
+  /**
+   * Returns all available objects, either from the cache or from the
+   * backend.
+   *
+   * @param refresh	whether to bypass the cache
+   * @return		the objects
+   * @throws Exception	if API call fails
+   */
+  protected T[] getAvailableObjects(boolean refresh) throws Exception {
+    T[]			result;
+    List<T>		cached;
+    QueryResultCache	cache;
+    String		key;
+
+    cache = getCache();
+    if (cache == null)
+      return getAvailableObjects();
+
+    key = getCacheKey();
+    if (refresh)
+      cache.invalidate(getCacheEntity(), key);
+    // stored as read-only list, allowing the result to be shared with the List* actions
+    cached = (List<T>) cache.get(getCacheEntity(), key);
+    if (cached == null) {
+      result = getAvailableObjects();
+      cache.put(getCacheEntity(), key, Collections.unmodifiableList(new ArrayList<>(Arrays.asList(result))));
+    }
+    else {
+      result = cached.toArray(newArray(cached.size()));
+    }
+
+    return result;
+  }
+
   /**
    * Converts the available objects into a single spreadsheet to select from.
    *
@@ -138,7 +244,7 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
     conv   = getConversion();
     conv.setFlowContext(getConnection());
     conv.setResolveIDs(getResolveIDs());
-    result = conv.getTemplate();
+    result = null;
     for (i = 0; i < objects.length; i++) {
       try {
 	conv.setInput(objects[i]);
@@ -148,10 +254,14 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
 	  return conv.getTemplate();
 	}
 	sheet = (SpreadSheet) conv.getOutput();
-	if (i == 0)
+	// rows get appended in place, avoids copying the sheet for every object
+	if (result == null) {
 	  result = sheet;
-	else
-	  result = SpreadSheetHelper.append(result, sheet, true);
+	}
+	else {
+	  for (Row row: sheet.rows())
+	    result.addRow().assign(row);
+	}
       }
       catch (Exception e) {
 	ConsolePanel.getSingleton().append("Failed to convert UFDL object to spreadsheet!", e);
@@ -159,6 +269,42 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
       }
     }
 
+    if (result == null)
+      result = conv.getTemplate();
+
+    return result;
+  }
+
+  /**
+   * Builds an index of the PKs in the table (PK string -> row).
+   *
+   * @param pkCol	the column with the PK
+   * @return		the index
+   */
+  protected Map<String,Integer> indexRows(int pkCol) {
+    Map<String,Integer>	result;
+    int			i;
+
+    result = new HashMap<>();
+    for (i = 0; i < m_Dialog.getTable().getRowCount(); i++)
+      result.put("" + m_Dialog.getTable().getValueAt(i, pkCol), i);
+
+    return result;
+  }
+
+  /**
+   * Builds an index of the PKs of the objects (PK string -> object).
+   *
+   * @param objects	the objects to index
+   * @return		the index
+   */
+  protected Map<String,T> indexObjects(T[] objects) {
+    Map<String,T>	result;
+
+    result = new HashMap<>();
+    for (T object: objects)
+      result.put("" + getPK(object), object);
+
     return result;
   }
 
@@ -169,6 +315,111 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
    */
   protected abstract String getDialogTitle();
 
+  /**
+   * Loads and converts the available objects.
+   *
+   * @param refresh	whether to bypass the cache
+   * @return		the loaded objects
+   * @throws Exception	if loading fails
+   */
+  protected LoadResult<T> load(boolean refresh) throws Exception {
+    LoadResult<T>	result;
+
+    result           = new LoadResult<>();
+    result.available = filterObjects(getAvailableObjects(refresh));
+    result.sheet     = objectsToSpreadSheet(result.available);
+
+    return result;
+  }
+
+  /**
+   * Creates the dialog that displays the progress while loading.
+   *
+   * @return		the dialog
+   */
+  protected BaseDialog newProgressDialog() {
+    BaseDialog		result;
+    JPanel		panel;
+    JProgressBar	progress;
+    BaseButton		buttonCancel;
+
+    if (getParentDialog() != null)
+      result = new BaseDialog(getParentDialog(), ModalityType.DOCUMENT_MODAL);
+    else
+      result = new BaseDialog(getParentFrame(), true);
+    result.setTitle(getDialogTitle());
+    result.setDefaultCloseOperation(BaseDialog.DO_NOTHING_ON_CLOSE);
+    result.getContentPane().setLayout(new BorderLayout());
+
+    panel = new JPanel(new BorderLayout(5, 5));
+    panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+    panel.add(new JLabel("Loading..."), BorderLayout.NORTH);
+    progress = new JProgressBar();
+    progress.setIndeterminate(true);
+    panel.add(progress, BorderLayout.CENTER);
+    result.getContentPane().add(panel, BorderLayout.CENTER);
+
+    panel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+    buttonCancel = new BaseButton("Cancel");
+    buttonCancel.addActionListener((ActionEvent e) -> {
+      if (m_Worker != null)
+	m_Worker.cancel(true);
+      m_DialogProgress.setVisible(false);
+    });
+    panel.add(buttonCancel);
+    result.getContentPane().add(panel, BorderLayout.SOUTH);
+
+    result.pack();
+    result.setSize(Math.max(300, result.getWidth()), result.getHeight());
+
+    return result;
+  }
+
+  /**
+   * Loads the available objects in the background, displaying a progress
+   * dialog in the meantime (when called from the event dispatch thread).
+   *
+   * @param refresh	whether to bypass the cache
+   * @return		the loaded objects, null if failed or cancelled
+   */
+  protected LoadResult<T> loadInBackground(final boolean refresh) {
+    LoadResult<T>	result;
+
+    if (m_DialogProgress == null)
+      m_DialogProgress = newProgressDialog();
+
+    m_Worker = new SwingWorker<LoadResult<T>,Object>() {
+      @Override
+      protected LoadResult<T> doInBackground() throws Exception {
+	return load(refresh);
+      }
+      @Override
+      protected void done() {
+	m_DialogProgress.setVisible(false);
+	super.done();
+      }
+    };
+    m_Worker.execute();
+
+    // displaying the modal dialog keeps the event dispatch thread responsive
+    if (SwingUtilities.isEventDispatchThread()) {
+      m_DialogProgress.setLocationRelativeTo(m_DialogProgress.getParent());
+      m_DialogProgress.setVisible(true);
+    }
+
+    try {
+      result = m_Worker.get();
+    }
+    catch (Exception e) {
+      if (!m_Worker.isCancelled())
+	ConsolePanel.getSingleton().append("Failed to determine available objects!", (e.getCause() != null) ? e.getCause() : e);
+      result = null;
+    }
+    m_Worker = null;
+
+    return result;
+  }
+
   /**
    * Performs the actual choosing of an object.
    *
@@ -176,14 +427,17 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
    */
   @Override
   protected T[] doChoose() {
-    T[]		result;
-    T[]		available;
-    TIntList 	selected;
-    int		i;
-    int		n;
-    String 	pkStr;
-    int		pkCol;
-    int[]	selRows;
+    T[]			result;
+    T[]			available;
+    LoadResult<T>	loaded;
+    boolean		refresh;
+    TIntList 		selected;
+    Map<String,Integer>	rows;
+    Map<String,T>	objects;
+    Integer		row;
+    int			i;
+    int			pkCol;
+    int[]		selRows;
 
     result = getCurrent();
 
@@ -201,38 +455,40 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
       m_Dialog.setShowColumnComboBox(false);
       m_Dialog.setShowSearch(true);
       m_Dialog.setCancelVisible(true);
+      m_Dialog.setDiscardVisible(true);
+      m_Dialog.setDiscardCaption("Refresh");
       m_Dialog.setSize(GUIHelper.getDefaultDialogDimension());
       m_Dialog.setLocationRelativeTo(m_Dialog.getParent());
     }
 
-    try {
-      available = filterObjects(getAvailableObjects());
-    }
-    catch (Exception e) {
-      ConsolePanel.getSingleton().append("Failed to determine available objects!", e);
-      return null;
-    }
-
-    // clear search
-    m_Dialog.getTable().search(null, false);
-
-    // pre-select
-    m_Dialog.setSpreadSheet(objectsToSpreadSheet(available));
-    selected = new TIntArrayList();
-    pkCol    = getPKColumn();
-    for (i = 0; i < result.length; i++) {
-      pkStr = "" + getPK(result[i]);
-      for (n = 0; n < m_Dialog.getTable().getRowCount(); n++) {
-        if (pkStr.equals("" + m_Dialog.getTable().getValueAt(n, pkCol))) {
-          selected.add(n);
-          break;
-	}
+    refresh = false;
+    do {
+      loaded = loadInBackground(refresh);
+      if (loaded == null)
+	return result;
+      available = loaded.available;
+
+      // clear search
+      m_Dialog.getTable().search(null, false);
+
+      // pre-select
+      m_Dialog.setSpreadSheet(loaded.sheet);
+      selected = new TIntArrayList();
+      pkCol    = getPKColumn();
+      rows     = indexRows(pkCol);
+      for (i = 0; i < result.length; i++) {
+	row = rows.get("" + getPK(result[i]));
+	if (row != null)
+	  selected.add(row);
       }
+      m_Dialog.getTable().setSelectedRows(selected.toArray());
+
+      // display
+      m_Dialog.setVisible(true);
+      refresh = (m_Dialog.getOption() == SpreadSheetDialog.DISCARD_OPTION);
     }
-    m_Dialog.getTable().setSelectedRows(selected.toArray());
+    while (refresh);
 
-    // display
-    m_Dialog.setVisible(true);
     if (m_Dialog.getOption() != SpreadSheetDialog.APPROVE_OPTION)
       return result;
 
@@ -241,16 +497,10 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
     if (!m_MultiSelection && (selRows.length != 1))
       return result;
 
-    result = newArray(selRows.length);
-    for (i = 0; i < selRows.length; i++) {
-      pkStr = "" + m_Dialog.getTable().getValueAt(selRows[i], pkCol);
-      for (n = 0; n < available.length; n++) {
-        if (pkStr.equals("" + getPK(available[n]))) {
-          result[i] = available[n];
-          break;
-	}
-      }
-    }
+    result  = newArray(selRows.length);
+    objects = indexObjects(available);
+    for (i = 0; i < selRows.length; i++)
+      result[i] = objects.get("" + m_Dialog.getTable().getValueAt(selRows[i], pkCol));
 
     return result;
   }
@@ -260,6 +510,14 @@ public abstract class AbstractUFDLSpreadSheetBasedChooserPanel<T>
    */
   @Override
   public void cleanUp() {
+    if (m_Worker != null) {
+      m_Worker.cancel(true);
+      m_Worker = null;
+    }
+    if (m_DialogProgress != null) {
+      m_DialogProgress.dispose();
+      m_DialogProgress = null;
+    }
     if (m_Dialog != null) {
       m_Dialog.dispose();
       m_Dialog = null;
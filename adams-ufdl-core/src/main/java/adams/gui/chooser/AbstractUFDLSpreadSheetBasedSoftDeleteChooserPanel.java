@@ -20,6 +20,7 @@
 
 package adams.gui.chooser;
 
+import adams.core.option.OptionUtils;
 import adams.flow.core.UFDLSoftDeleteObjectState;
 import adams.flow.core.UFDLSoftDeleteObjectStateHandler;
 import com.github.waikatoufdl.ufdl4j.core.SoftDeleteObject;
@@ -63,6 +64,16 @@ public abstract class AbstractUFDLSpreadSheetBasedSoftDeleteChooserPanel<T exten
     return m_State;
   }
 
+  /**
+   * Returns the key for caching the available objects.
+   *
+   * @return		the key
+   */
+  @Override
+  protected String getCacheKey() {
+    return OptionUtils.getCommandLine(m_State.apply(m_Filter));
+  }
+
   /**
    * Hook method for filtering objects.
    *
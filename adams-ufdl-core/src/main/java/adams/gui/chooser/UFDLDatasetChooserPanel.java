@@ -121,7 +121,7 @@ public class UFDLDatasetChooserPanel
    */
   @Override
   protected Dataset[] getAvailableObjects() throws Exception {
-    return m_Connection.getClient().datasets().list(m_Filter.generate(new MessageCollection())).toArray(new Dataset[0]);
+    return m_Connection.getClient().datasets().list(m_State.apply(m_Filter).generate(new MessageCollection())).toArray(new Dataset[0]);
   }
 
   /**
@@ -134,6 +134,16 @@ public class UFDLDockerImageChooserPanel
     return object.getPK();
   }
 
+  /**
+   * Returns the key for caching the available objects.
+   *
+   * @return		the key
+   */
+  @Override
+  protected String getCacheKey() {
+    return super.getCacheKey() + "\t" + m_Task;
+  }
+
   /**
    * Returns all available objects.
    *
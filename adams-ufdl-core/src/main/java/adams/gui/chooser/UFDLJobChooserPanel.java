@@ -109,7 +109,7 @@ public class UFDLJobChooserPanel
    */
   @Override
   protected Job[] getAvailableObjects() throws Exception {
-    return m_Connection.getClient().jobs().list(m_Filter.generate(new MessageCollection())).toArray(new Job[0]);
+    return m_Connection.getClient().jobs().list(m_State.apply(m_Filter).generate(new MessageCollection())).toArray(new Job[0]);
   }
 
   /**
@@ -163,6 +163,16 @@ public class UFDLJobTemplateChooserByContractPanel
     return object.getPK();
   }
 
+  /**
+   * Returns the key for caching the available objects.
+   *
+   * @return		the key
+   */
+  @Override
+  protected String getCacheKey() {
+    return super.getCacheKey() + "\t" + m_ContractType + "\t" + ((m_Domain == null) ? "" : m_Domain.getPK());
+  }
+
   /**
    * Returns all available objects.
    *
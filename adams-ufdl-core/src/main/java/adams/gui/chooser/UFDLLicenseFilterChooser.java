@@ -26,7 +26,11 @@ import adams.gui.core.GUIHelper;
 import adams.gui.dialog.ApprovalDialog;
 import adams.gui.visualization.licenses.LicenseFilterPanel;
 import com.github.fracpete.javautils.struct.Struct2;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Condition;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Domain;
 import com.github.waikatoufdl.ufdl4j.action.Licenses.License;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Limitation;
+import com.github.waikatoufdl.ufdl4j.action.Licenses.Permission;
 
 import javax.swing.ListSelectionModel;
 import java.awt.BorderLayout;
@@ -49,6 +53,103 @@ public class UFDLLicenseFilterChooser
   /** the dialog. */
   protected transient ApprovalDialog m_Dialog;
 
+  /** the initial domains. */
+  protected Domain[] m_Domains;
+
+  /** the initial permissions. */
+  protected Permission[] m_Permissions;
+
+  /** the initial limitations. */
+  protected Limitation[] m_Limitations;
+
+  /** the initial conditions. */
+  protected Condition[] m_Conditions;
+
+  /**
+   * Initializes the members.
+   */
+  @Override
+  protected void initialize() {
+    super.initialize();
+
+    m_Domains     = null;
+    m_Permissions = null;
+    m_Limitations = null;
+    m_Conditions  = null;
+  }
+
+  /**
+   * Sets the domains to select initially in the filter.
+   *
+   * @param value	the domains, can be null
+   */
+  public void setDomains(Domain[] value) {
+    m_Domains = value;
+  }
+
+  /**
+   * Returns the domains to select initially in the filter.
+   *
+   * @return		the domains, can be null
+   */
+  public Domain[] getDomains() {
+    return m_Domains;
+  }
+
+  /**
+   * Sets the permissions to select initially in the filter.
+   *
+   * @param value	the permissions, can be null
+   */
+  public void setPermissions(Permission[] value) {
+    m_Permissions = value;
+  }
+
+  /**
+   * Returns the permissions to select initially in the filter.
+   *
+   * @return		the permissions, can be null
+   */
+  public Permission[] getPermissions() {
+    return m_Permissions;
+  }
+
+  /**
+   * Sets the limitations to select initially in the filter.
+   *
+   * @param value	the limitations, can be null
+   */
+  public void setLimitations(Limitation[] value) {
+    m_Limitations = value;
+  }
+
+  /**
+   * Returns the limitations to select initially in the filter.
+   *
+   * @return		the limitations, can be null
+   */
+  public Limitation[] getLimitations() {
+    return m_Limitations;
+  }
+
+  /**
+   * Sets the conditions to select initially in the filter.
+   *
+   * @param value	the conditions, can be null
+   */
+  public void setConditions(Condition[] value) {
+    m_Conditions = value;
+  }
+
+  /**
+   * Returns the conditions to select initially in the filter.
+   *
+   * @return		the conditions, can be null
+   */
+  public Condition[] getConditions() {
+    return m_Conditions;
+  }
+
   /**
    * Turns the object into a struct (ID and string).
    *
@@ -124,7 +225,10 @@ public class UFDLLicenseFilterChooser
     catch (Exception e) {
       ConsolePanel.getSingleton().append("Failed to list licenses!", e);
     }
-    m_PanelFilter.clearFilters();
+    m_PanelFilter.setSelectedDomains(m_Domains);
+    m_PanelFilter.setSelectedPermissions(m_Permissions);
+    m_PanelFilter.setSelectedLimitations(m_Limitations);
+    m_PanelFilter.setSelectedConditions(m_Conditions);
     if (result != null)
       m_PanelFilter.setSelectedLicenses(result);
     m_Dialog.setVisible(true);
@@ -121,7 +121,7 @@ public class UFDLProjectChooserPanel
    */
   @Override
   protected Project[] getAvailableObjects() throws Exception {
-    return m_Connection.getClient().projects().list(m_Filter.generate(new MessageCollection())).toArray(new Project[0]);
+    return m_Connection.getClient().projects().list(m_State.apply(m_Filter).generate(new MessageCollection())).toArray(new Project[0]);
   }
 
   /**
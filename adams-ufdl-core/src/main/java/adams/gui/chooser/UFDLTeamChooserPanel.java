@@ -121,7 +121,7 @@ public class UFDLTeamChooserPanel
    */
   @Override
   protected Team[] getAvailableObjects() throws Exception {
-    return m_Connection.getClient().teams().list(m_Filter.generate(new MessageCollection())).toArray(new Team[0]);
+    return m_Connection.getClient().teams().list(m_State.apply(m_Filter).generate(new MessageCollection())).toArray(new Team[0]);
   }
 
   /**
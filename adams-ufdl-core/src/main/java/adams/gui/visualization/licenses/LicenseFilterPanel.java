@@ -22,6 +22,7 @@ package adams.gui.visualization.licenses;
 
 import adams.core.EnumHelper;
 import adams.core.net.HtmlUtils;
+import adams.flow.core.UFDLLicenseIndex;
 import adams.gui.core.BaseButton;
 import adams.gui.core.BaseList;
 import adams.gui.core.BaseListWithButtons;
@@ -37,6 +38,7 @@ import com.github.waikatoufdl.ufdl4j.core.CustomDisplayEnum;
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
 
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
 import javax.swing.DefaultListCellRenderer;
 import javax.swing.DefaultListModel;
@@ -54,10 +56,9 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 /**
  * Allows the user to filter a list of licenses based on permissions,
@@ -322,6 +323,89 @@ public class LicenseFilterPanel
     }
   }
 
+  /**
+   * List model for the matching licenses that gets updated in one go.
+   */
+  public static class LicenseListModel
+    extends AbstractListModel<License> {
+
+    private static final long serialVersionUID = 5012845561702823817L;
+
+    /** the licenses. */
+    protected List<License> m_Licenses;
+
+    /** the position of the licenses (name -> index). */
+    protected Map<String,Integer> m_Positions;
+
+    /**
+     * Initializes the model.
+     */
+    public LicenseListModel() {
+      super();
+      m_Licenses  = new ArrayList<>();
+      m_Positions = new HashMap<>();
+    }
+
+    /**
+     * Returns the number of licenses.
+     *
+     * @return		the number of licenses
+     */
+    @Override
+    public int getSize() {
+      return m_Licenses.size();
+    }
+
+    /**
+     * Returns the license at the specified position.
+     *
+     * @param index	the position
+     * @return		the license
+     */
+    @Override
+    public License getElementAt(int index) {
+      return m_Licenses.get(index);
+    }
+
+    /**
+     * Returns the position of the license.
+     *
+     * @param name	the name of the license
+     * @return		the position, -1 if not present
+     */
+    public int indexOf(String name) {
+      Integer	result;
+
+      result = m_Positions.get(name);
+      if (result == null)
+	return -1;
+      else
+	return result;
+    }
+
+    /**
+     * Replaces the licenses, notifying the listeners only once per removal
+     * and once per addition.
+     *
+     * @param value	the new licenses
+     */
+    public void setLicenses(List<License> value) {
+      int	oldSize;
+      int	i;
+
+      oldSize     = m_Licenses.size();
+      m_Licenses  = new ArrayList<>(value);
+      m_Positions = new HashMap<>();
+      for (i = 0; i < m_Licenses.size(); i++)
+	m_Positions.put(m_Licenses.get(i).getName(), i);
+
+      if (oldSize > 0)
+	fireIntervalRemoved(this, 0, oldSize - 1);
+      if (!m_Licenses.isEmpty())
+	fireIntervalAdded(this, 0, m_Licenses.size() - 1);
+    }
+  }
+
   /** the domains. */
   protected SelectionPanel<Domain> m_PanelDomains;
 
@@ -338,7 +422,7 @@ public class LicenseFilterPanel
   protected BaseListWithButtons m_ListMatches;
 
   /** the model with the filtered licenses. */
-  protected DefaultListModel<License> m_ModelMatches;
+  protected LicenseListModel m_ModelMatches;
 
   /** the button for selecting all licenses. */
   protected BaseButton m_ButtonAll;
@@ -355,6 +439,9 @@ public class LicenseFilterPanel
   /** the licenses. */
   protected License[] m_Licenses;
 
+  /** the index for the licenses. */
+  protected UFDLLicenseIndex m_Index;
+
   /**
    * Initializes the members.
    */
@@ -363,7 +450,8 @@ public class LicenseFilterPanel
     super.initialize();
 
     m_Licenses     = new License[0];
-    m_ModelMatches = new DefaultListModel<>();
+    m_Index        = new UFDLLicenseIndex(m_Licenses);
+    m_ModelMatches = new LicenseListModel();
   }
 
   /**
@@ -437,6 +525,7 @@ public class LicenseFilterPanel
    */
   public void setLicenses(License[] value) {
     m_Licenses = value;
+    m_Index    = new UFDLLicenseIndex(value);
     apply();
   }
 
@@ -542,16 +631,13 @@ public class LicenseFilterPanel
    */
   public void setSelectedLicenses(License[] value) {
     TIntList	sel;
-    int		i;
+    int		index;
 
     sel = new TIntArrayList();
     for (License l: value) {
-      for (i = 0; i < m_Licenses.length; i++) {
-        if (l.getName().equals(m_Licenses[i].getName())) {
-	  sel.add(i);
-	  break;
-	}
-      }
+      index = m_ModelMatches.indexOf(l.getName());
+      if (index > -1)
+	sel.add(index);
     }
 
     m_ListMatches.setSelectedIndices(sel.toArray());
@@ -627,55 +713,21 @@ public class LicenseFilterPanel
     m_ButtonLicenseDetails.setEnabled(hasLicenses && (m_ListMatches.getSelectedIndices().length == 1));
   }
 
-  /**
-   * Returns whether the license is matching the selected permissions/limitations/conditions.
-   *
-   * @param license	the license to check
-   * @param domains 	the domains that the license must meet
-   * @param permissions	the permissions that the license must meet
-   * @param limitations	the limitations that the license must meet
-   * @param conditions	the conditions that the license must meet
-   * @return		true if a match
-   */
-  protected boolean isMatch(License license, Set<Domain> domains, Set<Permission> permissions, Set<Limitation> limitations, Set<Condition> conditions) {
-    if (!license.getDomains().containsAll(domains))
-      return false;
-    if (!license.getPermissions().containsAll(permissions))
-      return false;
-    if (!license.getLimitations().containsAll(limitations))
-      return false;
-    if (!license.getConditions().containsAll(conditions))
-      return false;
-
-    return true;
-  }
-
   /**
    * Applies the selected permissions/limitations/conditions to the available
    * licenses.
    */
   protected void apply() {
     List<License>	matches;
-    Set<Domain>		domains;
-    Set<Permission> 	permissions;
-    Set<Limitation>	limitations;
-    Set<Condition>	conditions;
-
-    domains     = new HashSet<>(Arrays.asList(m_PanelDomains.getSelectedItems()));
-    permissions = new HashSet<>(Arrays.asList(m_PanelPermissions.getSelectedItems()));
-    limitations = new HashSet<>(Arrays.asList(m_PanelLimitations.getSelectedItems()));
-    conditions  = new HashSet<>(Arrays.asList(m_PanelConditions.getSelectedItems()));
-
-    matches = new ArrayList<>();
-    for (License license: m_Licenses) {
-      if (isMatch(license, domains, permissions, limitations, conditions))
-        matches.add(license);
-    }
+
+    matches = m_Index.query(
+      m_PanelDomains.getSelectedItems(),
+      m_PanelPermissions.getSelectedItems(),
+      m_PanelLimitations.getSelectedItems(),
+      m_PanelConditions.getSelectedItems());
 
     m_ListMatches.getSelectionModel().clearSelection();
-    m_ModelMatches.clear();
-    for (License license: matches)
-      m_ModelMatches.addElement(license);
+    m_ModelMatches.setLicenses(matches);
 
     updateButtons();
   }
@@ -0,0 +1,501 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * CompiledFilterTest.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.data.ufdlfilter;
+
+import adams.core.MessageCollection;
+import adams.core.TriState;
+import adams.core.option.OptionUtils;
+import adams.data.ufdlfilter.field.Contains;
+import adams.data.ufdlfilter.field.DoubleCompare;
+import adams.data.ufdlfilter.field.ExactString;
+import adams.data.ufdlfilter.field.IntegerCompare;
+import adams.data.ufdlfilter.field.IsNull;
+import adams.data.ufdlfilter.logical.And;
+import adams.data.ufdlfilter.logical.Or;
+import adams.flow.core.UFDLSoftDeleteObjectState;
+import adams.test.AdamsTestCase;
+import com.github.waikatoufdl.ufdl4j.action.Teams.Team;
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Differential tests of the compiled filters against the backend stand-in.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ * @see UFDLBackendStandIn
+ */
+public class CompiledFilterTest
+  extends AdamsTestCase {
+
+  /**
+   * Initializes the test.
+   *
+   * @param name	the name of the test
+   */
+  public CompiledFilterTest(String name) {
+    super(name);
+  }
+
+  /**
+   * Creates a row.
+   *
+   * @param pk		the primary key
+   * @param name	the name, null for NULL
+   * @param description	the description, null for NULL
+   * @param count	the count, null for NULL
+   * @param score	the score, null for NULL
+   * @param deleted	the deletion time, null for NULL
+   * @return		the row
+   */
+  protected JsonObject row(int pk, String name, String description, Integer count, Double score, String deleted) {
+    JsonObject	result;
+
+    result = new JsonObject();
+    result.addProperty("pk", pk);
+    result.addProperty("name", name);
+    result.addProperty("description", description);
+    result.addProperty("count", count);
+    result.addProperty("score", score);
+    result.addProperty(UFDLSoftDeleteObjectState.DELETION_TIME, deleted);
+
+    return result;
+  }
+
+  /**
+   * Returns the rows of the test table. Row #4 is inactive, row #5 has an
+   * explicit NULL as deletion time and row #6 lacks the name altogether.
+   *
+   * @return		the rows
+   */
+  protected List<JsonObject> rows() {
+    List<JsonObject>	result;
+    JsonObject		row;
+
+    result = new ArrayList<>();
+    result.add(row(1, "Alpha", "first team", 5, 0.5, null));
+    result.add(row(2, "beta", null, 10, null, null));
+    result.add(row(3, "Gamma", "The Third", null, 2.25, null));
+    result.add(row(4, "alpha", "fourth", 7, 1.0, "2024-01-01T00:00:00Z"));
+    row = row(5, "Delta", "", 0, -1.5, null);
+    row.add(UFDLSoftDeleteObjectState.DELETION_TIME, JsonNull.INSTANCE);
+    result.add(row);
+    row = row(6, null, "no name", 3, 0.5, null);
+    row.remove("name");
+    result.add(row);
+
+    return result;
+  }
+
+  /**
+   * Wraps the rows.
+   *
+   * @param rows	the rows to wrap
+   * @return		the wrapped rows
+   * @throws Exception	if wrapping fails
+   */
+  protected List<Team> wrap(List<JsonObject> rows) throws Exception {
+    List<Team>		result;
+    Constructor<Team>	constr;
+
+    constr = Team.class.getDeclaredConstructor(JsonObject.class);
+    constr.setAccessible(true);
+    result = new ArrayList<>();
+    for (JsonObject row: rows)
+      result.add(constr.newInstance(row));
+
+    return result;
+  }
+
+  /**
+   * Returns the primary keys of the rows.
+   *
+   * @param rows	the rows
+   * @return		the primary keys
+   */
+  protected List<Integer> pks(List<JsonObject> rows) {
+    List<Integer>	result;
+
+    result = new ArrayList<>();
+    for (JsonObject row: rows)
+      result.add(row.get("pk").getAsInt());
+
+    return result;
+  }
+
+  /**
+   * Creates a filter from the expressions.
+   *
+   * @param expressions	the expressions
+   * @return		the filter
+   */
+  protected GenericFilter filter(AbstractExpression... expressions) {
+    GenericFilter	result;
+
+    result = new GenericFilter();
+    result.setExpressions(expressions);
+
+    return result;
+  }
+
+  /**
+   * Compares the results of the compiled filter with the ones from the
+   * backend stand-in.
+   *
+   * @param filter	the filter to evaluate
+   * @return		the primary keys of the matching rows
+   * @throws Exception	if evaluation fails
+   */
+  protected List<Integer> assertSameResults(GenericFilter filter) throws Exception {
+    MessageCollection	errors;
+    CompiledFilter	compiled;
+    List<Integer>	expected;
+    List<Integer>	actual;
+    List<JsonObject>	data;
+
+    errors   = new MessageCollection();
+    compiled = filter.compile(errors);
+    assertNotNull("Failed to compile: " + errors, compiled);
+
+    expected = pks(new UFDLBackendStandIn(rows()).list(filter));
+    data     = new ArrayList<>();
+    for (Team team: compiled.apply(wrap(rows())))
+      data.add(team.getData());
+    actual   = pks(data);
+    assertEquals(OptionUtils.getCommandLine(filter), expected, actual);
+
+    return actual;
+  }
+
+  /**
+   * Creates an exact string expression.
+   *
+   * @param field		the field
+   * @param value		the value
+   * @param caseInsensitive	whether case-insensitive
+   * @param invert		whether to invert
+   * @return			the expression
+   */
+  protected ExactString exact(String field, String value, boolean caseInsensitive, boolean invert) {
+    ExactString	result;
+
+    result = new ExactString(field, value, caseInsensitive);
+    result.setInvert(invert);
+
+    return result;
+  }
+
+  /**
+   * Creates an integer comparison.
+   *
+   * @param field	the field
+   * @param comparison	the comparison
+   * @param value	the value
+   * @param invert	whether to invert
+   * @return		the expression
+   */
+  protected IntegerCompare intCompare(String field, Comparison comparison, int value, boolean invert) {
+    IntegerCompare	result;
+
+    result = new IntegerCompare(field, comparison, value);
+    result.setInvert(invert);
+
+    return result;
+  }
+
+  /**
+   * Creates a double comparison.
+   *
+   * @param field	the field
+   * @param comparison	the comparison
+   * @param value	the value
+   * @param invert	whether to invert
+   * @return		the expression
+   */
+  protected DoubleCompare doubleCompare(String field, Comparison comparison, double value, boolean invert) {
+    DoubleCompare	result;
+
+    result = new DoubleCompare();
+    result.setField(field);
+    result.setComparison(comparison);
+    result.setValue(value);
+    result.setInvert(invert);
+
+    return result;
+  }
+
+  /**
+   * Creates a contains expression.
+   *
+   * @param field		the field
+   * @param subString		the sub-string
+   * @param caseInsensitive	whether case-insensitive
+   * @param invert		whether to invert
+   * @return			the expression
+   */
+  protected Contains contains(String field, String subString, boolean caseInsensitive, boolean invert) {
+    Contains	result;
+
+    result = new Contains(field, subString, caseInsensitive);
+    result.setInvert(invert);
+
+    return result;
+  }
+
+  /**
+   * Creates an is-null expression.
+   *
+   * @param field	the field
+   * @param invert	whether to invert
+   * @return		the expression
+   */
+  protected IsNull isNull(String field, boolean invert) {
+    IsNull	result;
+
+    result = new IsNull(field);
+    result.setInvert(invert);
+
+    return result;
+  }
+
+  /**
+   * Tests exact string matches.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testExactString() throws Exception {
+    GenericFilter	filter;
+
+    assertEquals(Arrays.asList(1), assertSameResults(filter(exact("name", "Alpha", false, false))));
+    assertEquals(Arrays.asList(1), assertSameResults(filter(exact("name", "alpha", true, false))));
+    assertSameResults(filter(exact("name", "ALPHA", false, false)));
+    assertSameResults(filter(exact("description", "", false, false)));
+
+    filter = filter(exact("name", "alpha", true, false));
+    filter.setIncludeInactive(true);
+    assertEquals(Arrays.asList(1, 4), assertSameResults(filter));
+  }
+
+  /**
+   * Tests integer comparisons.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testIntegerCompare() throws Exception {
+    assertEquals(Arrays.asList(1, 5, 6), assertSameResults(filter(intCompare("count", Comparison.LESS_THAN, 7, false))));
+    assertSameResults(filter(intCompare("count", Comparison.LESS_THAN_OR_EQUAL, 0, false)));
+    assertSameResults(filter(intCompare("count", Comparison.GREATER_THAN, 5, false)));
+    assertSameResults(filter(intCompare("count", Comparison.GREATER_THAN_OR_EQUAL, 5, false)));
+    assertSameResults(filter(intCompare("count", Comparison.GREATER_THAN, 100, false)));
+  }
+
+  /**
+   * Tests double comparisons.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testDoubleCompare() throws Exception {
+    assertEquals(Arrays.asList(1, 5, 6), assertSameResults(filter(doubleCompare("score", Comparison.LESS_THAN_OR_EQUAL, 0.5, false))));
+    assertSameResults(filter(doubleCompare("score", Comparison.LESS_THAN, -1.0, false)));
+    assertSameResults(filter(doubleCompare("score", Comparison.GREATER_THAN, 0.0, false)));
+    assertSameResults(filter(doubleCompare("score", Comparison.GREATER_THAN_OR_EQUAL, 2.25, false)));
+  }
+
+  /**
+   * Tests sub-string matches.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testContains() throws Exception {
+    assertEquals(Arrays.asList(1), assertSameResults(filter(contains("description", "t", false, false))));
+    assertEquals(Arrays.asList(3), assertSameResults(filter(contains("description", "THE", true, false))));
+    assertSameResults(filter(contains("description", "", false, false)));
+    assertSameResults(filter(contains("name", "a", false, false)));
+  }
+
+  /**
+   * Tests null checks, including missing fields.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testIsNull() throws Exception {
+    assertEquals(Arrays.asList(2), assertSameResults(filter(isNull("description", false))));
+    assertEquals(Arrays.asList(6), assertSameResults(filter(isNull("name", false))));
+    assertEquals(Arrays.asList(1, 2, 3, 5), assertSameResults(filter(isNull("name", true))));
+    assertSameResults(filter(isNull("score", false)));
+    assertSameResults(filter(isNull("count", true)));
+  }
+
+  /**
+   * Tests that inverted expressions include the rows with null values.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testInvertWithNulls() throws Exception {
+    assertEquals(Arrays.asList(2, 3, 5, 6), assertSameResults(filter(exact("name", "Alpha", false, true))));
+    assertEquals(Arrays.asList(2, 3, 5, 6), assertSameResults(filter(contains("description", "t", false, true))));
+    assertEquals(Arrays.asList(2, 3), assertSameResults(filter(intCompare("count", Comparison.LESS_THAN, 7, true))));
+    assertEquals(Arrays.asList(2, 3), assertSameResults(filter(doubleCompare("score", Comparison.LESS_THAN_OR_EQUAL, 0.5, true))));
+    assertSameResults(filter(exact("name", "alpha", true, true)));
+    assertSameResults(filter(doubleCompare("score", Comparison.GREATER_THAN, 0.0, true)));
+  }
+
+  /**
+   * Tests logical combinations.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testAndOr() throws Exception {
+    And		and;
+    Or		or;
+
+    and = new And();
+    and.setSubExpressions(new AbstractExpression[]{
+      intCompare("count", Comparison.GREATER_THAN_OR_EQUAL, 3, false),
+      isNull("score", true),
+    });
+    assertEquals(Arrays.asList(1, 6), assertSameResults(filter(and)));
+
+    or = new Or();
+    or.setSubExpressions(new AbstractExpression[]{
+      exact("name", "beta", false, false),
+      doubleCompare("score", Comparison.GREATER_THAN, 2.0, false),
+    });
+    assertEquals(Arrays.asList(2, 3), assertSameResults(filter(or)));
+
+    // null values in both branches
+    or = new Or();
+    or.setSubExpressions(new AbstractExpression[]{
+      intCompare("count", Comparison.GREATER_THAN, 8, false),
+      doubleCompare("score", Comparison.GREATER_THAN, 2.0, false),
+    });
+    assertSameResults(filter(or));
+
+    // nested
+    and = new And();
+    and.setSubExpressions(new AbstractExpression[]{
+      intCompare("count", Comparison.GREATER_THAN, 1, false),
+      doubleCompare("score", Comparison.LESS_THAN, 1.0, false),
+    });
+    or = new Or();
+    or.setSubExpressions(new AbstractExpression[]{
+      and,
+      isNull("description", false),
+      contains("name", "mm", false, true),
+    });
+    assertSameResults(filter(or));
+
+    // multiple expressions in filter
+    assertSameResults(filter(
+      contains("description", "t", true, false),
+      intCompare("count", Comparison.LESS_THAN, 100, true)));
+  }
+
+  /**
+   * Tests sorting, including the placement of nulls.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testOrderBy() throws Exception {
+    GenericFilter	filter;
+
+    filter = new GenericFilter();
+    filter.setOrder(new OrderBy[]{new OrderBy("score", true), new OrderBy("pk", true)});
+    assertEquals(Arrays.asList(5, 1, 6, 3, 2), assertSameResults(filter));
+
+    filter = new GenericFilter();
+    filter.setOrder(new OrderBy[]{new OrderBy("score", false), new OrderBy("pk", true)});
+    assertEquals(Arrays.asList(2, 3, 1, 6, 5), assertSameResults(filter));
+
+    filter = new GenericFilter();
+    filter.setOrder(new OrderBy[]{new OrderBy("count", true, TriState.TRUE)});
+    assertEquals(Arrays.asList(3, 5, 6, 1, 2), assertSameResults(filter));
+
+    filter = new GenericFilter();
+    filter.setOrder(new OrderBy[]{new OrderBy("count", false, TriState.FALSE)});
+    assertEquals(Arrays.asList(2, 1, 6, 5, 3), assertSameResults(filter));
+
+    filter = filter(isNull("description", true));
+    filter.setIncludeInactive(true);
+    filter.setOrder(new OrderBy[]{new OrderBy("count", false)});
+    assertSameResults(filter);
+  }
+
+  /**
+   * Tests the handling of the deletion time, i.e., inactive objects.
+   *
+   * @throws Exception	if test fails
+   */
+  public void testDeletionTime() throws Exception {
+    MessageCollection	errors;
+    AllFilter		all;
+    CompiledFilter	compiled;
+    List<Team>		teams;
+    GenericFilter	filter;
+
+    teams  = wrap(rows());
+    errors = new MessageCollection();
+    all    = new AllFilter();
+    compiled = all.compile(errors);
+    assertNotNull("Failed to compile: " + errors, compiled);
+    assertTrue("active", compiled.accept(teams.get(0)));
+    assertFalse("inactive", compiled.accept(teams.get(3)));
+    assertTrue("explicit null", compiled.accept(teams.get(4)));
+    assertEquals(5, compiled.apply(teams).size());
+
+    all.setIncludeInactive(true);
+    compiled = all.compile(errors);
+    assertNotNull("Failed to compile: " + errors, compiled);
+    assertTrue("inactive", compiled.accept(teams.get(3)));
+    assertEquals(6, compiled.apply(teams).size());
+
+    // the deletion time gets checked before the expressions
+    assertEquals(Arrays.asList(), assertSameResults(filter(isNull(UFDLSoftDeleteObjectState.DELETION_TIME, true))));
+    filter = filter(isNull(UFDLSoftDeleteObjectState.DELETION_TIME, true));
+    filter.setIncludeInactive(true);
+    assertEquals(Arrays.asList(4), assertSameResults(filter));
+  }
+
+  /**
+   * Returns the test suite.
+   *
+   * @return		the suite
+   */
+  public static Test suite() {
+    return new TestSuite(CompiledFilterTest.class);
+  }
+
+  /**
+   * Runs the test from commandline.
+   *
+   * @param args	ignored
+   */
+  public static void main(String[] args) {
+    runTest(suite());
+  }
+}
@@ -0,0 +1,328 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLBackendStandIn.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.data.ufdlfilter;
+
+import adams.core.TriState;
+import adams.data.ufdlfilter.field.AbstractFieldExpression;
+import adams.data.ufdlfilter.field.Contains;
+import adams.data.ufdlfilter.field.DoubleCompare;
+import adams.data.ufdlfilter.field.ExactString;
+import adams.data.ufdlfilter.field.IntegerCompare;
+import adams.data.ufdlfilter.field.IsNull;
+import adams.data.ufdlfilter.logical.And;
+import adams.data.ufdlfilter.logical.Or;
+import adams.flow.core.UFDLSoftDeleteObjectState;
+import com.github.waikatoufdl.ufdl4j.filter.field.AbstractCompareExpression.Comparison;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in for the backend, evaluating filters on a table of JSON rows the
+ * way the database does: predicates use SQL's three-valued logic (comparisons
+ * with NULL are UNKNOWN), only rows that evaluate to TRUE are returned,
+ * inverted field expressions behave like Django's exclude (NULLs are
+ * included) and sorting puts NULLs last in ascending and first in
+ * descending order, unless specified otherwise. Inactive rows (with a
+ * deletion time) get skipped unless requested.
+ * <br>
+ * Deliberately implemented independently of the compiled filters, so that
+ * the two can be compared.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class UFDLBackendStandIn {
+
+  /**
+   * SQL truth values.
+   */
+  public enum Truth {
+    TRUE,
+    FALSE,
+    UNKNOWN;
+
+    /**
+     * Turns the boolean into a truth value.
+     *
+     * @param value	the value to convert
+     * @return		the truth value
+     */
+    public static Truth of(boolean value) {
+      return value ? TRUE : FALSE;
+    }
+
+    /**
+     * SQL's NOT.
+     *
+     * @return		the negated value
+     */
+    public Truth not() {
+      switch (this) {
+	case TRUE:
+	  return FALSE;
+	case FALSE:
+	  return TRUE;
+	default:
+	  return UNKNOWN;
+      }
+    }
+
+    /**
+     * SQL's AND.
+     *
+     * @param other	the other value
+     * @return		the combined value
+     */
+    public Truth and(Truth other) {
+      if ((this == FALSE) || (other == FALSE))
+	return FALSE;
+      if ((this == TRUE) && (other == TRUE))
+	return TRUE;
+      return UNKNOWN;
+    }
+
+    /**
+     * SQL's OR.
+     *
+     * @param other	the other value
+     * @return		the combined value
+     */
+    public Truth or(Truth other) {
+      if ((this == TRUE) || (other == TRUE))
+	return TRUE;
+      if ((this == FALSE) && (other == FALSE))
+	return FALSE;
+      return UNKNOWN;
+    }
+  }
+
+  /** the rows of the table. */
+  protected List<JsonObject> m_Rows;
+
+  /**
+   * Initializes the stand-in with the rows of the table.
+   *
+   * @param rows	the rows
+   */
+  public UFDLBackendStandIn(List<JsonObject> rows) {
+    m_Rows = new ArrayList<>(rows);
+  }
+
+  /**
+   * Returns the column value, null if missing or NULL.
+   *
+   * @param row		the row to get the value from
+   * @param column	the column
+   * @return		the value, null if NULL
+   */
+  protected JsonElement column(JsonObject row, String column) {
+    JsonElement	result;
+
+    result = row.get(column);
+    if ((result == null) || result.isJsonNull())
+      return null;
+    return result;
+  }
+
+  /**
+   * Applies SQL's comparison operator.
+   *
+   * @param value	the column value
+   * @param comparison	the operator
+   * @param reference	the value to compare against
+   * @return		the truth value
+   */
+  protected Truth compare(JsonElement value, Comparison comparison, double reference) {
+    double	num;
+
+    if (value == null)
+      return Truth.UNKNOWN;
+
+    num = value.getAsDouble();
+    switch (comparison.name()) {
+      case "LESS_THAN":
+	return Truth.of(num < reference);
+      case "LESS_THAN_OR_EQUAL":
+	return Truth.of(num <= reference);
+      case "GREATER_THAN":
+	return Truth.of(num > reference);
+      case "GREATER_THAN_OR_EQUAL":
+	return Truth.of(num >= reference);
+      default:
+	throw new IllegalArgumentException("Unsupported comparison: " + comparison);
+    }
+  }
+
+  /**
+   * Evaluates the lookup of the field expression, without inversion.
+   *
+   * @param row		the row to evaluate
+   * @param expr	the expression
+   * @return		the truth value
+   */
+  protected Truth lookup(JsonObject row, AbstractFieldExpression expr) {
+    JsonElement		value;
+    String		str;
+    String		sub;
+
+    value = column(row, expr.getField());
+
+    if (expr instanceof IsNull)
+      return Truth.of(value == null);
+
+    if (value == null)
+      return Truth.UNKNOWN;
+
+    if (expr instanceof ExactString) {
+      str = value.getAsString();
+      if (((ExactString) expr).getCaseInsensitive())
+	return Truth.of(str.toUpperCase().equals(((ExactString) expr).getValue().toUpperCase()));
+      return Truth.of(str.equals(((ExactString) expr).getValue()));
+    }
+
+    if (expr instanceof Contains) {
+      str = value.getAsString();
+      sub = ((Contains) expr).getSubString();
+      if (((Contains) expr).getCaseInsensitive())
+	return Truth.of(str.toUpperCase().contains(sub.toUpperCase()));
+      return Truth.of(str.contains(sub));
+    }
+
+    if (expr instanceof IntegerCompare)
+      return compare(value, ((IntegerCompare) expr).getComparison(), ((IntegerCompare) expr).getValue());
+
+    if (expr instanceof DoubleCompare)
+      return compare(value, ((DoubleCompare) expr).getComparison(), ((DoubleCompare) expr).getValue());
+
+    throw new IllegalArgumentException("Unsupported expression: " + expr.getClass().getName());
+  }
+
+  /**
+   * Evaluates the expression on the row.
+   *
+   * @param row		the row to evaluate
+   * @param expr	the expression
+   * @return		the truth value
+   */
+  public Truth evaluate(JsonObject row, AbstractExpression expr) {
+    Truth	result;
+    Truth	notNull;
+
+    if (expr instanceof And) {
+      result = Truth.TRUE;
+      for (AbstractExpression sub: ((And) expr).getSubExpressions())
+	result = result.and(evaluate(row, sub));
+      return result;
+    }
+
+    if (expr instanceof Or) {
+      result = Truth.FALSE;
+      for (AbstractExpression sub: ((Or) expr).getSubExpressions())
+	result = result.or(evaluate(row, sub));
+      return result;
+    }
+
+    result = lookup(row, (AbstractFieldExpression) expr);
+    if (!expr.getInvert())
+      return result;
+
+    // exclude(): NOT (lookup AND column IS NOT NULL), except for isnull lookups
+    if (expr instanceof IsNull)
+      return result.not();
+    notNull = Truth.of(column(row, ((AbstractFieldExpression) expr).getField()) != null);
+    return result.and(notNull).not();
+  }
+
+  /**
+   * Compares the two rows according to the order.
+   *
+   * @param row1	the first row
+   * @param row2	the second row
+   * @param order	the order to apply
+   * @return		the comparison result
+   */
+  protected int compare(JsonObject row1, JsonObject row2, OrderBy order) {
+    JsonElement	value1;
+    JsonElement	value2;
+    boolean	nullsFirst;
+    int		result;
+
+    value1 = column(row1, order.getField());
+    value2 = column(row2, order.getField());
+    if (order.getNullsFirst() == TriState.NOT_SET)
+      nullsFirst = !order.getAscending();
+    else
+      nullsFirst = order.getNullsFirst().toBoolean();
+
+    if ((value1 == null) && (value2 == null))
+      return 0;
+    if (value1 == null)
+      return nullsFirst ? -1 : 1;
+    if (value2 == null)
+      return nullsFirst ? 1 : -1;
+
+    if (value1.getAsJsonPrimitive().isNumber())
+      result = Double.compare(value1.getAsDouble(), value2.getAsDouble());
+    else
+      result = value1.getAsString().compareTo(value2.getAsString());
+
+    return order.getAscending() ? result : -result;
+  }
+
+  /**
+   * Lists the rows that match the filter, in the requested order.
+   *
+   * @param filter	the filter to apply
+   * @return		the matching rows
+   */
+  public List<JsonObject> list(GenericFilter filter) {
+    List<JsonObject>	result;
+    Truth		truth;
+
+    result = new ArrayList<>();
+    for (JsonObject row: m_Rows) {
+      if (!filter.getIncludeInactive() && (column(row, UFDLSoftDeleteObjectState.DELETION_TIME) != null))
+	continue;
+      truth = Truth.TRUE;
+      for (AbstractExpression expr: filter.getExpressions())
+	truth = truth.and(evaluate(row, expr));
+      if (truth == Truth.TRUE)
+	result.add(row);
+    }
+
+    if (filter.getOrder().length > 0) {
+      Collections.sort(result, (r1, r2) -> {
+	int cmp = 0;
+	for (OrderBy order: filter.getOrder()) {
+	  cmp = compare(r1, r2, order);
+	  if (cmp != 0)
+	    break;
+	}
+	return cmp;
+      });
+    }
+
+    return result;
+  }
+}
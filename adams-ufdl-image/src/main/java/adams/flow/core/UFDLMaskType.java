@@ -0,0 +1,80 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * UFDLMaskType.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.core;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The types of combined segmentation masks.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public enum UFDLMaskType {
+  /** the pixel values are the label indices (indexed or grayscale PNG). */
+  INDEXED,
+  /** the RGB colours identify the labels. */
+  COLOR;
+
+  /**
+   * Parses the key of a label mapping.
+   *
+   * @param key		the key to parse, index (eg '1') or colour (eg '#ff0000')
+   * @return		the parsed value
+   * @throws NumberFormatException	if parsing fails
+   */
+  public int parseKey(String key) {
+    key = key.trim();
+    switch (this) {
+      case INDEXED:
+	return Integer.parseInt(key);
+      case COLOR:
+	if (key.startsWith("#"))
+	  key = key.substring(1);
+	return Integer.parseInt(key, 16) & 0xFFFFFF;
+      default:
+	throw new IllegalStateException("Unhandled mask type: " + this);
+    }
+  }
+
+  /**
+   * Returns the values of a row of pixels.
+   *
+   * @param image	the image to get the values from
+   * @param y		the row
+   * @param values	the array to store the values in (length: width of image)
+   * @return		the values, ie indices or RGB colours
+   */
+  public int[] getRow(BufferedImage image, int y, int[] values) {
+    int		i;
+
+    switch (this) {
+      case INDEXED:
+	return image.getRaster().getSamples(0, y, image.getWidth(), 1, 0, values);
+      case COLOR:
+	image.getRGB(0, y, image.getWidth(), 1, values, 0, image.getWidth());
+	for (i = 0; i < values.length; i++)
+	  values[i] &= 0xFFFFFF;
+	return values;
+      default:
+	throw new IllegalStateException("Unhandled mask type: " + this);
+    }
+  }
+}
@@ -26,6 +26,7 @@ import adams.core.io.FileWriter;
 import adams.core.io.PlaceholderFile;
 import adams.core.logging.LoggingHelper;
 import adams.core.option.OptionUtils;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 import com.github.waikatoufdl.ufdl4j.action.ObjectDetectionDatasets;
 
@@ -36,7 +37,7 @@ import com.github.waikatoufdl.ufdl4j.action.ObjectDetectionDatasets;
  */
 public class DownloadObjectDetectionDataset
   extends AbstractUFDLSinkAction
-  implements FileWriter {
+  implements FileWriter, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
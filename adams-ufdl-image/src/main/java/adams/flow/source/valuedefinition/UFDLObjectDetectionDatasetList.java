@@ -76,7 +76,7 @@ public class UFDLObjectDetectionDatasetList
 
     try {
       action = m_Connection.getClient().action(ObjectDetectionDatasets.class);
-      for (Dataset dataset : action.list(m_Filter.generate(new MessageCollection()))) {
+      for (Dataset dataset : action.list(m_State.apply(m_Filter).generate(new MessageCollection()))) {
         if (!m_State.accept(dataset))
           continue;
         result.add(new Struct2<>(dataset.getPK(), dataset.getName()));
@@ -88,4 +88,14 @@ public class UFDLObjectDetectionDatasetList
 
     return result;
   }
+
+  /**
+   * Returns the type of objects that the list items are generated from.
+   *
+   * @return		the type
+   */
+  @Override
+  protected Class getCacheEntity() {
+    return Dataset.class;
+  }
 }
@@ -20,8 +20,19 @@
 
 package adams.flow.transformer.ufdl;
 
+import adams.core.MessageCollection;
+import adams.core.Utils;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 import com.github.waikatoufdl.ufdl4j.action.ImageClassificationDatasets;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Ancestor for transformer actions that work on image classification datasets.
  *
@@ -42,4 +53,83 @@ public abstract class AbstractImageClassificationDatasetTransformerAction
   protected ImageClassificationDatasets getDatasetsAction() throws Exception {
     return m_Client.action(ImageClassificationDatasets.class);
   }
+
+  /**
+   * Adds/removes categories for the images, combining all the images of
+   * a dataset that share the same categories into a single request.
+   * Items without categories are considered successful.
+   *
+   * @param datasets	the dataset per item (null to skip item)
+   * @param names	the image names per item
+   * @param categories	the categories per item
+   * @param add		whether to add or remove the categories
+   * @param errors	for collecting errors
+   * @return		whether the update was successful, per item
+   */
+  protected boolean[] updateCategories(List<Dataset> datasets, List<List<String>> names, List<List<String>> categories, boolean add, MessageCollection errors) {
+    boolean[]				result;
+    Map<List<Object>,List<Integer>>	groups;
+    List<Object>			key;
+    ImageClassificationDatasets		action;
+    Dataset				dataset;
+    Set<String>				groupNames;
+    List<String>			groupCategories;
+    boolean				success;
+    String				msg;
+    int					i;
+
+    result = new boolean[datasets.size()];
+    groups = new LinkedHashMap<>();
+    for (i = 0; i < datasets.size(); i++) {
+      if (datasets.get(i) == null)
+        continue;
+      if (categories.get(i).isEmpty()) {
+        result[i] = true;
+        continue;
+      }
+      key = Arrays.asList(datasets.get(i).getPK(), categories.get(i));
+      if (!groups.containsKey(key))
+        groups.put(key, new ArrayList<>());
+      groups.get(key).add(i);
+    }
+    if (groups.isEmpty())
+      return result;
+
+    try {
+      action = getDatasetsAction();
+    }
+    catch (Exception e) {
+      errors.add("Failed to instantiate " + Utils.classToString(ImageClassificationDatasets.class) + " action!", e);
+      return result;
+    }
+
+    for (List<Integer> indices: groups.values()) {
+      dataset         = datasets.get(indices.get(0));
+      groupCategories = categories.get(indices.get(0));
+      groupNames      = new LinkedHashSet<>();
+      for (int index: indices)
+        groupNames.addAll(names.get(index));
+      msg = "Failed to " + (add ? "add" : "remove") + " categories " + Utils.flatten(groupCategories, ", ")
+        + " for " + groupNames.size() + " image(s) in dataset: " + dataset;
+      if (isLoggingEnabled())
+        getLogger().info((add ? "Adding" : "Removing") + " categories " + Utils.flatten(groupCategories, ", ")
+	  + " for " + groupNames.size() + " image(s) in dataset: " + dataset);
+      success = false;
+      try {
+        if (add)
+          success = action.addCategories(dataset, new ArrayList<>(groupNames), groupCategories);
+        else
+          success = action.removeCategories(dataset, new ArrayList<>(groupNames), groupCategories);
+        if (!success)
+          errors.add(msg);
+      }
+      catch (Exception e) {
+        errors.add(msg, e);
+      }
+      for (int index: indices)
+        result[index] = success;
+    }
+
+    return result;
+  }
 }
@@ -26,13 +26,16 @@ import adams.core.Utils;
 import adams.core.base.BaseObject;
 import adams.core.base.BaseString;
 import adams.core.io.PlaceholderFile;
+import adams.flow.core.UFDLBatchSupporter;
 import adams.flow.core.UFDLFileNameExtraction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 import com.github.waikatoufdl.ufdl4j.action.ImageClassificationDatasets;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Adds the files to the dataset passing through (PK or dataset name).
@@ -40,7 +43,8 @@ import java.util.List;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class AddImageClassificationFile
-  extends AbstractImageClassificationDatasetTransformerAction {
+  extends AbstractImageClassificationDatasetTransformerAction
+  implements UFDLBatchSupporter {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -196,6 +200,64 @@ public class AddImageClassificationFile
     return new Class[]{Dataset.class};
   }
 
+  /**
+   * Returns the current values of the options that are required for
+   * processing a single input in batch mode.
+   *
+   * @return		the files, the image names and the categories
+   */
+  @Override
+  protected Object getBatchState() {
+    String[]	files;
+    String[]	names;
+    int		i;
+
+    files = new String[m_Files.length];
+    names = new String[m_Files.length];
+    for (i = 0; i < m_Files.length; i++) {
+      files[i] = m_Files[i].getAbsolutePath();
+      names[i] = m_ImageNameExtraction.extract(m_Files[i]);
+    }
+
+    return new String[][]{files, names, BaseObject.toStringArray(m_Categories)};
+  }
+
+  /**
+   * Uploads the files to the dataset.
+   *
+   * @param action	the action to use
+   * @param dataset	the dataset to add the files to
+   * @param values	the files, the image names and the categories
+   * @param errors	for collecting errors
+   * @return		true if all files were uploaded
+   */
+  protected boolean addFiles(ImageClassificationDatasets action, Dataset dataset, String[][] values, MessageCollection errors) {
+    boolean	result;
+    File	file;
+    String	name;
+    int		i;
+
+    result = true;
+    for (i = 0; i < values[0].length; i++) {
+      file = new File(values[0][i]);
+      name = values[1][i];
+      if (isLoggingEnabled())
+	getLogger().info("Adding image '" + name + "' to dataset " + dataset + ": " + file);
+      try {
+	if (!action.addFile(dataset, file, name)) {
+	  errors.add("Failed to add image '" + name + "' to " + dataset + ": " + file);
+	  result = false;
+	}
+      }
+      catch (Exception e) {
+	errors.add("Failed to add image '" + name + "' to " + dataset + ": " + file, e);
+	result = false;
+      }
+    }
+
+    return result;
+  }
+
   /**
    * Transforms the dataset.
    *
@@ -205,9 +267,21 @@ public class AddImageClassificationFile
    */
   @Override
   protected Object doTransform(Dataset dataset, MessageCollection errors) {
+    return doTransform(dataset, getBatchState(), errors);
+  }
+
+  /**
+   * Transforms the dataset using the captured options.
+   *
+   * @param dataset	the dataset
+   * @param state	the files, the image names and the categories
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(Dataset dataset, Object state, MessageCollection errors) {
     ImageClassificationDatasets	action;
-    String			name;
-    List<String> 		names;
+    String[][]			values;
 
     try {
       action = getDatasetsAction();
@@ -217,35 +291,74 @@ public class AddImageClassificationFile
       return null;
     }
 
-    names = new ArrayList<>();
-    for (PlaceholderFile file: m_Files) {
-      name = m_ImageNameExtraction.extract(file);
-      names.add(name);
-      if (isLoggingEnabled())
-	getLogger().info("Adding image '" + name + "' to dataset " + dataset + ": " + file);
-      try {
-	if (!action.addFile(dataset, file.getAbsoluteFile(), name))
-	  errors.add("Failed to add image '" + name + "' to " + dataset + ": " + file);
-      }
-      catch (Exception e) {
-	errors.add("Failed to add image '" + name + "' to " + dataset + ": " + file, e);
-      }
-    }
-
-    if (errors.isEmpty()) {
-      if (m_Categories.length > 0) {
+    values = (String[][]) state;
+    if (addFiles(action, dataset, values, errors)) {
+      if (values[2].length > 0) {
         if (isLoggingEnabled())
-          getLogger().info("Assigning categories to dataset " + dataset + ": " + Utils.flatten(m_Categories, ", "));
+          getLogger().info("Assigning categories to dataset " + dataset + ": " + Utils.flatten(values[2], ", "));
         try {
-          if (!action.addCategories(dataset, names, Arrays.asList(BaseObject.toStringArray(m_Categories))))
-            errors.add("Failed to add categories to " + dataset + ": " + Utils.flatten(m_Categories, ", "));
+          if (!action.addCategories(dataset, Arrays.asList(values[1]), Arrays.asList(values[2])))
+            errors.add("Failed to add categories to " + dataset + ": " + Utils.flatten(values[2], ", "));
         }
         catch (Exception e) {
-          errors.add("Failed to add categories to " + dataset + ": " + Utils.flatten(m_Categories, ", "), e);
+          errors.add("Failed to add categories to " + dataset + ": " + Utils.flatten(values[2], ", "), e);
         }
       }
     }
 
     return dataset;
   }
+
+  /**
+   * Transforms the batch items. The files get uploaded one by one, but the
+   * categories of all the images of a dataset that share the same categories
+   * get assigned with a single request.
+   *
+   * @param items	the items to transform
+   * @param datasets	the loaded datasets (input - dataset, null if failed to load)
+   * @param errors	for collecting errors
+   * @return		the outputs, in the same order as the items (null for failed items)
+   */
+  @Override
+  protected List<Object> doTransformBatch(List<DatasetBatchItem> items, Map<Object,Dataset> datasets, MessageCollection errors) {
+    List<Object>		result;
+    ImageClassificationDatasets	action;
+    List<Dataset>		uploaded;
+    List<List<String>>		names;
+    List<List<String>>		categories;
+    String[][]			values;
+    Dataset			dataset;
+    boolean[]			success;
+    int				i;
+
+    try {
+      action = getDatasetsAction();
+    }
+    catch (Exception e) {
+      errors.add("Failed to instantiate " + Utils.classToString(ImageClassificationDatasets.class) + " action!", e);
+      return new ArrayList<>(Arrays.asList(new Object[items.size()]));
+    }
+
+    // upload files
+    uploaded   = new ArrayList<>();
+    names      = new ArrayList<>();
+    categories = new ArrayList<>();
+    for (DatasetBatchItem item: items) {
+      dataset = datasets.get(item.getInput());
+      values  = (String[][]) item.getState();
+      if ((dataset != null) && !addFiles(action, dataset, values, errors))
+        dataset = null;
+      uploaded.add(dataset);
+      names.add(Arrays.asList(values[1]));
+      categories.add(Arrays.asList(values[2]));
+    }
+
+    // assign categories
+    success = updateCategories(uploaded, names, categories, true, errors);
+    result  = new ArrayList<>();
+    for (i = 0; i < items.size(); i++)
+      result.add(success[i] ? uploaded.get(i) : null);
+
+    return result;
+  }
 }
@@ -0,0 +1,554 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * BulkSetImageClassificationCategories.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.data.spreadsheet.Cell;
+import adams.data.spreadsheet.Row;
+import adams.data.spreadsheet.SpreadSheet;
+import adams.data.spreadsheet.SpreadSheetColumnIndex;
+import adams.flow.control.StorageName;
+import adams.flow.control.StorageUser;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLParallelRequests.Request;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.ImageClassificationDatasets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns the categories of many images in the image classification dataset
+ * passing through, using a spreadsheet from storage (image - categories).
+ * The requested categories get compared against the current ones and images
+ * that require the same changes get grouped, to minimize the number of
+ * requests to the backend.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class BulkSetImageClassificationCategories
+  extends AbstractImageClassificationDatasetTransformerAction
+  implements StorageUser {
+
+  private static final long serialVersionUID = 4011328093167829935L;
+
+  /** the storage item with the spreadsheet. */
+  protected StorageName m_StorageName;
+
+  /** the column with the image names. */
+  protected SpreadSheetColumnIndex m_NameColumn;
+
+  /** the column with the categories. */
+  protected SpreadSheetColumnIndex m_CategoriesColumn;
+
+  /** the separator for the categories. */
+  protected String m_Separator;
+
+  /** whether to remove categories that are not listed. */
+  protected boolean m_RemoveUnlisted;
+
+  /** the number of concurrent requests. */
+  protected int m_NumThreads;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Assigns the categories of many images in the image classification dataset passing through, "
+      + "using a spreadsheet from storage (image - categories).\n"
+      + "The requested categories get compared against the current ones and images that require "
+      + "the same changes get grouped, to minimize the number of requests to the backend.\n"
+      + "Images not listed in the spreadsheet are left untouched.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "storage-name", "storageName",
+      new StorageName("categories"));
+
+    m_OptionManager.add(
+      "name-column", "nameColumn",
+      new SpreadSheetColumnIndex("1"));
+
+    m_OptionManager.add(
+      "categories-column", "categoriesColumn",
+      new SpreadSheetColumnIndex("2"));
+
+    m_OptionManager.add(
+      "separator", "separator",
+      ",");
+
+    m_OptionManager.add(
+      "remove-unlisted", "removeUnlisted",
+      true);
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+  }
+
+  /**
+   * Sets the name for the spreadsheet in the internal storage.
+   *
+   * @param value	the name
+   */
+  public void setStorageName(StorageName value) {
+    m_StorageName = value;
+    reset();
+  }
+
+  /**
+   * Returns the name for the spreadsheet in the internal storage.
+   *
+   * @return		the name
+   */
+  public StorageName getStorageName() {
+    return m_StorageName;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String storageNameTipText() {
+    return "The name for the spreadsheet with the image names and categories in the internal storage.";
+  }
+
+  /**
+   * Sets the column with the image names.
+   *
+   * @param value	the column
+   */
+  public void setNameColumn(SpreadSheetColumnIndex value) {
+    m_NameColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the column with the image names.
+   *
+   * @return		the column
+   */
+  public SpreadSheetColumnIndex getNameColumn() {
+    return m_NameColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String nameColumnTipText() {
+    return "The column with the image names.";
+  }
+
+  /**
+   * Sets the column with the categories.
+   *
+   * @param value	the column
+   */
+  public void setCategoriesColumn(SpreadSheetColumnIndex value) {
+    m_CategoriesColumn = value;
+    reset();
+  }
+
+  /**
+   * Returns the column with the categories.
+   *
+   * @return		the column
+   */
+  public SpreadSheetColumnIndex getCategoriesColumn() {
+    return m_CategoriesColumn;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String categoriesColumnTipText() {
+    return "The column with the categories.";
+  }
+
+  /**
+   * Sets the separator for multiple categories.
+   *
+   * @param value	the separator
+   */
+  public void setSeparator(String value) {
+    m_Separator = value;
+    reset();
+  }
+
+  /**
+   * Returns the separator for multiple categories.
+   *
+   * @return		the separator
+   */
+  public String getSeparator() {
+    return m_Separator;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String separatorTipText() {
+    return "The separator for multiple categories in a cell.";
+  }
+
+  /**
+   * Sets whether to remove categories not listed in the spreadsheet.
+   *
+   * @param value	true if to remove
+   */
+  public void setRemoveUnlisted(boolean value) {
+    m_RemoveUnlisted = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to remove categories not listed in the spreadsheet.
+   *
+   * @return		true if to remove
+   */
+  public boolean getRemoveUnlisted() {
+    return m_RemoveUnlisted;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String removeUnlistedTipText() {
+    return "If enabled, categories of an image that are not listed in the spreadsheet get removed; "
+      + "otherwise categories only get added.";
+  }
+
+  /**
+   * Sets the number of concurrent requests.
+   *
+   * @param value	the number of requests
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of concurrent requests.
+   *
+   * @return		the number of requests
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return UFDLParallelRequests.numThreadsTipText();
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "storageName", m_StorageName, "storage: ");
+    result += QuickInfoHelper.toString(this, "nameColumn", m_NameColumn, ", name: ");
+    result += QuickInfoHelper.toString(this, "categoriesColumn", m_CategoriesColumn, ", categories: ");
+    result += QuickInfoHelper.toString(this, "removeUnlisted", m_RemoveUnlisted, "remove unlisted", ", ");
+    result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", threads: ");
+
+    return result;
+  }
+
+  /**
+   * Returns whether storage items are being used.
+   *
+   * @return		true if storage items are used
+   */
+  public boolean isUsingStorage() {
+    return true;
+  }
+
+  /**
+   * Returns whether the action requires flow context.
+   *
+   * @return		true if required
+   */
+  @Override
+  public boolean requiresFlowContext() {
+    return true;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{Dataset.class};
+  }
+
+  /**
+   * Check method before processing the data.
+   *
+   * @param input	the data to check
+   * @return		null if checks successful, otherwise error message
+   */
+  @Override
+  protected String check(Object input) {
+    String 	result;
+
+    result = super.check(input);
+
+    if (result == null) {
+      if (m_FlowContext.getStorageHandler() == null)
+        result = "No storage handler available!";
+      else if (m_FlowContext.getStorageHandler().getStorage() == null)
+        result = "No storage available!";
+      else if (!m_FlowContext.getStorageHandler().getStorage().has(m_StorageName))
+        result = "Spreadsheet not available from storage: " + m_StorageName;
+      else if (!(m_FlowContext.getStorageHandler().getStorage().get(m_StorageName) instanceof SpreadSheet))
+        result = "Didn't find " + Utils.classToString(SpreadSheet.class) + " object in storage ('" + m_StorageName + "'), but: "
+	  + Utils.classToString(m_FlowContext.getStorageHandler().getStorage().get(m_StorageName));
+    }
+
+    return result;
+  }
+
+  /**
+   * Reads the requested categories from the spreadsheet.
+   *
+   * @param errors	for collecting errors
+   * @return		the categories per image, null if failed
+   */
+  protected Map<String,Set<String>> readCategories(MessageCollection errors) {
+    Map<String,Set<String>>	result;
+    SpreadSheet			sheet;
+    int				colName;
+    int				colCategories;
+    Cell			cell;
+    Set<String>			categories;
+    String[]			parts;
+
+    sheet = (SpreadSheet) m_FlowContext.getStorageHandler().getStorage().get(m_StorageName);
+    m_NameColumn.setData(sheet);
+    m_CategoriesColumn.setData(sheet);
+    colName       = m_NameColumn.getIntIndex();
+    colCategories = m_CategoriesColumn.getIntIndex();
+    if (colName == -1) {
+      errors.add("Name column not found: " + m_NameColumn);
+      return null;
+    }
+    if (colCategories == -1) {
+      errors.add("Categories column not found: " + m_CategoriesColumn);
+      return null;
+    }
+
+    result = new LinkedHashMap<>();
+    for (Row row: sheet.rows()) {
+      cell = row.getCell(colName);
+      if ((cell == null) || cell.isMissing())
+	continue;
+      categories = result.computeIfAbsent(cell.getContent(), k -> new TreeSet<>());
+      cell = row.getCell(colCategories);
+      if ((cell == null) || cell.isMissing())
+	continue;
+      if (m_Separator.isEmpty())
+	parts = new String[]{cell.getContent()};
+      else
+	parts = cell.getContent().split(Pattern.quote(m_Separator));
+      for (String category: parts) {
+	if (!category.trim().isEmpty())
+	  categories.add(category.trim());
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Groups the images by identical category changes.
+   *
+   * @param changes	the changes per image
+   * @return		the groups (categories - images)
+   */
+  protected Map<Set<String>,List<String>> group(Map<String,Set<String>> changes) {
+    Map<Set<String>,List<String>>	result;
+
+    result = new HashMap<>();
+    for (String name: changes.keySet()) {
+      if (changes.get(name).isEmpty())
+	continue;
+      result.computeIfAbsent(changes.get(name), k -> new ArrayList<>()).add(name);
+    }
+
+    return result;
+  }
+
+  /**
+   * Generates the requests for the groups.
+   *
+   * @param action	the action to use
+   * @param dataset	the dataset to update
+   * @param groups	the groups
+   * @param add		whether to add or remove the categories
+   * @return		the requests
+   */
+  protected List<Request<Boolean>> generateRequests(final ImageClassificationDatasets action, final Dataset dataset, Map<Set<String>,List<String>> groups, final boolean add) {
+    List<Request<Boolean>>	result;
+
+    result = new ArrayList<>();
+    for (Set<String> categories: groups.keySet()) {
+      final List<String> cats  = new ArrayList<>(categories);
+      final List<String> names = groups.get(categories);
+      result.add(new Request<Boolean>() {
+	@Override
+	public String getDescription() {
+	  return (add ? "add" : "remove") + " categories " + cats + " for " + names.size() + " image(s) in dataset: " + dataset;
+	}
+	@Override
+	public Boolean execute() throws Exception {
+	  boolean success;
+	  if (add)
+	    success = action.addCategories(dataset, names, cats);
+	  else
+	    success = action.removeCategories(dataset, names, cats);
+	  if (!success)
+	    throw new IllegalStateException("Backend rejected request!");
+	  return true;
+	}
+      });
+    }
+
+    return result;
+  }
+
+  /**
+   * Transforms the input data.
+   *
+   * @param dataset	the input data
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(Dataset dataset, MessageCollection errors) {
+    ImageClassificationDatasets		action;
+    Map<String,Set<String>>		requested;
+    Map<String,List<String>>		current;
+    Map<String,Set<String>>		toAdd;
+    Map<String,Set<String>>		toRemove;
+    Map<Set<String>,List<String>>	groupsAdd;
+    Map<Set<String>,List<String>>	groupsRemove;
+    Set<String>				existing;
+    Set<String>				diff;
+
+    try {
+      action = getDatasetsAction();
+    }
+    catch (Exception e) {
+      errors.add("Failed to instantiate " + Utils.classToString(ImageClassificationDatasets.class) + " action!", e);
+      return null;
+    }
+
+    requested = readCategories(errors);
+    if (requested == null)
+      return null;
+
+    try {
+      current = action.getCategories(dataset);
+    }
+    catch (Exception e) {
+      errors.add("Failed to retrieve categories for dataset: " + dataset, e);
+      return null;
+    }
+    if (current == null)
+      current = new HashMap<>();
+
+    // determine changes
+    toAdd    = new HashMap<>();
+    toRemove = new HashMap<>();
+    for (String name: requested.keySet()) {
+      existing = new TreeSet<>();
+      if (current.containsKey(name))
+	existing.addAll(current.get(name));
+      diff = new TreeSet<>(requested.get(name));
+      diff.removeAll(existing);
+      toAdd.put(name, diff);
+      if (m_RemoveUnlisted) {
+	diff = new TreeSet<>(existing);
+	diff.removeAll(requested.get(name));
+	toRemove.put(name, diff);
+      }
+    }
+    groupsAdd    = group(toAdd);
+    groupsRemove = group(toRemove);
+
+    if (isLoggingEnabled())
+      getLogger().info("Updating categories of dataset " + dataset + ": "
+	+ groupsRemove.size() + " removal group(s), " + groupsAdd.size() + " addition group(s)");
+
+    // removals first, then additions; the images within each phase are disjoint across groups
+    UFDLParallelRequests.execute(generateRequests(action, dataset, groupsRemove, false), m_NumThreads, errors);
+    UFDLParallelRequests.execute(generateRequests(action, dataset, groupsAdd, true), m_NumThreads, errors);
+
+    return dataset;
+  }
+}
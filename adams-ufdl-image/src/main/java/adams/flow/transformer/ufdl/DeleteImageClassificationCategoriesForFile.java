@@ -24,9 +24,13 @@ import adams.core.MessageCollection;
 import adams.core.QuickInfoHelper;
 import adams.core.base.BaseObject;
 import adams.core.base.BaseString;
+import adams.flow.core.UFDLBatchSupporter;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Removes the specified categories from the named images for the dataset passing through.
@@ -34,7 +38,8 @@ import java.util.Arrays;
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class DeleteImageClassificationCategoriesForFile
-  extends AbstractImageClassificationDatasetTransformerAction {
+  extends AbstractImageClassificationDatasetTransformerAction
+  implements UFDLBatchSupporter {
 
   private static final long serialVersionUID = -1421130988687306299L;
 
@@ -153,6 +158,17 @@ public class DeleteImageClassificationCategoriesForFile
     return new Class[]{Dataset.class};
   }
 
+  /**
+   * Returns the current values of the options that are required for
+   * processing a single input in batch mode.
+   *
+   * @return		the image names and the categories
+   */
+  @Override
+  protected Object getBatchState() {
+    return new String[][]{BaseObject.toStringArray(m_Names), BaseObject.toStringArray(m_Categories)};
+  }
+
   /**
    * Transforms the input data.
    *
@@ -162,11 +178,27 @@ public class DeleteImageClassificationCategoriesForFile
    */
   @Override
   protected Object doTransform(Dataset dataset, MessageCollection errors) {
+    return doTransform(dataset, getBatchState(), errors);
+  }
+
+  /**
+   * Transforms the dataset using the captured options.
+   *
+   * @param dataset	the dataset
+   * @param state	the image names and the categories
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(Dataset dataset, Object state, MessageCollection errors) {
+    String[][]	values;
+
+    values = (String[][]) state;
     try {
       if (!getDatasetsAction().removeCategories(
         dataset,
-	Arrays.asList(BaseObject.toStringArray(m_Names)),
-	Arrays.asList(BaseObject.toStringArray(m_Categories))))
+	Arrays.asList(values[0]),
+	Arrays.asList(values[1])))
 	errors.add("Failed to removes categories from dataset: " + dataset);
     }
     catch (Exception e) {
@@ -175,4 +207,41 @@ public class DeleteImageClassificationCategoriesForFile
 
     return dataset;
   }
+
+  /**
+   * Transforms the batch items, combining all the images of a dataset
+   * that share the same categories into a single request.
+   *
+   * @param items	the items to transform
+   * @param datasets	the loaded datasets (input - dataset, null if failed to load)
+   * @param errors	for collecting errors
+   * @return		the outputs, in the same order as the items (null for failed items)
+   */
+  @Override
+  protected List<Object> doTransformBatch(List<DatasetBatchItem> items, Map<Object,Dataset> datasets, MessageCollection errors) {
+    List<Object>	result;
+    List<Dataset>	itemDatasets;
+    List<List<String>>	names;
+    List<List<String>>	categories;
+    String[][]		values;
+    boolean[]		success;
+    int			i;
+
+    itemDatasets = new ArrayList<>();
+    names        = new ArrayList<>();
+    categories   = new ArrayList<>();
+    for (DatasetBatchItem item: items) {
+      values = (String[][]) item.getState();
+      itemDatasets.add(datasets.get(item.getInput()));
+      names.add(Arrays.asList(values[0]));
+      categories.add(Arrays.asList(values[1]));
+    }
+
+    success = updateCategories(itemDatasets, names, categories, false, errors);
+    result  = new ArrayList<>();
+    for (i = 0; i < items.size(); i++)
+      result.add(success[i] ? itemDatasets.get(i) : null);
+
+    return result;
+  }
 }
@@ -0,0 +1,387 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * GetImageSegmentationCombinedMasks.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.core.base.BaseObject;
+import adams.core.base.BaseString;
+import adams.core.io.PlaceholderDirectory;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLParallelRequests.Request;
+import adams.flow.core.UFDLReadOnlyAction;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.ImageSegmentationDatasets;
+import com.github.waikatoufdl.ufdl4j.action.ImageSegmentationDatasets.ImageSegmentationDataset;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Retrieves all the label layers of the images in the image segmentation
+ * dataset passing through and combines them into a single indexed PNG per
+ * image. Index 0 is the background, index i the i-th label (as returned by
+ * the dataset's labels). Forwards the generated file names.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class GetImageSegmentationCombinedMasks
+  extends AbstractImageSegmentationDatasetTransformerAction
+  implements UFDLReadOnlyAction {
+
+  private static final long serialVersionUID = -6000813577318431417L;
+
+  /** the maximum number of labels an indexed PNG can hold. */
+  public static final int MAX_LABELS = 255;
+
+  /** the names of the images to retrieve. */
+  protected BaseString[] m_Names;
+
+  /** the output directory. */
+  protected PlaceholderDirectory m_OutputDir;
+
+  /** the number of concurrent requests. */
+  protected int m_NumThreads;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Retrieves all the label layers of the images in the image segmentation dataset passing through "
+      + "and combines them into a single indexed PNG per image.\n"
+      + "Index 0 is the background, index i the i-th label (as returned by the dataset's labels); "
+      + "where layers overlap, later labels take precedence.\n"
+      + "The images get processed concurrently, with only one combined mask per thread held in memory.\n"
+      + "Forwards the names of the generated files.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "name", "names",
+      new BaseString[0]);
+
+    m_OptionManager.add(
+      "output-dir", "outputDir",
+      new PlaceholderDirectory());
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+  }
+
+  /**
+   * Sets the names of the images to retrieve.
+   *
+   * @param value	the names
+   */
+  public void setNames(BaseString[] value) {
+    m_Names = value;
+    reset();
+  }
+
+  /**
+   * Returns the names of the images to retrieve.
+   *
+   * @return		the names
+   */
+  public BaseString[] getNames() {
+    return m_Names;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String namesTipText() {
+    return "The names of the images to retrieve the masks for; uses all images of the dataset if none specified.";
+  }
+
+  /**
+   * Sets the output directory for the masks.
+   *
+   * @param value	the directory
+   */
+  public void setOutputDir(PlaceholderDirectory value) {
+    m_OutputDir = value;
+    reset();
+  }
+
+  /**
+   * Returns the output directory for the masks.
+   *
+   * @return		the directory
+   */
+  public PlaceholderDirectory getOutputDir() {
+    return m_OutputDir;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String outputDirTipText() {
+    return "The directory to store the combined masks in (image name with .png extension).";
+  }
+
+  /**
+   * Sets the number of concurrent requests.
+   *
+   * @param value	the number of requests
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of concurrent requests.
+   *
+   * @return		the number of requests
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return UFDLParallelRequests.numThreadsTipText();
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "names", (m_Names.length == 0 ? "-all-" : Utils.flatten(m_Names, ",")), "names: ");
+    result += QuickInfoHelper.toString(this, "outputDir", m_OutputDir, ", output: ");
+    result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", threads: ");
+
+    return result;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{String[].class};
+  }
+
+  /**
+   * Generates the color model for the labels.
+   *
+   * @param numLabels	the number of labels
+   * @return		the color model
+   */
+  protected IndexColorModel createColorModel(int numLabels) {
+    byte[]	r;
+    byte[]	g;
+    byte[]	b;
+    int		i;
+    Color	c;
+
+    r = new byte[numLabels + 1];
+    g = new byte[numLabels + 1];
+    b = new byte[numLabels + 1];
+    for (i = 1; i <= numLabels; i++) {
+      c    = Color.getHSBColor((float) (i - 1) / numLabels, 1.0f, 1.0f);
+      r[i] = (byte) c.getRed();
+      g[i] = (byte) c.getGreen();
+      b[i] = (byte) c.getBlue();
+    }
+
+    return new IndexColorModel(8, numLabels + 1, r, g, b);
+  }
+
+  /**
+   * Retrieves the layers of the image and combines them.
+   *
+   * @param action	the action to use
+   * @param dataset	the dataset
+   * @param name	the image name
+   * @param labels	the labels
+   * @param model	the color model
+   * @return		the generated file
+   * @throws Exception	if retrieval fails
+   */
+  protected String process(ImageSegmentationDatasets action, Dataset dataset, String name, List<String> labels, IndexColorModel model) throws Exception {
+    BufferedImage	combined;
+    WritableRaster	rasterCombined;
+    BufferedImage	layer;
+    Raster		rasterLayer;
+    File		tmpFile;
+    File		outFile;
+    int[]		row;
+    int			i;
+    int			x;
+    int			y;
+
+    combined       = null;
+    rasterCombined = null;
+    row            = null;
+
+    for (i = 0; i < labels.size(); i++) {
+      // ufdl4j only supports downloading layers to files
+      tmpFile = File.createTempFile("ufdl-layer-", ".png");
+      try {
+	if (!action.getLayer(dataset, name, labels.get(i), tmpFile)) {
+	  if (isLoggingEnabled())
+	    getLogger().info("No layer '" + labels.get(i) + "' for image '" + name + "'");
+	  continue;
+	}
+	layer = ImageIO.read(tmpFile);
+      }
+      finally {
+	if (!tmpFile.delete())
+	  tmpFile.deleteOnExit();
+      }
+      if (layer == null)
+	throw new IllegalStateException("Failed to read layer '" + labels.get(i) + "' for image '" + name + "'!");
+
+      if (combined == null) {
+	combined       = new BufferedImage(layer.getWidth(), layer.getHeight(), BufferedImage.TYPE_BYTE_INDEXED, model);
+	rasterCombined = combined.getRaster();
+	row            = new int[layer.getWidth()];
+      }
+      if ((layer.getWidth() != combined.getWidth()) || (layer.getHeight() != combined.getHeight()))
+	throw new IllegalStateException("Layer '" + labels.get(i) + "' for image '" + name + "' has different dimensions: "
+	  + layer.getWidth() + "x" + layer.getHeight() + " != " + combined.getWidth() + "x" + combined.getHeight());
+
+      rasterLayer = layer.getRaster();
+      for (y = 0; y < layer.getHeight(); y++) {
+	row = rasterLayer.getSamples(0, y, layer.getWidth(), 1, 0, row);
+	for (x = 0; x < row.length; x++) {
+	  if (row[x] != 0)
+	    rasterCombined.setSample(x, y, 0, i + 1);
+	}
+      }
+    }
+
+    if (combined == null)
+      throw new IllegalStateException("No layers available for image '" + name + "'!");
+
+    outFile = new File(m_OutputDir.getAbsoluteFile(), name.replaceAll("\\.[^./]*$", "") + ".png");
+    if (!ImageIO.write(combined, "png", outFile))
+      throw new IllegalStateException("Failed to write combined mask: " + outFile);
+
+    return outFile.getAbsolutePath();
+  }
+
+  /**
+   * Transforms the input data.
+   *
+   * @param dataset	the input data
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(final Dataset dataset, MessageCollection errors) {
+    final ImageSegmentationDatasets	action;
+    final List<String>			labels;
+    final IndexColorModel		model;
+    List<String>			names;
+    List<Request<String>>		requests;
+    List<String>			files;
+
+    try {
+      action = getDatasetsAction();
+      labels = new ArrayList<>(action.getLabels(dataset));
+    }
+    catch (Exception e) {
+      errors.add("Failed to retrieve labels for dataset: " + dataset, e);
+      return null;
+    }
+    if (labels.isEmpty()) {
+      errors.add("No labels defined for dataset: " + dataset);
+      return null;
+    }
+    if (labels.size() > MAX_LABELS) {
+      errors.add("Too many labels for indexed PNG (max " + MAX_LABELS + "): " + labels.size());
+      return null;
+    }
+    model = createColorModel(labels.size());
+
+    if (m_Names.length == 0)
+      names = new ArrayList<>(dataset.as(ImageSegmentationDataset.class).getFiles());
+    else
+      names = Arrays.asList(BaseObject.toStringArray(m_Names));
+
+    if (isLoggingEnabled())
+      getLogger().info("Retrieving " + labels.size() + " layer(s) for " + names.size() + " image(s) of dataset: " + dataset);
+
+    requests = new ArrayList<>();
+    for (final String name: names) {
+      requests.add(new Request<String>() {
+	@Override
+	public String getDescription() {
+	  return "retrieve combined mask for image '" + name + "' from dataset: " + dataset;
+	}
+	@Override
+	public String execute() throws Exception {
+	  return process(action, dataset, name, labels, model);
+	}
+      });
+    }
+
+    files = new ArrayList<>();
+    for (String file: UFDLParallelRequests.execute(requests, m_NumThreads, errors)) {
+      if (file != null)
+	files.add(file);
+    }
+
+    return files.toArray(new String[0]);
+  }
+}
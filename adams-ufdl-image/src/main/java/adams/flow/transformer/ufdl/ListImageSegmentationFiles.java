@@ -25,6 +25,7 @@ import adams.core.MessageCollection;
 import adams.core.base.JsonPathExpression;
 import adams.data.conversion.UFDLImageSegmentationDatasetFilesToSpreadSheet;
 import adams.data.spreadsheet.SpreadSheet;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -34,7 +35,7 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  */
 public class ListImageSegmentationFiles
   extends AbstractImageSegmentationDatasetTransformerAction
-  implements AdditionalInformationHandler {
+  implements AdditionalInformationHandler, UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
@@ -21,6 +21,7 @@
 package adams.flow.transformer.ufdl;
 
 import adams.core.MessageCollection;
+import adams.flow.core.UFDLReadOnlyAction;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 import com.github.waikatoufdl.ufdl4j.action.ImageSegmentationDatasets.ImageSegmentationDataset;
 
@@ -30,7 +31,8 @@ import com.github.waikatoufdl.ufdl4j.action.ImageSegmentationDatasets.ImageSegme
  * @author FracPete (fracpete at waikato dot ac dot nz)
  */
 public class LoadImageSegmentationDataset
-  extends AbstractImageSegmentationDatasetTransformerAction {
+  extends AbstractImageSegmentationDatasetTransformerAction
+  implements UFDLReadOnlyAction {
 
   private static final long serialVersionUID = 2890424326502728143L;
 
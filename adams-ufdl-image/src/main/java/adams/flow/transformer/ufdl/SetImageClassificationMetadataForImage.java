@@ -25,6 +25,7 @@ import adams.core.QuickInfoHelper;
 import adams.core.Utils;
 import adams.flow.control.StorageName;
 import adams.flow.control.StorageUser;
+import adams.flow.core.UFDLBatchSupporter;
 import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
 
 /**
@@ -34,7 +35,7 @@ import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
  */
 public class SetImageClassificationMetadataForImage
   extends AbstractImageClassificationDatasetTransformerAction
-  implements StorageUser {
+  implements StorageUser, UFDLBatchSupporter {
 
   private static final long serialVersionUID = -1421130988687306299L;
 
@@ -199,6 +200,17 @@ public class SetImageClassificationMetadataForImage
     return result;
   }
 
+  /**
+   * Returns the current values of the options that are required for
+   * processing a single input in batch mode.
+   *
+   * @return		the name of the image and the metadata
+   */
+  @Override
+  protected Object getBatchState() {
+    return new String[]{m_Name, (String) m_FlowContext.getStorageHandler().getStorage().get(m_StorageName)};
+  }
+
   /**
    * Transforms the input data.
    *
@@ -208,16 +220,29 @@ public class SetImageClassificationMetadataForImage
    */
   @Override
   protected Object doTransform(Dataset dataset, MessageCollection errors) {
-    boolean			result;
-    String  			metadata;
+    return doTransform(dataset, getBatchState(), errors);
+  }
+
+  /**
+   * Transforms the dataset using the captured options.
+   *
+   * @param dataset	the dataset
+   * @param state	the name of the image and the metadata
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(Dataset dataset, Object state, MessageCollection errors) {
+    boolean	result;
+    String[]	values;
 
     result = false;
+    values = (String[]) state;
     try {
-      metadata = (String) m_FlowContext.getStorageHandler().getStorage().get(m_StorageName);
-      result = getDatasetsAction().setMetadata(dataset, m_Name, metadata);
+      result = getDatasetsAction().setMetadata(dataset, values[0], values[1]);
     }
     catch (Exception e) {
-      errors.add("Failed to set metadata for image '" + m_Name + "' in dataset: " + dataset, e);
+      errors.add("Failed to set metadata for image '" + values[0] + "' in dataset: " + dataset, e);
     }
 
     return result;
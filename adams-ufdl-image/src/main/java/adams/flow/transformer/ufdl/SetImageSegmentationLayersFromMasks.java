@@ -0,0 +1,529 @@
+/*
+ *   This program is free software: you can redistribute it and/or modify
+ *   it under the terms of the GNU General Public License as published by
+ *   the Free Software Foundation, either version 3 of the License, or
+ *   (at your option) any later version.
+ *
+ *   This program is distributed in the hope that it will be useful,
+ *   but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *   MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *   GNU General Public License for more details.
+ *
+ *   You should have received a copy of the GNU General Public License
+ *   along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/*
+ * SetImageSegmentationLayersFromMasks.java
+ * Copyright (C) 2024 University of Waikato, Hamilton, NZ
+ */
+
+package adams.flow.transformer.ufdl;
+
+import adams.core.MessageCollection;
+import adams.core.QuickInfoHelper;
+import adams.core.Utils;
+import adams.core.base.BaseKeyValuePair;
+import adams.core.io.PlaceholderFile;
+import adams.flow.core.UFDLFileNameExtraction;
+import adams.flow.core.UFDLMaskType;
+import adams.flow.core.UFDLParallelRequests;
+import adams.flow.core.UFDLParallelRequests.Request;
+import com.github.waikatoufdl.ufdl4j.action.Datasets.Dataset;
+import com.github.waikatoufdl.ufdl4j.action.ImageSegmentationDatasets;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits combined segmentation masks (indexed or colour-coded) into per-label
+ * binary layers in memory and uploads them to the image segmentation dataset
+ * passing through.
+ *
+ * @author FracPete (fracpete at waikato dot ac dot nz)
+ */
+public class SetImageSegmentationLayersFromMasks
+  extends AbstractImageSegmentationDatasetTransformerAction {
+
+  private static final long serialVersionUID = 1993584467617283104L;
+
+  /** the mask files. */
+  protected PlaceholderFile[] m_MaskFiles;
+
+  /** the type of masks. */
+  protected UFDLMaskType m_MaskType;
+
+  /** the label mapping (index/colour -> label). */
+  protected BaseKeyValuePair[] m_LabelMapping;
+
+  /** how to extract the name of the image. */
+  protected UFDLFileNameExtraction m_ImageNameExtraction;
+
+  /** the extension of the images in the dataset. */
+  protected String m_ImageExtension;
+
+  /** whether to skip empty layers. */
+  protected boolean m_SkipEmptyLayers;
+
+  /** the number of concurrent requests. */
+  protected int m_NumThreads;
+
+  /**
+   * Returns a string describing the object.
+   *
+   * @return 			a description suitable for displaying in the gui
+   */
+  @Override
+  public String globalInfo() {
+    return "Splits combined segmentation masks (indexed or colour-coded) into per-label binary layers "
+      + "in memory and uploads them to the image segmentation dataset passing through.\n"
+      + "The label mapping uses the pixel index (eg '1=car') or the RGB colour in hex notation "
+      + "(eg '#ff0000=car') as key. Pixels with values not in the mapping are treated as background.\n"
+      + "The masks of several images get processed concurrently.";
+  }
+
+  /**
+   * Adds options to the internal list of options.
+   */
+  @Override
+  public void defineOptions() {
+    super.defineOptions();
+
+    m_OptionManager.add(
+      "mask-file", "maskFiles",
+      new PlaceholderFile[0]);
+
+    m_OptionManager.add(
+      "mask-type", "maskType",
+      UFDLMaskType.INDEXED);
+
+    m_OptionManager.add(
+      "label-mapping", "labelMapping",
+      new BaseKeyValuePair[0]);
+
+    m_OptionManager.add(
+      "image-name-extraction", "imageNameExtraction",
+      UFDLFileNameExtraction.NAME);
+
+    m_OptionManager.add(
+      "image-extension", "imageExtension",
+      ".jpg");
+
+    m_OptionManager.add(
+      "skip-empty-layers", "skipEmptyLayers",
+      false);
+
+    m_OptionManager.add(
+      "num-threads", "numThreads",
+      UFDLParallelRequests.DEFAULT_NUM_THREADS, 1, null);
+  }
+
+  /**
+   * Sets the mask files to process.
+   *
+   * @param value	the files
+   */
+  public void setMaskFiles(PlaceholderFile[] value) {
+    m_MaskFiles = value;
+    reset();
+  }
+
+  /**
+   * Returns the mask files to process.
+   *
+   * @return		the files
+   */
+  public PlaceholderFile[] getMaskFiles() {
+    return m_MaskFiles;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String maskFilesTipText() {
+    return "The combined mask files to split and upload (one per image).";
+  }
+
+  /**
+   * Sets the type of masks.
+   *
+   * @param value	the type
+   */
+  public void setMaskType(UFDLMaskType value) {
+    m_MaskType = value;
+    reset();
+  }
+
+  /**
+   * Returns the type of masks.
+   *
+   * @return		the type
+   */
+  public UFDLMaskType getMaskType() {
+    return m_MaskType;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String maskTypeTipText() {
+    return "The type of masks, ie whether pixel values are label indices or colours.";
+  }
+
+  /**
+   * Sets the label mapping.
+   *
+   * @param value	the mapping
+   */
+  public void setLabelMapping(BaseKeyValuePair[] value) {
+    m_LabelMapping = value;
+    reset();
+  }
+
+  /**
+   * Returns the label mapping.
+   *
+   * @return		the mapping
+   */
+  public BaseKeyValuePair[] getLabelMapping() {
+    return m_LabelMapping;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String labelMappingTipText() {
+    return "The mapping of index (eg '1') or hex colour (eg '#ff0000') to label.";
+  }
+
+  /**
+   * Sets how to extract the image name from the mask file name.
+   *
+   * @param value	the extraction type
+   */
+  public void setImageNameExtraction(UFDLFileNameExtraction value) {
+    m_ImageNameExtraction = value;
+    reset();
+  }
+
+  /**
+   * Returns how to extract the image name from the mask file name.
+   *
+   * @return		the extraction type
+   */
+  public UFDLFileNameExtraction getImageNameExtraction() {
+    return m_ImageNameExtraction;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String imageNameExtractionTipText() {
+    return "Determines how to generate the name of the image from the mask's filename.";
+  }
+
+  /**
+   * Sets the extension of the images in the dataset.
+   *
+   * @param value	the extension
+   */
+  public void setImageExtension(String value) {
+    m_ImageExtension = value;
+    reset();
+  }
+
+  /**
+   * Returns the extension of the images in the dataset.
+   *
+   * @return		the extension
+   */
+  public String getImageExtension() {
+    return m_ImageExtension;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String imageExtensionTipText() {
+    return "The extension of the images in the dataset that replaces the extension of the mask file (incl dot); leave empty to use the mask name as is.";
+  }
+
+  /**
+   * Sets whether to skip layers without any pixels.
+   *
+   * @param value	true if to skip
+   */
+  public void setSkipEmptyLayers(boolean value) {
+    m_SkipEmptyLayers = value;
+    reset();
+  }
+
+  /**
+   * Returns whether to skip layers without any pixels.
+   *
+   * @return		true if to skip
+   */
+  public boolean getSkipEmptyLayers() {
+    return m_SkipEmptyLayers;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String skipEmptyLayersTipText() {
+    return "If enabled, layers without any pixels set don't get uploaded.";
+  }
+
+  /**
+   * Sets the number of concurrent requests.
+   *
+   * @param value	the number of requests
+   */
+  public void setNumThreads(int value) {
+    if (getOptionManager().isValid("numThreads", value)) {
+      m_NumThreads = value;
+      reset();
+    }
+  }
+
+  /**
+   * Returns the number of concurrent requests.
+   *
+   * @return		the number of requests
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Returns the tip text for this property.
+   *
+   * @return 		tip text for this property suitable for
+   * 			displaying in the GUI or for listing the options.
+   */
+  public String numThreadsTipText() {
+    return UFDLParallelRequests.numThreadsTipText();
+  }
+
+  /**
+   * Returns a quick info about the actor, which will be displayed in the GUI.
+   *
+   * @return		null if no info available, otherwise short string
+   */
+  @Override
+  public String getQuickInfo() {
+    String	result;
+
+    result = QuickInfoHelper.toString(this, "maskFiles", m_MaskFiles, "masks: ");
+    result += QuickInfoHelper.toString(this, "maskType", m_MaskType, ", type: ");
+    result += QuickInfoHelper.toString(this, "labelMapping", m_LabelMapping, ", mapping: ");
+    result += QuickInfoHelper.toString(this, "numThreads", m_NumThreads, ", threads: ");
+
+    return result;
+  }
+
+  /**
+   * Returns the classes that the transformer generates.
+   *
+   * @return		the classes
+   */
+  @Override
+  public Class[] generates() {
+    return new Class[]{Dataset.class};
+  }
+
+  /**
+   * Generates the image name from the mask file.
+   *
+   * @param maskFile	the mask file
+   * @return		the image name
+   */
+  protected String toImageName(File maskFile) {
+    String	result;
+
+    result = m_ImageNameExtraction.extract(maskFile);
+    if (!m_ImageExtension.isEmpty()) {
+      if (result.lastIndexOf('.') > result.lastIndexOf('/'))
+	result = result.substring(0, result.lastIndexOf('.'));
+      result += m_ImageExtension;
+    }
+
+    return result;
+  }
+
+  /**
+   * Splits the mask into binary layers, using a single pass over the pixels.
+   *
+   * @param mask	the combined mask
+   * @param mapping	the mapping of pixel value to layer index
+   * @param numLayers	the number of layers
+   * @param counts	for storing the number of pixels per layer
+   * @return		the layers
+   */
+  protected BufferedImage[] split(BufferedImage mask, Map<Integer,Integer> mapping, int numLayers, int[] counts) {
+    BufferedImage[]	result;
+    WritableRaster[]	rasters;
+    int[]		row;
+    int			x;
+    int			y;
+    int			i;
+    Integer		layer;
+
+    result  = new BufferedImage[numLayers];
+    rasters = new WritableRaster[numLayers];
+    for (i = 0; i < numLayers; i++) {
+      result[i]  = new BufferedImage(mask.getWidth(), mask.getHeight(), BufferedImage.TYPE_BYTE_BINARY);
+      rasters[i] = result[i].getRaster();
+    }
+
+    row = new int[mask.getWidth()];
+    for (y = 0; y < mask.getHeight(); y++) {
+      row = m_MaskType.getRow(mask, y, row);
+      for (x = 0; x < row.length; x++) {
+	layer = mapping.get(row[x]);
+	if (layer == null)
+	  continue;
+	rasters[layer].setSample(x, y, 0, 1);
+	counts[layer]++;
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Splits the mask and uploads the layers.
+   *
+   * @param action	the action to use
+   * @param dataset	the dataset to update
+   * @param maskFile	the mask to process
+   * @param mapping	the mapping of pixel value to layer index
+   * @param labels	the labels of the layers
+   * @return		the number of uploaded layers
+   * @throws Exception	if processing fails
+   */
+  protected int process(ImageSegmentationDatasets action, Dataset dataset, File maskFile, Map<Integer,Integer> mapping, List<String> labels) throws Exception {
+    int			result;
+    BufferedImage	mask;
+    BufferedImage[]	layers;
+    int[]		counts;
+    String		name;
+    File		tmpFile;
+    int			i;
+
+    result = 0;
+    mask   = ImageIO.read(maskFile);
+    if (mask == null)
+      throw new IllegalStateException("Failed to read mask: " + maskFile);
+
+    name   = toImageName(maskFile);
+    counts = new int[labels.size()];
+    layers = split(mask, mapping, labels.size(), counts);
+    mask   = null;
+
+    for (i = 0; i < layers.length; i++) {
+      if (m_SkipEmptyLayers && (counts[i] == 0))
+	continue;
+      // ufdl4j only supports uploading layers from files
+      tmpFile = File.createTempFile("ufdl-layer-", ".png");
+      try {
+	ImageIO.write(layers[i], "png", tmpFile);
+	layers[i] = null;
+	if (!action.setLayer(dataset.getPK(), name, labels.get(i), tmpFile))
+	  throw new IllegalStateException("Failed to set layer '" + labels.get(i) + "' for image '" + name + "'!");
+	result++;
+      }
+      finally {
+	if (!tmpFile.delete())
+	  tmpFile.deleteOnExit();
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Transforms the input data.
+   *
+   * @param dataset	the input data
+   * @param errors 	for collecting errors
+   * @return 		the transformed data
+   */
+  @Override
+  protected Object doTransform(final Dataset dataset, MessageCollection errors) {
+    final ImageSegmentationDatasets	action;
+    final Map<Integer,Integer>		mapping;
+    final List<String>			labels;
+    List<Request<Integer>>		requests;
+    int					value;
+
+    try {
+      action = getDatasetsAction();
+    }
+    catch (Exception e) {
+      errors.add("Failed to instantiate " + Utils.classToString(ImageSegmentationDatasets.class) + " action!", e);
+      return null;
+    }
+
+    // mapping
+    labels  = new ArrayList<>();
+    mapping = new HashMap<>();
+    for (BaseKeyValuePair pair: m_LabelMapping) {
+      try {
+	value = m_MaskType.parseKey(pair.getPairKey());
+      }
+      catch (Exception e) {
+	errors.add("Failed to parse key of label mapping: " + pair, e);
+	return null;
+      }
+      if (!labels.contains(pair.getPairValue()))
+	labels.add(pair.getPairValue());
+      mapping.put(value, labels.indexOf(pair.getPairValue()));
+    }
+    if (labels.isEmpty()) {
+      errors.add("No label mapping defined!");
+      return null;
+    }
+
+    requests = new ArrayList<>();
+    for (final PlaceholderFile maskFile: m_MaskFiles) {
+      requests.add(new Request<Integer>() {
+	@Override
+	public String getDescription() {
+	  return "set layers from mask '" + maskFile + "' in dataset: " + dataset;
+	}
+	@Override
+	public Integer execute() throws Exception {
+	  return process(action, dataset, maskFile.getAbsoluteFile(), mapping, labels);
+	}
+      });
+    }
+    UFDLParallelRequests.execute(requests, m_NumThreads, errors);
+
+    return dataset;
+  }
+}